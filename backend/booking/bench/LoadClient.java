@@ -0,0 +1,87 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Minimal closed-loop HTTP load generator, run straight from source:
+ *
+ *   java bench/LoadClient.java http://localhost:8080 200 30 /api/hotels /api/rooms
+ *
+ * Each of the N clients picks a random path, sends a GET, waits for the reply and
+ * repeats until the duration is up. Prints throughput and latency percentiles.
+ */
+public class LoadClient {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("usage: LoadClient <baseUrl> <clients> <seconds> <path>...");
+            System.exit(1);
+        }
+        String baseUrl = args[0];
+        int clients = Integer.parseInt(args[1]);
+        long seconds = Long.parseLong(args[2]);
+        List<String> paths = List.of(args).subList(3, args.length);
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        ConcurrentHashMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        LongAdder errors = new LongAdder();
+
+        long start = System.nanoTime();
+        long end = start + Duration.ofSeconds(seconds).toNanos();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                pool.submit(() -> {
+                    List<Long> local = new ArrayList<>();
+                    while (System.nanoTime() < end) {
+                        String path = paths.get(ThreadLocalRandom.current().nextInt(paths.size()));
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            statuses.computeIfAbsent(response.statusCode(), k -> new LongAdder()).increment();
+                            local.add(System.nanoTime() - begin);
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                    }
+                    latencies.addAll(local);
+                    return null;
+                });
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.printf("requests=%d errors=%d elapsed=%.1fs throughput=%.1f req/s%n",
+                sorted.size(), errors.sum(), elapsed, sorted.size() / elapsed);
+        System.out.printf("p50=%.1fms p90=%.1fms p99=%.1fms p999=%.1fms max=%.1fms%n",
+                pct(sorted, 0.50), pct(sorted, 0.90), pct(sorted, 0.99), pct(sorted, 0.999), pct(sorted, 1.0));
+        System.out.println("status codes: " + statuses);
+    }
+
+    private static double pct(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int idx = (int) Math.min(sorted.size() - 1, Math.max(0, Math.ceil(p * sorted.size()) - 1));
+        return sorted.get(idx) / 1e6;
+    }
+}
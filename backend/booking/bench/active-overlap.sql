@@ -0,0 +1,73 @@
+-- The overlap query on a booking table that is mostly history: 1,000,000
+-- bookings over 2000 rooms, of which 95% are CANCELLED or CHECKED_OUT and only
+-- the last 25 stays of each room are still active. Compares the room_id index
+-- plus a status filter (the pre-V9 shape) with the active_room_id index.
+-- Run against a scratch schema that Flyway has migrated (it inserts test data):
+--
+--   mysql -h $MYSQLHOST -u $MYSQLUSER -p scratch_db < bench/active-overlap.sql
+
+SET @rooms = 2000;
+SET SESSION cte_max_recursion_depth = 10000;
+
+INSERT INTO hotel (id, name, city) VALUES (900000001, 'Bench Hotel', 'Bench City');
+
+INSERT INTO room (id, room_number, type, price, hotel_id)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < @rooms)
+SELECT 900000000 + n, CONCAT('B', n), 'STANDARD', 100, 900000001 FROM seq;
+
+-- 500 consecutive 3-night stays per room, ending around now. Stays 1-475 are history:
+-- every 4th one cancelled (5), the rest checked out (4). Stays 476-500 are CONFIRMED (2).
+INSERT INTO booking (id, room_id, hotel_id, check_in_date, check_out_date, total_amount, status, booking_time)
+SELECT 900000000 + (r.n - 1) * 500 + s.n,
+       900000000 + r.n,
+       900000001,
+       DATE_ADD(CURDATE(), INTERVAL (s.n - 476) * 3 DAY),
+       DATE_ADD(CURDATE(), INTERVAL (s.n - 476) * 3 + 3 DAY),
+       300,
+       CASE WHEN s.n > 475 THEN 2 WHEN s.n % 4 = 0 THEN 5 ELSE 4 END,
+       NOW()
+  FROM (WITH RECURSIVE a (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM a WHERE n < @rooms) SELECT n FROM a) r
+ CROSS JOIN (WITH RECURSIVE b (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM b WHERE n < 500) SELECT n FROM b) s;
+
+ANALYZE TABLE booking;
+
+SET @in  = DATE_ADD(CURDATE(), INTERVAL 40 DAY);
+SET @out = DATE_ADD(CURDATE(), INTERVAL 43 DAY);
+
+-- Before: the range on idx_booking_room_dates walks the index entry of every
+-- earlier stay of the room (check_in_date < @out), ~490 of them, before the
+-- dates and status narrow it down.
+EXPLAIN ANALYZE
+SELECT CASE WHEN COUNT(b.id) > 0 THEN 1 ELSE 0 END
+  FROM booking b FORCE INDEX (idx_booking_room_dates)
+ WHERE b.room_id = 900001000
+   AND b.status IN (1, 2, 3)
+   AND b.check_in_date  < @out
+   AND b.check_out_date > @in;
+
+-- After: same SQL Hibernate generates for existsByRoomAndDateRange. Expect
+-- "Index range scan on b using idx_booking_active_room_dates" over the ~15
+-- active stays of the room only, no table lookups.
+EXPLAIN ANALYZE
+SELECT CASE WHEN COUNT(b.id) > 0 THEN 1 ELSE 0 END
+  FROM booking b
+ WHERE b.active_room_id = 900001000
+   AND b.check_in_date  < @out
+   AND b.check_out_date > @in;
+
+-- Booking modal listing (findActiveByRoom): upcoming active stays of one room
+EXPLAIN ANALYZE
+SELECT b.id, b.check_in_date, b.check_out_date
+  FROM booking b
+ WHERE b.active_room_id = 900001000
+   AND b.check_out_date > CURDATE()
+ ORDER BY b.check_in_date;
+
+-- Index sizes: the active index keeps an entry per row (NULL for inactive ones)
+SELECT index_name, ROUND(stat_value * @@innodb_page_size / 1024 / 1024, 1) AS size_mb
+  FROM mysql.innodb_index_stats
+ WHERE database_name = DATABASE() AND table_name = 'booking' AND stat_name = 'size';
+
+DELETE FROM booking WHERE hotel_id = 900000001;
+DELETE FROM room WHERE hotel_id = 900000001;
+DELETE FROM hotel WHERE id = 900000001;
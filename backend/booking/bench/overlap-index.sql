@@ -0,0 +1,48 @@
+-- Shows the room/date overlap query served by an index range scan on a
+-- million-row booking table. Run against a scratch schema that Flyway has
+-- migrated (it inserts test data):
+--
+--   mysql -h $MYSQLHOST -u $MYSQLUSER -p scratch_db < bench/overlap-index.sql
+
+SET @rooms = 2000;
+SET SESSION cte_max_recursion_depth = 10000;
+
+INSERT INTO hotel (id, name, city) VALUES (900000001, 'Bench Hotel', 'Bench City');
+
+INSERT INTO room (id, room_number, type, price, hotel_id)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < @rooms)
+SELECT 900000000 + n, CONCAT('B', n), 'STANDARD', 100, 900000001 FROM seq;
+
+-- 1,000,000 bookings: 500 consecutive 3-night stays for each of the 2000 rooms
+INSERT INTO booking (id, room_id, hotel_id, check_in_date, check_out_date, total_amount, status, booking_time)
+SELECT 900000000 + (r.n - 1) * 500 + s.n,
+       900000000 + r.n,
+       900000001,
+       DATE_ADD('2020-01-01', INTERVAL s.n * 3 DAY),
+       DATE_ADD('2020-01-01', INTERVAL s.n * 3 + 3 DAY),
+       300, 2, NOW()  -- CONFIRMED
+  FROM (WITH RECURSIVE a (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM a WHERE n < @rooms) SELECT n FROM a) r
+ CROSS JOIN (WITH RECURSIVE b (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM b WHERE n < 500) SELECT n FROM b) s;
+
+ANALYZE TABLE booking;
+
+-- Same room/date shape as existsByRoomAndDateRange before V9 (see active-overlap.sql for the current one).
+-- Expect "Index range scan on b using idx_booking_room_dates" and a handful of rows examined.
+EXPLAIN ANALYZE
+SELECT CASE WHEN COUNT(b.id) > 0 THEN 1 ELSE 0 END
+  FROM booking b
+ WHERE b.room_id = 900001000
+   AND b.check_in_date  < '2021-06-10'
+   AND b.check_out_date > '2021-06-05';
+
+-- For comparison, the same query with the index ignored (full scan of the table)
+EXPLAIN ANALYZE
+SELECT CASE WHEN COUNT(b.id) > 0 THEN 1 ELSE 0 END
+  FROM booking b USE INDEX ()
+ WHERE b.room_id = 900001000
+   AND b.check_in_date  < '2021-06-10'
+   AND b.check_out_date > '2021-06-05';
+
+DELETE FROM booking WHERE hotel_id = 900000001;
+DELETE FROM room WHERE hotel_id = 900000001;
+DELETE FROM hotel WHERE id = 900000001;
@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+# Rows per second for room inserts: N single POST /api/rooms calls (one INSERT
+# round-trip each, the old IDENTITY path) against one POST /api/rooms/batch of N
+# rooms (pooled ids + JDBC batching). Needs a running app and an admin token:
+#
+#   TOKEN=<admin jwt> HOTEL_ID=1 ROWS=500 bench/room-batch.sh
+set -euo pipefail
+
+BASE_URL=${BASE_URL:-http://localhost:8080}
+ROWS=${ROWS:-500}
+: "${TOKEN:?admin JWT required}"
+: "${HOTEL_ID:?hotel id required}"
+RUN=$(date +%s)
+
+room_json() {
+    printf '{"roomNumber":"%s","type":"DELUXE","price":120.0,"available":true,"hotelId":%s}' "$1" "$HOTEL_ID"
+}
+
+rate() {
+    awk -v rows="$1" -v ns="$2" 'BEGIN { printf "%d rows in %.2fs = %.1f rows/s\n", rows, ns / 1e9, rows / (ns / 1e9) }'
+}
+
+echo "single inserts:"
+start=$(date +%s%N)
+for i in $(seq 1 "$ROWS"); do
+    curl -sf -o /dev/null -X POST "$BASE_URL/api/rooms" \
+        -H "Authorization: Bearer $TOKEN" -H 'Content-Type: application/json' \
+        -d "$(room_json "S$RUN-$i")"
+done
+rate "$ROWS" $(( $(date +%s%N) - start ))
+
+echo "batch insert:"
+body="["
+for i in $(seq 1 "$ROWS"); do
+    [ "$i" -gt 1 ] && body+=","
+    body+=$(room_json "B$RUN-$i")
+done
+body+="]"
+start=$(date +%s%N)
+curl -sf -o /dev/null -X POST "$BASE_URL/api/rooms/batch" \
+    -H "Authorization: Bearer $TOKEN" -H 'Content-Type: application/json' \
+    -d "$body"
+rate "$ROWS" $(( $(date +%s%N) - start ))
@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Time-to-ready for each startup mode, measured from process launch until
+# /actuator/health/readiness answers 200 (i.e. after the warm-up runner).
+# Needs the usual MYSQL* / JWT_SECRET / PAYMENT_WEBHOOK_SECRET environment variables:
+#
+#   RUNS=5 bench/startup.sh
+#
+# Modes:
+#   default   plain jar, default profile
+#   fast      "fast" profile: lazy init, deferred repositories, no schema validation
+#   fast-cds  fast + Class Data Sharing archive from a training run
+#   fast-aot  fast + CDS + Spring AOT (jar built with -Pfast-startup)
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${RUNS:-5}
+PORT=${PORT:-18081}
+WORK=target/startup-bench
+
+mvn -B -q -Pfast-startup package -DskipTests
+JAR=$(ls target/booking-*.jar | grep -v plain | head -n1)
+
+# CDS needs the exploded layout (a thin jar plus lib/) so class paths match between runs
+rm -rf "$WORK"
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK"
+APP="$WORK/$(basename "$JAR")"
+
+# Training run: starts the context, exits right after refresh and dumps the loaded classes
+java -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dspring.context.exit=onRefresh \
+    -Dspring.aot.enabled=true -Dspring.profiles.active=fast \
+    -jar "$APP" > "$WORK/training.log" 2>&1
+
+now_ms() { date +%s%3N; }
+
+measure() {
+    local mode=$1; shift
+    local total=0
+    for run in $(seq 1 "$RUNS"); do
+        local start pid ready
+        start=$(now_ms)
+        java "$@" -jar "$APP" --server.port="$PORT" --spring.jpa.show-sql=false \
+            > "$WORK/$mode-$run.log" 2>&1 &
+        pid=$!
+        until curl -sf -o /dev/null "http://localhost:$PORT/actuator/health/readiness"; do
+            if ! kill -0 "$pid" 2>/dev/null; then
+                echo "$mode: process exited, see $WORK/$mode-$run.log" >&2
+                exit 1
+            fi
+            sleep 0.05
+        done
+        ready=$(( $(now_ms) - start ))
+        total=$(( total + ready ))
+        kill "$pid"
+        wait "$pid" 2>/dev/null || true
+    done
+    printf '%-9s avg time to ready over %d runs: %d ms\n' "$mode" "$RUNS" $(( total / RUNS ))
+}
+
+measure default
+measure fast     -Dspring.profiles.active=fast
+measure fast-cds -Dspring.profiles.active=fast -XX:SharedArchiveFile="$WORK/app.jsa"
+measure fast-aot -Dspring.profiles.active=fast -XX:SharedArchiveFile="$WORK/app.jsa" -Dspring.aot.enabled=true
@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Compares platform-thread and virtual-thread request handling under the same load.
+# Needs the usual MYSQL* / JWT_SECRET / PAYMENT_WEBHOOK_SECRET environment variables and a built jar:
+#
+#   mvn -B package -DskipTests
+#   CLIENTS=400 SECONDS=30 bench/virtual-threads.sh
+#
+# Pinning is traced with -Djdk.tracePinnedThreads=short; any stack printed to
+# target/bench-virtual.log points at a synchronized block holding a carrier thread.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAR=$(ls target/booking-*.jar | grep -v plain | head -n1)
+PORT=${PORT:-18080}
+CLIENTS=${CLIENTS:-400}
+SECONDS_PER_RUN=${SECONDS:-30}
+PATHS=${PATHS:-"/api/hotels /api/rooms"}
+
+run_mode() {
+    local mode=$1 virtual=$2
+    echo "=== $mode (spring.threads.virtual.enabled=$virtual) ==="
+    java -Djdk.tracePinnedThreads=short -jar "$JAR" \
+        --server.port="$PORT" \
+        --spring.threads.virtual.enabled="$virtual" \
+        --spring.jpa.show-sql=false \
+        --limiter.enabled=false \
+        > "target/bench-$mode.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" EXIT
+
+    for _ in $(seq 1 120); do
+        curl -sf "http://localhost:$PORT/api/hotels" > /dev/null && break
+        sleep 1
+    done
+
+    # Short warm-up so both modes are measured with JIT-compiled code
+    java bench/LoadClient.java "http://localhost:$PORT" 20 10 $PATHS > /dev/null
+    java bench/LoadClient.java "http://localhost:$PORT" "$CLIENTS" "$SECONDS_PER_RUN" $PATHS
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+run_mode platform false
+run_mode virtual true
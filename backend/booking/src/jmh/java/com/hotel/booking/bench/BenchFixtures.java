@@ -0,0 +1,114 @@
+package com.hotel.booking.bench;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.hotel.booking.model.Booking;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Payment;
+import com.hotel.booking.model.PaymentStatus;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.model.User;
+import com.hotel.booking.monitoring.BookingFunnelMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Entity graphs and repository stubs shared by the benchmarks. Nothing here
+ * touches a database; repositories are JDK proxies answering from memory.
+ */
+final class BenchFixtures {
+
+    private BenchFixtures() {
+    }
+
+    static Hotel hotel(long id, int roomCount) {
+        Hotel hotel = new Hotel();
+        hotel.setId(id);
+        hotel.setName("Hotel " + id);
+        hotel.setAdress(id + " Main Street");
+        hotel.setCity("Springfield");
+        hotel.setState("IL");
+        hotel.setZipcode("62701");
+        hotel.setContact("+1-555-0100");
+        List<Room> rooms = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            rooms.add(room(id * 100_000 + i, hotel));
+        }
+        hotel.setRooms(rooms);
+        return hotel;
+    }
+
+    static Room room(long id, Hotel hotel) {
+        Room room = new Room();
+        room.setId(id);
+        room.setRoomNumber(String.valueOf(100 + id % 1000));
+        room.setType(id % 3 == 0 ? "SUITE" : "DELUXE");
+        room.setPrice(149.0 + id % 50);
+        room.setHotelId(hotel);
+        return room;
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Guest " + id);
+        user.setEmail("guest" + id + "@example.com");
+        user.setPassword("secret");
+        user.setRole("ROLE_USER");
+        return user;
+    }
+
+    static Booking booking(long id, User user, Hotel hotel, Room room) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setUserId(user);
+        booking.setHotelId(hotel);
+        booking.setRoomId(room);
+        booking.setCheckInDate(LocalDate.now().plusDays(10));
+        booking.setCheckOutDate(LocalDate.now().plusDays(13));
+        booking.setTotalAmount(447.0);
+        booking.setStatus(BookingStatus.CONFIRMED);
+        booking.setBookingTime(LocalDateTime.now());
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setAmount(447.0);
+        payment.setPaymentMethod("CARD");
+        payment.setPaymentStatus(PaymentStatus.CAPTURED);
+        payment.setPaymentTime(LocalDateTime.now());
+        payment.setBooking(booking);
+        booking.setPayment(payment);
+        return booking;
+    }
+
+    static BookingFunnelMetrics funnelMetrics() {
+        return new BookingFunnelMetrics(new SimpleMeterRegistry(), 30, 10_000);
+    }
+
+    /**
+     * Stub for a Spring Data repository interface: findById returns the given
+     * entity, boolean queries return false and everything else returns null.
+     */
+    @SuppressWarnings("unchecked")
+    static <R> R repository(Class<R> type, Object entity) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "findById":
+                    return Optional.ofNullable(entity);
+                case "toString":
+                    return "stub " + type.getSimpleName();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return method.getReturnType() == boolean.class ? false : null;
+            }
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package com.hotel.booking.bench;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.hotel.booking.dto.BookingDTO;
+import com.hotel.booking.dto.Response;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.repository.BookingRepository;
+import com.hotel.booking.repository.HotelRepository;
+import com.hotel.booking.repository.PaymentRepository;
+import com.hotel.booking.repository.RoomRepository;
+import com.hotel.booking.repository.UserRepository;
+import com.hotel.booking.service.impl.BookingService;
+
+/**
+ * The in-process part of initiateBooking: date validation, the overlap check
+ * call (answered by a stub) and the nights x price calculation and DTO assembly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class InitiateBookingBenchmark {
+
+    private BookingService bookingService;
+    private BookingDTO request;
+
+    @Setup
+    public void setUp() {
+        Hotel hotel = BenchFixtures.hotel(1, 1);
+        Room room = hotel.getRooms().get(0);
+
+        bookingService = new BookingService();
+        ReflectionTestUtils.setField(bookingService, "userRepo",
+                BenchFixtures.repository(UserRepository.class, BenchFixtures.user(1)));
+        ReflectionTestUtils.setField(bookingService, "roomRepo", BenchFixtures.repository(RoomRepository.class, room));
+        ReflectionTestUtils.setField(bookingService, "hotelRepo", BenchFixtures.repository(HotelRepository.class, hotel));
+        ReflectionTestUtils.setField(bookingService, "bookingRepo", BenchFixtures.repository(BookingRepository.class, null));
+        ReflectionTestUtils.setField(bookingService, "paymentRepo", BenchFixtures.repository(PaymentRepository.class, null));
+        ReflectionTestUtils.setField(bookingService, "funnelMetrics", BenchFixtures.funnelMetrics());
+
+        request = new BookingDTO();
+        request.setHotelId(hotel.getId());
+        request.setRoomId(room.getId());
+        request.setCheckInDate(LocalDate.now().plusDays(30));
+        request.setCheckOutDate(LocalDate.now().plusDays(34));
+
+        // A missing collaborator turns every call into the error path; measure the real one or nothing
+        Response check = bookingService.initiateBooking(request, 1L);
+        if (check.getStatusCode() != 200) {
+            throw new IllegalStateException("initiateBooking answered " + check.getStatusCode() + ": " + check.getMessage());
+        }
+    }
+
+    @Benchmark
+    public Response initiateBooking() {
+        return bookingService.initiateBooking(request, 1L);
+    }
+}
@@ -0,0 +1,56 @@
+package com.hotel.booking.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.hotel.booking.security.JWTUtils;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JWTUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JWTUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret",
+                "bench-secret-bench-secret-bench-secret-bench-secret-bench-secret-0123456789");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86_400_000);
+        token = jwtUtils.generateToken("guest1@example.com", "ROLE_USER");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken("guest1@example.com", "ROLE_USER");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtils.validateToken(token);
+    }
+
+    // What JwtAuthenticationFilter does per request: subject + role + validate
+    @Benchmark
+    public boolean authenticateRequest() {
+        return jwtUtils.getUsernameFromToken(token) != null
+                && jwtUtils.getRoleFromToken(token) != null
+                && jwtUtils.validateToken(token);
+    }
+}
@@ -0,0 +1,52 @@
+package com.hotel.booking.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hotel.booking.dto.BookingDTO;
+import com.hotel.booking.dto.HotelDTO;
+import com.hotel.booking.model.Booking;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.utils.Utils;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    @Param({ "10", "500", "5000" })
+    private int roomCount;
+
+    private Hotel hotel;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        hotel = BenchFixtures.hotel(1, roomCount);
+        booking = BenchFixtures.booking(1, BenchFixtures.user(1), hotel, hotel.getRooms().get(0));
+    }
+
+    @Benchmark
+    public HotelDTO mapHotelEntityToDTO() {
+        return Utils.mapHotelEntityToDTO(hotel);
+    }
+
+    @Benchmark
+    public BookingDTO mapBookingToDetailedDTO() {
+        return Utils.mapBookingToDetailedDTO(booking);
+    }
+}
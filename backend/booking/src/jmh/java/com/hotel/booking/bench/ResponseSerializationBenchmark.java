@@ -0,0 +1,76 @@
+package com.hotel.booking.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.dto.BookingDTO;
+import com.hotel.booking.dto.HotelDTO;
+import com.hotel.booking.dto.Response;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.utils.Utils;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ResponseSerializationBenchmark {
+
+    @Param({ "1", "50" })
+    private int hotelCount;
+
+    private ObjectMapper objectMapper;
+    private Response hotelsResponse;
+    private Response bookingsResponse;
+
+    @Setup
+    public void setUp() {
+        // Same builder Spring Boot uses for the MVC message converter
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<HotelDTO> hotels = new ArrayList<>();
+        List<BookingDTO> bookings = new ArrayList<>();
+        for (int i = 1; i <= hotelCount; i++) {
+            Hotel hotel = BenchFixtures.hotel(i, 20);
+            hotels.add(Utils.mapHotelEntityToDTO(hotel));
+            bookings.add(Utils.mapBookingToDetailedDTO(
+                    BenchFixtures.booking(i, BenchFixtures.user(i), hotel, hotel.getRooms().get(0))));
+        }
+        hotelsResponse = new Response();
+        hotelsResponse.setStatusCode(200);
+        hotelsResponse.setMessage("Hotels retrieved");
+        hotelsResponse.setHotelList(hotels);
+
+        bookingsResponse = new Response();
+        bookingsResponse.setStatusCode(200);
+        bookingsResponse.setMessage("Bookings retrieved");
+        bookingsResponse.setBookingList(bookings);
+    }
+
+    @Benchmark
+    public byte[] serializeHotelList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(hotelsResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeBookingList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookingsResponse);
+    }
+}
@@ -0,0 +1,277 @@
+package com.hotel.booking.analytics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.dto.BookingDTO;
+import com.hotel.booking.model.AnalyticsBooking;
+import com.hotel.booking.model.AnalyticsPayment;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.DailyStat;
+import com.hotel.booking.model.DailyStatId;
+import com.hotel.booking.model.PaymentStatus;
+import com.hotel.booking.outbox.OutboxMessage;
+import com.hotel.booking.outbox.OutboxSubscriber;
+import com.hotel.booking.repository.AnalyticsBookingRepository;
+import com.hotel.booking.repository.AnalyticsPaymentRepository;
+import com.hotel.booking.repository.BookingFacts;
+import com.hotel.booking.repository.DailyStatRepository;
+import com.hotel.booking.repository.PaymentFacts;
+import com.hotel.booking.repository.RoomRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps analytics_daily up to date from booking and payment outbox events.
+ *
+ * Every booking's current contribution (hotel, room type, nights, nightly
+ * revenue) is kept in analytics_booking, so any change is applied as "take
+ * out the old, put in the new" and replaying an event changes nothing; events
+ * are applied only if their aggregate version is newer than the last one seen
+ * for the booking (outbox ids come from per-instance blocks and can go back). Payments are counted once on
+ * capture and once on refund, tracked in analytics_payment. Deltas are summed
+ * in memory first and each touched aggregate row is then locked and written
+ * once, in key order so concurrent writers cannot deadlock. The guest sketch
+ * only grows: a cancelled stay's guest stays counted until a reset backfill.
+ *
+ * Runs in the relay's transaction; AnalyticsBackfill feeds the same apply
+ * methods from the tables.
+ */
+@Component
+public class AnalyticsAggregator implements OutboxSubscriber {
+
+    static final String UNKNOWN_ROOM_TYPE = "UNKNOWN";
+
+    private static final Set<PaymentStatus> CAPTURED =
+            EnumSet.of(PaymentStatus.CAPTURED, PaymentStatus.REFUND_PENDING, PaymentStatus.REFUNDED);
+
+    private static final Comparator<DailyStatId> KEY_ORDER = Comparator.comparing(DailyStatId::getStatDate)
+            .thenComparing(DailyStatId::getHotelId)
+            .thenComparing(DailyStatId::getRoomType);
+
+    @Autowired
+    private DailyStatRepository dailyStatRepository;
+
+    @Autowired
+    private AnalyticsBookingRepository analyticsBookingRepository;
+
+    @Autowired
+    private AnalyticsPaymentRepository analyticsPaymentRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void onEvent(OutboxMessage message) throws Exception {
+        switch (message.eventType()) {
+            case OutboxMessage.BOOKING_CONFIRMED, OutboxMessage.BOOKING_CANCELLED, OutboxMessage.BOOKING_UPDATED -> {
+                BookingDTO booking = objectMapper.readValue(message.payload(), BookingDTO.class);
+                applyBookings(List.of(facts(booking, message.roomId())), message.aggregateVersion());
+            }
+            case OutboxMessage.BOOKING_DELETED -> applyBookings(List.of(new BookingFacts(message.aggregateId(),
+                    null, null, null, null, null, null, null)), message.aggregateVersion());
+            case OutboxMessage.PAYMENT_CAPTURED, OutboxMessage.PAYMENT_REFUNDED ->
+                    applyPayments(List.of(objectMapper.readValue(message.payload(), PaymentFacts.class)));
+            default -> {
+            }
+        }
+    }
+
+    // version null (backfill) applies unconditionally; otherwise versions not newer than the last one seen are skipped
+    public void applyBookings(List<BookingFacts> bookings, Long version) {
+        Map<Long, AnalyticsBooking> ledger = analyticsBookingRepository
+                .findAllById(bookings.stream().map(BookingFacts::bookingId).toList()).stream()
+                .collect(Collectors.toMap(AnalyticsBooking::getBookingId, Function.identity()));
+        Map<DailyStatId, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        for (BookingFacts facts : bookings) {
+            AnalyticsBooking current = ledger.get(facts.bookingId());
+            if (current != null && version != null && current.getLastVersion() != null
+                    && version <= current.getLastVersion()) {
+                continue;
+            }
+            AnalyticsBooking next = contribution(facts);
+            if (current != null && sameContribution(current, next)) {
+                if (version != null) {
+                    current.setLastVersion(version);
+                }
+                continue;
+            }
+            if (current != null) {
+                addNights(deltas, current, -1);
+            }
+            addNights(deltas, next, 1);
+            next.setLastVersion(version != null ? version : current != null ? current.getLastVersion() : null);
+            if (current == null) {
+                entityManager.persist(next);
+            } else {
+                entityManager.merge(next);
+            }
+        }
+        flush(deltas);
+    }
+
+    public void applyPayments(List<PaymentFacts> payments) {
+        Map<Long, AnalyticsPayment> ledger = analyticsPaymentRepository
+                .findAllById(payments.stream().map(PaymentFacts::paymentId).toList()).stream()
+                .collect(Collectors.toMap(AnalyticsPayment::getPaymentId, Function.identity()));
+        Map<DailyStatId, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        for (PaymentFacts facts : payments) {
+            if (facts.hotelId() == null || facts.status() == null || !CAPTURED.contains(facts.status())) {
+                continue;
+            }
+            AnalyticsPayment counted = ledger.get(facts.paymentId());
+            boolean isNew = counted == null;
+            if (isNew) {
+                counted = new AnalyticsPayment();
+                counted.setPaymentId(facts.paymentId());
+                counted.setHotelId(facts.hotelId());
+                counted.setRoomType(roomType(facts.roomType()));
+                ledger.put(facts.paymentId(), counted);
+            }
+            if (counted.getCapturedAmount() == null && facts.amount() != null && facts.capturedOn() != null) {
+                counted.setCapturedAmount(facts.amount());
+                counted.setCapturedOn(facts.capturedOn());
+                delta(deltas, facts.capturedOn(), counted).paymentsCaptured += facts.amount();
+            }
+            if (counted.getRefundedAmount() == null && facts.status() == PaymentStatus.REFUNDED
+                    && facts.refundAmount() != null && facts.refundedOn() != null) {
+                counted.setRefundedAmount(facts.refundAmount());
+                counted.setRefundedOn(facts.refundedOn());
+                delta(deltas, facts.refundedOn(), counted).refunds += facts.refundAmount();
+            }
+            if (isNew) {
+                entityManager.persist(counted);
+            }
+        }
+        flush(deltas);
+    }
+
+    private BookingFacts facts(BookingDTO booking, Long roomId) {
+        Long hotelId = booking.getHotelId();
+        String roomType = booking.getRoomType();
+        if (hotelId == null && roomId != null) {
+            // Events written before payloads carried the hotel id
+            var room = roomRepository.findById(roomId).orElse(null);
+            if (room != null && room.getHotelId() != null) {
+                hotelId = room.getHotelId().getId();
+                roomType = room.getType();
+            }
+        }
+        return new BookingFacts(booking.getId(), hotelId, roomType, booking.getUserId(), booking.getCheckInDate(),
+                booking.getCheckOutDate(), booking.getTotalAmount(), booking.getStatus());
+    }
+
+    // What a booking in this state contributes; no dates when it contributes nothing
+    private static AnalyticsBooking contribution(BookingFacts facts) {
+        AnalyticsBooking contribution = new AnalyticsBooking();
+        contribution.setBookingId(facts.bookingId());
+        BookingStatus status = facts.status();
+        if (status == null || !BookingStatus.PAID.contains(status) || facts.hotelId() == null
+                || facts.checkInDate() == null || facts.checkOutDate() == null
+                || !facts.checkOutDate().isAfter(facts.checkInDate())) {
+            return contribution;
+        }
+        long nights = facts.checkOutDate().toEpochDay() - facts.checkInDate().toEpochDay();
+        contribution.setHotelId(facts.hotelId());
+        contribution.setRoomType(roomType(facts.roomType()));
+        contribution.setUserId(facts.userId());
+        contribution.setCheckInDate(facts.checkInDate());
+        contribution.setCheckOutDate(facts.checkOutDate());
+        contribution.setNightlyRevenue(facts.totalAmount() == null ? 0.0 : facts.totalAmount() / nights);
+        return contribution;
+    }
+
+    private static boolean sameContribution(AnalyticsBooking a, AnalyticsBooking b) {
+        return Objects.equals(a.getHotelId(), b.getHotelId())
+                && Objects.equals(a.getRoomType(), b.getRoomType())
+                && Objects.equals(a.getUserId(), b.getUserId())
+                && Objects.equals(a.getCheckInDate(), b.getCheckInDate())
+                && Objects.equals(a.getCheckOutDate(), b.getCheckOutDate())
+                && Objects.equals(a.getNightlyRevenue(), b.getNightlyRevenue());
+    }
+
+    private static void addNights(Map<DailyStatId, Delta> deltas, AnalyticsBooking contribution, int sign) {
+        if (contribution.getCheckInDate() == null) {
+            return;
+        }
+        for (LocalDate night = contribution.getCheckInDate(); night.isBefore(contribution.getCheckOutDate());
+                night = night.plusDays(1)) {
+            Delta delta = deltas.computeIfAbsent(
+                    new DailyStatId(night, contribution.getHotelId(), contribution.getRoomType()), key -> new Delta());
+            delta.roomsSold += sign;
+            delta.roomRevenue += sign * contribution.getNightlyRevenue();
+            if (sign > 0 && contribution.getUserId() != null) {
+                delta.guests.add(contribution.getUserId());
+            }
+        }
+    }
+
+    private static Delta delta(Map<DailyStatId, Delta> deltas, LocalDate day, AnalyticsPayment payment) {
+        return deltas.computeIfAbsent(new DailyStatId(day, payment.getHotelId(), payment.getRoomType()),
+                key -> new Delta());
+    }
+
+    private void flush(Map<DailyStatId, Delta> deltas) {
+        for (Map.Entry<DailyStatId, Delta> entry : deltas.entrySet()) {
+            Delta delta = entry.getValue();
+            if (delta.isEmpty()) {
+                continue;
+            }
+            DailyStat stat = dailyStatRepository.lockById(entry.getKey()).orElse(null);
+            boolean isNew = stat == null;
+            if (isNew) {
+                // A concurrent insert of the same key fails this transaction; the relay retries the event
+                stat = new DailyStat();
+                stat.setId(entry.getKey());
+            }
+            stat.setRoomsSold(stat.getRoomsSold() + delta.roomsSold);
+            stat.setRoomRevenue(stat.getRoomRevenue() + delta.roomRevenue);
+            stat.setPaymentsCaptured(stat.getPaymentsCaptured() + delta.paymentsCaptured);
+            stat.setRefunds(stat.getRefunds() + delta.refunds);
+            if (!delta.guests.isEmpty()) {
+                byte[] sketch = stat.getGuestSketch() != null ? stat.getGuestSketch().clone() : HyperLogLog.empty();
+                delta.guests.forEach(guest -> HyperLogLog.add(sketch, guest));
+                stat.setGuestSketch(sketch);
+            }
+            if (isNew) {
+                entityManager.persist(stat);
+            }
+        }
+    }
+
+    static String roomType(String roomType) {
+        return roomType == null || roomType.isBlank() ? UNKNOWN_ROOM_TYPE : roomType;
+    }
+
+    private static final class Delta {
+        private int roomsSold;
+        private double roomRevenue;
+        private double paymentsCaptured;
+        private double refunds;
+        private final Set<Long> guests = new HashSet<>();
+
+        boolean isEmpty() {
+            return roomsSold == 0 && roomRevenue == 0 && paymentsCaptured == 0 && refunds == 0 && guests.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.hotel.booking.analytics;
+
+import com.hotel.booking.dto.AnalyticsBackfillStatus;
+import com.hotel.booking.model.ArchivedBooking;
+import com.hotel.booking.repository.AnalyticsBookingRepository;
+import com.hotel.booking.repository.AnalyticsPaymentRepository;
+import com.hotel.booking.repository.ArchivedBookingRepository;
+import com.hotel.booking.repository.BookingFacts;
+import com.hotel.booking.repository.BookingRepository;
+import com.hotel.booking.repository.DailyStatRepository;
+import com.hotel.booking.repository.PaymentFacts;
+import com.hotel.booking.repository.PaymentRepository;
+import com.hotel.booking.sharding.ShardRouter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rebuilds the analytics aggregates from the booking, payment and archive
+ * tables, for the first rollout and after drift. Goes through the same
+ * ledger-diff code as the outbox events, one keyset chunk per transaction, so
+ * it can run while events keep arriving and re-running it is harmless. With
+ * reset the aggregate tables are emptied first, which also rebuilds the guest
+ * sketches; the dashboard reads partial numbers until it finishes.
+ */
+@Component
+public class AnalyticsBackfill implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsBackfill.class);
+
+    @Autowired
+    private AnalyticsAggregator aggregator;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private DailyStatRepository dailyStatRepository;
+
+    @Autowired
+    private AnalyticsBookingRepository analyticsBookingRepository;
+
+    @Autowired
+    private AnalyticsPaymentRepository analyticsPaymentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${analytics.backfill.chunk-size:500}")
+    private int chunkSize;
+
+    private final ReentrantLock running = new ReentrantLock();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "analytics-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile AnalyticsBackfillStatus status;
+
+    public AnalyticsBackfillStatus getStatus() {
+        return status;
+    }
+
+    // Starts in the background; false when a backfill is already running on this instance
+    public boolean start(boolean reset) {
+        if (running.isLocked()) {
+            return false;
+        }
+        worker.submit(() -> run(reset));
+        return true;
+    }
+
+    // Returns null when a backfill is already running on this instance
+    public AnalyticsBackfillStatus run(boolean reset) {
+        if (!running.tryLock()) {
+            return null;
+        }
+        AnalyticsBackfillStatus current = new AnalyticsBackfillStatus();
+        current.setRunning(true);
+        current.setReset(reset);
+        current.setStartedAt(LocalDateTime.now());
+        status = current;
+        try {
+            shardRouter.forEachShard(() -> {
+                if (reset) {
+                    transactionTemplate.executeWithoutResult(tx -> {
+                        dailyStatRepository.deleteAllInBatch();
+                        analyticsBookingRepository.deleteAllInBatch();
+                        analyticsPaymentRepository.deleteAllInBatch();
+                    });
+                }
+                scanBookings(current);
+                scanPayments(current);
+                scanArchive(current);
+            });
+            log.info("Analytics backfill finished: {} bookings, {} payments",
+                    current.getBookingsScanned(), current.getPaymentsScanned());
+        } catch (RuntimeException e) {
+            log.error("Analytics backfill failed", e);
+            current.setError(e.getMessage());
+        } finally {
+            current.setRunning(false);
+            current.setFinishedAt(LocalDateTime.now());
+            running.unlock();
+        }
+        return current;
+    }
+
+    private void scanBookings(AnalyticsBackfillStatus current) {
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<BookingFacts> chunk = transactionTemplate.execute(tx -> {
+                List<BookingFacts> facts = bookingRepository.scanFacts(from, PageRequest.of(0, chunkSize));
+                aggregator.applyBookings(facts, null);
+                return facts;
+            });
+            current.setBookingsScanned(current.getBookingsScanned() + chunk.size());
+            if (chunk.size() < chunkSize) {
+                return;
+            }
+            afterId = chunk.get(chunk.size() - 1).bookingId();
+        }
+    }
+
+    private void scanPayments(AnalyticsBackfillStatus current) {
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<PaymentFacts> chunk = transactionTemplate.execute(tx -> {
+                List<PaymentFacts> facts = paymentRepository.scanFacts(from, PageRequest.of(0, chunkSize));
+                aggregator.applyPayments(facts);
+                return facts;
+            });
+            current.setPaymentsScanned(current.getPaymentsScanned() + chunk.size());
+            if (chunk.size() < chunkSize) {
+                return;
+            }
+            afterId = chunk.get(chunk.size() - 1).paymentId();
+        }
+    }
+
+    private void scanArchive(AnalyticsBackfillStatus current) {
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<ArchivedBooking> chunk = transactionTemplate.execute(tx -> {
+                List<ArchivedBooking> archived = archivedBookingRepository.findByIdGreaterThanOrderById(
+                        from, PageRequest.of(0, chunkSize));
+                List<BookingFacts> bookings = new ArrayList<>(archived.size());
+                List<PaymentFacts> payments = new ArrayList<>();
+                for (ArchivedBooking a : archived) {
+                    bookings.add(new BookingFacts(a.getId(), a.getHotelId(), a.getRoomType(), a.getUserId(),
+                            a.getCheckInDate(), a.getCheckOutDate(), a.getTotalAmount(), a.getStatus()));
+                    if (a.getPaymentId() != null) {
+                        payments.add(new PaymentFacts(a.getPaymentId(), a.getHotelId(), a.getRoomType(),
+                                a.getPaymentStatus(), a.getPaymentAmount(), a.getRefundAmount(),
+                                a.getPaymentTime(), a.getPaymentTime()));
+                    }
+                }
+                aggregator.applyBookings(bookings, null);
+                aggregator.applyPayments(payments);
+                return archived;
+            });
+            current.setBookingsScanned(current.getBookingsScanned() + chunk.size());
+            current.setPaymentsScanned(current.getPaymentsScanned()
+                    + chunk.stream().filter(a -> a.getPaymentId() != null).count());
+            if (chunk.size() < chunkSize) {
+                return;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        worker.shutdownNow();
+    }
+}
@@ -0,0 +1,139 @@
+package com.hotel.booking.analytics;
+
+import com.hotel.booking.dto.AnalyticsReport;
+import com.hotel.booking.model.DailyStat;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.repository.DailyStatRepository;
+import com.hotel.booking.repository.HotelRepository;
+import com.hotel.booking.repository.RoomInventoryRow;
+import com.hotel.booking.repository.RoomRepository;
+import com.hotel.booking.sharding.ShardRouter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the admin analytics report from analytics_daily: one indexed range
+ * read of pre-aggregated rows plus the room inventory, rolled up in memory.
+ * Availability uses today's inventory for every night of the range.
+ */
+@Component
+public class AnalyticsReader {
+
+    @Autowired
+    private DailyStatRepository dailyStatRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Transactional(readOnly = true)
+    public AnalyticsReport report(LocalDate from, LocalDate to, Long hotelId) {
+        long nights = to.toEpochDay() - from.toEpochDay() + 1;
+        List<RoomInventoryRow> inventory = shardRouter.gather(roomRepository::countInventory).stream()
+                .filter(row -> hotelId == null || hotelId.equals(row.hotelId()))
+                .toList();
+        List<DailyStat> stats = shardRouter.gather(() -> dailyStatRepository.findRange(from, to, hotelId));
+
+        Map<Long, Accumulator> byHotel = new TreeMap<>();
+        Map<String, Accumulator> byRoomType = new TreeMap<>();
+        Map<LocalDate, Accumulator> byDay = new TreeMap<>();
+        Accumulator totals = new Accumulator();
+        long roomsPerNight = 0;
+        for (RoomInventoryRow row : inventory) {
+            String roomType = AnalyticsAggregator.roomType(row.roomType());
+            byHotel.computeIfAbsent(row.hotelId(), key -> new Accumulator()).available += row.rooms() * nights;
+            byRoomType.computeIfAbsent(roomType, key -> new Accumulator()).available += row.rooms() * nights;
+            roomsPerNight += row.rooms();
+        }
+        totals.available = roomsPerNight * nights;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            byDay.computeIfAbsent(day, key -> new Accumulator()).available = roomsPerNight;
+        }
+        for (DailyStat stat : stats) {
+            totals.add(stat);
+            byHotel.computeIfAbsent(stat.getId().getHotelId(), key -> new Accumulator()).add(stat);
+            byRoomType.computeIfAbsent(stat.getId().getRoomType(), key -> new Accumulator()).add(stat);
+            byDay.computeIfAbsent(stat.getId().getStatDate(), key -> new Accumulator()).add(stat);
+        }
+
+        Map<Long, String> hotelNames = shardRouter.gather(() -> hotelRepository.findAllById(byHotel.keySet())).stream()
+                .collect(Collectors.toMap(Hotel::getId, hotel -> String.valueOf(hotel.getName())));
+
+        AnalyticsReport report = new AnalyticsReport();
+        report.setFrom(from);
+        report.setTo(to);
+        report.setHotelId(hotelId);
+        report.setTotals(totals.toRow());
+        byHotel.forEach((id, acc) -> {
+            AnalyticsReport.Row row = acc.toRow();
+            row.setHotelId(id);
+            row.setHotelName(hotelNames.get(id));
+            report.getByHotel().add(row);
+        });
+        byRoomType.forEach((type, acc) -> {
+            AnalyticsReport.Row row = acc.toRow();
+            row.setRoomType(type);
+            report.getByRoomType().add(row);
+        });
+        byDay.forEach((day, acc) -> {
+            AnalyticsReport.Row row = acc.toRow();
+            row.setDate(day);
+            report.getByDay().add(row);
+        });
+        return report;
+    }
+
+    private static final class Accumulator {
+        private long available;
+        private long sold;
+        private double roomRevenue;
+        private double captured;
+        private double refunds;
+        private byte[] guests;
+
+        void add(DailyStat stat) {
+            sold += stat.getRoomsSold();
+            roomRevenue += stat.getRoomRevenue();
+            captured += stat.getPaymentsCaptured();
+            refunds += stat.getRefunds();
+            if (stat.getGuestSketch() != null) {
+                if (guests == null) {
+                    guests = HyperLogLog.empty();
+                }
+                HyperLogLog.merge(guests, stat.getGuestSketch());
+            }
+        }
+
+        AnalyticsReport.Row toRow() {
+            AnalyticsReport.Row row = new AnalyticsReport.Row();
+            row.setRoomNightsAvailable(available);
+            row.setRoomNightsSold(sold);
+            row.setOccupancyRate(available == 0 ? 0 : round((double) sold / available, 4));
+            row.setAdr(sold == 0 ? 0 : round(roomRevenue / sold, 2));
+            row.setRevpar(available == 0 ? 0 : round(roomRevenue / available, 2));
+            row.setRoomRevenue(round(roomRevenue, 2));
+            row.setPaymentsCaptured(round(captured, 2));
+            row.setRefunds(round(refunds, 2));
+            row.setDistinctGuests(guests == null ? 0 : HyperLogLog.estimate(guests));
+            return row;
+        }
+
+        private static double round(double value, int places) {
+            double scale = Math.pow(10, places);
+            return Math.round(value * scale) / scale;
+        }
+    }
+}
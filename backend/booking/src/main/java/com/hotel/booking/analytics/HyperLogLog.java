@@ -0,0 +1,65 @@
+package com.hotel.booking.analytics;
+
+/**
+ * HyperLogLog over a plain byte array of 2^PRECISION registers, so sketches
+ * can be stored in a VARBINARY column and merged with a byte-wise max. With
+ * 1024 registers the standard error is about 3.3%.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 10;
+    public static final int REGISTERS = 1 << PRECISION;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private HyperLogLog() {
+    }
+
+    public static byte[] empty() {
+        return new byte[REGISTERS];
+    }
+
+    public static void add(byte[] registers, long value) {
+        long hash = mix(value);
+        int index = (int) (hash >>> (64 - PRECISION));
+        // The guard bit caps the rank at 64 - PRECISION + 1
+        long remainder = (hash << PRECISION) | (1L << (PRECISION - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remainder) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    public static void merge(byte[] into, byte[] other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other[i] > into[i]) {
+                into[i] = other[i];
+            }
+        }
+    }
+
+    public static long estimate(byte[] registers) {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            // Small range correction: linear counting
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    // SplitMix64 finaliser; ids are sequential, so they need a real mix before bucketing
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,146 @@
+package com.hotel.booking.archive;
+
+import com.hotel.booking.concurrency.SchedulingConfig;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.PaymentStatus;
+import com.hotel.booking.repository.ArchivedBookingRepository;
+import com.hotel.booking.repository.BookingRepository;
+import com.hotel.booking.repository.PaymentRepository;
+import com.hotel.booking.sharding.ShardRouter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves finished bookings out of the hot booking table into booking_archive,
+ * so overlap checks, listings and reconciliation only touch current data.
+ *
+ * A booking qualifies once it is CHECKED_OUT, CANCELLED or PAYMENT_FAILED, its
+ * check-out is older than archive.horizon-days and its payment is settled
+ * (nothing pending, authorised or waiting for a refund). Each chunk is copied
+ * with one INSERT ... SELECT and deleted in the same short transaction, with a
+ * pause between chunks so the job never holds locks or replication for long.
+ * A separate table rather than MySQL partitioning because InnoDB does not allow
+ * foreign keys on partitioned tables. History endpoints read both tables.
+ */
+@Component
+public class BookingArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingArchiver.class);
+
+    private static final Set<BookingStatus> FINISHED =
+            EnumSet.of(BookingStatus.CHECKED_OUT, BookingStatus.CANCELLED, BookingStatus.PAYMENT_FAILED);
+    private static final Set<PaymentStatus> UNSETTLED =
+            EnumSet.of(PaymentStatus.PENDING, PaymentStatus.AUTHORIZED, PaymentStatus.REFUND_PENDING);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${archive.horizon-days:365}")
+    private int horizonDays;
+
+    @Value("${archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${archive.pause-ms:200}")
+    private long pauseMs;
+
+    private final ReentrantLock running = new ReentrantLock();
+
+    @Scheduled(cron = "${archive.cron:0 15 4 * * *}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void scheduledArchive() {
+        if (enabled) {
+            shardRouter.forEachShard(this::archive);
+        }
+    }
+
+    // Returns the number of bookings moved, or -1 when a run is already in progress on this instance
+    public long archive() {
+        if (!running.tryLock()) {
+            return -1;
+        }
+        try {
+            LocalDate before = LocalDate.now().minusDays(horizonDays);
+            long moved = 0;
+            long afterId = 0;
+            while (true) {
+                long from = afterId;
+                List<Long> ids = transactionTemplate.execute(status -> moveChunk(before, from));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                moved += ids.size();
+                registry.counter("hotel.booking.archived").increment(ids.size());
+                afterId = ids.get(ids.size() - 1);
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+                pause();
+            }
+            if (moved > 0) {
+                log.info("Archived {} bookings with check-out before {}", moved, before);
+            }
+            return moved;
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private List<Long> moveChunk(LocalDate before, long afterId) {
+        List<Long> ids = bookingRepository.findArchivableIds(FINISHED, UNSETTLED, before, afterId,
+                PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        int copied = archivedBookingRepository.copyFromBookings(ids, LocalDateTime.now());
+        paymentRepository.deleteByBookingIdIn(ids);
+        int deleted = bookingRepository.deleteByIdIn(ids);
+        if (copied != ids.size() || deleted != ids.size()) {
+            // Someone else moved or removed part of the chunk; roll it back and let the next run retry
+            throw new IllegalStateException("Archive chunk after id " + afterId + " changed while moving: "
+                    + ids.size() + " selected, " + copied + " copied, " + deleted + " deleted");
+        }
+        return ids;
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
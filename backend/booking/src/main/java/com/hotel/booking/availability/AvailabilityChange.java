@@ -0,0 +1,21 @@
+package com.hotel.booking.availability;
+
+import com.hotel.booking.model.BookingStatus;
+
+import java.time.LocalDate;
+
+/**
+ * One availability delta pushed to stream subscribers. {@code holdsRoom} tells
+ * whether the booking now blocks the room for its dates; clients keep the
+ * bookings they know per room and replace or drop them by {@code bookingId}.
+ */
+public record AvailabilityChange(long eventId,
+                                 String change,
+                                 Long bookingId,
+                                 Long hotelId,
+                                 Long roomId,
+                                 LocalDate checkInDate,
+                                 LocalDate checkOutDate,
+                                 BookingStatus status,
+                                 boolean holdsRoom) {
+}
@@ -0,0 +1,278 @@
+package com.hotel.booking.availability;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.cluster.Invalidation;
+import com.hotel.booking.cluster.InvalidationListener;
+import com.hotel.booking.dto.BookingDTO;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.outbox.OutboxMessage;
+import com.hotel.booking.outbox.OutboxSubscriber;
+import com.hotel.booking.repository.RoomRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes booking availability changes to Server-Sent Events subscribers,
+ * per hotel or per room, so room pages need not poll the bookings endpoint.
+ *
+ * Fed by the outbox relay; each change is serialized once and the same
+ * frame is handed to every matching subscriber after the relay commits.
+ * Connections are async servlet requests, so an idle subscriber holds no
+ * thread. Each subscriber has a small bounded buffer drained by a virtual
+ * thread only while it has frames; a slow client loses its oldest frames
+ * rather than holding memory or delaying others. Delivery is best effort:
+ * clients reload room bookings when they (re)connect.
+ *
+ * Only the instance that relays an event sends its frame. Every instance
+ * also sends an "invalidate" frame (hotelId, roomId) for room and booking
+ * changes seen on the invalidation bus, so subscribers connected elsewhere
+ * learn to reload that room within cluster.invalidation.poll-ms.
+ */
+@Component
+public class AvailabilityStream implements OutboxSubscriber, InvalidationListener, DisposableBean {
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final Map<Long, Set<Subscriber>> byHotel = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> byRoom = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter dropped;
+    private final Counter published;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Value("${availability.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${availability.stream.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${availability.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    public AvailabilityStream(MeterRegistry registry) {
+        registry.gauge("hotel.availability.stream.subscribers", subscribers);
+        this.dropped = Counter.builder("hotel.availability.stream.dropped")
+                .description("Frames discarded because a subscriber's buffer was full")
+                .register(registry);
+        this.published = registry.counter("hotel.availability.stream.published");
+    }
+
+    // Null when the subscriber limit is reached
+    public SseEmitter subscribe(Long hotelId, Long roomId) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, hotelId, roomId);
+        // Added inside compute so it cannot land in a set that remove() just unmapped
+        (roomId != null ? byRoom : byHotel).compute(roomId != null ? roomId : hotelId, (key, set) -> {
+            Set<Subscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::remove);
+        emitter.onError(error -> subscriber.remove());
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    @Override
+    public void onEvent(OutboxMessage message) throws Exception {
+        if (!OutboxMessage.BOOKING.equals(message.aggregateType()) || message.roomId() == null) {
+            return;
+        }
+        if (byHotel.isEmpty() && byRoom.isEmpty()) {
+            return;
+        }
+        BookingDTO booking = objectMapper.readValue(message.payload(), BookingDTO.class);
+        Long hotelId = booking.getHotelId();
+        if (hotelId == null) {
+            hotelId = roomRepository.findById(message.roomId())
+                    .map(room -> room.getHotelId() != null ? room.getHotelId().getId() : null)
+                    .orElse(null);
+        }
+        boolean holdsRoom = !OutboxMessage.BOOKING_DELETED.equals(message.eventType())
+                && booking.getStatus() != null && BookingStatus.ACTIVE.contains(booking.getStatus());
+        AvailabilityChange change = new AvailabilityChange(message.id(), message.eventType(), message.aggregateId(),
+                hotelId, message.roomId(), booking.getCheckInDate(), booking.getCheckOutDate(),
+                booking.getStatus(), holdsRoom);
+        Set<DataWithMediaType> frame = SseEmitter.event()
+                .id(String.valueOf(message.id()))
+                .name("availability")
+                .data(objectMapper.writeValueAsString(change), MediaType.APPLICATION_JSON)
+                .build();
+        afterCommit(() -> publish(change.hotelId(), change.roomId(), frame));
+    }
+
+    @Override
+    public void onInvalidations(List<Invalidation> changes) {
+        if (byHotel.isEmpty() && byRoom.isEmpty()) {
+            return;
+        }
+        for (Invalidation change : changes) {
+            if (!Invalidation.BOOKING.equals(change.topic()) && !Invalidation.ROOM.equals(change.topic())) {
+                continue;
+            }
+            Map<String, Long> data = new LinkedHashMap<>();
+            data.put("hotelId", change.hotelId());
+            data.put("roomId", change.entityId());
+            try {
+                publish(change.hotelId(), change.entityId(), SseEmitter.event()
+                        .name("invalidate")
+                        .data(objectMapper.writeValueAsString(data), MediaType.APPLICATION_JSON)
+                        .build());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // Keeps proxies from closing idle connections and finds clients that went away
+    @Scheduled(fixedDelayString = "${availability.stream.heartbeat-ms:20000}")
+    public void heartbeat() {
+        byHotel.values().forEach(set -> set.forEach(subscriber -> subscriber.offer(HEARTBEAT)));
+        byRoom.values().forEach(set -> set.forEach(subscriber -> subscriber.offer(HEARTBEAT)));
+    }
+
+    private void publish(Long hotelId, Long roomId, Set<DataWithMediaType> frame) {
+        published.increment();
+        if (hotelId != null) {
+            byHotel.getOrDefault(hotelId, Set.of()).forEach(subscriber -> subscriber.offer(frame));
+        }
+        byRoom.getOrDefault(roomId, Set.of()).forEach(subscriber -> subscriber.offer(frame));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        byHotel.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        byRoom.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long hotelId;
+        private final Long roomId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<Set<DataWithMediaType>> buffer = new ArrayDeque<>();
+        private boolean draining;
+        private boolean removed;
+
+        Subscriber(SseEmitter emitter, Long hotelId, Long roomId) {
+            this.emitter = emitter;
+            this.hotelId = hotelId;
+            this.roomId = roomId;
+        }
+
+        void offer(Set<DataWithMediaType> frame) {
+            lock.lock();
+            try {
+                if (removed) {
+                    return;
+                }
+                if (buffer.size() >= bufferSize) {
+                    buffer.pollFirst();
+                    dropped.increment();
+                }
+                buffer.addLast(frame);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            } finally {
+                lock.unlock();
+            }
+            senders.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                Set<DataWithMediaType> frame;
+                lock.lock();
+                try {
+                    frame = buffer.pollFirst();
+                    if (frame == null || removed) {
+                        draining = false;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    emitter.send(frame);
+                } catch (Exception e) {
+                    remove();
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+
+        void remove() {
+            lock.lock();
+            try {
+                if (removed) {
+                    return;
+                }
+                removed = true;
+                buffer.clear();
+            } finally {
+                lock.unlock();
+            }
+            Map<Long, Set<Subscriber>> index = roomId != null ? byRoom : byHotel;
+            index.computeIfPresent(roomId != null ? roomId : hotelId, (key, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+            subscribers.decrementAndGet();
+        }
+    }
+}
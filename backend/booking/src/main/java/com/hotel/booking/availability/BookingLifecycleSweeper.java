@@ -0,0 +1,83 @@
+package com.hotel.booking.availability;
+
+import com.hotel.booking.concurrency.SchedulingConfig;
+import com.hotel.booking.repository.BookingRepository;
+import com.hotel.booking.sharding.ShardRouter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.function.IntSupplier;
+
+/**
+ * Moves bookings along by date: CONFIRMED to CHECKED_IN on the check-in day,
+ * CONFIRMED or CHECKED_IN to CHECKED_OUT once the check-out day is reached.
+ * Both are set-based UPDATEs capped at bookings.lifecycle.batch-size rows and
+ * repeated until nothing is left, each batch in its own short transaction, so
+ * no row is loaded into the session and locks are held briefly.
+ */
+@Component
+public class BookingLifecycleSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingLifecycleSweeper.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RoomOccupancy roomOccupancy;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${bookings.lifecycle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${bookings.lifecycle.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${bookings.lifecycle.cron:0 5 * * * *}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void scheduledSweep() {
+        if (enabled) {
+            shardRouter.forEachShard(this::sweep);
+        }
+    }
+
+    // Returns {checkedIn, checkedOut}
+    public int[] sweep() {
+        LocalDate today = LocalDate.now();
+        int checkedOut = inBatches(() -> bookingRepository.markCheckedOut(today, batchSize));
+        int checkedIn = inBatches(() -> bookingRepository.markCheckedIn(today, batchSize));
+        if (checkedIn + checkedOut > 0) {
+            registry.counter("hotel.booking.lifecycle", "to", "CHECKED_IN").increment(checkedIn);
+            registry.counter("hotel.booking.lifecycle", "to", "CHECKED_OUT").increment(checkedOut);
+            roomOccupancy.requestRefresh();
+            log.info("Booking lifecycle: {} checked in, {} checked out", checkedIn, checkedOut);
+        }
+        return new int[] { checkedIn, checkedOut };
+    }
+
+    private int inBatches(IntSupplier batch) {
+        int total = 0;
+        int updated;
+        do {
+            updated = transactionTemplate.execute(status -> batch.getAsInt());
+            total += updated;
+        } while (updated == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,136 @@
+package com.hotel.booking.availability;
+
+import com.hotel.booking.cluster.Invalidation;
+import com.hotel.booking.cluster.InvalidationListener;
+import com.hotel.booking.dto.HotelDTO;
+import com.hotel.booking.dto.RoomDTO;
+import com.hotel.booking.repository.BookingRepository;
+import com.hotel.booking.sharding.ShardRouter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cached projection of the rooms occupied today, used for the "available"
+ * flag of room listings so they need no extra query per request; services
+ * set it on the DTOs they build with {@link #withAvailability}. It is a
+ * display hint only: booking always runs the overlap query, and date ranges
+ * go through /api/rooms/available.
+ *
+ * Loaded before warm-up and readiness, reloaded every availability.refresh-ms
+ * (which also rolls it over at midnight) and shortly after any commit that
+ * changes bookings: local ones directly, other instances' through the
+ * invalidation bus. Reloads run on one background thread and coalesce.
+ */
+@Component
+public class RoomOccupancy implements ApplicationRunner, Ordered, DisposableBean, InvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomOccupancy.class);
+
+    private volatile Snapshot current = new Snapshot(null, Set.of());
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "room-occupancy");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public boolean isFreeToday(Long roomId) {
+        return !current.occupied.contains(roomId);
+    }
+
+    public RoomDTO withAvailability(RoomDTO room) {
+        room.setAvailable(isFreeToday(room.getId()));
+        return room;
+    }
+
+    public HotelDTO withAvailability(HotelDTO hotel) {
+        if (hotel.getRooms() != null) {
+            hotel.getRooms().forEach(this::withAvailability);
+        }
+        return hotel;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${availability.refresh-ms:60000}")
+    public void refresh() {
+        LocalDate today = LocalDate.now();
+        Set<Long> occupied = new HashSet<>(shardRouter.gather(() -> bookingRepository.findRoomIdsOccupiedOn(today)));
+        current = new Snapshot(today, Set.copyOf(occupied));
+    }
+
+    public void refreshAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            requestRefresh();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                requestRefresh();
+            }
+        });
+    }
+
+    @Override
+    public void onInvalidations(List<Invalidation> changes) {
+        if (changes.stream().anyMatch(change -> Invalidation.BOOKING.equals(change.topic()))) {
+            requestRefresh();
+        }
+    }
+
+    public void requestRefresh() {
+        if (!refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        refresher.submit(() -> {
+            refreshQueued.set(false);
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh room occupancy", e);
+            }
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+
+    private record Snapshot(LocalDate date, Set<Long> occupied) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.hotel.booking.cluster;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change seen on the invalidation bus: the entity of {@code topic} whose
+ * cached view is stale, with its hotel when known. BOOKING is keyed by room
+ * (any booking of the room changed), WAITLIST by hotel.
+ */
+public record Invalidation(String topic,
+                           Long entityId,
+                           Long hotelId,
+                           long version,
+                           LocalDateTime changedAt) {
+
+    public static final String HOTEL = "HOTEL";
+    public static final String ROOM = "ROOM";
+    public static final String BOOKING = "BOOKING";
+    public static final String WAITLIST = "WAITLIST";
+}
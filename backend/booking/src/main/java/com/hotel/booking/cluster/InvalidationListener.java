@@ -0,0 +1,13 @@
+package com.hotel.booking.cluster;
+
+import java.util.List;
+
+/**
+ * Drops cached state named by invalidations, whichever instance made the
+ * change (this one included). Called by the poller with each poll's new
+ * invalidations, outside any transaction; must be idempotent.
+ */
+public interface InvalidationListener {
+
+    void onInvalidations(List<Invalidation> invalidations);
+}
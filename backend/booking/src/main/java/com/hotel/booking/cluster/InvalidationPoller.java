@@ -0,0 +1,115 @@
+package com.hotel.booking.cluster;
+
+import com.hotel.booking.concurrency.SchedulingConfig;
+import com.hotel.booking.sharding.ShardRouter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands invalidations written by any instance to every
+ * {@link InvalidationListener} on this one, so caches are stale for about
+ * cluster.invalidation.poll-ms. Runs on its own scheduler thread (see
+ * SchedulingConfig), so busy polling jobs cannot hold it back.
+ *
+ * Each shard keeps a watermark: the latest changed_at read from it. A poll
+ * reads the invalidation_version rows changed after the watermark minus
+ * cluster.invalidation.commit-grace-ms, however long ago the last poll ran.
+ * The grace is there because a transaction stamps changed_at before it
+ * commits: a slow commit, or a writer whose clock is a little behind, can
+ * still land behind the watermark. Rows already handed out with the same
+ * (version, changed_at) are skipped.
+ */
+@Component
+public class InvalidationPoller {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationPoller.class);
+
+    private static final String CHANGED_SINCE = "SELECT topic, entity_id, hotel_id, version, changed_at"
+            + " FROM invalidation_version WHERE changed_at > ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired(required = false)
+    private List<InvalidationListener> listeners = List.of();
+
+    @Value("${cluster.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cluster.invalidation.commit-grace-ms:60000}")
+    private long commitGraceMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // shard -> latest changed_at read from it
+    private final Map<String, LocalDateTime> watermarks = new HashMap<>();
+    // shard -> topic:entityId -> the last invalidation handed out for it, kept while inside the grace
+    private final Map<String, Map<String, Invalidation>> seen = new HashMap<>();
+
+    @Scheduled(fixedDelayString = "${cluster.invalidation.poll-ms:1000}", scheduler = SchedulingConfig.INVALIDATION_SCHEDULER)
+    public void scheduledPoll() {
+        if (enabled) {
+            poll();
+        }
+    }
+
+    // Returns the number of invalidations handed to the listeners
+    public int poll() {
+        lock.lock();
+        try {
+            Duration grace = Duration.ofMillis(commitGraceMs);
+            List<Invalidation> fresh = new ArrayList<>();
+            for (String shard : shardRouter.getShards()) {
+                LocalDateTime watermark = watermarks.computeIfAbsent(shard, s -> LocalDateTime.now());
+                LocalDateTime since = watermark.minus(grace);
+                List<Invalidation> changed = shardRouter.call(shard, () -> jdbcTemplate.query(CHANGED_SINCE,
+                        (rs, rowNum) -> new Invalidation(rs.getString("topic"), rs.getLong("entity_id"),
+                                rs.getObject("hotel_id", Long.class), rs.getLong("version"),
+                                rs.getTimestamp("changed_at").toLocalDateTime()),
+                        since));
+                Map<String, Invalidation> handedOut = seen.computeIfAbsent(shard, s -> new HashMap<>());
+                for (Invalidation invalidation : changed) {
+                    // A hotel moved to another shard starts its versions again, so the time counts too
+                    if (!invalidation.equals(handedOut.put(invalidation.topic() + ":" + invalidation.entityId(), invalidation))) {
+                        fresh.add(invalidation);
+                    }
+                    if (invalidation.changedAt().isAfter(watermark)) {
+                        watermark = invalidation.changedAt();
+                    }
+                }
+                watermarks.put(shard, watermark);
+                LocalDateTime forgetBefore = watermark.minus(grace);
+                handedOut.values().removeIf(invalidation -> !invalidation.changedAt().isAfter(forgetBefore));
+            }
+            if (fresh.isEmpty()) {
+                return 0;
+            }
+            for (InvalidationListener listener : listeners) {
+                try {
+                    listener.onInvalidations(fresh);
+                } catch (RuntimeException e) {
+                    log.warn("Invalidation listener {} failed", listener.getClass().getSimpleName(), e);
+                }
+            }
+            return fresh.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.hotel.booking.cluster;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Component
+public class InvalidationRecorder {
+
+    // One statement: an UPDATE that misses and then INSERTs takes gap locks on InnoDB, and two
+    // transactions doing that in the same gap deadlock on their inserts
+    private static final String BUMP = "INSERT INTO invalidation_version (topic, entity_id, version, hotel_id,"
+            + " changed_at) VALUES (?, ?, 1, ?, ?)"
+            + " ON DUPLICATE KEY UPDATE version = version + 1, hotel_id = ?, changed_at = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // MANDATORY: the version must move only if the change it announces commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String topic, Long entityId, Long hotelId) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(BUMP, topic, entityId, hotelId, now, hotelId, now);
+    }
+}
@@ -0,0 +1,110 @@
+package com.hotel.booking.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient style concurrency limiter. It keeps a "no load" latency baseline
+ * (the lowest latency seen, drifting slowly upwards so it can follow a real
+ * change in query cost) and a fast moving recent latency, and scales the
+ * in-flight limit by the ratio between them. When the database slows down the
+ * recent latency climbs above the baseline and the limit shrinks, so excess
+ * requests are rejected up front instead of queueing on the connection pool.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile double limit;
+    private double shortRttNanos;
+    private double baselineRttNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Invalid limits for " + name + ": min <= initial <= max is required");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Reserves a slot if the current limit allows it. Every successful call must
+     * be paired with {@link #release(long, boolean)}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot and feeds the observed latency back into the limit.
+     * {@code dropped} marks calls that failed because of overload (timeouts, 5xx),
+     * which back the limit off straight away.
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        // Skip the sample rather than block a request thread on a busy update
+        if (!updateLock.tryLock()) {
+            return;
+        }
+        try {
+            onSample(rttNanos, dropped, current);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void onSample(long rttNanos, boolean dropped, int inFlightAtSample) {
+        if (dropped) {
+            limit = Math.max(minLimit, limit * 0.9);
+            return;
+        }
+        if (baselineRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            baselineRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos = shortRttNanos * 0.8 + rttNanos * 0.2;
+        // Without the upward drift a sustained slowdown would keep the limit pinned at the minimum forever
+        baselineRttNanos = rttNanos < baselineRttNanos ? rttNanos : baselineRttNanos * 0.999 + rttNanos * 0.001;
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineRttNanos / shortRttNanos));
+        double queueSize = Math.sqrt(limit);
+        double newLimit = limit * gradient + queueSize;
+
+        // Don't grow while the limit isn't actually being used
+        if (newLimit > limit && inFlightAtSample < limit / 2) {
+            return;
+        }
+        newLimit = limit * 0.8 + newLimit * 0.2;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
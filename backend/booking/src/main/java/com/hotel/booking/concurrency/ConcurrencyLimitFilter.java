@@ -0,0 +1,96 @@
+package com.hotel.booking.concurrency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds load before it reaches the database. Booking/payment writes and catalog
+ * reads get their own limiter so a slow write path can't starve cheap reads.
+ * Runs ahead of the security chain so rejected requests never pay for JWT parsing
+ * or the user lookup.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimiter bookingWriteLimiter;
+    private final AdaptiveConcurrencyLimiter catalogReadLimiter;
+
+    public ConcurrencyLimitFilter(
+            @Value("${limiter.enabled:true}") boolean enabled,
+            @Value("${limiter.booking-write.initial-limit:10}") int writeInitial,
+            @Value("${limiter.booking-write.max-limit:50}") int writeMax,
+            @Value("${limiter.catalog-read.initial-limit:20}") int readInitial,
+            @Value("${limiter.catalog-read.max-limit:200}") int readMax,
+            @Value("${limiter.min-limit:2}") int minLimit,
+            @Value("${limiter.tolerance:2.0}") double tolerance) {
+        this.enabled = enabled;
+        this.bookingWriteLimiter = new AdaptiveConcurrencyLimiter("booking-write", writeInitial, minLimit, writeMax, tolerance);
+        this.catalogReadLimiter = new AdaptiveConcurrencyLimiter("catalog-read", readInitial, minLimit, readMax, tolerance);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        AdaptiveConcurrencyLimiter limiter = enabled ? limiterFor(request) : null;
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Server is busy, please retry shortly.\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= 500;
+        } finally {
+            limiter.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    // Writes that touch bookings or payments vs. plain GETs; everything else is not limited
+    private AdaptiveConcurrencyLimiter limiterFor(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (!path.startsWith("/api/")) {
+            return null;
+        }
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            return catalogReadLimiter;
+        }
+        if (path.startsWith("/api/bookings") || path.startsWith("/api/payments")) {
+            return bookingWriteLimiter;
+        }
+        return null;
+    }
+
+    public AdaptiveConcurrencyLimiter getBookingWriteLimiter() {
+        return bookingWriteLimiter;
+    }
+
+    public AdaptiveConcurrencyLimiter getCatalogReadLimiter() {
+        return catalogReadLimiter;
+    }
+}
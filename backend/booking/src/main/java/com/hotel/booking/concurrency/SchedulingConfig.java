@@ -0,0 +1,60 @@
+package com.hotel.booking.concurrency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskSchedulerBuilder;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Schedulers for the @Scheduled methods. The default {@code taskScheduler}
+ * (spring.task.scheduling.*) runs the short polling jobs: the outbox relay,
+ * notification worker, hold expirer, payment sweepers, cache reloads and
+ * stream heartbeats. The nightly and hourly batch jobs (reconciliation,
+ * archiving, the booking lifecycle sweep) loop over every shard for minutes;
+ * they run on {@link #BATCH_SCHEDULER} so they never hold a thread the
+ * pollers are waiting for. The invalidation poller, which every cache on
+ * this instance depends on, has a thread of its own.
+ *
+ * Boot only builds its own {@code taskScheduler} when no other scheduler bean
+ * exists, so the default one is declared here the way Boot would.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    public static final String BATCH_SCHEDULER = "batchJobScheduler";
+    public static final String INVALIDATION_SCHEDULER = "invalidationPollScheduler";
+
+    @Bean(name = "taskScheduler")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = "taskScheduler")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskScheduler taskSchedulerVirtualThreads(SimpleAsyncTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    // One thread per batch job, so a long reconciliation does not push the archiver back either
+    @Bean(name = BATCH_SCHEDULER)
+    public ThreadPoolTaskScheduler batchJobScheduler(@Value("${scheduling.batch.pool-size:3}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("batch-job-");
+        return scheduler;
+    }
+
+    @Bean(name = INVALIDATION_SCHEDULER)
+    public ThreadPoolTaskScheduler invalidationPollScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("invalidation-poll-");
+        return scheduler;
+    }
+}
@@ -0,0 +1,50 @@
+package com.hotel.booking.concurrency;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.hotel.booking.sharding.ShardRoutingDataSource;
+
+/**
+ * Active when {@code spring.threads.virtual.enabled=true}. Boot then runs Tomcat
+ * requests, MVC async handling and the application task executor on virtual
+ * threads; this adds the JDBC bulkhead that stands in for the thread pool limit.
+ *
+ * The bulkhead guards one connection pool. With sharding on, the DataSource
+ * bean is the shard router, so each shard's pool gets a bulkhead of its own:
+ * one shared semaphore sized to one pool would cap all shards together, and a
+ * fan-out holding a permit on one shard could starve its own per-shard hops.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor jdbcBulkheadPostProcessor(Environment env) {
+        int poolSize = env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        int maxConcurrent = env.getProperty("bulkhead.jdbc.max-concurrent", Integer.class, poolSize);
+        long acquireTimeoutMs = env.getProperty("bulkhead.jdbc.acquire-timeout-ms", Long.class, 2000L);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof ShardRoutingDataSource routing) {
+                    routing.decorateShards(pool -> pool instanceof JdbcBulkheadDataSource ? pool
+                            : new JdbcBulkheadDataSource(pool, maxConcurrent, acquireTimeoutMs));
+                    return routing;
+                }
+                if (bean instanceof DataSource dataSource && !(bean instanceof JdbcBulkheadDataSource)) {
+                    return new JdbcBulkheadDataSource(dataSource, maxConcurrent, acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
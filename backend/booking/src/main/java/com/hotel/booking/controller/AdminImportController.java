@@ -0,0 +1,62 @@
+package com.hotel.booking.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.dto.ImportEvent;
+import com.hotel.booking.service.interfac.IImportService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminImportController {
+
+    @Autowired
+    private IImportService importService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Bulk inventory import. The upload is read straight off the request stream and
+    // progress/errors are streamed back as NDJSON while the import runs.
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/import")
+    public void importInventory(@RequestParam(required = false) String format,
+                                HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        String resolvedFormat = format != null ? format
+                : (request.getContentType() != null && request.getContentType().contains("ndjson") ? "ndjson" : "csv");
+
+        response.setStatus(200);
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer out = response.getWriter();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            ImportEvent summary = importService.importInventory(reader, resolvedFormat, event -> write(out, event));
+            write(out, summary);
+        }
+    }
+
+    private void write(Writer out, ImportEvent event) {
+        try {
+            out.write(objectMapper.writeValueAsString(event));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.hotel.booking.controller;
+
+import com.hotel.booking.analytics.AnalyticsBackfill;
+import com.hotel.booking.analytics.AnalyticsReader;
+import com.hotel.booking.dto.AnalyticsBackfillStatus;
+import com.hotel.booking.dto.AnalyticsReport;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin/analytics")
+public class AnalyticsController {
+
+    private static final int MAX_RANGE_DAYS = 366;
+
+    @Autowired
+    private AnalyticsReader analyticsReader;
+
+    @Autowired
+    private AnalyticsBackfill analyticsBackfill;
+
+    // Defaults to the last 30 nights up to today
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping
+    public ResponseEntity<AnalyticsReport> getReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long hotelId) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end) || start.plusDays(MAX_RANGE_DAYS).isBefore(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(analyticsReader.report(start, end, hotelId));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/backfill")
+    public ResponseEntity<AnalyticsBackfillStatus> getBackfillStatus() {
+        AnalyticsBackfillStatus status = analyticsBackfill.getStatus();
+        return status == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(status);
+    }
+
+    // Runs in the background; 409 if a backfill is already in progress
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/backfill")
+    public ResponseEntity<Void> startBackfill(@RequestParam(defaultValue = "false") boolean reset) {
+        return analyticsBackfill.start(reset) ? ResponseEntity.accepted().build() : ResponseEntity.status(409).build();
+    }
+}
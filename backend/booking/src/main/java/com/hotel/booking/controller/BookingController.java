@@ -6,6 +6,7 @@ import com.hotel.booking.dto.BookingFinalizeRequest;
 import com.hotel.booking.dto.Response;
 import com.hotel.booking.model.Payment;
 import com.hotel.booking.service.impl.BookingService;
+import com.hotel.booking.sharding.ShardDirectory;
 
 import java.util.List;
 
@@ -22,6 +23,9 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private ShardDirectory shardDirectory;
+
     // --- NEW: Endpoint to initiate booking (validate, calculate, no DB save) ---
     @PostMapping("/initiate")
     @PreAuthorize("hasRole('USER')")
@@ -30,7 +34,8 @@ public class BookingController {
             @AuthenticationPrincipal(expression = "username") String email) {
 
         Long userId = bookingService.findUserIdByEmail(email);
-        Response response = bookingService.initiateBooking(payload, userId);
+        Response response = shardDirectory.onHotel(payload.getHotelId(), userId,
+                () -> bookingService.initiateBooking(payload, userId));
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
@@ -42,7 +47,9 @@ public class BookingController {
             @AuthenticationPrincipal(expression = "username") String email) {
 
         Long userId = bookingService.findUserIdByEmail(email);
-        Response response = bookingService.finalizeBooking(request.getBookingDetails(), request.getPaymentDetails(), userId);
+        Long hotelId = request.getBookingDetails() != null ? request.getBookingDetails().getHotelId() : null;
+        Response response = shardDirectory.onHotel(hotelId, userId,
+                () -> bookingService.finalizeBooking(request.getBookingDetails(), request.getPaymentDetails(), userId));
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
@@ -4,12 +4,15 @@ import com.hotel.booking.dto.HotelDTO;
 import com.hotel.booking.dto.Response;
 import com.hotel.booking.model.Hotel;
 import com.hotel.booking.service.interfac.IHotelService;
+import com.hotel.booking.sharding.ShardDirectory;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/hotels")
 public class HotelController {
@@ -17,10 +20,23 @@ public class HotelController {
     @Autowired
     private IHotelService hotelService;
 
+    @Autowired
+    private ShardDirectory shardDirectory;
+
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping
     public ResponseEntity<Response> createHotel(@RequestBody Hotel hotel) {
-        Response response = hotelService.createHotel(hotel);
+        Response response = shardDirectory.on(shardDirectory.getNewHotelShard(), null,
+                () -> hotelService.createHotel(hotel));
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    // Bulk import: hotels with their nested rooms in one request
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/batch")
+    public ResponseEntity<Response> createHotels(@RequestBody List<HotelDTO> hotels) {
+        Response response = shardDirectory.on(shardDirectory.getNewHotelShard(), null,
+                () -> hotelService.createHotels(hotels));
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
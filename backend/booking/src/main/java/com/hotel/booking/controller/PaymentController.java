@@ -21,6 +21,15 @@ public class PaymentController {
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    // Gateway completion callbacks; authenticated by the X-Payment-Signature HMAC, not a JWT
+    @PostMapping("/webhook")
+    public ResponseEntity<Response> paymentWebhook(
+            @RequestBody String payload,
+            @RequestHeader(value = "X-Payment-Signature", required = false) String signature) {
+        Response response = paymentService.handleWebhook(payload, signature);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Response> getPaymentById(@PathVariable String id) {
         Response response = paymentService.getPaymentById(id);
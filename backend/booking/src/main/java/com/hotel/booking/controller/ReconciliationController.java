@@ -0,0 +1,36 @@
+package com.hotel.booking.controller;
+
+import com.hotel.booking.dto.ReconciliationReport;
+import com.hotel.booking.payment.ReconciliationJob;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/reconciliation")
+public class ReconciliationController {
+
+    @Autowired
+    private ReconciliationJob reconciliationJob;
+
+    // Report of the last run on this instance since startup
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping
+    public ResponseEntity<ReconciliationReport> getLastReport() {
+        ReconciliationReport report = reconciliationJob.getLastReport();
+        return report == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(report);
+    }
+
+    // Runs synchronously; 409 if a run is already in progress
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/run")
+    public ResponseEntity<ReconciliationReport> run() {
+        ReconciliationReport report = reconciliationJob.run();
+        return report == null ? ResponseEntity.status(409).build() : ResponseEntity.ok(report);
+    }
+}
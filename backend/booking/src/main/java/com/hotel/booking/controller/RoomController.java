@@ -1,15 +1,25 @@
 // RoomController.java
 package com.hotel.booking.controller;
 
+import com.hotel.booking.availability.AvailabilityStream;
 import com.hotel.booking.dto.Response;
 import com.hotel.booking.dto.RoomDTO; // Import RoomDTO
 // import com.hotel.booking.model.Room; // No longer directly used as @RequestBody
 import com.hotel.booking.service.impl.RoomService;
+import com.hotel.booking.sharding.ShardDirectory;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/rooms")
@@ -18,10 +28,32 @@ public class RoomController {
     @Autowired
     private RoomService roomService;
 
+    @Autowired
+    private AvailabilityStream availabilityStream;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping // Change parameter type to RoomDTO
     public ResponseEntity<Response> addRoom(@RequestBody RoomDTO roomDTO) {
-        return ResponseEntity.ok(roomService.addRoom(roomDTO));
+        return ResponseEntity.ok(shardDirectory.onHotel(roomDTO.getHotelId(), null, () -> roomService.addRoom(roomDTO)));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/batch")
+    public ResponseEntity<Response> addRooms(@RequestBody List<RoomDTO> roomDTOs) {
+        // A batch runs in one transaction on one shard, so all its hotels must live there
+        if (roomDTOs != null && roomDTOs.stream().map(RoomDTO::getHotelId).filter(Objects::nonNull)
+                .map(shardDirectory::shardForHotel).distinct().count() > 1) {
+            Response rejected = new Response();
+            rejected.setStatusCode(400);
+            rejected.setMessage("All rooms of a batch must belong to hotels on the same shard.");
+            return ResponseEntity.badRequest().body(rejected);
+        }
+        Long hotelId = roomDTOs == null || roomDTOs.isEmpty() ? null : roomDTOs.get(0).getHotelId();
+        Response response = shardDirectory.onHotel(hotelId, null, () -> roomService.addRooms(roomDTOs));
+        return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -51,4 +83,28 @@ public class RoomController {
     public ResponseEntity<Response> getRoomsByHotelId(@PathVariable Long hotelId) {
         return ResponseEntity.ok(roomService.getRoomsByHotelId(hotelId));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/available")
+    public ResponseEntity<Response> getAvailableRooms(
+            @RequestParam(required = false) Long hotelId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut) {
+        Response response = roomService.getAvailableRooms(hotelId, checkIn, checkOut);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    // Server-Sent Events with availability changes for one room or a whole hotel
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAvailability(
+            @RequestParam(required = false) Long hotelId,
+            @RequestParam(required = false) Long roomId) {
+        if (hotelId == null && roomId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        SseEmitter emitter = availabilityStream.subscribe(hotelId, roomId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "30").build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+}
@@ -0,0 +1,59 @@
+package com.hotel.booking.controller;
+
+import com.hotel.booking.dto.ShardLayout;
+import com.hotel.booking.dto.ShardMoveReport;
+import com.hotel.booking.sharding.ShardDirectory;
+import com.hotel.booking.sharding.ShardRebalancer;
+import com.hotel.booking.sharding.ShardRouter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/shards")
+public class ShardController {
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping
+    public ResponseEntity<ShardLayout> getLayout() {
+        ShardLayout layout = new ShardLayout();
+        layout.setEnabled(shardRouter.isEnabled());
+        layout.setDefaultShard(shardRouter.getDefaultShard());
+        layout.setNewHotelShard(shardDirectory.getNewHotelShard());
+        layout.setShards(shardRouter.getShards());
+        layout.getPlacements().putAll(shardDirectory.getPlacements());
+        layout.setMoving(shardDirectory.getMoving());
+        return ResponseEntity.ok(layout);
+    }
+
+    // Runs synchronously; 400 for an unknown hotel or shard, 409 if a move is already in progress
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/hotels/{id}/move")
+    public ResponseEntity<ShardMoveReport> moveHotel(@PathVariable Long id, @RequestParam String to) {
+        if (!shardRouter.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            ShardMoveReport report = shardRebalancer.move(id, to);
+            return report == null ? ResponseEntity.status(409).build() : ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
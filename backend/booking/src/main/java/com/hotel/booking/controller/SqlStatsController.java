@@ -0,0 +1,27 @@
+package com.hotel.booking.controller;
+
+import com.hotel.booking.monitoring.SqlStatementStats;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin")
+public class SqlStatsController {
+
+    @Autowired
+    private SqlStatementStats sqlStatementStats;
+
+    // Statements-per-request histogram for every endpoint hit since startup
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/sql-stats")
+    public ResponseEntity<Map<String, Map<String, Object>>> getSqlStats() {
+        return ResponseEntity.ok(sqlStatementStats.snapshot());
+    }
+}
@@ -0,0 +1,71 @@
+package com.hotel.booking.controller;
+
+import com.hotel.booking.dto.Response;
+import com.hotel.booking.dto.WaitlistEntryDTO;
+import com.hotel.booking.model.Payment;
+import com.hotel.booking.service.impl.BookingService;
+import com.hotel.booking.service.interfac.IWaitlistService;
+import com.hotel.booking.sharding.ShardDirectory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/waitlist")
+public class WaitlistController {
+
+    @Autowired
+    private IWaitlistService waitlistService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    @PostMapping
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Response> join(
+            @RequestBody WaitlistEntryDTO request,
+            @AuthenticationPrincipal(expression = "username") String email) {
+
+        Long userId = bookingService.findUserIdByEmail(email);
+        Response response = shardDirectory.onHotel(request.getHotelId(), userId, () -> waitlistService.join(request, userId));
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Response> getMyWaitlist(@AuthenticationPrincipal(expression = "username") String email) {
+        Long userId = bookingService.findUserIdByEmail(email);
+        Response response = waitlistService.getMyWaitlist(userId);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @DeleteMapping("/{entryId}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Response> withdraw(
+            @PathVariable Long entryId,
+            @AuthenticationPrincipal(expression = "username") String email) {
+
+        Long userId = bookingService.findUserIdByEmail(email);
+        Response response = waitlistService.withdraw(entryId, userId);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    // Pays for the room held for this entry; the amount is the held booking's total
+    @PostMapping("/{entryId}/accept")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Response> accept(
+            @PathVariable Long entryId,
+            @RequestBody Payment paymentDetails,
+            @AuthenticationPrincipal(expression = "username") String email) {
+
+        Long userId = bookingService.findUserIdByEmail(email);
+        Response response = waitlistService.accept(entryId, paymentDetails, userId);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+}
@@ -0,0 +1,19 @@
+package com.hotel.booking.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Progress of the last AnalyticsBackfill started on this instance
+@Data
+@NoArgsConstructor
+public class AnalyticsBackfillStatus {
+	private boolean running;
+	private boolean reset;
+	private LocalDateTime startedAt;
+	private LocalDateTime finishedAt;
+	private long bookingsScanned;
+	private long paymentsScanned;
+	private String error;
+}
@@ -0,0 +1,45 @@
+package com.hotel.booking.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// GET /api/admin/analytics: one totals row plus breakdowns by hotel, room type and night
+@Data
+@NoArgsConstructor
+public class AnalyticsReport {
+	private LocalDate from;
+	private LocalDate to;
+	private Long hotelId;
+	private Row totals;
+	private List<Row> byHotel = new ArrayList<>();
+	private List<Row> byRoomType = new ArrayList<>();
+	private List<Row> byDay = new ArrayList<>();
+
+	@Data
+	@NoArgsConstructor
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	public static class Row {
+		private Long hotelId;
+		private String hotelName;
+		private String roomType;
+		private LocalDate date;
+		private long roomNightsAvailable;
+		private long roomNightsSold;
+		private double occupancyRate;
+		// Average daily rate: room revenue per room-night sold
+		private double adr;
+		// Room revenue per available room-night
+		private double revpar;
+		private double roomRevenue;
+		private double paymentsCaptured;
+		private double refunds;
+		// HyperLogLog estimate, about 3% standard error
+		private long distinctGuests;
+	}
+}
@@ -5,6 +5,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime; // Import LocalDateTime
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.hotel.booking.model.BookingStatus;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -23,7 +24,7 @@ public class BookingDTO {
     private LocalDate checkOutDate;
     private Double totalAmount;
     private String roomNumber;
-	private String status;
+	private BookingStatus status;
 	private String roomType;
 	private String hotelName;
 	private LocalDateTime bookingTime; // <-- Add this field
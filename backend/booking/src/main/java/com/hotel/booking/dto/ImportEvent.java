@@ -0,0 +1,30 @@
+package com.hotel.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Streamed back to the client as NDJSON while an import runs
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportEvent {
+    private String type;          // "progress", "error" or "summary"
+    private Long line;
+    private String message;
+    private Long rowsRead;
+    private Long hotelsImported;
+    private Long roomsImported;
+    private Long errorCount;
+
+    public static ImportEvent error(long line, String message) {
+        ImportEvent event = new ImportEvent();
+        event.setType("error");
+        event.setLine(line);
+        event.setMessage(message);
+        return event;
+    }
+}
@@ -0,0 +1,28 @@
+package com.hotel.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One line of an inventory import: either a HOTEL or a ROOM record
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ImportRow {
+    private String record;
+    private String ref;        // import-local hotel reference, used by ROOM rows in the same file
+    private String name;
+    private String adress;
+    private String city;
+    private String state;
+    private String zipcode;
+    private String contact;
+    private String hotelRef;   // ref of a HOTEL row, or "#<id>" for an existing hotel
+    private String roomNumber;
+    private String type;
+    private Double price;
+    private Boolean available;
+}
@@ -0,0 +1,17 @@
+package com.hotel.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Completion callback from the payment gateway, see PaymentProcessor#handleWebhook
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentWebhookEvent {
+	private String type;            // payment.authorized, payment.captured, payment.failed, refund.succeeded
+	private String idempotencyKey;  // the key we sent with authorize, present even if that call timed out
+	private String reference;
+	private Double amount;
+	private String message;
+}
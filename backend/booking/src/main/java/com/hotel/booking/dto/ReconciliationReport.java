@@ -0,0 +1,38 @@
+package com.hotel.booking.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of one ReconciliationJob run; also written to reconciliation.report-dir
+@Data
+@NoArgsConstructor
+public class ReconciliationReport {
+	private LocalDateTime startedAt;
+	private LocalDateTime finishedAt;
+	private long durationMs;
+	private long bookingsScanned;
+	private long unlinkedPayments;
+	private Map<String, Long> mismatches = new LinkedHashMap<>();
+	private long refundsQueued;
+	private long refundsIssued;
+	private long refundsFailed;
+	private String reportFile;
+	private List<Mismatch> samples = new ArrayList<>();
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Mismatch {
+		private String type;
+		private Long bookingId;
+		private Long paymentId;
+		private String detail;
+	}
+}
@@ -31,4 +31,7 @@ public class Response {
 
     private Payment payment;
     private List<Payment> paymentList;
+
+    private WaitlistEntryDTO waitlistEntry;
+    private List<WaitlistEntryDTO> waitlist;
 }
\ No newline at end of file
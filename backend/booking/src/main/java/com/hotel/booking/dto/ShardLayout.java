@@ -0,0 +1,21 @@
+package com.hotel.booking.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The shards this instance routes to and the hotels placed explicitly on them
+@Data
+@NoArgsConstructor
+public class ShardLayout {
+	private boolean enabled;
+	private String defaultShard;
+	private String newHotelShard;
+	private List<String> shards = new ArrayList<>();
+	private Map<Long, String> placements = new TreeMap<>();
+	private List<Long> moving = new ArrayList<>();
+}
@@ -0,0 +1,22 @@
+package com.hotel.booking.dto;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of moving one hotel between shards (ShardRebalancer)
+@Data
+@NoArgsConstructor
+public class ShardMoveReport {
+	private Long hotelId;
+	private String fromShard;
+	private String toShard;
+	private LocalDateTime startedAt;
+	private LocalDateTime finishedAt;
+	private long durationMs;
+	// Rows copied per table; users are reference copies only added where missing
+	private Map<String, Integer> rowsCopied = new LinkedHashMap<>();
+}
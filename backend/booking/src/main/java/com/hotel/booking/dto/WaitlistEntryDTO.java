@@ -0,0 +1,26 @@
+package com.hotel.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntryDTO {
+	private Long id;
+	private Long hotelId;
+	private String roomType;
+	private LocalDate checkInDate;
+	private LocalDate checkOutDate;
+	private String status;
+	private LocalDateTime createdAt;
+	private Long bookingId;
+	private LocalDateTime offerExpiresAt;
+}
@@ -1,6 +1,8 @@
         package com.hotel.booking.exception;
 
         import io.jsonwebtoken.ExpiredJwtException;
+        import org.slf4j.Logger;
+        import org.slf4j.LoggerFactory;
         import org.springframework.web.bind.annotation.ExceptionHandler;
         import org.springframework.web.bind.annotation.RestControllerAdvice;
         import org.springframework.http.ResponseEntity;
@@ -10,6 +12,8 @@
         @RestControllerAdvice
         public class GlobalExceptionHandler {
 
+            private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
             @ExceptionHandler(ExpiredJwtException.class)
             public ResponseEntity<?> handleExpiredJwt(ExpiredJwtException ex) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -23,6 +27,13 @@
                         .body(Map.of("message", "Invalid ID format: " + ex.getMessage()));
             }
 
+            @ExceptionHandler(HotelMovingException.class)
+            public ResponseEntity<?> handleHotelMoving(HotelMovingException ex) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header("Retry-After", "5")
+                        .body(Map.of("message", ex.getMessage()));
+            }
+
             @ExceptionHandler(RuntimeException.class) // Catch RuntimeExceptions from orElseThrow
             public ResponseEntity<?> handleRuntimeException(RuntimeException ex) {
                 // You might want to refine this to catch more specific custom exceptions
@@ -34,7 +45,7 @@
             // Fallback for any other unhandled exceptions
             @ExceptionHandler(Exception.class)
             public ResponseEntity<?> handleGenericException(Exception ex) {
-                ex.printStackTrace(); // Log the full stack trace for debugging
+                log.error("Unhandled exception", ex);
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                         .body(Map.of("message", "An unexpected error occurred: " + ex.getMessage()));
             }
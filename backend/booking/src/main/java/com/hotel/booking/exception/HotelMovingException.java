@@ -0,0 +1,16 @@
+package com.hotel.booking.exception;
+
+// A write reached a hotel that ShardRebalancer is moving between shards; the client should retry shortly
+public class HotelMovingException extends RuntimeException {
+
+    private final Long hotelId;
+
+    public HotelMovingException(Long hotelId) {
+        super("Hotel " + hotelId + " is being moved, try again shortly");
+        this.hotelId = hotelId;
+    }
+
+    public Long getHotelId() {
+        return hotelId;
+    }
+}
@@ -0,0 +1,26 @@
+package com.hotel.booking.model;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-aggregate version stamped on outbox events by OutboxRecorder. Bumped
+ * under the row lock in the recording transaction, so a booking's (or room's,
+ * or payment's) versions follow commit order on every instance, unlike ids.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "aggregate_version")
+public class AggregateVersion {
+
+	@EmbeddedId
+	private AggregateVersionId id;
+	private long version;
+
+}
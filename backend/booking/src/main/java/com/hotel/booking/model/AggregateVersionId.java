@@ -0,0 +1,21 @@
+package com.hotel.booking.model;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class AggregateVersionId implements Serializable {
+
+	@Column(length = 16)
+	private String aggregateType;
+	private Long aggregateId;
+
+}
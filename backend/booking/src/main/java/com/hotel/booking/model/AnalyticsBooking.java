@@ -0,0 +1,30 @@
+package com.hotel.booking.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// What one booking currently contributes to analytics_daily, so a change can be applied as old-minus-new
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "analytics_booking")
+public class AnalyticsBooking {
+
+	@Id
+	private Long bookingId;
+	private Long hotelId;
+	private String roomType;
+	private Long userId;
+	private LocalDate checkInDate;
+	private LocalDate checkOutDate;
+	private Double nightlyRevenue;
+	private Long lastVersion;
+
+}
@@ -0,0 +1,29 @@
+package com.hotel.booking.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Capture and refund of one payment as already counted in analytics_daily
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "analytics_payment")
+public class AnalyticsPayment {
+
+	@Id
+	private Long paymentId;
+	private Long hotelId;
+	private String roomType;
+	private Double capturedAmount;
+	private LocalDate capturedOn;
+	private Double refundedAmount;
+	private LocalDate refundedOn;
+
+}
@@ -0,0 +1,50 @@
+package com.hotel.booking.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A completed or cancelled booking moved out of the hot booking table by
+ * BookingArchiver, with its payment folded in. Keeps the original booking id
+ * and plain ids instead of associations, plus the room and hotel names as they
+ * were, so rows stay readable after rooms, hotels or users change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "booking_archive")
+public class ArchivedBooking {
+
+	@Id
+	private Long id;
+	private Long userId;
+	private Long hotelId;
+	private Long roomId;
+	private String hotelName;
+	private String roomNumber;
+	private String roomType;
+	private LocalDate checkInDate;
+	private LocalDate checkOutDate;
+	private Double totalAmount;
+	private BookingStatus status;
+	private LocalDateTime bookingTime;
+	private Long paymentId;
+	private Double paymentAmount;
+	private String paymentMethod;
+	@Enumerated(EnumType.STRING)
+	private PaymentStatus paymentStatus;
+	private Double refundAmount;
+	private LocalDateTime paymentTime;
+	private LocalDateTime archivedAt;
+
+}
@@ -7,7 +7,10 @@ import java.time.LocalDateTime; // Import LocalDateTime
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import org.hibernate.annotations.GeneratedColumn;
+
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -15,6 +18,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -27,7 +31,8 @@ import lombok.NoArgsConstructor;
 public class Booking {
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+	@SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
 	private Long id;
 	
 	@ManyToOne
@@ -48,8 +53,17 @@ public class Booking {
 	private LocalDate checkInDate;
 	private LocalDate checkOutDate;
 	private Double totalAmount;
-	private String status;
+	@Column(nullable = false)
+	private BookingStatus status;
 	private LocalDateTime bookingTime; // <-- Add this field for the 2-hour threshold
+	// Only set while HELD for a waitlist offer
+	private LocalDateTime holdExpiresAt;
+
+	// room_id while the booking holds the room, NULL otherwise; computed by the database for the overlap index
+	@GeneratedColumn("CASE WHEN status IN (1, 2, 3, 7) THEN room_id END")
+	@Column(name = "active_room_id", insertable = false, updatable = false)
+	@JsonIgnore
+	private Long activeRoomId;
 
 	@OneToOne(mappedBy = "booking", cascade = CascadeType.ALL)
 	// @JsonIgnore // You might want to remove this if you want payment details loaded with booking
@@ -0,0 +1,49 @@
+package com.hotel.booking.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Booking lifecycle, stored as a TINYINT code (BookingStatusConverter). Codes
+ * are part of the schema: the booking.active_room_id generated column and the
+ * lifecycle sweeper's native updates use them, so never renumber, only add.
+ */
+public enum BookingStatus {
+	PENDING_PAYMENT(1),
+	CONFIRMED(2),
+	CHECKED_IN(3),
+	CHECKED_OUT(4),
+	CANCELLED(5),
+	PAYMENT_FAILED(6),
+	// Offered to a waitlisted guest until hold_expires_at; accepting it starts the payment
+	HELD(7);
+
+	// Bookings that hold their room for their dates; keep in step with active_room_id
+	public static final Set<BookingStatus> ACTIVE = EnumSet.of(PENDING_PAYMENT, CONFIRMED, CHECKED_IN, HELD);
+
+	// Bookings that should be backed by a captured payment and count as sold room-nights
+	public static final Set<BookingStatus> PAID = EnumSet.of(CONFIRMED, CHECKED_IN, CHECKED_OUT);
+
+	private final byte code;
+
+	BookingStatus(int code) {
+		this.code = (byte) code;
+	}
+
+	public byte getCode() {
+		return code;
+	}
+
+	public boolean isActive() {
+		return ACTIVE.contains(this);
+	}
+
+	public static BookingStatus fromCode(byte code) {
+		for (BookingStatus status : values()) {
+			if (status.code == code) {
+				return status;
+			}
+		}
+		throw new IllegalArgumentException("Unknown booking status code " + code);
+	}
+}
@@ -0,0 +1,19 @@
+package com.hotel.booking.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores BookingStatus as its explicit code rather than the ordinal or the name
+@Converter(autoApply = true)
+public class BookingStatusConverter implements AttributeConverter<BookingStatus, Byte> {
+
+	@Override
+	public Byte convertToDatabaseColumn(BookingStatus status) {
+		return status == null ? null : status.getCode();
+	}
+
+	@Override
+	public BookingStatus convertToEntityAttribute(Byte code) {
+		return code == null ? null : BookingStatus.fromCode(code);
+	}
+}
@@ -0,0 +1,32 @@
+package com.hotel.booking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per night, hotel and room type: room-nights sold and the room revenue of
+ * those nights, cash captured and refunded that day, and a HyperLogLog sketch
+ * of the guests staying. Maintained incrementally by AnalyticsAggregator.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "analytics_daily")
+public class DailyStat {
+
+	@EmbeddedId
+	private DailyStatId id;
+	private int roomsSold;
+	private double roomRevenue;
+	private double paymentsCaptured;
+	private double refunds;
+	@Column(length = 1024)
+	private byte[] guestSketch;
+
+}
@@ -0,0 +1,21 @@
+package com.hotel.booking.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class DailyStatId implements Serializable {
+
+	private LocalDate statDate;
+	private Long hotelId;
+	private String roomType;
+
+}
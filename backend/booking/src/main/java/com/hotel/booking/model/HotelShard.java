@@ -0,0 +1,29 @@
+package com.hotel.booking.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Where a hotel's rooms and bookings live when sharding is on; kept on the default shard (ShardDirectory)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "hotel_shard")
+public class HotelShard {
+
+	@Id
+	private Long hotelId;
+	@Column(nullable = false, length = 64)
+	private String shard;
+	// Set while ShardRebalancer copies the hotel; writes for it are refused meanwhile
+	private boolean moving;
+	private LocalDateTime updatedAt;
+
+}
@@ -0,0 +1,32 @@
+package com.hotel.booking.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row per changed hotel, room or hotel waitlist, bumped in the
+ * transaction that changes it. Every instance polls the recently changed
+ * rows and drops what it has cached about them (InvalidationPoller).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "invalidation_version")
+public class InvalidationVersion {
+
+	@EmbeddedId
+	private InvalidationVersionId id;
+	private long version;
+	private Long hotelId;
+	@Column(nullable = false)
+	private LocalDateTime changedAt;
+
+}
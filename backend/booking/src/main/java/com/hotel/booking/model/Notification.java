@@ -0,0 +1,46 @@
+package com.hotel.booking.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A queued guest email; enqueued from the outbox and delivered by NotificationWorker
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "notification")
+public class Notification {
+
+	public static final String PENDING = "PENDING";
+	public static final String SENT = "SENT";
+	public static final String FAILED = "FAILED";
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+	@SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 50)
+	private Long id;
+	@Column(unique = true)
+	private Long sourceEventId;
+	private String template;
+	private String recipient;
+	@Column(length = 4000)
+	private String variables;
+	private String status;
+	private int attempts;
+	private LocalDateTime nextAttemptAt;
+	private LocalDateTime createdAt;
+	private LocalDateTime sentAt;
+	@Column(length = 1000)
+	private String lastError;
+
+}
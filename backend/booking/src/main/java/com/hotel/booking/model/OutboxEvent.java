@@ -0,0 +1,45 @@
+package com.hotel.booking.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A booking/room change written in the same transaction as the change itself; see OutboxRelay
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "outbox_event")
+public class OutboxEvent {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+	@SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+	private Long id;
+	private String aggregateType;
+	private Long aggregateId;
+	// Version of the aggregate this event leaves behind; see AggregateVersion
+	private Long aggregateVersion;
+	private Long roomId;
+	// Order of this event among its room's events; see OutboxRoomSequence
+	private Long roomSeq;
+	private String eventType;
+	@Column(length = 4000)
+	private String payload;
+	private LocalDateTime createdAt;
+	private LocalDateTime publishedAt;
+	private int attempts;
+	private LocalDateTime nextAttemptAt;
+	@Column(length = 1000)
+	private String lastError;
+
+}
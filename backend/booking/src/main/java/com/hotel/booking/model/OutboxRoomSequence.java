@@ -0,0 +1,26 @@
+package com.hotel.booking.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last outbox sequence number handed out per room. Bumped by OutboxRecorder in
+ * the transaction that records the event, so the row lock orders the events of
+ * a room by commit rather than by id (ids come from per-instance pooled blocks).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "outbox_room_seq")
+public class OutboxRoomSequence {
+
+	@Id
+	private Long roomId;
+	private long lastSeq;
+
+}
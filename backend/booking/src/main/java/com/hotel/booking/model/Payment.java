@@ -5,12 +5,16 @@ import java.time.LocalDate;
 import java.time.LocalDateTime; // Change to LocalDateTime for precise timestamp
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -23,12 +27,20 @@ import lombok.NoArgsConstructor;
 public class Payment {
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_seq")
+	@SequenceGenerator(name = "payment_seq", sequenceName = "payment_seq", allocationSize = 50)
 	private Long id;
 	private Double amount;
 	private String paymentMethod;
-	private String paymentStatus;
+	@Enumerated(EnumType.STRING)
+	private PaymentStatus paymentStatus;
 	private LocalDateTime paymentTime; // <-- Changed from LocalDate to LocalDateTime
+	private String gatewayReference;
+	private Double refundAmount;
+	@Column(length = 1000)
+	private String failureReason;
+	private LocalDateTime updatedAt;
+	private LocalDateTime nextAttemptAt;
 	
 	@OneToOne
 	@JoinColumn(name = "booking_Id")
@@ -0,0 +1,23 @@
+package com.hotel.booking.model;
+
+import java.util.Set;
+
+// Payment lifecycle; PaymentProcessor only moves a payment along these edges
+public enum PaymentStatus {
+	PENDING,
+	AUTHORIZED,
+	CAPTURED,
+	REFUND_PENDING,
+	REFUNDED,
+	FAILED;
+
+	public boolean canTransitionTo(PaymentStatus next) {
+		return switch (this) {
+			case PENDING -> Set.of(AUTHORIZED, CAPTURED, FAILED).contains(next);
+			case AUTHORIZED -> Set.of(CAPTURED, FAILED).contains(next);
+			case CAPTURED -> next == REFUND_PENDING || next == REFUNDED;
+			case REFUND_PENDING -> next == REFUNDED;
+			case REFUNDED, FAILED -> false;
+		};
+	}
+}
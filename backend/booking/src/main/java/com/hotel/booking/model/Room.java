@@ -11,6 +11,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -22,12 +23,12 @@ import lombok.NoArgsConstructor;
 public class Room {
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_seq")
+	@SequenceGenerator(name = "room_seq", sequenceName = "room_seq", allocationSize = 50)
 	private Long id;
 	private String roomNumber;
 	private String type;
 	private Double price;
-	private boolean available;
 	
 	@ManyToOne
 	@JoinColumn(name = "hotel_Id")
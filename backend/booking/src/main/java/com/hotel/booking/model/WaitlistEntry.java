@@ -0,0 +1,52 @@
+package com.hotel.booking.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A guest waiting for a hotel (and optionally a room type) to free up for their dates; see WaitlistMatcher
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "waitlist_entry")
+public class WaitlistEntry {
+
+	public static final String WAITING = "WAITING";
+	public static final String OFFERED = "OFFERED";
+	public static final String BOOKED = "BOOKED";
+	public static final String EXPIRED = "EXPIRED";
+	public static final String WITHDRAWN = "WITHDRAWN";
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waitlist_entry_seq")
+	@SequenceGenerator(name = "waitlist_entry_seq", sequenceName = "waitlist_entry_seq", allocationSize = 50)
+	private Long id;
+	@Column(nullable = false)
+	private Long userId;
+	@Column(nullable = false)
+	private Long hotelId;
+	// Null matches any room type
+	private String roomType;
+	@Column(nullable = false)
+	private LocalDate checkInDate;
+	@Column(nullable = false)
+	private LocalDate checkOutDate;
+	@Column(nullable = false)
+	private String status;
+	private LocalDateTime createdAt;
+	// The HELD booking offered to this entry, if any
+	private Long bookingId;
+	private LocalDateTime offerExpiresAt;
+
+}
@@ -0,0 +1,88 @@
+package com.hotel.booking.monitoring;
+
+import com.hotel.booking.dto.BookingDTO;
+import com.hotel.booking.startup.StartupWarmup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the initiate -> finalize -> cancel funnel. Conversion is
+ * finalized / initiated over any window in Prometheus; the time a user spends
+ * between a successful initiate and the matching finalize is a separate timer.
+ * Pending initiates are kept in a bounded map and expire after the TTL.
+ */
+@Component
+public class BookingFunnelMetrics {
+
+    private final Counter initiated;
+    private final Counter finalized;
+    private final Counter finalizedWithoutInitiate;
+    private final Counter cancelled;
+    private final Timer initiateToFinalize;
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxPending;
+
+    public BookingFunnelMetrics(MeterRegistry registry,
+                                @Value("${metrics.funnel.pending-ttl-minutes:30}") long ttlMinutes,
+                                @Value("${metrics.funnel.max-pending:10000}") int maxPending) {
+        this.initiated = Counter.builder("hotel.booking.funnel").tag("stage", "initiated").register(registry);
+        this.finalized = Counter.builder("hotel.booking.funnel").tag("stage", "finalized").register(registry);
+        this.cancelled = Counter.builder("hotel.booking.funnel").tag("stage", "cancelled").register(registry);
+        this.finalizedWithoutInitiate = Counter.builder("hotel.booking.funnel.unmatched")
+                .description("Finalized bookings with no tracked initiate (expired, evicted or another node)")
+                .register(registry);
+        this.initiateToFinalize = Timer.builder("hotel.booking.funnel.initiate.to.finalize")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofSeconds(1))
+                .maximumExpectedValue(Duration.ofMinutes(ttlMinutes))
+                .register(registry);
+        this.ttlNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+        this.maxPending = maxPending;
+        registry.gaugeMapSize("hotel.booking.funnel.pending", List.of(), pending);
+    }
+
+    public void initiated(Long userId, BookingDTO booking) {
+        if (StartupWarmup.isActive()) {
+            return;
+        }
+        initiated.increment();
+        long now = System.nanoTime();
+        if (pending.size() >= maxPending) {
+            pending.values().removeIf(started -> now - started > ttlNanos);
+            if (pending.size() >= maxPending) {
+                return;
+            }
+        }
+        pending.put(key(userId, booking), now);
+    }
+
+    public void finalized(Long userId, BookingDTO booking) {
+        finalized.increment();
+        Long started = pending.remove(key(userId, booking));
+        if (started == null || System.nanoTime() - started > ttlNanos) {
+            finalizedWithoutInitiate.increment();
+            return;
+        }
+        initiateToFinalize.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    public void cancelled() {
+        cancelled.increment();
+    }
+
+    private static String key(Long userId, BookingDTO booking) {
+        return userId + ":" + booking.getRoomId() + ":" + booking.getCheckInDate() + ":" + booking.getCheckOutDate();
+    }
+}
@@ -0,0 +1,90 @@
+package com.hotel.booking.monitoring;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rate-limits identical stack traces. During a DB outage every request fails
+ * with the same exception from the same place; the first few per window are
+ * logged in full and the rest are dropped and counted. The count is reported
+ * once the next window opens for that exception.
+ *
+ * Configured in logback-spring.xml (allowedRepetitions, windowSeconds).
+ */
+public class DuplicateStackTraceTurboFilter extends TurboFilter {
+
+    private static final int MAX_TRACKED = 1000;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private int allowedRepetitions = 3;
+    private long windowMillis = 60_000;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        Throwable throwable = t != null ? t : lastThrowable(params);
+        if (throwable == null) {
+            return FilterReply.NEUTRAL;
+        }
+        if (windows.size() > MAX_TRACKED) {
+            windows.clear();
+        }
+
+        String key = key(logger, throwable);
+        long now = System.currentTimeMillis();
+        Window window = windows.computeIfAbsent(key, k -> new Window(now));
+        if (now - window.start >= windowMillis) {
+            Window expired = windows.put(key, window = new Window(now));
+            int suppressed = expired == null ? 0 : expired.suppressed.get();
+            if (suppressed > 0) {
+                LoggerFactory.getLogger(DuplicateStackTraceTurboFilter.class)
+                        .warn("Suppressed {} repeats of {} logged by {}", suppressed, key, logger.getName());
+            }
+        }
+        if (window.seen.incrementAndGet() <= allowedRepetitions) {
+            return FilterReply.NEUTRAL;
+        }
+        window.suppressed.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    // Exception type plus the frame it was thrown from identifies "the same failure"
+    private static String key(Logger logger, Throwable throwable) {
+        StackTraceElement[] frames = throwable.getStackTrace();
+        String origin = frames.length > 0 ? frames[0].toString() : "?";
+        return throwable.getClass().getName() + " at " + origin;
+    }
+
+    private static Throwable lastThrowable(Object[] params) {
+        if (params == null || params.length == 0) {
+            return null;
+        }
+        return params[params.length - 1] instanceof Throwable throwable ? throwable : null;
+    }
+
+    public void setAllowedRepetitions(int allowedRepetitions) {
+        this.allowedRepetitions = allowedRepetitions;
+    }
+
+    public void setWindowSeconds(long windowSeconds) {
+        this.windowMillis = windowSeconds * 1000;
+    }
+
+    private static final class Window {
+        private final long start;
+        private final AtomicInteger seen = new AtomicInteger();
+        private final AtomicInteger suppressed = new AtomicInteger();
+
+        Window(long start) {
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.hotel.booking.monitoring;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+
+/**
+ * Ratio-based head sampling that still records the spans it does not sample.
+ * Unsampled traces carry the not-sampled flag downstream as usual, but their
+ * spans reach {@link KeepSlowSpanProcessor}, which keeps the slow ones.
+ */
+public class HeadSampler implements Sampler {
+
+    private final Sampler ratio;
+
+    public HeadSampler(double probability) {
+        this.ratio = Sampler.traceIdRatioBased(probability);
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        SpanContext parent = Span.fromContext(parentContext).getSpanContext();
+        boolean sampled = parent.isValid()
+                ? parent.isSampled()
+                : ratio.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks)
+                        .getDecision() == SamplingDecision.RECORD_AND_SAMPLE;
+        return sampled ? SamplingResult.recordAndSample() : SamplingResult.recordOnly();
+    }
+
+    @Override
+    public String getDescription() {
+        return "HeadSampler{" + ratio.getDescription() + ", unsampled=RECORD_ONLY}";
+    }
+}
@@ -0,0 +1,190 @@
+package com.hotel.booking.monitoring;
+
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Exports head-sampled spans as they end, and buffers the spans of unsampled
+ * traces until their local root ends. If the root took longer than the slow
+ * threshold the whole buffered trace is exported, otherwise it is dropped.
+ * Export runs on one background thread behind a bounded queue, so request
+ * threads never touch the exporter; when the queue is full spans are dropped
+ * and counted.
+ */
+public class KeepSlowSpanProcessor implements SpanProcessor {
+
+    private static final int EXPORT_BATCH = 512;
+    private static final long STALE_TRACE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final SpanExporter exporter;
+    private final long slowThresholdNanos;
+    private final int maxBufferedTraces;
+    private final int maxSpansPerTrace;
+    private final Map<String, PendingTrace> pending = new ConcurrentHashMap<>();
+    private final BlockingQueue<SpanData> queue;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public KeepSlowSpanProcessor(SpanExporter exporter, long slowThresholdMs,
+                                 int maxBufferedTraces, int maxSpansPerTrace, int queueSize) {
+        this.exporter = exporter;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.maxBufferedTraces = maxBufferedTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.worker = Thread.ofPlatform().daemon().name("trace-export").start(this::drainLoop);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        SpanContext context = span.getSpanContext();
+        if (context.isSampled()) {
+            enqueue(span.toSpanData());
+            return;
+        }
+
+        String traceId = context.getTraceId();
+        boolean localRoot = !span.getParentSpanContext().isValid() || span.getParentSpanContext().isRemote();
+        if (!localRoot) {
+            PendingTrace trace = pending.get(traceId);
+            if (trace == null) {
+                if (pending.size() >= maxBufferedTraces && !evictStale()) {
+                    dropped.increment();
+                    return;
+                }
+                trace = pending.computeIfAbsent(traceId, id -> new PendingTrace());
+            }
+            trace.add(span.toSpanData(), maxSpansPerTrace);
+            return;
+        }
+
+        PendingTrace trace = pending.remove(traceId);
+        if (span.getLatencyNanos() < slowThresholdNanos) {
+            return;
+        }
+        if (trace != null) {
+            trace.drainTo(this::enqueue);
+        }
+        enqueue(span.toSpanData());
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    public long getDroppedSpans() {
+        return dropped.sum();
+    }
+
+    private void enqueue(SpanData span) {
+        if (!queue.offer(span)) {
+            dropped.increment();
+        }
+    }
+
+    // Spans whose root never ended here (async work outliving the request) would otherwise pile up
+    private boolean evictStale() {
+        long now = System.nanoTime();
+        pending.values().removeIf(trace -> now - trace.createdNanos > STALE_TRACE_NANOS);
+        return pending.size() < maxBufferedTraces;
+    }
+
+    private void drainLoop() {
+        List<SpanData> batch = new ArrayList<>(EXPORT_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                SpanData first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, EXPORT_BATCH - 1);
+                exporter.export(batch).join(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException e) {
+                // A broken batch must not kill the only export thread
+                dropped.add(batch.size());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        List<SpanData> batch = new ArrayList<>();
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            exporter.export(batch).join(10, TimeUnit.SECONDS);
+        }
+        return exporter.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        forceFlush();
+        return exporter.shutdown();
+    }
+
+    private static final class PendingTrace {
+        private final long createdNanos = System.nanoTime();
+        private final List<SpanData> spans = new ArrayList<>();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        void add(SpanData span, int max) {
+            lock.lock();
+            try {
+                if (spans.size() < max) {
+                    spans.add(span);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void drainTo(Consumer<SpanData> sink) {
+            lock.lock();
+            try {
+                spans.forEach(sink);
+                spans.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
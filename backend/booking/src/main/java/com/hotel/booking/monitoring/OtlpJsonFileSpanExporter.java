@@ -0,0 +1,208 @@
+package com.hotel.booking.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes spans as OTLP/JSON, one ExportTraceServiceRequest per line, the same
+ * layout the collector's file exporter produces, so the file can be replayed
+ * into any OTLP backend or read with jq. The file rolls over to "&lt;name&gt;.1"
+ * once it passes the size limit.
+ */
+public class OtlpJsonFileSpanExporter implements SpanExporter {
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final long maxBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Writer writer;
+    private long written;
+
+    public OtlpJsonFileSpanExporter(ObjectMapper objectMapper, Path file, long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        if (spans.isEmpty()) {
+            return CompletableResultCode.ofSuccess();
+        }
+        lock.lock();
+        try {
+            byte[] line = objectMapper.writeValueAsBytes(toRequest(spans));
+            if (writer == null || written + line.length > maxBytes) {
+                roll();
+            }
+            String json = new String(line, StandardCharsets.UTF_8);
+            writer.write(json);
+            writer.write('\n');
+            writer.flush();
+            written += line.length + 1;
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void roll() throws IOException {
+        if (writer != null) {
+            writer.close();
+            Files.move(file, file.resolveSibling(file.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        } else if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        written = Files.size(file);
+    }
+
+    private ObjectNode toRequest(Collection<SpanData> spans) {
+        Map<Resource, Map<InstrumentationScopeInfo, List<SpanData>>> grouped = new LinkedHashMap<>();
+        for (SpanData span : spans) {
+            grouped.computeIfAbsent(span.getResource(), r -> new LinkedHashMap<>())
+                    .computeIfAbsent(span.getInstrumentationScopeInfo(), s -> new ArrayList<>())
+                    .add(span);
+        }
+
+        ObjectNode request = objectMapper.createObjectNode();
+        ArrayNode resourceSpans = request.putArray("resourceSpans");
+        grouped.forEach((resource, byScope) -> {
+            ObjectNode rs = resourceSpans.addObject();
+            rs.putObject("resource").set("attributes", attributes(resource.getAttributes()));
+            ArrayNode scopeSpans = rs.putArray("scopeSpans");
+            byScope.forEach((scope, scopeList) -> {
+                ObjectNode ss = scopeSpans.addObject();
+                ObjectNode scopeNode = ss.putObject("scope").put("name", scope.getName());
+                if (scope.getVersion() != null) {
+                    scopeNode.put("version", scope.getVersion());
+                }
+                ArrayNode spanArray = ss.putArray("spans");
+                scopeList.forEach(span -> spanArray.add(span(span)));
+            });
+        });
+        return request;
+    }
+
+    private ObjectNode span(SpanData span) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("traceId", span.getTraceId());
+        node.put("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid()) {
+            node.put("parentSpanId", span.getParentSpanId());
+        }
+        node.put("name", span.getName());
+        node.put("kind", kind(span.getKind()));
+        // 64-bit integers are strings in OTLP/JSON
+        node.put("startTimeUnixNano", Long.toString(span.getStartEpochNanos()));
+        node.put("endTimeUnixNano", Long.toString(span.getEndEpochNanos()));
+        node.set("attributes", attributes(span.getAttributes()));
+        if (!span.getEvents().isEmpty()) {
+            ArrayNode events = node.putArray("events");
+            for (EventData event : span.getEvents()) {
+                ObjectNode e = events.addObject();
+                e.put("timeUnixNano", Long.toString(event.getEpochNanos()));
+                e.put("name", event.getName());
+                e.set("attributes", attributes(event.getAttributes()));
+            }
+        }
+        StatusData status = span.getStatus();
+        ObjectNode statusNode = node.putObject("status");
+        statusNode.put("code", switch (status.getStatusCode()) {
+            case UNSET -> 0;
+            case OK -> 1;
+            case ERROR -> 2;
+        });
+        if (!status.getDescription().isEmpty()) {
+            statusNode.put("message", status.getDescription());
+        }
+        return node;
+    }
+
+    private ArrayNode attributes(Attributes attributes) {
+        ArrayNode array = objectMapper.createArrayNode();
+        attributes.forEach((AttributeKey<?> key, Object value) -> {
+            ObjectNode attribute = array.addObject();
+            attribute.put("key", key.getKey());
+            attribute.set("value", anyValue(value));
+        });
+        return array;
+    }
+
+    private ObjectNode anyValue(Object value) {
+        ObjectNode node = objectMapper.createObjectNode();
+        if (value instanceof Boolean b) {
+            node.put("boolValue", b);
+        } else if (value instanceof Long l) {
+            node.put("intValue", Long.toString(l));
+        } else if (value instanceof Double d) {
+            node.put("doubleValue", d);
+        } else if (value instanceof List<?> list) {
+            ArrayNode values = node.putObject("arrayValue").putArray("values");
+            list.forEach(item -> values.add(anyValue(item)));
+        } else {
+            node.put("stringValue", String.valueOf(value));
+        }
+        return node;
+    }
+
+    private static int kind(SpanKind kind) {
+        return switch (kind) {
+            case INTERNAL -> 1;
+            case SERVER -> 2;
+            case CLIENT -> 3;
+            case PRODUCER -> 4;
+            case CONSUMER -> 5;
+        };
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        lock.lock();
+        try {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
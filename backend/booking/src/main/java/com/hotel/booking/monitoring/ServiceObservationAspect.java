@@ -0,0 +1,88 @@
+package com.hotel.booking.monitoring;
+
+import com.hotel.booking.dto.Response;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * One observation per controller and service call, which gives both a timer
+ * and a span. The services report failures through Response.statusCode rather
+ * than exceptions, so the outcome tag is that status code; tags are limited to
+ * class, method and outcome to keep the series count small.
+ */
+@Aspect
+@Component
+public class ServiceObservationAspect {
+
+    static final String SERVICE_METRIC = "hotel.service.calls";
+    static final String CONTROLLER_METRIC = "hotel.controller.calls";
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceObservationAspect.class);
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Around("execution(* com.hotel.booking.service.interfac.IBookingService.*(..))"
+            + " || execution(* com.hotel.booking.service.interfac.IRoomService.*(..))"
+            + " || execution(* com.hotel.booking.service.interfac.IHotelService.*(..))"
+            + " || execution(* com.hotel.booking.service.interfac.IPaymentService.*(..))")
+    public Object observeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return observe(SERVICE_METRIC, "service", joinPoint);
+    }
+
+    @Around("within(com.hotel.booking.controller..*)"
+            + " && @within(org.springframework.web.bind.annotation.RestController)")
+    public Object observeControllerCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return observe(CONTROLLER_METRIC, "controller", joinPoint);
+    }
+
+    private Object observe(String name, String typeTag, ProceedingJoinPoint joinPoint) throws Throwable {
+        String type = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        Observation observation = Observation.createNotStarted(name, observationRegistry)
+                .contextualName(type + "." + method)
+                .lowCardinalityKeyValue(typeTag, type)
+                .lowCardinalityKeyValue("method", method)
+                .start();
+        String outcome = "exception";
+        try (Observation.Scope scope = observation.openScope()) {
+            Object result = joinPoint.proceed();
+            if (result instanceof Response response) {
+                outcome = String.valueOf(response.getStatusCode());
+                logOutcome(type, method, response);
+            } else if (result instanceof ResponseEntity<?> entity) {
+                outcome = String.valueOf(entity.getStatusCode().value());
+            } else {
+                outcome = "ok";
+            }
+            return result;
+        } catch (Throwable e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.lowCardinalityKeyValue("outcome", outcome).stop();
+        }
+    }
+
+    // 404s and 409s are routine and can arrive by the thousand, so only a sample is logged
+    private static void logOutcome(String type, String method, Response response) {
+        int status = response.getStatusCode();
+        if (status == 404 || status == 409) {
+            log.info(SamplingTurboFilter.SAMPLED, "{}.{} -> {} {}", type, method, status, response.getMessage());
+        } else if (status >= 400 && status < 500) {
+            log.info("{}.{} -> {} {}", type, method, status, response.getMessage());
+        } else if (status >= 500) {
+            log.warn("{}.{} -> {} {}", type, method, status, response.getMessage());
+        }
+    }
+}
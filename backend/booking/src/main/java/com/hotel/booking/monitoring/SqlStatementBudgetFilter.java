@@ -0,0 +1,65 @@
+package com.hotel.booking.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts statements per HTTP request, feeds the per-endpoint histogram and logs
+ * any request that goes over the budget together with its query shapes, which
+ * is usually enough to spot an N+1 straight away.
+ */
+@Component
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementBudgetFilter.class);
+
+    @Autowired
+    private SqlStatementStats stats;
+
+    @Value("${sql.budget.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sql.budget.max-statements:20}")
+    private int budget;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try (SqlStatementTracker.Scope scope = SqlStatementTracker.begin()) {
+            filterChain.doFilter(request, response);
+
+            String endpoint = endpoint(request);
+            boolean overBudget = scope.getCount() > budget;
+            stats.record(endpoint, scope.getCount(), overBudget);
+            if (overBudget) {
+                log.warn("{} ran {} SQL statements (budget {}):\n{}", endpoint, scope.getCount(), budget,
+                        String.join("\n", scope.topFingerprints(5)));
+            }
+        }
+    }
+
+    // Route template rather than the raw URI so /api/hotels/1 and /api/hotels/2 share a histogram
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "UNMAPPED");
+    }
+}
@@ -0,0 +1,15 @@
+package com.hotel.booking.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Sees every statement Hibernate prepares (including batched and native ones) and counts it
+public class SqlStatementInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementTracker.record(sql);
+        return sql;
+    }
+}
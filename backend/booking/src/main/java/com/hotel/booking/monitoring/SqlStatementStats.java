@@ -0,0 +1,72 @@
+package com.hotel.booking.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-endpoint histogram of statements per request. Buckets are fixed
+ * (0, 1, 2, 3-5, 6-10, 11-20, 21-50, 51-100, more) so memory stays constant.
+ */
+@Component
+public class SqlStatementStats {
+
+    private static final int[] UPPER_BOUNDS = { 0, 1, 2, 5, 10, 20, 50, 100, Integer.MAX_VALUE };
+    private static final String[] LABELS = { "0", "1", "2", "3-5", "6-10", "11-20", "21-50", "51-100", ">100" };
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, int statements, boolean overBudget) {
+        endpoints.computeIfAbsent(endpoint, k -> new EndpointStats()).record(statements, overBudget);
+    }
+
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        endpoints.forEach((endpoint, stats) -> result.put(endpoint, stats.snapshot()));
+        return result;
+    }
+
+    private static class EndpointStats {
+        private final AtomicLongArray buckets = new AtomicLongArray(UPPER_BOUNDS.length);
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder overBudget = new LongAdder();
+        private volatile int max;
+
+        void record(int count, boolean exceeded) {
+            int bucket = 0;
+            while (count > UPPER_BOUNDS[bucket]) {
+                bucket++;
+            }
+            buckets.incrementAndGet(bucket);
+            requests.increment();
+            statements.add(count);
+            if (exceeded) {
+                overBudget.increment();
+            }
+            if (count > max) {
+                max = count;
+            }
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            long n = requests.sum();
+            result.put("requests", n);
+            result.put("mean", n == 0 ? 0 : (double) statements.sum() / n);
+            result.put("max", max);
+            result.put("overBudget", overBudget.sum());
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < LABELS.length; i++) {
+                histogram.put(LABELS[i], buckets.get(i));
+            }
+            result.put("histogram", histogram);
+            return result;
+        }
+    }
+}
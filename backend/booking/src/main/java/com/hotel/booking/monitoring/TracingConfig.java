@@ -0,0 +1,41 @@
+package com.hotel.booking.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Traces go to a local OTLP/JSON file rather than a collector. Boot's own
+ * sampler and batch processor are replaced: every span is recorded, head
+ * sampling decides what is exported straight away, and unsampled traces are
+ * still exported when the request was slow.
+ */
+@Configuration
+@ConditionalOnProperty(name = "management.tracing.enabled", matchIfMissing = true)
+public class TracingConfig {
+
+    @Bean
+    public Sampler otelSampler(@Value("${management.tracing.sampling.probability:0.1}") double probability) {
+        return new HeadSampler(probability);
+    }
+
+    @Bean
+    public SpanProcessor keepSlowSpanProcessor(ObjectMapper objectMapper,
+                                               @Value("${tracing.export.file:logs/traces.otlp.jsonl}") String file,
+                                               @Value("${tracing.export.max-file-bytes:104857600}") long maxFileBytes,
+                                               @Value("${tracing.keep-slow-ms:1000}") long keepSlowMs,
+                                               @Value("${tracing.buffer.max-traces:2000}") int maxTraces,
+                                               @Value("${tracing.buffer.max-spans-per-trace:500}") int maxSpansPerTrace,
+                                               @Value("${tracing.export.queue-size:8192}") int queueSize) {
+        OtlpJsonFileSpanExporter exporter = new OtlpJsonFileSpanExporter(objectMapper, Path.of(file), maxFileBytes);
+        return new KeepSlowSpanProcessor(exporter, keepSlowMs, maxTraces, maxSpansPerTrace, queueSize);
+    }
+}
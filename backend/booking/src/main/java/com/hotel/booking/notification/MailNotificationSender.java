@@ -0,0 +1,67 @@
+package com.hotel.booking.notification;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends a batch of emails over one SMTP connection through Spring's
+ * MailSender (spring.mail.*; tests point it at an in-process fake server).
+ * Returns the failures by notification id; everything not in the map was
+ * accepted by the server.
+ */
+@Component
+public class MailNotificationSender {
+
+    @Autowired
+    private MailSender mailSender;
+
+    @Value("${notification.from:no-reply@hotel.local}")
+    private String from;
+
+    public Map<Long, Exception> send(List<Outgoing> batch) {
+        Map<SimpleMailMessage, Long> ids = new IdentityHashMap<>();
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < messages.length; i++) {
+            Outgoing outgoing = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(from);
+            message.setTo(outgoing.recipient());
+            message.setSubject(outgoing.subject());
+            message.setText(outgoing.body());
+            messages[i] = message;
+            ids.put(message, outgoing.id());
+        }
+
+        Map<Long, Exception> failures = new HashMap<>();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            // Per-message failures, or every message when the connection itself failed
+            e.getFailedMessages().forEach((message, cause) -> failures.put(ids.get(message), cause));
+            if (failures.isEmpty()) {
+                batch.forEach(outgoing -> failures.put(outgoing.id(), e));
+            }
+        } catch (MailException e) {
+            // Raised before anything was sent (e.g. an unparsable address): isolate the culprit
+            if (batch.size() == 1) {
+                failures.put(batch.get(0).id(), e);
+            } else {
+                batch.forEach(outgoing -> failures.putAll(send(List.of(outgoing))));
+            }
+        }
+        return failures;
+    }
+
+    public record Outgoing(Long id, String recipient, String subject, String body) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.hotel.booking.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.dto.BookingDTO;
+import com.hotel.booking.model.Notification;
+import com.hotel.booking.model.User;
+import com.hotel.booking.outbox.OutboxMessage;
+import com.hotel.booking.outbox.OutboxSubscriber;
+import com.hotel.booking.repository.NotificationRepository;
+import com.hotel.booking.repository.UserRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Turns confirmed, cancelled and waitlist-held booking events into queued
+ * emails. Runs in the outbox relay's transaction, so the queue row commits with the
+ * event being marked published; the request that made the booking only wrote
+ * the outbox row and never waits on mail.
+ */
+@Component
+public class NotificationEnqueuer implements OutboxSubscriber {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public void onEvent(OutboxMessage message) throws Exception {
+        String template = templateFor(message.eventType());
+        if (template == null || notificationRepository.existsBySourceEventId(message.id())) {
+            return;
+        }
+        BookingDTO booking = objectMapper.readValue(message.payload(), BookingDTO.class);
+        User user = booking.getUserId() == null ? null : userRepository.findById(booking.getUserId()).orElse(null);
+        if (user == null || user.getEmail() == null) {
+            return;
+        }
+
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("guestName", user.getName() != null ? user.getName() : user.getEmail());
+        variables.put("bookingId", booking.getId());
+        variables.put("hotelName", booking.getHotelName());
+        variables.put("roomNumber", booking.getRoomNumber());
+        variables.put("roomType", booking.getRoomType());
+        variables.put("checkInDate", booking.getCheckInDate());
+        variables.put("checkOutDate", booking.getCheckOutDate());
+        variables.put("totalAmount", booking.getTotalAmount());
+
+        LocalDateTime now = LocalDateTime.now();
+        Notification notification = new Notification();
+        notification.setSourceEventId(message.id());
+        notification.setTemplate(template);
+        notification.setRecipient(user.getEmail());
+        notification.setVariables(objectMapper.writeValueAsString(variables));
+        notification.setStatus(Notification.PENDING);
+        notification.setNextAttemptAt(now);
+        notification.setCreatedAt(now);
+        notificationRepository.save(notification);
+    }
+
+    private static String templateFor(String eventType) {
+        return switch (eventType) {
+            case OutboxMessage.BOOKING_CONFIRMED -> "booking-confirmed";
+            case OutboxMessage.BOOKING_CANCELLED -> "booking-cancelled";
+            case OutboxMessage.BOOKING_HELD -> "waitlist-offer";
+            default -> null;
+        };
+    }
+}
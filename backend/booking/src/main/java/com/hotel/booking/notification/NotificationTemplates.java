@@ -0,0 +1,99 @@
+package com.hotel.booking.notification;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Plain-text email templates from classpath:notifications/{name}.txt. The
+ * first line is "Subject: ...", the rest after a blank line is the body;
+ * {{name}} placeholders are replaced from the variables map. Each template is
+ * parsed once into literal and placeholder parts and cached, so rendering is
+ * a single pass of appends.
+ */
+@Component
+public class NotificationTemplates {
+
+    private final Map<String, Compiled> cache = new ConcurrentHashMap<>();
+
+    public Rendered render(String name, Map<String, ?> variables) {
+        Compiled template = cache.computeIfAbsent(name, NotificationTemplates::load);
+        return new Rendered(template.subject.render(variables), template.body.render(variables));
+    }
+
+    private static Compiled load(String name) {
+        ClassPathResource resource = new ClassPathResource("notifications/" + name + ".txt");
+        String text;
+        try (InputStream in = resource.getInputStream()) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unknown notification template '" + name + "'", e);
+        }
+        int end = text.indexOf('\n');
+        String first = end < 0 ? text : text.substring(0, end);
+        if (!first.startsWith("Subject:")) {
+            throw new IllegalArgumentException("Template '" + name + "' must start with a Subject: line");
+        }
+        String body = end < 0 ? "" : text.substring(end + 1).stripLeading();
+        return new Compiled(Parts.parse(first.substring("Subject:".length()).trim()), Parts.parse(body));
+    }
+
+    public record Rendered(String subject, String body) {
+    }
+
+    private record Compiled(Parts subject, Parts body) {
+    }
+
+    // Alternating literal and placeholder parts; placeholders are stored as their variable name
+    private record Parts(String[] parts, boolean[] placeholder, int sizeHint) {
+
+        static Parts parse(String text) {
+            List<String> parts = new ArrayList<>();
+            List<Boolean> placeholder = new ArrayList<>();
+            int pos = 0;
+            while (pos < text.length()) {
+                int open = text.indexOf("{{", pos);
+                int close = open < 0 ? -1 : text.indexOf("}}", open + 2);
+                if (close < 0) {
+                    parts.add(text.substring(pos));
+                    placeholder.add(false);
+                    break;
+                }
+                if (open > pos) {
+                    parts.add(text.substring(pos, open));
+                    placeholder.add(false);
+                }
+                parts.add(text.substring(open + 2, close).trim());
+                placeholder.add(true);
+                pos = close + 2;
+            }
+            boolean[] flags = new boolean[placeholder.size()];
+            for (int i = 0; i < flags.length; i++) {
+                flags[i] = placeholder.get(i);
+            }
+            return new Parts(parts.toArray(String[]::new), flags, text.length() + 64);
+        }
+
+        String render(Map<String, ?> variables) {
+            StringBuilder out = new StringBuilder(sizeHint);
+            for (int i = 0; i < parts.length; i++) {
+                if (placeholder[i]) {
+                    Object value = variables.get(parts[i]);
+                    if (value != null) {
+                        out.append(value);
+                    }
+                } else {
+                    out.append(parts[i]);
+                }
+            }
+            return out.toString();
+        }
+    }
+}
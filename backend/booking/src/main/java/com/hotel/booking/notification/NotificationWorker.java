@@ -0,0 +1,250 @@
+package com.hotel.booking.notification;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.model.Notification;
+import com.hotel.booking.notification.MailNotificationSender.Outgoing;
+import com.hotel.booking.repository.NotificationRepository;
+import com.hotel.booking.sharding.ShardRouter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the notification queue.
+ *
+ * A batch is claimed with FOR UPDATE SKIP LOCKED and leased in a short
+ * transaction: attempts is bumped and next_attempt_at pushed out by the lease,
+ * so rows of a worker that dies mid-send come back on their own. The batch is
+ * then split across a small fixed pool, each slice rendered and sent over one
+ * SMTP connection, outside any transaction. Outcomes are written back in a
+ * second transaction: sent rows are marked SENT, failed rows are retried with
+ * jittered exponential backoff until notification.retry.max-attempts, then
+ * marked FAILED.
+ */
+@Component
+public class NotificationWorker implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationWorker.class);
+
+    private static final TypeReference<Map<String, Object>> VARIABLES = new TypeReference<>() {};
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationTemplates templates;
+
+    @Autowired
+    private MailNotificationSender sender;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${notification.worker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.worker.batch-size:50}")
+    private int batchSize;
+
+    @Value("${notification.worker.max-batches-per-run:10}")
+    private int maxBatchesPerRun;
+
+    @Value("${notification.worker.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${notification.retry.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${notification.retry.base-seconds:30}")
+    private long backoffBaseSeconds;
+
+    @Value("${notification.retry.max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    private final ExecutorService pool;
+    private final int threads;
+    private final Timer deliveryLatency;
+    private final Timer sendTime;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private volatile long queueDepth;
+
+    public NotificationWorker(MeterRegistry registry, @Value("${notification.worker.threads:4}") int threads) {
+        this.threads = threads;
+        this.pool = Executors.newFixedThreadPool(threads);
+        this.deliveryLatency = Timer.builder("hotel.notification.delivery.latency")
+                .description("Time from enqueue to the SMTP server accepting the message")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.sendTime = Timer.builder("hotel.notification.send").register(registry);
+        this.sent = Counter.builder("hotel.notification.sent").register(registry);
+        this.retried = Counter.builder("hotel.notification.retried").register(registry);
+        this.failed = Counter.builder("hotel.notification.failed").register(registry);
+        Gauge.builder("hotel.notification.queue.depth", this, worker -> worker.queueDepth)
+                .description("Pending notifications, due or backing off")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.worker.interval-ms:1000}")
+    public void scheduledDelivery() {
+        if (enabled) {
+            shardRouter.forEachShard(this::deliverDue);
+        }
+    }
+
+    // Returns the number of notifications sent; stops early once a batch comes back short
+    public int deliverDue() {
+        int delivered = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            List<Claimed> batch = transactionTemplate.execute(status -> claimBatch());
+            if (!batch.isEmpty()) {
+                Map<Long, Exception> failures = sendInSlices(batch);
+                transactionTemplate.executeWithoutResult(status -> recordOutcomes(batch, failures));
+                delivered += batch.size() - failures.size();
+            }
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        queueDepth = notificationRepository.countByStatus(Notification.PENDING);
+        return delivered;
+    }
+
+    private List<Claimed> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> due = notificationRepository.lockDue(now, PageRequest.of(0, batchSize));
+        List<Claimed> claimed = new ArrayList<>(due.size());
+        for (Notification notification : due) {
+            notification.setAttempts(notification.getAttempts() + 1);
+            notification.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+            claimed.add(new Claimed(notification.getId(), notification.getTemplate(), notification.getRecipient(),
+                    notification.getVariables()));
+        }
+        return claimed;
+    }
+
+    private Map<Long, Exception> sendInSlices(List<Claimed> batch) {
+        int sliceSize = Math.max(1, (batch.size() + threads - 1) / threads);
+        List<List<Claimed>> slices = new ArrayList<>();
+        List<Future<Map<Long, Exception>>> futures = new ArrayList<>();
+        for (int from = 0; from < batch.size(); from += sliceSize) {
+            List<Claimed> slice = batch.subList(from, Math.min(batch.size(), from + sliceSize));
+            slices.add(slice);
+            futures.add(pool.submit(() -> sendSlice(slice)));
+        }
+        Map<Long, Exception> failures = new HashMap<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                failures.putAll(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(claimed -> failures.putIfAbsent(claimed.id, e));
+            } catch (ExecutionException e) {
+                // Not expected (sendSlice reports per message); nothing in the slice is known to be sent
+                log.error("Notification slice failed", e.getCause());
+                Exception cause = e.getCause() instanceof Exception failure ? failure : e;
+                slices.get(i).forEach(claimed -> failures.put(claimed.id, cause));
+            }
+        }
+        return failures;
+    }
+
+    private Map<Long, Exception> sendSlice(List<Claimed> slice) {
+        Map<Long, Exception> failures = new HashMap<>();
+        List<Outgoing> outgoing = new ArrayList<>(slice.size());
+        for (Claimed claimed : slice) {
+            try {
+                Map<String, Object> variables = objectMapper.readValue(claimed.variables, VARIABLES);
+                NotificationTemplates.Rendered rendered = templates.render(claimed.template, variables);
+                outgoing.add(new Outgoing(claimed.id, claimed.recipient, rendered.subject(), rendered.body()));
+            } catch (Exception e) {
+                failures.put(claimed.id, e);
+            }
+        }
+        if (!outgoing.isEmpty()) {
+            failures.putAll(sendTime.record(() -> sender.send(outgoing)));
+        }
+        return failures;
+    }
+
+    private void recordOutcomes(List<Claimed> batch, Map<Long, Exception> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Claimed> byId = new HashMap<>();
+        batch.forEach(claimed -> byId.put(claimed.id, claimed));
+        for (Notification notification : notificationRepository.findAllById(byId.keySet())) {
+            Exception failure = failures.get(notification.getId());
+            if (failure == null) {
+                notification.setStatus(Notification.SENT);
+                notification.setSentAt(now);
+                notification.setLastError(null);
+                deliveryLatency.record(Duration.between(notification.getCreatedAt(), now));
+                sent.increment();
+            } else if (notification.getAttempts() >= maxAttempts) {
+                notification.setStatus(Notification.FAILED);
+                notification.setLastError(truncate(failure.toString()));
+                failed.increment();
+                log.warn("Notification {} to {} failed for good after {} attempts", notification.getId(),
+                        notification.getRecipient(), notification.getAttempts(), failure);
+            } else {
+                notification.setNextAttemptAt(now.plusSeconds(backoffSeconds(notification.getAttempts())));
+                notification.setLastError(truncate(failure.toString()));
+                retried.increment();
+                log.info("Notification {} attempt {} failed, retrying at {}: {}", notification.getId(),
+                        notification.getAttempts(), notification.getNextAttemptAt(), failure.toString());
+            }
+        }
+    }
+
+    // base * 2^(attempt-1), capped, with +-20% jitter so a burst of failures does not retry in lockstep
+    private long backoffSeconds(int attempt) {
+        long delay = backoffBaseSeconds << Math.min(attempt - 1, 20);
+        delay = Math.min(delay, backoffMaxSeconds);
+        return Math.max(1, Math.round(delay * ThreadLocalRandom.current().nextDouble(0.8, 1.2)));
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= 1000 ? value : value.substring(0, 1000);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private record Claimed(Long id, String template, String recipient, String variables) {
+    }
+}
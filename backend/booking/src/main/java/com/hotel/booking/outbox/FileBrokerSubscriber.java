@@ -0,0 +1,68 @@
+package com.hotel.booking.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stand-in for a message broker: appends every event as one NDJSON line, so
+ * an external consumer can be prototyped with tail -f before a real broker is
+ * wired in. Enabled with outbox.broker.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.broker.enabled", havingValue = "true")
+public class FileBrokerSubscriber implements OutboxSubscriber, DisposableBean {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${outbox.broker.file:logs/outbox-events.ndjson}")
+    private Path file;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Writer writer;
+
+    @Override
+    public void onEvent(OutboxMessage message) throws IOException {
+        String line = objectMapper.writeValueAsString(message);
+        lock.lock();
+        try {
+            if (writer == null) {
+                if (file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        lock.lock();
+        try {
+            if (writer != null) {
+                writer.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
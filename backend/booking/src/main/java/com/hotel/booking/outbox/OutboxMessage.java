@@ -0,0 +1,44 @@
+package com.hotel.booking.outbox;
+
+import com.hotel.booking.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable view of an outbox row handed to subscribers. Delivery is
+ * at-least-once, so subscribers should treat {@code id} as an idempotency key.
+ * Ids say nothing about order; subscribers that keep state per aggregate
+ * compare {@code aggregateVersion}, which grows in commit order per aggregate.
+ */
+public record OutboxMessage(Long id,
+                            String aggregateType,
+                            Long aggregateId,
+                            Long aggregateVersion,
+                            Long roomId,
+                            String eventType,
+                            String payload,
+                            LocalDateTime createdAt) {
+
+    public static final String BOOKING = "BOOKING";
+    public static final String ROOM = "ROOM";
+    public static final String PAYMENT = "PAYMENT";
+
+    public static final String BOOKING_CONFIRMED = "BOOKING_CONFIRMED";
+    public static final String BOOKING_CANCELLED = "BOOKING_CANCELLED";
+    public static final String BOOKING_UPDATED = "BOOKING_UPDATED";
+    public static final String BOOKING_DELETED = "BOOKING_DELETED";
+    public static final String BOOKING_HELD = "BOOKING_HELD";
+    public static final String BOOKING_HOLD_RELEASED = "BOOKING_HOLD_RELEASED";
+    public static final String BOOKING_RESERVED = "BOOKING_RESERVED";
+    public static final String BOOKING_PAYMENT_FAILED = "BOOKING_PAYMENT_FAILED";
+    public static final String ROOM_CREATED = "ROOM_CREATED";
+    public static final String ROOM_UPDATED = "ROOM_UPDATED";
+    public static final String ROOM_DELETED = "ROOM_DELETED";
+    public static final String PAYMENT_CAPTURED = "PAYMENT_CAPTURED";
+    public static final String PAYMENT_REFUNDED = "PAYMENT_REFUNDED";
+
+    static OutboxMessage from(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(), event.getAggregateVersion(),
+                event.getRoomId(), event.getEventType(), event.getPayload(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,80 @@
+package com.hotel.booking.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.cluster.Invalidation;
+import com.hotel.booking.cluster.InvalidationRecorder;
+import com.hotel.booking.model.OutboxEvent;
+import com.hotel.booking.repository.OutboxEventRepository;
+import com.hotel.booking.repository.RoomRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Component
+public class OutboxRecorder {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InvalidationRecorder invalidations;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // One statement, like InvalidationRecorder's bump; the row stays locked until this transaction ends
+    private static final String NEXT_ROOM_SEQ = "INSERT INTO outbox_room_seq (room_id, last_seq) VALUES (?, 1)"
+            + " ON DUPLICATE KEY UPDATE last_seq = last_seq + 1";
+    private static final String NEXT_VERSION = "INSERT INTO aggregate_version (aggregate_type, aggregate_id, version)"
+            + " VALUES (?, ?, 1) ON DUPLICATE KEY UPDATE version = version + 1";
+
+    // MANDATORY: an event must commit or roll back with the change it describes
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, Long aggregateId, Long roomId, String eventType, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setRoomId(roomId);
+        if (roomId != null) {
+            // A second writer for the room waits here until this transaction commits, so room_seq follows commit order
+            jdbcTemplate.update(NEXT_ROOM_SEQ, roomId);
+            event.setRoomSeq(jdbcTemplate.queryForObject(
+                    "SELECT last_seq FROM outbox_room_seq WHERE room_id = ?", Long.class, roomId));
+        }
+        if (aggregateId != null) {
+            // Locked the same way, always after the room row, so versions of one aggregate follow commit order
+            jdbcTemplate.update(NEXT_VERSION, aggregateType, aggregateId);
+            event.setAggregateVersion(jdbcTemplate.queryForObject(
+                    "SELECT version FROM aggregate_version WHERE aggregate_type = ? AND aggregate_id = ?",
+                    Long.class, aggregateType, aggregateId));
+        }
+        event.setEventType(eventType);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + eventType + " payload", e);
+        }
+        event.setCreatedAt(LocalDateTime.now());
+        outboxEventRepository.save(event);
+        // Every instance drops its cached view of the room; payments change nothing cached
+        if (roomId != null && !OutboxMessage.PAYMENT.equals(aggregateType)) {
+            Long hotelId = roomRepository.findById(roomId)
+                    .map(room -> room.getHotelId() != null ? room.getHotelId().getId() : null)
+                    .orElse(null);
+            invalidations.record(OutboxMessage.ROOM.equals(aggregateType) ? Invalidation.ROOM : Invalidation.BOOKING,
+                    roomId, hotelId);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.hotel.booking.outbox;
+
+import com.hotel.booking.model.OutboxEvent;
+import com.hotel.booking.repository.OutboxEventRepository;
+import com.hotel.booking.sharding.ShardRouter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Publishes pending outbox rows to every {@link OutboxSubscriber}.
+ *
+ * A batch is claimed with FOR UPDATE SKIP LOCKED and leased in a short
+ * transaction (next_attempt_at pushed out by outbox.relay.lease-seconds), so
+ * several app instances can relay side by side and rows of a relay that dies
+ * come back on their own. Each event is then delivered in its own transaction,
+ * flushed before it commits, so one event's failure rolls back only its own
+ * subscriber writes; the failure is recorded in a separate transaction and
+ * retried with jittered exponential backoff. Ordering is per room, by the
+ * room_seq OutboxRecorder takes under the room's sequence row lock (ids come
+ * from per-instance blocks and say nothing about commit order): a room is
+ * skipped while an earlier event of it is pending elsewhere, leased or backing
+ * off, and once one of its events fails the rest of that room's batch waits
+ * for the retry. Events that fail outbox.max-attempts times are parked (left
+ * unpublished with last_error set) so they stop blocking their room.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired(required = false)
+    private List<OutboxSubscriber> subscribers = List.of();
+
+    @Value("${outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${outbox.relay.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.retry.base-seconds:1}")
+    private long backoffBaseSeconds;
+
+    @Value("${outbox.retry.max-seconds:300}")
+    private long backoffMaxSeconds;
+
+    @Value("${outbox.retention-hours:72}")
+    private long retentionHours;
+
+    // Claims, deliveries and failures each commit on their own, whoever calls the relay
+    private final TransactionTemplate ownTransaction;
+    private final Timer lag;
+    private final Counter published;
+    private final Counter failures;
+    private volatile double oldestPendingSeconds;
+
+    public OutboxRelay(MeterRegistry registry, PlatformTransactionManager transactionManager) {
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lag = Timer.builder("hotel.outbox.lag")
+                .description("Time from the business transaction to delivery to all subscribers")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.published = Counter.builder("hotel.outbox.published").register(registry);
+        this.failures = Counter.builder("hotel.outbox.failures").register(registry);
+        Gauge.builder("hotel.outbox.oldest.pending.age", this, relay -> relay.oldestPendingSeconds)
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void scheduledRelay() {
+        if (enabled) {
+            shardRouter.forEachShard(this::relayPending);
+        }
+    }
+
+    // Returns the number of events delivered; stops early once a batch comes back short
+    public int relayPending() {
+        int delivered = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Claimed claimed = ownTransaction.execute(status -> claimBatch());
+            delivered += deliver(claimed.events());
+            if (claimed.locked() < batchSize) {
+                break;
+            }
+        }
+        LocalDateTime oldest = outboxEventRepository.findOldestPending(maxAttempts);
+        oldestPendingSeconds = oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0;
+        return delivered;
+    }
+
+    private Claimed claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.lockPending(maxAttempts, now, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return new Claimed(0, List.of());
+        }
+        Set<Long> blockedRooms = roomsWithEarlierPending(batch);
+        List<OutboxEvent> leased = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            if (event.getRoomId() == null || !blockedRooms.contains(event.getRoomId())) {
+                event.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+                leased.add(event);
+            }
+        }
+        return new Claimed(batch.size(), leased);
+    }
+
+    private int deliver(List<OutboxEvent> events) {
+        Set<Long> failedRooms = new HashSet<>();
+        List<Long> skipped = new ArrayList<>();
+        int delivered = 0;
+        for (OutboxEvent event : events) {
+            Long roomId = event.getRoomId();
+            if (roomId != null && failedRooms.contains(roomId)) {
+                skipped.add(event.getId());
+                continue;
+            }
+            try {
+                LocalDateTime publishedAt = ownTransaction.execute(status -> publish(event));
+                lag.record(Duration.between(event.getCreatedAt(), publishedAt));
+                published.increment();
+                delivered++;
+            } catch (RuntimeException e) {
+                if (roomId != null) {
+                    failedRooms.add(roomId);
+                }
+                recordFailure(event, e instanceof SubscriberFailure ? (Exception) e.getCause() : e);
+            }
+        }
+        if (!skipped.isEmpty()) {
+            ownTransaction.executeWithoutResult(status -> outboxEventRepository.releaseLease(skipped));
+        }
+        return delivered;
+    }
+
+    private LocalDateTime publish(OutboxEvent event) {
+        OutboxMessage message = OutboxMessage.from(event);
+        for (OutboxSubscriber subscriber : subscribers) {
+            try {
+                subscriber.onEvent(message);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new SubscriberFailure(e);
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.findById(event.getId()).orElseThrow().setPublishedAt(now);
+        // Subscriber writes that the database rejects fail here, inside this event's transaction
+        outboxEventRepository.flush();
+        return now;
+    }
+
+    private void recordFailure(OutboxEvent event, Exception failure) {
+        failures.increment();
+        ownTransaction.executeWithoutResult(status -> {
+            OutboxEvent row = outboxEventRepository.findById(event.getId()).orElseThrow();
+            row.setAttempts(row.getAttempts() + 1);
+            row.setLastError(truncate(failure.toString()));
+            row.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds(row.getAttempts())));
+            if (row.getAttempts() >= maxAttempts) {
+                log.error("Outbox event {} ({}) failed for good after {} attempts and is parked", row.getId(),
+                        row.getEventType(), row.getAttempts(), failure);
+            } else {
+                log.warn("Outbox event {} ({}) failed on attempt {}, retrying at {}", row.getId(),
+                        row.getEventType(), row.getAttempts(), row.getNextAttemptAt(), failure);
+            }
+        });
+    }
+
+    // base * 2^(attempt-1), capped, with +-20% jitter so a burst of failures does not retry in lockstep
+    private long backoffSeconds(int attempt) {
+        long delay = backoffBaseSeconds << Math.min(attempt - 1, 20);
+        delay = Math.min(delay, backoffMaxSeconds);
+        return Math.max(1, Math.round(delay * ThreadLocalRandom.current().nextDouble(0.8, 1.2)));
+    }
+
+    private Set<Long> roomsWithEarlierPending(List<OutboxEvent> batch) {
+        Map<Long, Long> highestSeq = new HashMap<>();
+        for (OutboxEvent event : batch) {
+            if (event.getRoomId() != null) {
+                highestSeq.merge(event.getRoomId(), event.getRoomSeq(), Math::max);
+            }
+        }
+        Set<Long> blocked = new HashSet<>();
+        if (highestSeq.isEmpty()) {
+            return blocked;
+        }
+        List<Long> batchIds = batch.stream().map(OutboxEvent::getId).toList();
+        for (Object[] row : outboxEventRepository.findLowestPendingSeqOutside(highestSeq.keySet(), batchIds, maxAttempts)) {
+            Long roomId = (Long) row[0];
+            if ((Long) row[1] < highestSeq.get(roomId)) {
+                blocked.add(roomId);
+            }
+        }
+        return blocked;
+    }
+
+    // Published rows are only kept for inspection; delete them in small chunks
+    @Scheduled(fixedDelayString = "${outbox.cleanup.interval-ms:600000}")
+    public void deletePublished() {
+        if (enabled) {
+            shardRouter.forEachShard(this::deletePublishedOnShard);
+        }
+    }
+
+    private void deletePublishedOnShard() {
+        LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+        List<Long> ids;
+        do {
+            ids = outboxEventRepository.findPublishedBefore(before, PageRequest.of(0, 1000));
+            if (!ids.isEmpty()) {
+                List<Long> chunk = ids;
+                transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteAllByIdInBatch(chunk));
+            }
+        } while (ids.size() == 1000);
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= 1000 ? value : value.substring(0, 1000);
+    }
+
+    // Rows locked by the claim, and those of them leased for delivery
+    private record Claimed(int locked, List<OutboxEvent> events) {
+    }
+
+    // Carries a subscriber's checked exception out of the delivery transaction, rolling it back
+    private static class SubscriberFailure extends RuntimeException {
+        SubscriberFailure(Exception cause) {
+            super(cause);
+        }
+    }
+}
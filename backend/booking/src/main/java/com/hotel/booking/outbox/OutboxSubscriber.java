@@ -0,0 +1,12 @@
+package com.hotel.booking.outbox;
+
+/**
+ * In-process consumer of outbox events. Called by the relay in event id order,
+ * one room at a time; throwing leaves the event (and later events for the same
+ * room) pending for a retry. Subscribers run inside the relay's transaction,
+ * so database work done here commits together with the "published" mark.
+ */
+public interface OutboxSubscriber {
+
+    void onEvent(OutboxMessage message) throws Exception;
+}
@@ -0,0 +1,44 @@
+package com.hotel.booking.payment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adapter to an external payment provider. Implementations may block on the
+ * network; PaymentProcessor calls them outside any transaction, under a
+ * timeout and a circuit breaker. Any exception means the outcome is unknown.
+ *
+ * The idempotency key is stable per payment, so a retried authorize after a
+ * timeout must not charge twice.
+ */
+public interface PaymentGateway {
+
+    GatewayResponse authorize(String idempotencyKey, double amount, String paymentMethod) throws Exception;
+
+    GatewayResponse capture(String reference, double amount) throws Exception;
+
+    GatewayResponse refund(String idempotencyKey, String reference, double amount) throws Exception;
+
+    // One call per batch for providers with a bulk refund API; answers in request order
+    default List<GatewayResponse> refundAll(List<RefundRequest> refunds) throws Exception {
+        List<GatewayResponse> responses = new ArrayList<>(refunds.size());
+        for (RefundRequest refund : refunds) {
+            responses.add(refund(refund.idempotencyKey(), refund.reference(), refund.amount()));
+        }
+        return responses;
+    }
+
+    record RefundRequest(String idempotencyKey, String reference, double amount) {
+    }
+
+    record GatewayResponse(boolean approved, String reference, String message) {
+
+        public static GatewayResponse approved(String reference) {
+            return new GatewayResponse(true, reference, null);
+        }
+
+        public static GatewayResponse declined(String reference, String message) {
+            return new GatewayResponse(false, reference, message);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.hotel.booking.payment;
+
+/**
+ * A gateway call that produced no answer. {@code attempted} is false when the
+ * circuit was open and nothing reached the provider, so the payment is known
+ * not to have been charged.
+ */
+public class PaymentGatewayException extends RuntimeException {
+
+    private final boolean attempted;
+
+    public PaymentGatewayException(String message, boolean attempted, Throwable cause) {
+        super(message, cause);
+        this.attempted = attempted;
+    }
+
+    public boolean isAttempted() {
+        return attempted;
+    }
+}
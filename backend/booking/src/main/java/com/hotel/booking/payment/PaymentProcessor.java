@@ -0,0 +1,527 @@
+package com.hotel.booking.payment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.availability.RoomOccupancy;
+import com.hotel.booking.dto.PaymentWebhookEvent;
+import com.hotel.booking.dto.Response;
+import com.hotel.booking.model.Booking;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.Payment;
+import com.hotel.booking.model.PaymentStatus;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.model.WaitlistEntry;
+import com.hotel.booking.outbox.OutboxMessage;
+import com.hotel.booking.outbox.OutboxRecorder;
+import com.hotel.booking.repository.PaymentFacts;
+import com.hotel.booking.repository.PaymentRepository;
+import com.hotel.booking.repository.WaitlistEntryRepository;
+import com.hotel.booking.sharding.ShardContext;
+import com.hotel.booking.sharding.ShardDirectory;
+import com.hotel.booking.sharding.ShardRouter;
+import com.hotel.booking.utils.Utils;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drives payments through their states (see {@link PaymentStatus}).
+ *
+ * No transaction is ever open while the gateway is called: the current state
+ * is read in one short transaction, the gateway is called on a separate
+ * thread under payment.gateway.timeout-ms and the circuit breaker, and the
+ * answer is applied in a second short transaction that locks the payment row.
+ * Applying a state is idempotent, so the request thread, gateway webhooks and
+ * the stale-payment sweeper can race on the same payment safely.
+ *
+ * Bookings follow their payment: CAPTURED confirms a PENDING_PAYMENT booking
+ * (BOOKING_CONFIRMED on the outbox), FAILED releases it as
+ * PAYMENT_FAILED (BOOKING_PAYMENT_FAILED, so the waitlist is offered the
+ * nights and an accepted waitlist offer ends EXPIRED). A timeout leaves the payment where it was, to be completed
+ * by a webhook or retried by the sweeper with the same idempotency key.
+ */
+@Component
+public class PaymentProcessor implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentProcessor.class);
+
+
+    @Autowired
+    private PaymentGateway gateway;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RoomOccupancy roomOccupancy;
+
+    @Autowired
+    private OutboxRecorder outbox;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${payment.gateway.timeout-ms:3000}")
+    private long timeoutMs;
+
+    @Value("${payment.webhook.secret}")
+    private String webhookSecret;
+
+    @Value("${payment.sweeper.enabled:true}")
+    private boolean sweeperEnabled;
+
+    @Value("${payment.sweeper.stale-after-seconds:120}")
+    private long staleAfterSeconds;
+
+    @Value("${payment.sweeper.abandon-after-minutes:30}")
+    private long abandonAfterMinutes;
+
+    @Value("${payment.refund.enabled:true}")
+    private boolean refundsEnabled;
+
+    @Value("${payment.refund.chunk-size:500}")
+    private int refundChunkSize;
+
+    @Value("${payment.refund.gateway-batch-size:20}")
+    private int refundGatewayBatchSize;
+
+    @Value("${payment.refund.lease-seconds:300}")
+    private long refundLeaseSeconds;
+
+    @Value("${payment.refund.retry-seconds:900}")
+    private long refundRetrySeconds;
+
+    private final GatewayCircuitBreaker circuitBreaker;
+    private final ExecutorService gatewayCalls = Executors.newVirtualThreadPerTaskExecutor();
+    private final MeterRegistry registry;
+
+    public PaymentProcessor(MeterRegistry registry,
+                            @Value("${payment.circuit.failure-threshold:5}") int failureThreshold,
+                            @Value("${payment.circuit.open-ms:30000}") long openMs) {
+        this.registry = registry;
+        this.circuitBreaker = new GatewayCircuitBreaker(failureThreshold, openMs);
+        Gauge.builder("hotel.payment.circuit.open", circuitBreaker,
+                        breaker -> breaker.getState() == GatewayCircuitBreaker.State.CLOSED ? 0 : 1)
+                .register(registry);
+    }
+
+    public static String idempotencyKey(Long paymentId) {
+        return "payment-" + paymentId;
+    }
+
+    // Moves the payment as far as the gateway allows (authorize, then capture) and returns where it ended up
+    public PaymentStatus process(Long paymentId) {
+        while (true) {
+            Payment payment = transactionTemplate.execute(status -> paymentRepository.findById(paymentId)
+                    .orElseThrow(() -> new IllegalArgumentException("Payment " + paymentId + " not found")));
+            PaymentStatus current = payment.getPaymentStatus();
+            PaymentStatus next;
+            PaymentGateway.GatewayResponse response;
+            try {
+                if (current == PaymentStatus.PENDING) {
+                    response = call("authorize", () -> gateway.authorize(idempotencyKey(paymentId),
+                            payment.getAmount(), payment.getPaymentMethod()));
+                    next = response.approved() ? PaymentStatus.AUTHORIZED : PaymentStatus.FAILED;
+                } else if (current == PaymentStatus.AUTHORIZED) {
+                    response = call("capture", () -> gateway.capture(payment.getGatewayReference(), payment.getAmount()));
+                    next = response.approved() ? PaymentStatus.CAPTURED : PaymentStatus.FAILED;
+                } else {
+                    return current;
+                }
+            } catch (PaymentGatewayException e) {
+                if (!e.isAttempted() && current == PaymentStatus.PENDING) {
+                    // Nothing reached the provider, so nothing was charged: release the room now
+                    return transition(paymentId, PaymentStatus.FAILED, null, null, "Payment provider unavailable");
+                }
+                log.warn("Payment {} left {}: {}", paymentId, current, e.getMessage());
+                return current;
+            }
+            PaymentStatus reached = transition(paymentId, next, response.reference(), null,
+                    response.message());
+            if (reached != next) {
+                return reached;
+            }
+        }
+    }
+
+    // Queues a refund in the caller's transaction; refundPending() issues it through the gateway
+    @Transactional(propagation = Propagation.MANDATORY)
+    public PaymentStatus requestRefund(Long paymentId, double amount) {
+        return applyTransition(paymentId, PaymentStatus.REFUND_PENDING, null, amount, null);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.refund.interval-ms:60000}")
+    public void scheduledRefunds() {
+        if (refundsEnabled) {
+            shardRouter.forEachShard(this::refundPending);
+        }
+    }
+
+    /**
+     * Issues queued refunds in keyset-ordered chunks. Each chunk is claimed with
+     * FOR UPDATE SKIP LOCKED and leased through next_attempt_at, so instances
+     * never pick the same refund; it is then sent to the gateway in batches of
+     * payment.refund.gateway-batch-size with no transaction open, and the
+     * answers are applied in one transaction per batch. Declined or unanswered
+     * refunds stay queued and are retried after payment.refund.retry-seconds.
+     * Returns {issued, failed}.
+     */
+    public int[] refundPending() {
+        int issued = 0;
+        int failed = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<ClaimedRefund> chunk = transactionTemplate.execute(status -> claimRefunds(from));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            for (int i = 0; i < chunk.size(); i += refundGatewayBatchSize) {
+                List<ClaimedRefund> batch = chunk.subList(i, Math.min(chunk.size(), i + refundGatewayBatchSize));
+                List<PaymentGateway.RefundRequest> requests = batch.stream().map(ClaimedRefund::request).toList();
+                List<PaymentGateway.GatewayResponse> responses;
+                try {
+                    responses = call("refund", () -> gateway.refundAll(requests));
+                } catch (PaymentGatewayException e) {
+                    log.warn("Refund batch of {} not completed: {}", batch.size(), e.getMessage());
+                    failed += batch.size();
+                    transactionTemplate.executeWithoutResult(status -> batch.forEach(refund ->
+                            retryRefundLater(refund.paymentId(), e.getMessage())));
+                    if (!e.isAttempted()) {
+                        // Circuit open: the rest of the chunk keeps its lease and goes out on a later run
+                        return new int[] { issued, failed };
+                    }
+                    continue;
+                }
+                int[] outcome = transactionTemplate.execute(status -> applyRefunds(batch, responses));
+                issued += outcome[0];
+                failed += outcome[1];
+            }
+            afterId = chunk.get(chunk.size() - 1).paymentId();
+            if (chunk.size() < refundChunkSize) {
+                break;
+            }
+        }
+        if (issued + failed > 0) {
+            log.info("Refund run: {} issued, {} failed", issued, failed);
+        }
+        return new int[] { issued, failed };
+    }
+
+    private List<ClaimedRefund> claimRefunds(long afterId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Payment> due = paymentRepository.lockRefundsDue(afterId, now, PageRequest.of(0, refundChunkSize));
+        List<ClaimedRefund> claimed = new ArrayList<>(due.size());
+        for (Payment payment : due) {
+            payment.setNextAttemptAt(now.plusSeconds(refundLeaseSeconds));
+            claimed.add(new ClaimedRefund(payment.getId(), new PaymentGateway.RefundRequest(
+                    "refund-" + payment.getId(), payment.getGatewayReference(), payment.getRefundAmount())));
+        }
+        return claimed;
+    }
+
+    private int[] applyRefunds(List<ClaimedRefund> batch, List<PaymentGateway.GatewayResponse> responses) {
+        int issued = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            Long paymentId = batch.get(i).paymentId();
+            PaymentGateway.GatewayResponse response = i < responses.size() ? responses.get(i) : null;
+            if (response != null && response.approved()) {
+                applyTransition(paymentId, PaymentStatus.REFUNDED, null, null, null);
+                issued++;
+            } else {
+                retryRefundLater(paymentId, response == null ? "No answer for this refund" : response.message());
+            }
+        }
+        return new int[] { issued, batch.size() - issued };
+    }
+
+    private void retryRefundLater(Long paymentId, String reason) {
+        paymentRepository.lockById(paymentId).ifPresent(payment -> {
+            payment.setFailureReason(reason);
+            payment.setNextAttemptAt(LocalDateTime.now().plusSeconds(refundRetrySeconds));
+        });
+    }
+
+    public Response handleWebhook(String body, String signature) {
+        Response response = new Response();
+        if (!validSignature(body, signature)) {
+            response.setStatusCode(401);
+            response.setMessage("Invalid webhook signature");
+            return response;
+        }
+        try {
+            PaymentWebhookEvent event = objectMapper.readValue(body, PaymentWebhookEvent.class);
+            Long paymentId = resolvePayment(event);
+            String shard = paymentId == null ? null : shardOf(paymentId);
+            if (shard == null) {
+                response.setStatusCode(404);
+                response.setMessage("Payment not found");
+                return response;
+            }
+            return shardDirectory.on(shard, null, () -> applyWebhook(event, paymentId));
+        } catch (Exception e) {
+            log.error("Could not process payment webhook", e);
+            response.setStatusCode(500);
+            response.setMessage("Error processing webhook: " + e.getMessage());
+        }
+        return response;
+    }
+
+    private Response applyWebhook(PaymentWebhookEvent event, Long paymentId) {
+        Response response = new Response();
+        try {
+            PaymentStatus reached = switch (event.getType() == null ? "" : event.getType()) {
+                case "payment.authorized" -> transition(paymentId, PaymentStatus.AUTHORIZED, event.getReference(), null, null);
+                case "payment.captured" -> transition(paymentId, PaymentStatus.CAPTURED, event.getReference(), null, null);
+                case "payment.failed" -> transition(paymentId, PaymentStatus.FAILED, event.getReference(), null, event.getMessage());
+                case "refund.succeeded" -> transition(paymentId, PaymentStatus.REFUNDED, null, event.getAmount(), null);
+                default -> null;
+            };
+            if (reached == null) {
+                response.setStatusCode(400);
+                response.setMessage("Unknown event type: " + event.getType());
+                return response;
+            }
+            if (reached == PaymentStatus.AUTHORIZED) {
+                gatewayCalls.submit(ShardContext.wrap(() -> process(paymentId)));
+            }
+            response.setStatusCode(200);
+            response.setMessage("Payment " + paymentId + " is " + reached);
+        } catch (Exception e) {
+            log.error("Could not process payment webhook", e);
+            response.setStatusCode(500);
+            response.setMessage("Error processing webhook: " + e.getMessage());
+        }
+        return response;
+    }
+
+    // Picks up payments whose answer never came: retried with the same idempotency key, or given up on
+    @Scheduled(fixedDelayString = "${payment.sweeper.interval-ms:30000}")
+    public void resumeStale() {
+        if (sweeperEnabled) {
+            shardRouter.forEachShard(this::resumeStaleOnShard);
+        }
+    }
+
+    private void resumeStaleOnShard() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Payment> stale = transactionTemplate.execute(status -> paymentRepository.findStale(
+                List.of(PaymentStatus.PENDING, PaymentStatus.AUTHORIZED),
+                now.minusSeconds(staleAfterSeconds), PageRequest.of(0, 100)));
+        for (Payment payment : stale) {
+            try {
+                if (payment.getUpdatedAt().isBefore(now.minusMinutes(abandonAfterMinutes))) {
+                    transition(payment.getId(), PaymentStatus.FAILED, null, null, "No answer from the payment provider");
+                } else {
+                    process(payment.getId());
+                }
+            } catch (Exception e) {
+                log.warn("Could not resume payment {}", payment.getId(), e);
+            }
+        }
+    }
+
+    // Applies one state change under a row lock; a no-op if the payment has already moved past it
+    private PaymentStatus transition(Long paymentId, PaymentStatus next, String reference, Double refundAmount,
+                                     String reason) {
+        return transactionTemplate.execute(status -> applyTransition(paymentId, next, reference, refundAmount, reason));
+    }
+
+    private PaymentStatus applyTransition(Long paymentId, PaymentStatus next, String reference, Double refundAmount,
+                                          String reason) {
+        Payment payment = paymentRepository.lockById(paymentId)
+                .orElseThrow(() -> new IllegalArgumentException("Payment " + paymentId + " not found"));
+        // A request thread's open-in-view context may already hold both from before the gateway call;
+        // re-read them now the row is locked, or a webhook or sweeper outcome committed since is overwritten
+        entityManager.refresh(payment);
+        if (payment.getBooking() != null) {
+            entityManager.refresh(payment.getBooking());
+        }
+        PaymentStatus current = payment.getPaymentStatus();
+        if (!current.canTransitionTo(next)) {
+            return current;
+        }
+        payment.setPaymentStatus(next);
+        payment.setUpdatedAt(LocalDateTime.now());
+        if (reference != null) {
+            payment.setGatewayReference(reference);
+        }
+        if (next == PaymentStatus.FAILED) {
+            payment.setFailureReason(reason);
+        }
+        if (refundAmount != null) {
+            payment.setRefundAmount(refundAmount);
+        }
+        if (next == PaymentStatus.REFUND_PENDING) {
+            payment.setNextAttemptAt(payment.getUpdatedAt());
+        }
+        applyToBooking(payment.getBooking(), next);
+        if (next == PaymentStatus.CAPTURED || next == PaymentStatus.REFUNDED) {
+            recordPaymentEvent(payment);
+        }
+        registry.counter("hotel.payment.transitions", "from", current.name(), "to", next.name()).increment();
+        return next;
+    }
+
+    private void applyToBooking(Booking booking, PaymentStatus next) {
+        if (booking == null || booking.getStatus() != BookingStatus.PENDING_PAYMENT) {
+            return;
+        }
+        if (next == PaymentStatus.CAPTURED) {
+            booking.setStatus(BookingStatus.CONFIRMED);
+            outbox.record(OutboxMessage.BOOKING, booking.getId(), booking.getRoomId().getId(),
+                    OutboxMessage.BOOKING_CONFIRMED, Utils.mapBookingToDetailedDTO(booking));
+            roomOccupancy.refreshAfterCommit();
+        } else if (next == PaymentStatus.FAILED) {
+            booking.setStatus(BookingStatus.PAYMENT_FAILED);
+            waitlistEntryRepository.findByBookingId(booking.getId()).ifPresent(entry -> {
+                if (WaitlistEntry.BOOKED.equals(entry.getStatus())) {
+                    entry.setStatus(WaitlistEntry.EXPIRED);
+                }
+            });
+            outbox.record(OutboxMessage.BOOKING, booking.getId(), booking.getRoomId().getId(),
+                    OutboxMessage.BOOKING_PAYMENT_FAILED, Utils.mapBookingToDetailedDTO(booking));
+            roomOccupancy.refreshAfterCommit();
+        }
+    }
+
+    // Money movements for analytics; ordered with the booking's room like the booking events
+    private void recordPaymentEvent(Payment payment) {
+        Booking booking = payment.getBooking();
+        Room room = booking != null ? booking.getRoomId() : null;
+        Long hotelId = booking != null && booking.getHotelId() != null ? booking.getHotelId().getId() : null;
+        PaymentFacts facts = new PaymentFacts(payment.getId(), hotelId, room != null ? room.getType() : null,
+                payment.getPaymentStatus(), payment.getAmount(), payment.getRefundAmount(),
+                payment.getPaymentTime(), payment.getUpdatedAt());
+        outbox.record(OutboxMessage.PAYMENT, payment.getId(), room != null ? room.getId() : null,
+                payment.getPaymentStatus() == PaymentStatus.CAPTURED
+                        ? OutboxMessage.PAYMENT_CAPTURED : OutboxMessage.PAYMENT_REFUNDED, facts);
+    }
+
+    private <T> T call(String operation, Callable<T> call) {
+        Timer.Sample sample = Timer.start(registry);
+        if (!circuitBreaker.tryAcquire()) {
+            sample.stop(gatewayTimer(operation, "rejected"));
+            throw new PaymentGatewayException("Payment gateway circuit is open", false, null);
+        }
+        Future<T> future = gatewayCalls.submit(call);
+        try {
+            T response = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            sample.stop(gatewayTimer(operation, response instanceof PaymentGateway.GatewayResponse single
+                    ? (single.approved() ? "approved" : "declined") : "answered"));
+            return response;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            circuitBreaker.onFailure();
+            sample.stop(gatewayTimer(operation, "timeout"));
+            throw new PaymentGatewayException("Payment gateway " + operation + " timed out after " + timeoutMs + " ms", true, e);
+        } catch (ExecutionException e) {
+            circuitBreaker.onFailure();
+            sample.stop(gatewayTimer(operation, "error"));
+            throw new PaymentGatewayException("Payment gateway " + operation + " failed: " + e.getCause(), true, e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted waiting for payment gateway " + operation, true, e);
+        }
+    }
+
+    private Timer gatewayTimer(String operation, String outcome) {
+        return Timer.builder("hotel.payment.gateway")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private String shardOf(Long paymentId) {
+        if (!shardRouter.isEnabled()) {
+            return shardRouter.getDefaultShard();
+        }
+        ShardDirectory.Placement placement = shardDirectory.locate("payment", paymentId);
+        return placement == null ? null : placement.shard();
+    }
+
+    private Long resolvePayment(PaymentWebhookEvent event) {
+        String key = event.getIdempotencyKey();
+        if (key != null && key.startsWith("payment-") && key.substring("payment-".length()).matches("\\d+")) {
+            return Long.parseLong(key.substring("payment-".length()));
+        }
+        if (event.getReference() != null) {
+            return shardRouter.gather(() -> paymentRepository.findByGatewayReference(event.getReference())
+                    .map(Payment::getId).stream().toList()).stream().findFirst().orElse(null);
+        }
+        return null;
+    }
+
+    // Hex HMAC-SHA256 of the raw body with payment.webhook.secret
+    private boolean validSignature(String body, String signature) {
+        if (signature == null || body == null) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] expected = mac.doFinal(body.getBytes(StandardCharsets.UTF_8));
+            return MessageDigest.isEqual(expected, HexFormat.of().parseHex(signature.trim().toLowerCase()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        } catch (Exception e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        gatewayCalls.shutdownNow();
+    }
+
+    private record ClaimedRefund(Long paymentId, PaymentGateway.RefundRequest request) {
+    }
+}
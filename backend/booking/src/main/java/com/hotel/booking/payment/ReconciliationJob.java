@@ -0,0 +1,220 @@
+package com.hotel.booking.payment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.concurrency.SchedulingConfig;
+import com.hotel.booking.dto.ReconciliationReport;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.PaymentStatus;
+import com.hotel.booking.repository.BookingPaymentRow;
+import com.hotel.booking.repository.BookingRepository;
+import com.hotel.booking.repository.PaymentRepository;
+import com.hotel.booking.sharding.ShardRouter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Nightly check that payments agree with their bookings.
+ *
+ * Bookings are streamed with their payment in keyset-ordered chunks of flat
+ * rows (no entities), so memory is bounded by the chunk size and the sample
+ * cap whatever the table size. Detected:
+ *   MISSING_PAYMENT        confirmed (or checked in/out) booking without a captured payment
+ *   REFUNDED_ON_CONFIRMED  refunded or refund-pending payment on a confirmed booking
+ *   AMOUNT_DRIFT           payment amount differs from the booking total
+ *   CAPTURED_ON_CANCELLED  cancelled booking whose refund was never queued
+ * The last one is fixed by queueing the cancellation refund; everything else
+ * is reported for a human. Queued refunds are then issued in batches through
+ * PaymentProcessor, and the report is logged and written as JSON.
+ */
+@Component
+public class ReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationJob.class);
+
+    public static final String MISSING_PAYMENT = "MISSING_PAYMENT";
+    public static final String REFUNDED_ON_CONFIRMED = "REFUNDED_ON_CONFIRMED";
+    public static final String AMOUNT_DRIFT = "AMOUNT_DRIFT";
+    public static final String CAPTURED_ON_CANCELLED = "CAPTURED_ON_CANCELLED";
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentProcessor paymentProcessor;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${reconciliation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reconciliation.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${reconciliation.max-samples:200}")
+    private int maxSamples;
+
+    @Value("${reconciliation.amount-tolerance:0.01}")
+    private double amountTolerance;
+
+    @Value("${reconciliation.refund-share:0.90}")
+    private double refundShare;
+
+    @Value("${reconciliation.report-dir:logs/reconciliation}")
+    private Path reportDir;
+
+    private final ReentrantLock running = new ReentrantLock();
+    private volatile ReconciliationReport lastReport;
+
+    @Scheduled(cron = "${reconciliation.cron:0 30 3 * * *}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    public ReconciliationReport getLastReport() {
+        return lastReport;
+    }
+
+    // Returns null when a run is already in progress on this instance
+    public ReconciliationReport run() {
+        if (!running.tryLock()) {
+            return null;
+        }
+        try {
+            ReconciliationReport report = new ReconciliationReport();
+            report.setStartedAt(LocalDateTime.now());
+            for (String type : List.of(MISSING_PAYMENT, REFUNDED_ON_CONFIRMED, AMOUNT_DRIFT, CAPTURED_ON_CANCELLED)) {
+                report.getMismatches().put(type, 0L);
+            }
+            shardRouter.forEachShard(() -> reconcile(report));
+
+            report.setFinishedAt(LocalDateTime.now());
+            report.setDurationMs(Duration.between(report.getStartedAt(), report.getFinishedAt()).toMillis());
+            report.getMismatches().forEach((type, count) ->
+                    registry.counter("hotel.reconciliation.mismatches", "type", type).increment(count));
+            writeReport(report);
+            log.info("Reconciliation: {} bookings in {} ms, mismatches {}, refunds queued {} issued {} failed {}",
+                    report.getBookingsScanned(), report.getDurationMs(), report.getMismatches(),
+                    report.getRefundsQueued(), report.getRefundsIssued(), report.getRefundsFailed());
+            lastReport = report;
+            return report;
+        } finally {
+            running.unlock();
+        }
+    }
+
+    // One shard's part of the run, added to the report
+    private void reconcile(ReconciliationReport report) {
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<BookingPaymentRow> chunk = transactionTemplate.execute(status ->
+                    bookingRepository.scanWithPayments(from, PageRequest.of(0, chunkSize)));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            List<BookingPaymentRow> toRefund = new ArrayList<>();
+            for (BookingPaymentRow row : chunk) {
+                check(row, report, toRefund);
+            }
+            report.setBookingsScanned(report.getBookingsScanned() + chunk.size());
+            if (!toRefund.isEmpty()) {
+                report.setRefundsQueued(report.getRefundsQueued() + queueRefunds(toRefund));
+            }
+            afterId = chunk.get(chunk.size() - 1).bookingId();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+        report.setUnlinkedPayments(report.getUnlinkedPayments()
+                + transactionTemplate.execute(status -> paymentRepository.countByBookingIsNull()));
+
+        int[] refunds = paymentProcessor.refundPending();
+        report.setRefundsIssued(report.getRefundsIssued() + refunds[0]);
+        report.setRefundsFailed(report.getRefundsFailed() + refunds[1]);
+    }
+
+    private void check(BookingPaymentRow row, ReconciliationReport report, List<BookingPaymentRow> toRefund) {
+        PaymentStatus payment = row.paymentStatus();
+        if (BookingStatus.PAID.contains(row.bookingStatus())) {
+            if (payment == null || payment == PaymentStatus.PENDING || payment == PaymentStatus.AUTHORIZED
+                    || payment == PaymentStatus.FAILED) {
+                mismatch(report, MISSING_PAYMENT, row, payment == null ? "no payment" : "payment is " + payment);
+            } else if (payment == PaymentStatus.REFUNDED || payment == PaymentStatus.REFUND_PENDING) {
+                mismatch(report, REFUNDED_ON_CONFIRMED, row, "payment is " + payment);
+            }
+        } else if (row.bookingStatus() == BookingStatus.CANCELLED && payment == PaymentStatus.CAPTURED) {
+            mismatch(report, CAPTURED_ON_CANCELLED, row, "refund queued");
+            toRefund.add(row);
+        }
+        if (payment != null && payment != PaymentStatus.FAILED && row.paymentAmount() != null && row.totalAmount() != null
+                && Math.abs(row.paymentAmount() - row.totalAmount()) > amountTolerance) {
+            mismatch(report, AMOUNT_DRIFT, row, "paid " + row.paymentAmount() + ", booking total " + row.totalAmount());
+        }
+    }
+
+    // Same share as a customer cancellation, of what the booking cost (or what was paid if that is unknown)
+    private int queueRefunds(List<BookingPaymentRow> rows) {
+        return transactionTemplate.execute(status -> {
+            int queued = 0;
+            for (BookingPaymentRow row : rows) {
+                double base = row.totalAmount() != null ? row.totalAmount() : row.paymentAmount();
+                if (paymentProcessor.requestRefund(row.paymentId(), base * refundShare) == PaymentStatus.REFUND_PENDING) {
+                    queued++;
+                }
+            }
+            return queued;
+        });
+    }
+
+    private void mismatch(ReconciliationReport report, String type, BookingPaymentRow row, String detail) {
+        report.getMismatches().merge(type, 1L, Long::sum);
+        if (report.getSamples().size() < maxSamples) {
+            report.getSamples().add(new ReconciliationReport.Mismatch(type, row.bookingId(), row.paymentId(), detail));
+        }
+    }
+
+    private void writeReport(ReconciliationReport report) {
+        try {
+            Files.createDirectories(reportDir);
+            Path file = reportDir.resolve("reconciliation-"
+                    + report.getStartedAt().format(DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss")) + ".json");
+            report.setReportFile(file.toString());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+        } catch (Exception e) {
+            log.warn("Could not write reconciliation report to {}", reportDir, e);
+        }
+    }
+}
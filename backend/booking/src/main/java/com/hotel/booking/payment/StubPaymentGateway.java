@@ -0,0 +1,51 @@
+package com.hotel.booking.payment;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local stand-in for a provider (payment.gateway=stub, the default). Approves
+ * everything after payment.stub.latency-ms, except for two magic payment
+ * methods used by tests and load runs: DECLINE is declined and TIMEOUT hangs
+ * for payment.stub.hang-ms. Authorizations are idempotent per key.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "stub", matchIfMissing = true)
+public class StubPaymentGateway implements PaymentGateway {
+
+    @Value("${payment.stub.latency-ms:20}")
+    private long latencyMs;
+
+    @Value("${payment.stub.hang-ms:30000}")
+    private long hangMs;
+
+    private final Map<String, GatewayResponse> authorizations = new ConcurrentHashMap<>();
+
+    @Override
+    public GatewayResponse authorize(String idempotencyKey, double amount, String paymentMethod) throws InterruptedException {
+        if ("TIMEOUT".equalsIgnoreCase(paymentMethod)) {
+            Thread.sleep(hangMs);
+        }
+        Thread.sleep(latencyMs);
+        return authorizations.computeIfAbsent(idempotencyKey, key -> "DECLINE".equalsIgnoreCase(paymentMethod)
+                ? GatewayResponse.declined("stub-" + UUID.randomUUID(), "Card declined")
+                : GatewayResponse.approved("stub-" + UUID.randomUUID()));
+    }
+
+    @Override
+    public GatewayResponse capture(String reference, double amount) throws InterruptedException {
+        Thread.sleep(latencyMs);
+        return GatewayResponse.approved(reference);
+    }
+
+    @Override
+    public GatewayResponse refund(String idempotencyKey, String reference, double amount) throws InterruptedException {
+        Thread.sleep(latencyMs);
+        return GatewayResponse.approved(reference);
+    }
+}
@@ -0,0 +1,8 @@
+package com.hotel.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.hotel.booking.model.AnalyticsBooking;
+
+public interface AnalyticsBookingRepository extends JpaRepository<AnalyticsBooking, Long> {
+}
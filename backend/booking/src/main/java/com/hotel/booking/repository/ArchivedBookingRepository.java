@@ -0,0 +1,45 @@
+package com.hotel.booking.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.hotel.booking.model.ArchivedBooking;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+
+	List<ArchivedBooking> findByUserIdOrderByCheckInDateDesc(Long userId);
+
+	// Copies bookings with their payment, room and hotel names in one statement (BookingArchiver)
+	@Modifying
+	@Query(value = """
+		INSERT INTO booking_archive (id, user_id, hotel_id, room_id, hotel_name, room_number, room_type,
+		                             check_in_date, check_out_date, total_amount, status, booking_time,
+		                             payment_id, payment_amount, payment_method, payment_status,
+		                             refund_amount, payment_time, archived_at)
+		SELECT b.id, b.user_id, b.hotel_id, b.room_id, h.name, r.room_number, r.type,
+		       b.check_in_date, b.check_out_date, b.total_amount, b.status, b.booking_time,
+		       p.id, p.amount, p.payment_method, p.payment_status,
+		       p.refund_amount, p.payment_time, :archivedAt
+		  FROM booking b
+		  LEFT JOIN payment p ON p.booking_id = b.id
+		  LEFT JOIN room r ON r.id = b.room_id
+		  LEFT JOIN hotel h ON h.id = b.hotel_id
+		 WHERE b.id IN :ids
+	""", nativeQuery = true)
+	int copyFromBookings(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+	@Modifying
+	@Query("DELETE FROM ArchivedBooking a WHERE a.userId = :userId")
+	int deleteByUserId(@Param("userId") Long userId);
+
+
+	// Analytics backfill: archived rows are flat, so entities are as cheap as projections
+	List<ArchivedBooking> findByIdGreaterThanOrderById(Long afterId, Pageable page);
+}
@@ -0,0 +1,16 @@
+package com.hotel.booking.repository;
+
+import com.hotel.booking.model.BookingStatus;
+
+import java.time.LocalDate;
+
+// The booking fields analytics depends on, from events, the booking table or the archive
+public record BookingFacts(Long bookingId,
+                           Long hotelId,
+                           String roomType,
+                           Long userId,
+                           LocalDate checkInDate,
+                           LocalDate checkOutDate,
+                           Double totalAmount,
+                           BookingStatus status) {
+}
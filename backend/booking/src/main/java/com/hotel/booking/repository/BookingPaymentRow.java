@@ -0,0 +1,14 @@
+package com.hotel.booking.repository;
+
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.PaymentStatus;
+
+// Flat booking + payment columns for reconciliation scans; no entities, so nothing piles up in the session
+public record BookingPaymentRow(Long bookingId,
+                                BookingStatus bookingStatus,
+                                Double totalAmount,
+                                Long paymentId,
+                                PaymentStatus paymentStatus,
+                                Double paymentAmount,
+                                Double refundAmount) {
+}
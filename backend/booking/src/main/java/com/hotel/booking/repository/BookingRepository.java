@@ -1,30 +1,47 @@
 package com.hotel.booking.repository;
 
 import com.hotel.booking.model.Booking;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.PaymentStatus;
 import com.hotel.booking.model.Room;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     /* user helper (already present) */
     List<Booking> findByUserId_Id(Long id);
 
-    /* NEW — fetch every booking for a given room */
-    // Modified to eagerly fetch Room, Hotel, and User to prevent LazyInitializationException
-    @Query("SELECT b FROM Booking b JOIN FETCH b.roomId r JOIN FETCH b.hotelId h JOIN FETCH b.userId u WHERE r.id = :roomId")
-    List<Booking> findByRoomId_Id(@Param("roomId") Long roomId);
+    // Bookings still holding a room from a date on (booking modal), served by idx_booking_active_room_dates.
+    // Eagerly fetches Room, Hotel, and User to prevent LazyInitializationException
+    @Query("""
+        SELECT b FROM Booking b JOIN FETCH b.roomId r JOIN FETCH b.hotelId h JOIN FETCH b.userId u
+         WHERE b.activeRoomId = :roomId
+           AND b.checkOutDate > :from
+         ORDER BY b.checkInDate
+    """)
+    List<Booking> findActiveByRoom(@Param("roomId") Long roomId, @Param("from") LocalDate from);
 
-    /* overlap helper (already present) */
+    /* overlap helper: only active bookings are in active_room_id, so cancelled and past ones are never scanned */
     @Query("""
         SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END
           FROM Booking b
-         WHERE b.roomId = :room
+         WHERE b.activeRoomId = :#{#room.id}
            AND b.checkInDate  < :requestedCheckOut
            AND b.checkOutDate > :requestedCheckIn
     """)
@@ -32,4 +49,111 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                      @Param("requestedCheckIn")  LocalDate requestedCheckIn,
                                      @Param("requestedCheckOut") LocalDate requestedCheckOut,
                                      @Param("bookingId") Long bookingId);
+
+    // Same overlap as a locking read: sees bookings committed after the transaction's snapshot was taken
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("""
+        SELECT b FROM Booking b
+         WHERE b.activeRoomId = :roomId
+           AND b.checkInDate  < :checkOut
+           AND b.checkOutDate > :checkIn
+    """)
+    List<Booking> lockOverlapping(@Param("roomId") Long roomId,
+                                  @Param("checkIn") LocalDate checkIn,
+                                  @Param("checkOut") LocalDate checkOut);
+
+    // Keyset chunk for reconciliation: bookings after a cursor with their payment, if any
+    @Query("""
+        SELECT new com.hotel.booking.repository.BookingPaymentRow(
+                   b.id, b.status, b.totalAmount, p.id, p.paymentStatus, p.amount, p.refundAmount)
+          FROM Booking b
+          LEFT JOIN b.payment p
+         WHERE b.id > :afterId
+         ORDER BY b.id
+    """)
+    List<BookingPaymentRow> scanWithPayments(@Param("afterId") long afterId, Pageable page);
+
+    // Rooms with an active booking covering the given night (RoomOccupancy)
+    @Query("""
+        SELECT DISTINCT b.roomId.id
+          FROM Booking b
+         WHERE b.status IN :active
+           AND b.checkInDate <= :day
+           AND b.checkOutDate > :day
+    """)
+    List<Long> findRoomIdsOccupiedOn(@Param("day") LocalDate day, @Param("active") Collection<BookingStatus> active);
+
+    default List<Long> findRoomIdsOccupiedOn(LocalDate day) {
+        return findRoomIdsOccupiedOn(day, BookingStatus.ACTIVE);
+    }
+
+    // Lifecycle sweeper: set-based and capped, called until it returns less than the limit.
+    // Status codes as in BookingStatus: 2 CONFIRMED, 3 CHECKED_IN, 4 CHECKED_OUT
+    @Modifying
+    @Query(value = """
+        UPDATE booking SET status = 3
+         WHERE status = 2 AND check_in_date <= :today AND check_out_date > :today
+         LIMIT :limit
+    """, nativeQuery = true)
+    int markCheckedIn(@Param("today") LocalDate today, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+        UPDATE booking SET status = 4
+         WHERE status IN (2, 3) AND check_out_date <= :today
+         LIMIT :limit
+    """, nativeQuery = true)
+    int markCheckedOut(@Param("today") LocalDate today, @Param("limit") int limit);
+
+    // Archiver chunk: finished bookings past the horizon whose payment is settled, in id order after a cursor
+    @Query("""
+        SELECT b.id
+          FROM Booking b
+         WHERE b.status IN :finished
+           AND b.checkOutDate < :before
+           AND b.id > :afterId
+           AND NOT EXISTS (
+               SELECT 1 FROM Payment p
+                WHERE p.booking = b
+                  AND p.paymentStatus IN :unsettled)
+         ORDER BY b.id
+    """)
+    List<Long> findArchivableIds(@Param("finished") Collection<BookingStatus> finished,
+                                 @Param("unsettled") Collection<PaymentStatus> unsettled,
+                                 @Param("before") LocalDate before,
+                                 @Param("afterId") long afterId,
+                                 Pageable page);
+
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Analytics backfill: keyset chunk of flat booking facts
+    @Query("""
+        SELECT new com.hotel.booking.repository.BookingFacts(
+                   b.id, h.id, r.type, u.id, b.checkInDate, b.checkOutDate, b.totalAmount, b.status)
+          FROM Booking b
+          LEFT JOIN b.hotelId h
+          LEFT JOIN b.roomId r
+          LEFT JOIN b.userId u
+         WHERE b.id > :afterId
+         ORDER BY b.id
+    """)
+    List<BookingFacts> scanFacts(@Param("afterId") long afterId, Pageable page);
+
+    // Accepting a waitlist hold: serialises with the expirer, which skips locked rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> lockById(@Param("id") Long id);
+
+    // Due waitlist holds, FOR UPDATE SKIP LOCKED (lock timeout -2), served by idx_booking_status_hold
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT b FROM Booking b
+         WHERE b.status = :held
+           AND b.holdExpiresAt < :now
+         ORDER BY b.holdExpiresAt
+    """)
+    List<Booking> lockExpiredHolds(@Param("held") BookingStatus held, @Param("now") LocalDateTime now, Pageable page);
 }
@@ -0,0 +1,32 @@
+package com.hotel.booking.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.hotel.booking.model.DailyStat;
+import com.hotel.booking.model.DailyStatId;
+
+import jakarta.persistence.LockModeType;
+
+public interface DailyStatRepository extends JpaRepository<DailyStat, DailyStatId> {
+
+	// Serialises relay threads and the backfill on one aggregate row
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT s FROM DailyStat s WHERE s.id = :id")
+	Optional<DailyStat> lockById(@Param("id") DailyStatId id);
+
+	@Query("""
+		SELECT s FROM DailyStat s
+		 WHERE s.id.statDate BETWEEN :from AND :to
+		   AND (:hotelId IS NULL OR s.id.hotelId = :hotelId)
+	""")
+	List<DailyStat> findRange(@Param("from") LocalDate from,
+	                          @Param("to") LocalDate to,
+	                          @Param("hotelId") Long hotelId);
+}
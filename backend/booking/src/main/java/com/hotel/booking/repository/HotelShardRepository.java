@@ -0,0 +1,9 @@
+package com.hotel.booking.repository;
+
+import com.hotel.booking.model.HotelShard;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface HotelShardRepository extends JpaRepository<HotelShard, Long> {
+
+}
@@ -0,0 +1,29 @@
+package com.hotel.booking.repository;
+
+import com.hotel.booking.model.Notification;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    // FOR UPDATE SKIP LOCKED (lock timeout -2): concurrent workers claim disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM Notification n WHERE n.status = 'PENDING' AND n.nextAttemptAt <= :now ORDER BY n.nextAttemptAt, n.id")
+    List<Notification> lockDue(@Param("now") LocalDateTime now, Pageable page);
+
+    boolean existsBySourceEventId(Long sourceEventId);
+
+    long countByStatus(String status);
+}
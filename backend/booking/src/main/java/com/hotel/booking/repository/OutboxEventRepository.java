@@ -0,0 +1,68 @@
+package com.hotel.booking.repository;
+
+import com.hotel.booking.model.OutboxEvent;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // FOR UPDATE SKIP LOCKED (lock timeout -2): concurrent relays take disjoint batches. Rows behind an
+    // earlier event of their room (by room_seq) that is leased or backing off are left out, so later rooms
+    // get claimed. Ordering by room_seq keeps each room's share of a page a prefix of its pending events;
+    // ids come from per-instance blocks and do not follow commit order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT e FROM OutboxEvent e
+         WHERE e.publishedAt IS NULL
+           AND e.attempts < :maxAttempts
+           AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now)
+           AND NOT EXISTS (SELECT p.id FROM OutboxEvent p
+                            WHERE p.roomId = e.roomId
+                              AND p.roomSeq < e.roomSeq
+                              AND p.publishedAt IS NULL
+                              AND p.attempts < :maxAttempts
+                              AND p.nextAttemptAt > :now)
+         ORDER BY e.roomSeq, e.id
+    """)
+    List<OutboxEvent> lockPending(@Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now,
+                                  Pageable page);
+
+    // Hands leased rows that were not attempted back to the next claim
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.nextAttemptAt = NULL WHERE e.id IN :ids AND e.publishedAt IS NULL")
+    int releaseLease(@Param("ids") Collection<Long> ids);
+
+    // Per room, the lowest room_seq still pending outside this batch (held by another relay or not yet claimed)
+    @Query("""
+        SELECT e.roomId, MIN(e.roomSeq)
+          FROM OutboxEvent e
+         WHERE e.publishedAt IS NULL
+           AND e.attempts < :maxAttempts
+           AND e.roomId IN :roomIds
+           AND e.id NOT IN :batchIds
+         GROUP BY e.roomId
+    """)
+    List<Object[]> findLowestPendingSeqOutside(@Param("roomIds") Collection<Long> roomIds,
+                                               @Param("batchIds") Collection<Long> batchIds,
+                                               @Param("maxAttempts") int maxAttempts);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.attempts < :maxAttempts")
+    LocalDateTime findOldestPending(@Param("maxAttempts") int maxAttempts);
+
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.publishedAt < :before ORDER BY e.id")
+    List<Long> findPublishedBefore(@Param("before") LocalDateTime before, Pageable page);
+}
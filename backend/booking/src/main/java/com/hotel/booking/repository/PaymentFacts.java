@@ -0,0 +1,25 @@
+package com.hotel.booking.repository;
+
+import com.hotel.booking.model.PaymentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// The payment fields analytics depends on; also the payload of PAYMENT_* outbox events
+public record PaymentFacts(Long paymentId,
+                           Long hotelId,
+                           String roomType,
+                           PaymentStatus status,
+                           Double amount,
+                           Double refundAmount,
+                           LocalDate capturedOn,
+                           LocalDate refundedOn) {
+
+    // Scans: captured when the payment was made, refunded at its last change
+    public PaymentFacts(Long paymentId, Long hotelId, String roomType, PaymentStatus status, Double amount,
+                        Double refundAmount, LocalDateTime paymentTime, LocalDateTime updatedAt) {
+        this(paymentId, hotelId, roomType, status, amount, refundAmount,
+                paymentTime != null ? paymentTime.toLocalDate() : null,
+                updatedAt != null ? updatedAt.toLocalDate() : null);
+    }
+}
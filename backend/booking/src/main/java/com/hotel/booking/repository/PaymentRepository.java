@@ -1,12 +1,68 @@
 package com.hotel.booking.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.hotel.booking.model.Payment;
+import com.hotel.booking.model.PaymentStatus;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
 	Optional<Payment> findByBooking_Id(Long bookingId);
 
+	Optional<Payment> findByGatewayReference(String gatewayReference);
+
+	long countByBookingIsNull();
+
+	// Serialises the request thread, webhooks and the sweeper on one payment
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT p FROM Payment p WHERE p.id = :id")
+	Optional<Payment> lockById(@Param("id") Long id);
+
+	// Refund queue chunk after a keyset cursor; FOR UPDATE SKIP LOCKED so instances claim disjoint chunks
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+	@Query("""
+		SELECT p FROM Payment p
+		 WHERE p.paymentStatus = com.hotel.booking.model.PaymentStatus.REFUND_PENDING
+		   AND p.id > :afterId
+		   AND (p.nextAttemptAt IS NULL OR p.nextAttemptAt <= :now)
+		 ORDER BY p.id
+	""")
+	List<Payment> lockRefundsDue(@Param("afterId") long afterId, @Param("now") LocalDateTime now, Pageable page);
+
+	@Query("SELECT p FROM Payment p WHERE p.paymentStatus IN :statuses AND p.updatedAt < :before ORDER BY p.updatedAt")
+	List<Payment> findStale(@Param("statuses") Collection<PaymentStatus> statuses,
+	                        @Param("before") LocalDateTime before,
+	                        Pageable page);
+
+	@Modifying
+	@Query("DELETE FROM Payment p WHERE p.booking.id IN :bookingIds")
+	int deleteByBookingIdIn(@Param("bookingIds") Collection<Long> bookingIds);
+
+	// Analytics backfill: keyset chunk of flat payment facts
+	@Query("""
+		SELECT new com.hotel.booking.repository.PaymentFacts(
+		           p.id, h.id, r.type, p.paymentStatus, p.amount, p.refundAmount, p.paymentTime, p.updatedAt)
+		  FROM Payment p
+		  LEFT JOIN p.booking b
+		  LEFT JOIN b.hotelId h
+		  LEFT JOIN b.roomId r
+		 WHERE p.id > :afterId
+		 ORDER BY p.id
+	""")
+	List<PaymentFacts> scanFacts(@Param("afterId") long afterId, Pageable page);
+
 }
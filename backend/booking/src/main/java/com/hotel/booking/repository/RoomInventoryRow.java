@@ -0,0 +1,5 @@
+package com.hotel.booking.repository;
+
+// Number of rooms per hotel and type, the denominator of occupancy and RevPAR
+public record RoomInventoryRow(Long hotelId, String roomType, long rooms) {
+}
@@ -1,11 +1,48 @@
 package com.hotel.booking.repository;
 
 import java.util.List;
+import java.util.Optional;
+
+import java.time.LocalDate;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.hotel.booking.model.Room;
 
+import jakarta.persistence.LockModeType;
+
 public interface RoomRepository extends JpaRepository<Room, Long>{
 	List<Room> findByHotelId_Id(Long hotelId); 
+
+	// Serialises everything that places a booking on the room (finalize, waitlist holds), across instances
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT r FROM Room r WHERE r.id = :id")
+	Optional<Room> lockById(@Param("id") Long id);
+
+	// Rooms with no active booking overlapping [checkIn, checkOut); the anti-join uses idx_booking_active_room_dates
+	@Query("""
+		SELECT r FROM Room r
+		  LEFT JOIN FETCH r.hotelId h
+		 WHERE (:hotelId IS NULL OR h.id = :hotelId)
+		   AND NOT EXISTS (
+		       SELECT 1 FROM Booking b
+		        WHERE b.activeRoomId = r.id
+		          AND b.checkInDate < :checkOut
+		          AND b.checkOutDate > :checkIn)
+		 ORDER BY r.id
+	""")
+	List<Room> findAvailable(@Param("hotelId") Long hotelId,
+	                         @Param("checkIn") LocalDate checkIn,
+	                         @Param("checkOut") LocalDate checkOut);
+
+	@Query("""
+		SELECT new com.hotel.booking.repository.RoomInventoryRow(h.id, r.type, COUNT(r))
+		  FROM Room r
+		  JOIN r.hotelId h
+		 GROUP BY h.id, r.type
+	""")
+	List<RoomInventoryRow> countInventory();
 }
@@ -0,0 +1,34 @@
+package com.hotel.booking.repository;
+
+import com.hotel.booking.model.WaitlistEntry;
+
+import jakarta.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    List<WaitlistEntry> findByStatus(String status);
+
+    List<WaitlistEntry> findByHotelIdAndStatus(Long hotelId, String status);
+
+    List<WaitlistEntry> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    Optional<WaitlistEntry> findByBookingId(Long bookingId);
+
+    // The matcher re-reads each candidate under lock: the in-memory index may be stale
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.id = :id")
+    Optional<WaitlistEntry> lockById(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
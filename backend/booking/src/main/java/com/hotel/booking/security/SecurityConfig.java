@@ -35,6 +35,7 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
             	    .requestMatchers("/api/**").permitAll() // allow login/register
+            	    .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll() // probes and scraper
             	    .anyRequest().authenticated()           // everything else needs JWT
             	)
 
@@ -1,16 +1,27 @@
 // BookingService.java (relevant parts of initiateBooking and finalizeBooking methods)
 package com.hotel.booking.service.impl;
 
+import com.hotel.booking.availability.RoomOccupancy;
 import com.hotel.booking.dto.BookingDTO;
 import com.hotel.booking.dto.Response;
 import com.hotel.booking.model.*;
+import com.hotel.booking.monitoring.BookingFunnelMetrics;
+import com.hotel.booking.outbox.OutboxMessage;
+import com.hotel.booking.outbox.OutboxRecorder;
+import com.hotel.booking.payment.PaymentProcessor;
 import com.hotel.booking.repository.*;
 import com.hotel.booking.service.interfac.IBookingService;
+import com.hotel.booking.sharding.ShardRouter;
 import com.hotel.booking.utils.Utils;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -23,11 +34,21 @@ import java.util.stream.Collectors;
 @Transactional
 public class BookingService implements IBookingService {
 
+    private static final Logger log = LoggerFactory.getLogger(BookingService.class);
+
     @Autowired private BookingRepository bookingRepo;
     @Autowired private UserRepository    userRepo;
     @Autowired private RoomRepository    roomRepo;
     @Autowired private HotelRepository   hotelRepo;
     @Autowired private PaymentRepository paymentRepo;
+    @Autowired private ArchivedBookingRepository archivedBookingRepo;
+    @Autowired private WaitlistEntryRepository waitlistEntryRepo;
+    @Autowired private BookingFunnelMetrics funnelMetrics;
+    @Autowired private OutboxRecorder outbox;
+    @Autowired private PaymentProcessor paymentProcessor;
+    @Autowired private RoomOccupancy roomOccupancy;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ShardRouter shardRouter;
 
     @Override
     public Response initiateBooking(BookingDTO bookingDetails, Long userId) {
@@ -74,58 +95,166 @@ public class BookingService implements IBookingService {
             res.setStatusCode(200);
             res.setMessage("Booking details validated. Proceed to payment.");
             res.setBooking(confirmedBookingDetails);
+            funnelMetrics.initiated(userId, confirmedBookingDetails);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Could not initiate booking for user {} room {}", userId, bookingDetails.getRoomId(), e);
             res.setStatusCode(500);
             res.setMessage("Could not initiate booking: " + e.getMessage());
         }
         return res;
     }
 
+    // Not transactional itself: the gateway is called between two short transactions (see PaymentProcessor)
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Response finalizeBooking(BookingDTO bookingDetails, Payment paymentDetails, Long userId) {
         Response res = new Response();
+        Payment payment;
         try {
-            User  user  = userRepo.findById(userId)        .orElseThrow(() -> new RuntimeException("User not found"));
-            Room  room  = roomRepo.findById(bookingDetails.getRoomId()) .orElseThrow(() -> new RuntimeException("Room not found"));
-            Hotel hotel = hotelRepo.findById(bookingDetails.getHotelId()).orElseThrow(() -> new RuntimeException("Hotel not found"));
-            if (bookingRepo.existsByRoomAndDateRange(room, bookingDetails.getCheckInDate(), bookingDetails.getCheckOutDate(), (Long) null)) { 
-                 res.setStatusCode(409);
-                 res.setMessage("Room became unavailable before payment could be confirmed. Please select another room or dates.");
-                 return res;
-            }
-            Booking booking = new Booking();
-            booking.setUserId(user);
-            booking.setRoomId(room);
-            booking.setHotelId(hotel);
-            booking.setCheckInDate(bookingDetails.getCheckInDate());
-            booking.setCheckOutDate(bookingDetails.getCheckOutDate());
-            booking.setTotalAmount(bookingDetails.getTotalAmount());
-            booking.setStatus("CONFIRMED"); 
-            booking.setBookingTime(LocalDateTime.now()); 
-            Booking savedBooking = bookingRepo.save(booking); 
-            if (paymentDetails.getAmount() == null || paymentDetails.getPaymentMethod() == null || paymentDetails.getAmount() <= 0) {
-                res.setStatusCode(400);
-                res.setMessage("Invalid payment details provided.");
-                throw new RuntimeException("Invalid payment details.");
-            }
-            paymentDetails.setBooking(savedBooking); 
-            paymentDetails.setPaymentTime(LocalDateTime.now());
-            paymentDetails.setPaymentStatus("COMPLETED");
-            paymentRepo.save(paymentDetails); 
-            room.setAvailable(false);
-            roomRepo.save(room);
-            res.setStatusCode(200);
-            res.setMessage("Booking confirmed and payment processed successfully.");
-            res.setBooking(Utils.mapBookingToDetailedDTO(savedBooking));
-            res.setBookingId(savedBooking.getId()); 
+            payment = transactionTemplate.execute(status -> reserve(bookingDetails, paymentDetails, userId, res));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Could not finalize booking for user {} room {}", userId, bookingDetails.getRoomId(), e);
             res.setStatusCode(500);
             res.setMessage("Could not finalize booking: " + e.getMessage());
+            return res;
+        }
+        if (payment == null) {
+            return res;
+        }
+        return processPayment(payment, res, userId, bookingDetails);
+    }
+
+    // Accepting a waitlist offer: the HELD booking becomes PENDING_PAYMENT and goes through the same payment path
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Response finalizeHeldBooking(Long bookingId, Payment paymentDetails, Long userId) {
+        Response res = new Response();
+        Payment payment;
+        try {
+            payment = transactionTemplate.execute(status -> claimHold(bookingId, paymentDetails, userId, res));
+        } catch (Exception e) {
+            log.error("Could not accept held booking {} for user {}", bookingId, userId, e);
+            res.setStatusCode(500);
+            res.setMessage("Could not accept held booking: " + e.getMessage());
+            return res;
+        }
+        if (payment == null) {
+            return res;
+        }
+        return processPayment(payment, res, userId, null);
+    }
+
+    // Gateway call outside any transaction; funnel metrics only for bookings that went through initiate
+    private Response processPayment(Payment payment, Response res, Long userId, BookingDTO initiated) {
+        Long bookingId = payment.getBooking().getId();
+        res.setBookingId(bookingId);
+        try {
+            PaymentStatus status = paymentProcessor.process(payment.getId());
+            res.setBooking(transactionTemplate.execute(tx -> Utils.mapBookingToDetailedDTO(bookingRepo.findById(bookingId).orElseThrow())));
+            if (status == PaymentStatus.CAPTURED) {
+                res.setStatusCode(200);
+                res.setMessage("Booking confirmed and payment processed successfully.");
+                if (initiated != null) {
+                    funnelMetrics.finalized(userId, initiated);
+                }
+            } else if (status == PaymentStatus.FAILED) {
+                res.setStatusCode(402);
+                res.setMessage("Payment was not accepted; the room has been released.");
+            } else {
+                res.setStatusCode(202);
+                res.setMessage("Payment is being processed; the booking will be confirmed once the payment provider answers.");
+            }
+        } catch (Exception e) {
+            log.error("Could not process payment {} for booking {}", payment.getId(), bookingId, e);
+            res.setStatusCode(500);
+            res.setMessage("Could not process payment: " + e.getMessage());
         }
         return res;
     }
+
+    // Holds the room with a PENDING_PAYMENT booking and a PENDING payment; null with res filled in when rejected
+    private Payment reserve(BookingDTO bookingDetails, Payment paymentDetails, Long userId, Response res) {
+        // Locked until commit, so the overlap check and the insert cannot interleave with another instance's;
+        // taken first, so under REPEATABLE READ the overlap check's snapshot starts after the lock
+        Room  room  = roomRepo.lockById(bookingDetails.getRoomId()) .orElseThrow(() -> new RuntimeException("Room not found"));
+        User  user  = userRepo.findById(userId)        .orElseThrow(() -> new RuntimeException("User not found"));
+        Hotel hotel = hotelRepo.findById(bookingDetails.getHotelId()).orElseThrow(() -> new RuntimeException("Hotel not found"));
+        if (paymentDetails == null || paymentDetails.getPaymentMethod() == null) {
+            res.setStatusCode(400);
+            res.setMessage("Invalid payment details provided.");
+            return null;
+        }
+        long nights = bookingDetails.getCheckInDate() == null || bookingDetails.getCheckOutDate() == null ? 0
+                : ChronoUnit.DAYS.between(bookingDetails.getCheckInDate(), bookingDetails.getCheckOutDate());
+        if (nights <= 0) {
+            res.setStatusCode(400);
+            res.setMessage("Check-out date must be after check-in date.");
+            return null;
+        }
+        if (bookingRepo.existsByRoomAndDateRange(room, bookingDetails.getCheckInDate(), bookingDetails.getCheckOutDate(), (Long) null)) { 
+             res.setStatusCode(409);
+             res.setMessage("Room became unavailable before payment could be confirmed. Please select another room or dates.");
+             return null;
+        }
+        Booking booking = new Booking();
+        booking.setUserId(user);
+        booking.setRoomId(room);
+        booking.setHotelId(hotel);
+        booking.setCheckInDate(bookingDetails.getCheckInDate());
+        booking.setCheckOutDate(bookingDetails.getCheckOutDate());
+        // Priced here from the locked room; the client-sent total and payment amount are not trusted
+        booking.setTotalAmount(room.getPrice() * nights);
+        booking.setStatus(BookingStatus.PENDING_PAYMENT);
+        booking.setBookingTime(LocalDateTime.now()); 
+        Booking savedBooking = bookingRepo.save(booking); 
+        paymentDetails.setId(null);
+        paymentDetails.setBooking(savedBooking); 
+        paymentDetails.setAmount(savedBooking.getTotalAmount());
+        paymentDetails.setPaymentTime(LocalDateTime.now());
+        paymentDetails.setUpdatedAt(paymentDetails.getPaymentTime());
+        paymentDetails.setPaymentStatus(PaymentStatus.PENDING);
+        paymentDetails.setGatewayReference(null);
+        paymentDetails.setRefundAmount(null);
+        // The room is taken from here on, not from capture
+        outbox.record(OutboxMessage.BOOKING, savedBooking.getId(), room.getId(), OutboxMessage.BOOKING_RESERVED,
+                Utils.mapBookingToDetailedDTO(savedBooking));
+        roomOccupancy.refreshAfterCommit();
+        return paymentRepo.save(paymentDetails);
+    }
+
+    // Locks the HELD booking (the expirer skips it meanwhile); null with res filled in when rejected
+    private Payment claimHold(Long bookingId, Payment paymentDetails, Long userId, Response res) {
+        Booking booking = bookingRepo.lockById(bookingId).orElse(null);
+        if (booking == null || !booking.getUserId().getId().equals(userId)) {
+            res.setStatusCode(404);
+            res.setMessage("Held booking not found");
+            return null;
+        }
+        if (booking.getStatus() != BookingStatus.HELD || booking.getHoldExpiresAt() == null
+                || booking.getHoldExpiresAt().isBefore(LocalDateTime.now())) {
+            res.setStatusCode(410);
+            res.setMessage("This offer has expired.");
+            return null;
+        }
+        if (paymentDetails == null || paymentDetails.getPaymentMethod() == null) {
+            res.setStatusCode(400);
+            res.setMessage("Invalid payment details provided.");
+            return null;
+        }
+        booking.setStatus(BookingStatus.PENDING_PAYMENT);
+        booking.setHoldExpiresAt(null);
+        waitlistEntryRepo.findByBookingId(bookingId).ifPresent(entry -> entry.setStatus(WaitlistEntry.BOOKED));
+        paymentDetails.setId(null);
+        paymentDetails.setBooking(booking);
+        paymentDetails.setAmount(booking.getTotalAmount());
+        paymentDetails.setPaymentTime(LocalDateTime.now());
+        paymentDetails.setUpdatedAt(paymentDetails.getPaymentTime());
+        paymentDetails.setPaymentStatus(PaymentStatus.PENDING);
+        paymentDetails.setGatewayReference(null);
+        paymentDetails.setRefundAmount(null);
+        return paymentRepo.save(paymentDetails);
+    }
+
     public Response cancelBooking(Long bookingId, Long userId) {
         Response res = new Response();
         try {
@@ -136,14 +265,14 @@ public class BookingService implements IBookingService {
                 res.setMessage("You are not authorized to cancel this booking.");
                 return res;
             }
-            if (!"CONFIRMED".equals(booking.getStatus())) {
+            if (booking.getStatus() == BookingStatus.CANCELLED) {
                 res.setStatusCode(400);
-                res.setMessage("Only CONFIRMED bookings can be cancelled.");
+                res.setMessage("Booking is already cancelled.");
                 return res;
             }
-            if ("CANCELLED".equals(booking.getStatus())) {
+            if (booking.getStatus() != BookingStatus.CONFIRMED) {
                 res.setStatusCode(400);
-                res.setMessage("Booking is already cancelled.");
+                res.setMessage("Only CONFIRMED bookings can be cancelled.");
                 return res;
             }
             LocalDateTime twoHoursAfterBooking = booking.getBookingTime().plusHours(2);
@@ -152,27 +281,23 @@ public class BookingService implements IBookingService {
                 res.setMessage("Cancellation is only allowed within 2 hours of booking creation.");
                 return res;
             }
-            if (booking.getTotalAmount() != null) {
-                double refundAmount = booking.getTotalAmount() * 0.90;
-                if (booking.getPayment() != null) {
-                    Payment payment = booking.getPayment();
-                    payment.setPaymentStatus("REFUNDED");
-                    payment.setAmount(refundAmount);
-                    paymentRepo.save(payment);
-                }
+            Payment payment = booking.getPayment();
+            if (booking.getTotalAmount() != null && payment != null && payment.getPaymentStatus() == PaymentStatus.CAPTURED) {
+                paymentProcessor.requestRefund(payment.getId(), booking.getTotalAmount() * 0.90);
             }
-            booking.setStatus("CANCELLED");
+            booking.setStatus(BookingStatus.CANCELLED);
             Booking updatedBooking = bookingRepo.save(booking);
             Room room = updatedBooking.getRoomId();
-            if (room != null) {
-                room.setAvailable(true);
-                roomRepo.save(room);
-            }
+            roomOccupancy.refreshAfterCommit();
             res.setStatusCode(200);
-            res.setMessage("Booking cancelled successfully. 90% refund processed.");
+            res.setMessage("Booking cancelled successfully. A 90% refund is being processed.");
+            funnelMetrics.cancelled();
             res.setBooking(Utils.mapBookingToDetailedDTO(updatedBooking));
+            outbox.record(OutboxMessage.BOOKING, updatedBooking.getId(), room != null ? room.getId() : null,
+                    OutboxMessage.BOOKING_CANCELLED, res.getBooking());
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Could not cancel booking {} for user {}", bookingId, userId, e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             res.setStatusCode(500);
             res.setMessage("Could not cancel booking: " + e.getMessage());
         }
@@ -194,15 +319,15 @@ public class BookingService implements IBookingService {
             if (booking.getPayment() != null) {
                 paymentRepo.delete(booking.getPayment());
             }
-            if (booking.getRoomId() != null && !booking.getRoomId().isAvailable() && !"CANCELLED".equals(booking.getStatus())) {
-                Room room = booking.getRoomId();
-                room.setAvailable(true);
-                roomRepo.save(room);
-            }
+            BookingDTO deleted = Utils.mapBookingToDTO(booking);
+            Long roomId = booking.getRoomId() != null ? booking.getRoomId().getId() : null;
             bookingRepo.deleteById(bookingId);
+            outbox.record(OutboxMessage.BOOKING, bookingId, roomId, OutboxMessage.BOOKING_DELETED, deleted);
+            roomOccupancy.refreshAfterCommit();
             response.setStatusCode(200);
             response.setMessage("Booking deleted");           
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             response.setStatusCode(500);
             response.setMessage("Error deleting booking: " + e.getMessage());
         }
@@ -213,9 +338,9 @@ public class BookingService implements IBookingService {
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByRoom(Long roomId) {
         try {
-            return bookingRepo.findByRoomId_Id(roomId);
+            return bookingRepo.findActiveByRoom(roomId, LocalDate.now());
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Could not load bookings for room {}", roomId, e);
             return new ArrayList<>();
         }
     }
@@ -226,13 +351,18 @@ public class BookingService implements IBookingService {
         try {
             Long bookingId = Long.parseLong(id);
             Booking booking = bookingRepo.findById(bookingId).orElse(null);
-            if (booking == null) {
-                response.setStatusCode(404);
-                response.setMessage("Booking not found");
-            } else {
+            ArchivedBooking archived = booking == null ? archivedBookingRepo.findById(bookingId).orElse(null) : null;
+            if (booking != null) {
                 response.setStatusCode(200);
                 response.setMessage("Booking retrieved");
                 response.setBooking(Utils.mapBookingToDetailedDTO(booking));
+            } else if (archived != null) {
+                response.setStatusCode(200);
+                response.setMessage("Booking retrieved from archive");
+                response.setBooking(Utils.mapArchivedBookingToDTO(archived));
+            } else {
+                response.setStatusCode(404);
+                response.setMessage("Booking not found");
             }
         } catch (Exception e) {
             response.setStatusCode(500);
@@ -245,10 +375,9 @@ public class BookingService implements IBookingService {
     public Response getAllBookings() {
         Response response = new Response();
         try {
-            List<Booking> bookings = bookingRepo.findAll();
-            List<BookingDTO> bookingDTOs = bookings.stream()
+            List<BookingDTO> bookingDTOs = shardRouter.gather(() -> bookingRepo.findAll().stream()
                                                     .map(Utils::mapBookingToDetailedDTO)
-                                                    .collect(Collectors.toList());
+                                                    .collect(Collectors.toList()));
             response.setStatusCode(200);
             response.setMessage("Bookings retrieved");
             response.setBookingList(bookingDTOs);
@@ -271,7 +400,9 @@ public class BookingService implements IBookingService {
             } else {
                 booking.setCheckInDate(dto.getCheckInDate());
                 booking.setCheckOutDate(dto.getCheckOutDate());
-                booking.setStatus(dto.getStatus());
+                if (dto.getStatus() != null) {
+                    booking.setStatus(dto.getStatus());
+                }
                 if (dto.getTotalAmount() != null) {
                     booking.setTotalAmount(dto.getTotalAmount());
                 }
@@ -279,8 +410,13 @@ public class BookingService implements IBookingService {
                 response.setStatusCode(200);
                 response.setMessage("Booking updated");
                 response.setBooking(Utils.mapBookingToDetailedDTO(updated));
+                outbox.record(OutboxMessage.BOOKING, updated.getId(),
+                        updated.getRoomId() != null ? updated.getRoomId().getId() : null,
+                        OutboxMessage.BOOKING_UPDATED, response.getBooking());
+                roomOccupancy.refreshAfterCommit();
             }
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             response.setStatusCode(500);
             response.setMessage("Error updating booking: " + e.getMessage());
         }
@@ -296,11 +432,10 @@ public class BookingService implements IBookingService {
     @Transactional(readOnly = true)
     public List<BookingDTO> getBookingsByRoomAsDTOs(Long roomId) {
         try {
-            List<Booking> bookings = bookingRepo.findByRoomId_Id(roomId);
+            List<Booking> bookings = bookingRepo.findActiveByRoom(roomId, LocalDate.now());
             return bookings.stream().map(Utils::mapBookingToDetailedDTO).toList();
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Error in getBookingsByRoomAsDTOs: " + e.getMessage());
+            log.error("Could not load bookings for room {}", roomId, e);
             return new ArrayList<>();
         }
     }
@@ -1,17 +1,26 @@
 // HotelService.java
 package com.hotel.booking.service.impl;
 
+import com.hotel.booking.availability.RoomOccupancy;
+import com.hotel.booking.cluster.Invalidation;
+import com.hotel.booking.cluster.InvalidationRecorder;
 import com.hotel.booking.dto.HotelDTO; // Import HotelDTO
 import com.hotel.booking.dto.Response;
+import com.hotel.booking.dto.RoomDTO;
 import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Room;
 import com.hotel.booking.repository.HotelRepository;
+import com.hotel.booking.repository.RoomRepository;
 import com.hotel.booking.service.interfac.IHotelService;
+import com.hotel.booking.sharding.ShardDirectory;
+import com.hotel.booking.sharding.ShardRouter;
 import com.hotel.booking.utils.Utils;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional; // Import Transactional
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,15 +31,31 @@ public class HotelService implements IHotelService {
     @Autowired
     private HotelRepository hotelRepository;
 
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    @Autowired
+    private InvalidationRecorder invalidations;
+
+    @Autowired
+    private RoomOccupancy roomOccupancy;
+
     @Override
     @Transactional 
     public Response createHotel(Hotel hotel) {
         Response response = new Response();
         try {
             Hotel saved = hotelRepository.save(hotel);
+            shardDirectory.recordCreated(List.of(saved.getId()));
             response.setStatusCode(200);
             response.setMessage("Hotel created");
-            response.setHotel(Utils.mapHotelEntityToDTO(saved)); // Return DTO
+            response.setHotel(roomOccupancy.withAvailability(Utils.mapHotelEntityToDTO(saved))); // Return DTO
         } catch (Exception e) {
             response.setStatusCode(500);
             response.setMessage("Error creating hotel: " + e.getMessage());
@@ -38,14 +63,64 @@ public class HotelService implements IHotelService {
         return response;
     }
 
+    // Bulk import of hotels with their rooms; inserts go out in JDBC batches per table
+    @Override
+    @Transactional
+    public Response createHotels(List<HotelDTO> hotelDTOs) {
+        Response response = new Response();
+        try {
+            if (hotelDTOs == null || hotelDTOs.isEmpty()) {
+                response.setStatusCode(400);
+                response.setMessage("At least one hotel is required.");
+                return response;
+            }
+            List<Hotel> hotels = new ArrayList<>(hotelDTOs.size());
+            List<Room> rooms = new ArrayList<>();
+            for (HotelDTO dto : hotelDTOs) {
+                Hotel hotel = new Hotel();
+                hotel.setName(dto.getName());
+                hotel.setAdress(dto.getAdress());
+                hotel.setCity(dto.getCity());
+                hotel.setState(dto.getState());
+                hotel.setZipcode(dto.getZipcode());
+                hotel.setContact(dto.getContact());
+                List<Room> hotelRooms = new ArrayList<>();
+                if (dto.getRooms() != null) {
+                    for (RoomDTO roomDTO : dto.getRooms()) {
+                        Room room = new Room();
+                        room.setRoomNumber(roomDTO.getRoomNumber());
+                        room.setType(roomDTO.getType());
+                        room.setPrice(roomDTO.getPrice());
+                        room.setHotelId(hotel);
+                        hotelRooms.add(room);
+                    }
+                }
+                hotel.setRooms(hotelRooms);
+                hotels.add(hotel);
+                rooms.addAll(hotelRooms);
+            }
+
+            List<Hotel> saved = hotelRepository.saveAll(hotels);
+            shardDirectory.recordCreated(saved.stream().map(Hotel::getId).toList());
+            roomRepository.saveAll(rooms);
+            response.setStatusCode(200);
+            response.setMessage(saved.size() + " hotels and " + rooms.size() + " rooms imported");
+            response.setHotelList(saved.stream().map(Utils::mapHotelEntityToDTO).map(roomOccupancy::withAvailability).collect(Collectors.toList()));
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Error importing hotels: " + e.getMessage());
+        }
+        return response;
+    }
+
     @Override
     public Response getAllHotels() {
         Response response = new Response();
         try {
-            List<Hotel> hotels = hotelRepository.findAll();
-            List<HotelDTO> hotelDTOs = hotels.stream()
+            List<HotelDTO> hotelDTOs = shardRouter.gather(() -> hotelRepository.findAll().stream()
                                             .map(Utils::mapHotelEntityToDTO)
-                                            .collect(Collectors.toList());
+                                            .map(roomOccupancy::withAvailability)
+                                            .collect(Collectors.toList()));
             
             response.setStatusCode(200);
             response.setMessage("Hotels retrieved");
@@ -70,7 +145,7 @@ public class HotelService implements IHotelService {
             } else {
                 response.setStatusCode(200);
                 response.setMessage("Hotel found");
-                response.setHotel(Utils.mapHotelEntityToDTO(hotel)); // Return DTO
+                response.setHotel(roomOccupancy.withAvailability(Utils.mapHotelEntityToDTO(hotel))); // Return DTO
             }
         } catch (Exception e) {
             response.setStatusCode(500);
@@ -90,6 +165,7 @@ public class HotelService implements IHotelService {
                 response.setMessage("Hotel not found");
             } else {
                 hotelRepository.deleteById(hotelId);
+                invalidations.record(Invalidation.HOTEL, hotelId, hotelId);
                 response.setStatusCode(200);
                 response.setMessage("Hotel deleted");
             }
@@ -121,9 +197,10 @@ public class HotelService implements IHotelService {
                 existingHotel.setContact(dto.getContact());
 
                 Hotel updatedHotel = hotelRepository.save(existingHotel);
+                invalidations.record(Invalidation.HOTEL, hotelId, hotelId);
                 response.setStatusCode(200);
                 response.setMessage("Hotel updated successfully.");
-                response.setHotel(Utils.mapHotelEntityToDTO(updatedHotel)); // Return DTO
+                response.setHotel(roomOccupancy.withAvailability(Utils.mapHotelEntityToDTO(updatedHotel))); // Return DTO
             }
         } catch (Exception e) {
             response.setStatusCode(500);
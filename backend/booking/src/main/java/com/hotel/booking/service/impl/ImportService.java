@@ -0,0 +1,310 @@
+package com.hotel.booking.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.dto.ImportEvent;
+import com.hotel.booking.dto.ImportRow;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.repository.HotelRepository;
+import com.hotel.booking.repository.RoomRepository;
+import com.hotel.booking.service.interfac.IImportService;
+import com.hotel.booking.sharding.ShardDirectory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streams hotel/room inventory from CSV or NDJSON. Lines are parsed one at a
+ * time and written in chunks, each chunk in its own transaction, so memory stays
+ * flat no matter how big the upload is. The only state kept across chunks is the
+ * map from import-local hotel refs to generated ids.
+ *
+ * CSV layout (no header, blank lines and lines starting with '#' are skipped):
+ *   HOTEL,ref,name,adress,city,state,zipcode,contact
+ *   ROOM,hotelRef,roomNumber,type,price[,available]
+ * The trailing available column of older exports is accepted and ignored:
+ * availability is derived from bookings.
+ *
+ * A ROOM row names its hotel by a ref from a HOTEL row or by "#id" for a hotel
+ * that already exists. Refs are resolved chunk by chunk, so a HOTEL row may
+ * follow its rooms only within the same chunk; rooms whose HOTEL row lands in a
+ * later chunk are rejected as errors rather than held back, which would make
+ * memory grow with the file again. Exports should list hotels first.
+ */
+@Service
+public class ImportService implements IImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${import.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    public ImportEvent importInventory(Reader source, String format, Consumer<ImportEvent> listener) throws IOException {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        ImportRun run = new ImportRun(listener);
+        BufferedReader reader = source instanceof BufferedReader buffered ? buffered : new BufferedReader(source);
+
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            run.rowsRead++;
+            try {
+                ImportRow row = ndjson ? objectMapper.readValue(trimmed, ImportRow.class) : parseCsvRow(trimmed);
+                String problem = validate(row);
+                if (problem != null) {
+                    run.error(lineNumber, problem);
+                    continue;
+                }
+                run.pending.add(new PendingRow(lineNumber, row));
+            } catch (Exception e) {
+                run.error(lineNumber, "Unreadable row: " + e.getMessage());
+                continue;
+            }
+            if (run.pending.size() >= chunkSize) {
+                flush(run);
+            }
+        }
+        flush(run);
+
+        ImportEvent summary = run.snapshot("summary");
+        summary.setMessage("Import finished");
+        return summary;
+    }
+
+    private void flush(ImportRun run) {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+        List<PendingRow> chunk = run.pending;
+        run.pending = new ArrayList<>(chunkSize);
+        run.chunkRefs.clear();
+        try {
+            // Imported hotels go to the new-hotel shard, so existing-hotel refs ("#id") resolve there only
+            int[] counts = shardDirectory.on(shardDirectory.getNewHotelShard(), null,
+                    () -> transactionTemplate.execute(status -> writeChunk(chunk, run)));
+            run.hotelsImported += counts[0];
+            run.roomsImported += counts[1];
+        } catch (Exception e) {
+            // The chunk rolled back as a whole; refs created in it must not be used by later rows
+            run.chunkRefs.forEach(run.hotelIdsByRef::remove);
+            run.error(chunk.get(0).line, "Chunk ending at line " + chunk.get(chunk.size() - 1).line
+                    + " was rolled back: " + e.getMessage());
+        }
+        run.listener.accept(run.snapshot("progress"));
+    }
+
+    private int[] writeChunk(List<PendingRow> chunk, ImportRun run) {
+        List<Hotel> hotels = new ArrayList<>();
+        List<String> refs = new ArrayList<>();
+        for (PendingRow pending : chunk) {
+            ImportRow row = pending.row;
+            if (!"HOTEL".equalsIgnoreCase(row.getRecord())) {
+                continue;
+            }
+            if (run.hotelIdsByRef.containsKey(row.getRef())) {
+                run.error(pending.line, "Duplicate hotel ref '" + row.getRef() + "'");
+                continue;
+            }
+            Hotel hotel = new Hotel();
+            hotel.setName(row.getName());
+            hotel.setAdress(row.getAdress());
+            hotel.setCity(row.getCity());
+            hotel.setState(row.getState());
+            hotel.setZipcode(row.getZipcode());
+            hotel.setContact(row.getContact());
+            hotels.add(hotel);
+            refs.add(row.getRef());
+            run.chunkRefs.add(row.getRef());
+            run.hotelIdsByRef.put(row.getRef(), null);
+        }
+        hotelRepository.saveAll(hotels);
+        for (int i = 0; i < hotels.size(); i++) {
+            run.hotelIdsByRef.put(refs.get(i), hotels.get(i).getId());
+        }
+        shardDirectory.recordCreated(hotels.stream().map(Hotel::getId).toList());
+
+        List<Room> rooms = new ArrayList<>();
+        for (PendingRow pending : chunk) {
+            ImportRow row = pending.row;
+            if (!"ROOM".equalsIgnoreCase(row.getRecord())) {
+                continue;
+            }
+            Long hotelId = resolveHotel(row.getHotelRef(), run);
+            if (hotelId == null) {
+                run.error(pending.line, row.getHotelRef().startsWith("#")
+                        ? "Unknown hotel ref '" + row.getHotelRef() + "'"
+                        : "Unknown hotel ref '" + row.getHotelRef() + "'; its HOTEL row must come before this chunk or in it");
+                continue;
+            }
+            Room room = new Room();
+            room.setRoomNumber(row.getRoomNumber());
+            room.setType(row.getType());
+            room.setPrice(row.getPrice());
+            room.setHotelId(hotelRepository.getReferenceById(hotelId));
+            rooms.add(room);
+        }
+        roomRepository.saveAll(rooms);
+        return new int[] { hotels.size(), rooms.size() };
+    }
+
+    private Long resolveHotel(String hotelRef, ImportRun run) {
+        if (hotelRef.startsWith("#") && !run.hotelIdsByRef.containsKey(hotelRef)) {
+            Long id = Long.parseLong(hotelRef.substring(1));
+            run.hotelIdsByRef.put(hotelRef, hotelRepository.existsById(id) ? id : null);
+        }
+        return run.hotelIdsByRef.get(hotelRef);
+    }
+
+    private static String validate(ImportRow row) {
+        if (row.getRecord() == null) {
+            return "Missing record type";
+        }
+        switch (row.getRecord().toUpperCase()) {
+            case "HOTEL":
+                if (isBlank(row.getRef())) return "Hotel ref is required";
+                if (isBlank(row.getName())) return "Hotel name is required";
+                return null;
+            case "ROOM":
+                if (isBlank(row.getHotelRef())) return "Room hotelRef is required";
+                if (row.getHotelRef().startsWith("#") && !row.getHotelRef().substring(1).matches("\\d+")) {
+                    return "Invalid hotel id '" + row.getHotelRef() + "'";
+                }
+                if (isBlank(row.getRoomNumber())) return "Room number is required";
+                if (row.getPrice() == null || row.getPrice() < 0) return "Room price must be zero or more";
+                return null;
+            default:
+                return "Unknown record type '" + row.getRecord() + "'";
+        }
+    }
+
+    private static ImportRow parseCsvRow(String line) {
+        List<String> fields = splitCsv(line);
+        ImportRow row = new ImportRow();
+        row.setRecord(fields.get(0));
+        if ("HOTEL".equalsIgnoreCase(row.getRecord())) {
+            row.setRef(field(fields, 1));
+            row.setName(field(fields, 2));
+            row.setAdress(field(fields, 3));
+            row.setCity(field(fields, 4));
+            row.setState(field(fields, 5));
+            row.setZipcode(field(fields, 6));
+            row.setContact(field(fields, 7));
+        } else if ("ROOM".equalsIgnoreCase(row.getRecord())) {
+            row.setHotelRef(field(fields, 1));
+            row.setRoomNumber(field(fields, 2));
+            row.setType(field(fields, 3));
+            String price = field(fields, 4);
+            row.setPrice(isBlank(price) ? null : Double.parseDouble(price));
+            String available = field(fields, 5);
+            row.setAvailable(isBlank(available) ? null : Boolean.parseBoolean(available));
+        }
+        return row;
+    }
+
+    // RFC 4180 style splitting for a single line: quoted fields and doubled quotes
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(current.toString().trim());
+        return fields;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() && !fields.get(index).isEmpty() ? fields.get(index) : null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record PendingRow(long line, ImportRow row) {
+    }
+
+    private class ImportRun {
+        private final Consumer<ImportEvent> listener;
+        private final Map<String, Long> hotelIdsByRef = new HashMap<>();
+        private final List<String> chunkRefs = new ArrayList<>();
+        private List<PendingRow> pending = new ArrayList<>(chunkSize);
+        private long rowsRead;
+        private long hotelsImported;
+        private long roomsImported;
+        private long errorCount;
+
+        ImportRun(Consumer<ImportEvent> listener) {
+            this.listener = listener;
+        }
+
+        void error(long line, String message) {
+            errorCount++;
+            if (errorCount <= MAX_REPORTED_ERRORS) {
+                listener.accept(ImportEvent.error(line, message));
+            }
+        }
+
+        ImportEvent snapshot(String type) {
+            ImportEvent event = new ImportEvent();
+            event.setType(type);
+            event.setRowsRead(rowsRead);
+            event.setHotelsImported(hotelsImported);
+            event.setRoomsImported(roomsImported);
+            event.setErrorCount(errorCount);
+            return event;
+        }
+    }
+}
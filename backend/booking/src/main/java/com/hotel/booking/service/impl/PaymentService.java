@@ -2,12 +2,16 @@ package com.hotel.booking.service.impl;
 
 import com.hotel.booking.dto.Response;
 import com.hotel.booking.model.Payment;
+import com.hotel.booking.model.PaymentStatus;
+import com.hotel.booking.payment.PaymentProcessor;
 import com.hotel.booking.repository.PaymentRepository;
 import com.hotel.booking.service.interfac.IPaymentService;
+import com.hotel.booking.sharding.ShardRouter;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -16,14 +20,38 @@ public class PaymentService implements IPaymentService {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private PaymentProcessor paymentProcessor;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    // The state is always ours to set: a new payment starts PENDING and only the gateway moves it on
     @Override
     public Response makePayment(Payment payment) {
         Response response = new Response();
         try {
+            if (payment.getAmount() == null || payment.getAmount() <= 0 || payment.getPaymentMethod() == null) {
+                response.setStatusCode(400);
+                response.setMessage("Invalid payment details provided.");
+                return response;
+            }
+            payment.setId(null);
+            payment.setPaymentStatus(PaymentStatus.PENDING);
+            payment.setPaymentTime(LocalDateTime.now());
+            payment.setUpdatedAt(payment.getPaymentTime());
+            payment.setGatewayReference(null);
+            payment.setRefundAmount(null);
+            payment.setFailureReason(null);
             Payment saved = paymentRepository.save(payment);
-            response.setStatusCode(200);
-            response.setMessage("Payment successful");
-            response.setPayment(saved);
+            PaymentStatus status = paymentProcessor.process(saved.getId());
+            response.setStatusCode(switch (status) {
+                case CAPTURED -> 200;
+                case FAILED -> 402;
+                default -> 202;
+            });
+            response.setMessage("Payment " + status.name().toLowerCase());
+            response.setPayment(paymentRepository.findById(saved.getId()).orElse(saved));
         } catch (Exception e) {
             response.setStatusCode(500);
             response.setMessage("Error making payment: " + e.getMessage());
@@ -56,7 +84,7 @@ public class PaymentService implements IPaymentService {
     public Response getAllPayments() {
         Response response = new Response();
         try {
-            List<Payment> payments = paymentRepository.findAll();
+            List<Payment> payments = shardRouter.gather(paymentRepository::findAll);
             response.setStatusCode(200);
             response.setMessage("Payments retrieved");
             response.setPaymentList(payments);
@@ -86,4 +114,9 @@ public class PaymentService implements IPaymentService {
         }
         return response;
     }
+
+    @Override
+    public Response handleWebhook(String payload, String signature) {
+        return paymentProcessor.handleWebhook(payload, signature);
+    }
 }
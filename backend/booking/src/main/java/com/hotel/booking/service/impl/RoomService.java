@@ -1,19 +1,32 @@
 // RoomService.java
 package com.hotel.booking.service.impl;
 
+import com.hotel.booking.availability.RoomOccupancy;
 import com.hotel.booking.dto.Response;
 import com.hotel.booking.dto.RoomDTO;
 import com.hotel.booking.model.Hotel;
 import com.hotel.booking.model.Room;
+import com.hotel.booking.outbox.OutboxMessage;
+import com.hotel.booking.outbox.OutboxRecorder;
 import com.hotel.booking.repository.HotelRepository;
 import com.hotel.booking.repository.RoomRepository;
 import com.hotel.booking.service.interfac.IRoomService;
+import com.hotel.booking.sharding.ShardRouter;
 import com.hotel.booking.utils.Utils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import java.util.stream.Collectors;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class RoomService implements IRoomService {
@@ -24,7 +37,17 @@ public class RoomService implements IRoomService {
     @Autowired
     private HotelRepository hotelRepository;
 
+    @Autowired
+    private OutboxRecorder outbox;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private RoomOccupancy roomOccupancy;
+
     @Override
+    @Transactional
     public Response addRoom(RoomDTO roomDTO) { 
         Response response = new Response();
         try {
@@ -43,48 +66,101 @@ public class RoomService implements IRoomService {
             room.setRoomNumber(roomDTO.getRoomNumber());
             room.setType(roomDTO.getType());
             room.setPrice(roomDTO.getPrice());
-            room.setAvailable(roomDTO.isAvailable());
             room.setHotelId(hotel); // <-- Crucially set the fetched Hotel entity
 
             Room saved = roomRepository.save(room);
             response.setStatusCode(200);
             response.setMessage("Room added");
-            response.setRoom(Utils.mapRoomEntityToDTO(saved)); // Return the mapped DTO
+            response.setRoom(roomOccupancy.withAvailability(Utils.mapRoomEntityToDTO(saved))); // Return the mapped DTO
+            outbox.record(OutboxMessage.ROOM, saved.getId(), saved.getId(), OutboxMessage.ROOM_CREATED, response.getRoom());
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             response.setStatusCode(500);
             response.setMessage("Error adding room: " + e.getMessage());
         }
         return response;
     }
 
+    // Bulk variant of addRoom: one hotel lookup for the whole batch and batched INSERTs
+    @Override
+    @Transactional
+    public Response addRooms(List<RoomDTO> roomDTOs) {
+        Response response = new Response();
+        try {
+            if (roomDTOs == null || roomDTOs.isEmpty()) {
+                response.setStatusCode(400);
+                response.setMessage("At least one room is required.");
+                return response;
+            }
+            if (roomDTOs.stream().anyMatch(dto -> dto.getHotelId() == null)) {
+                response.setStatusCode(400);
+                response.setMessage("Hotel ID is required for every room.");
+                return response;
+            }
+
+            Set<Long> hotelIds = roomDTOs.stream().map(RoomDTO::getHotelId).collect(Collectors.toSet());
+            Map<Long, Hotel> hotels = hotelRepository.findAllById(hotelIds).stream()
+                                                     .collect(Collectors.toMap(Hotel::getId, Function.identity()));
+            if (hotels.size() != hotelIds.size()) {
+                hotelIds.removeAll(hotels.keySet());
+                response.setStatusCode(404);
+                response.setMessage("Hotel not found with ID(s): " + hotelIds);
+                return response;
+            }
+
+            List<Room> rooms = new ArrayList<>(roomDTOs.size());
+            for (RoomDTO dto : roomDTOs) {
+                Room room = new Room();
+                room.setRoomNumber(dto.getRoomNumber());
+                room.setType(dto.getType());
+                room.setPrice(dto.getPrice());
+                room.setHotelId(hotels.get(dto.getHotelId()));
+                rooms.add(room);
+            }
+
+            List<Room> saved = roomRepository.saveAll(rooms);
+            response.setStatusCode(200);
+            response.setMessage(saved.size() + " rooms added");
+            response.setRoomList(saved.stream().map(Utils::mapRoomEntityToDTO).map(roomOccupancy::withAvailability).collect(Collectors.toList()));
+            for (RoomDTO dto : response.getRoomList()) {
+                outbox.record(OutboxMessage.ROOM, dto.getId(), dto.getId(), OutboxMessage.ROOM_CREATED, dto);
+            }
+        } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            response.setStatusCode(500);
+            response.setMessage("Error adding rooms: " + e.getMessage());
+        }
+        return response;
+    }
+
     @Override
+    @Transactional
     public Response updateRoom(Long id, RoomDTO roomDTO) { // <-- Change parameter type to RoomDTO
         Response response = new Response();
         try {
             Room existing = roomRepository.findById(id).orElse(null);
+            Long currentHotelId = existing == null || existing.getHotelId() == null ? null : existing.getHotelId().getId();
             if (existing == null) {
                 response.setStatusCode(404);
                 response.setMessage("Room not found");
+            } else if (roomDTO.getHotelId() != null && !roomDTO.getHotelId().equals(currentHotelId)) {
+                // The other hotel may live on another shard; rooms only move with their hotel (ShardRebalancer)
+                response.setStatusCode(400);
+                response.setMessage("A room cannot be moved to another hotel.");
             } else {
                 // Update fields from DTO
                 existing.setRoomNumber(roomDTO.getRoomNumber());
                 existing.setType(roomDTO.getType());
                 existing.setPrice(roomDTO.getPrice());
-                existing.setAvailable(roomDTO.isAvailable());
-
-                // Update hotel association if hotelId is provided in DTO
-                if (roomDTO.getHotelId() != null) {
-                    Hotel hotel = hotelRepository.findById(roomDTO.getHotelId())
-                                               .orElseThrow(() -> new RuntimeException("Hotel not found with ID: " + roomDTO.getHotelId()));
-                    existing.setHotelId(hotel);
-                }
 
                 Room updated = roomRepository.save(existing);
                 response.setStatusCode(200);
                 response.setMessage("Room updated");
-                response.setRoom(Utils.mapRoomEntityToDTO(updated));
+                response.setRoom(roomOccupancy.withAvailability(Utils.mapRoomEntityToDTO(updated)));
+                outbox.record(OutboxMessage.ROOM, updated.getId(), updated.getId(), OutboxMessage.ROOM_UPDATED, response.getRoom());
             }
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             response.setStatusCode(500);
             response.setMessage("Error updating room: " + e.getMessage());
         }
@@ -93,6 +169,7 @@ public class RoomService implements IRoomService {
 
 
     @Override
+    @Transactional
     public Response deleteRoom(Long id) {
         Response response = new Response();
         try {
@@ -101,10 +178,12 @@ public class RoomService implements IRoomService {
                 response.setMessage("Room not found");
             } else {
                 roomRepository.deleteById(id);
+                outbox.record(OutboxMessage.ROOM, id, id, OutboxMessage.ROOM_DELETED, Map.of("id", id));
                 response.setStatusCode(200);
                 response.setMessage("Room deleted");
             }
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             response.setStatusCode(500);
             response.setMessage("Error deleting room: " + e.getMessage());
         }
@@ -122,7 +201,7 @@ public class RoomService implements IRoomService {
             } else {
                 response.setStatusCode(200);
                 response.setMessage("Room found");
-                response.setRoom(Utils.mapRoomEntityToDTO(room));
+                response.setRoom(roomOccupancy.withAvailability(Utils.mapRoomEntityToDTO(room)));
             }
         } catch (Exception e) {
             response.setStatusCode(500);
@@ -135,8 +214,8 @@ public class RoomService implements IRoomService {
     public Response getAllRooms() {
         Response response = new Response();
         try {
-            List<Room> list = roomRepository.findAll();
-            List<RoomDTO> dtoList = list.stream().map(Utils::mapRoomEntityToDTO).collect(Collectors.toList());
+            List<RoomDTO> dtoList = shardRouter.gather(() ->
+                    roomRepository.findAll().stream().map(Utils::mapRoomEntityToDTO).map(roomOccupancy::withAvailability).collect(Collectors.toList()));
             response.setStatusCode(200);
             response.setMessage("Rooms retrieved");
             response.setRoomList(dtoList); 
@@ -152,7 +231,7 @@ public class RoomService implements IRoomService {
         Response response = new Response();
         try {
             List<Room> list = roomRepository.findByHotelId_Id(hotelId);
-            List<RoomDTO> dtoList = list.stream().map(Utils::mapRoomEntityToDTO).collect(Collectors.toList());
+            List<RoomDTO> dtoList = list.stream().map(Utils::mapRoomEntityToDTO).map(roomOccupancy::withAvailability).collect(Collectors.toList());
             response.setStatusCode(200);
             response.setMessage("Rooms retrieved for hotel ID " + hotelId);
             response.setRoomList(dtoList); 
@@ -162,4 +241,35 @@ public class RoomService implements IRoomService {
         }
         return response;
     }
-}
\ No newline at end of file
+
+    // Not transactional: gather opens a read-only transaction per shard, and an outer one would hold
+    // this thread's connection (and its bulkhead permit) while those wait for theirs
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Response getAvailableRooms(Long hotelId, LocalDate checkIn, LocalDate checkOut) {
+        Response response = new Response();
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            response.setStatusCode(400);
+            response.setMessage("Check-out date must be after check-in date");
+            return response;
+        }
+        try {
+            Supplier<List<RoomDTO>> query = () -> roomRepository.findAvailable(hotelId, checkIn, checkOut).stream()
+                    .map(room -> {
+                        RoomDTO dto = Utils.mapRoomEntityToDTO(room);
+                        dto.setAvailable(true);
+                        return dto;
+                    })
+                    .collect(Collectors.toList());
+            // One hotel is answered by its own shard (the request is routed there); a search across hotels asks them all
+            List<RoomDTO> dtoList = hotelId != null ? query.get() : shardRouter.gather(query);
+            response.setStatusCode(200);
+            response.setMessage("Available rooms retrieved");
+            response.setRoomList(dtoList);
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Error: " + e.getMessage());
+        }
+        return response;
+    }
+}
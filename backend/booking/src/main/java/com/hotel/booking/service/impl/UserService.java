@@ -4,14 +4,23 @@ import com.hotel.booking.dto.LoginRequest;
 import com.hotel.booking.dto.Response;
 import com.hotel.booking.dto.UserDTO;
 import com.hotel.booking.model.User;
+import com.hotel.booking.repository.ArchivedBookingRepository;
+import com.hotel.booking.repository.BookingRepository;
 import com.hotel.booking.repository.UserRepository;
+import com.hotel.booking.repository.WaitlistEntryRepository;
 import com.hotel.booking.security.JWTUtils;
 import com.hotel.booking.service.interfac.IUserService;
+import com.hotel.booking.sharding.ShardDirectory;
+import com.hotel.booking.sharding.ShardRouter;
 import com.hotel.booking.utils.Utils;
 
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.util.List;
 
@@ -24,6 +33,21 @@ public class UserService implements IUserService {
     @Autowired
     private JWTUtils jwtUtils;
 
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
 
  // UserService.java
     @Override
@@ -127,6 +151,7 @@ public class UserService implements IUserService {
     }
 
     @Override
+    @Transactional
     public Response deleteUser(String userId) {
         Response response = new Response();
         try {
@@ -135,11 +160,15 @@ public class UserService implements IUserService {
                 response.setStatusCode(404);
                 response.setMessage("User not found");
             } else {
+                archivedBookingRepository.deleteByUserId(id);
+                waitlistEntryRepository.deleteByUserId(id);
                 userRepository.deleteById(id);
+                shardDirectory.purgeUser(id);
                 response.setStatusCode(200);
                 response.setMessage("User deleted successfully");
             }
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             response.setStatusCode(500);
             response.setMessage("Error deleting user: " + e.getMessage());
         }
@@ -147,6 +176,7 @@ public class UserService implements IUserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Response getUserBookingHistory(String userId) {
         Response response = new Response();
         try {
@@ -157,11 +187,13 @@ public class UserService implements IUserService {
                 response.setMessage("User not found");
             } else {
                 UserDTO dto = Utils.mapUserEntityToUserDTO(user);
-                dto.setBookings(
-                	    user.getBookings().stream()
-                	        .map(Utils::mapBookingToDetailedDTO)
-                	        .collect(Collectors.toList())
-                	);
+                // Current bookings first, then the archived history (BookingArchiver), from every shard
+                dto.setBookings(Stream.concat(
+                        shardRouter.gather(() -> bookingRepository.findByUserId_Id(id).stream()
+                                .map(Utils::mapBookingToDetailedDTO).toList()).stream(),
+                        shardRouter.gather(() -> archivedBookingRepository.findByUserIdOrderByCheckInDateDesc(id).stream()
+                                .map(Utils::mapArchivedBookingToDTO).toList()).stream())
+                        .collect(Collectors.toList()));
 
                 response.setStatusCode(200);
                 response.setMessage("User bookings retrieved");
@@ -0,0 +1,191 @@
+package com.hotel.booking.service.impl;
+
+import com.hotel.booking.availability.RoomOccupancy;
+import com.hotel.booking.cluster.Invalidation;
+import com.hotel.booking.cluster.InvalidationRecorder;
+import com.hotel.booking.dto.Response;
+import com.hotel.booking.dto.WaitlistEntryDTO;
+import com.hotel.booking.model.Booking;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.Payment;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.model.WaitlistEntry;
+import com.hotel.booking.outbox.OutboxMessage;
+import com.hotel.booking.outbox.OutboxRecorder;
+import com.hotel.booking.repository.BookingRepository;
+import com.hotel.booking.repository.HotelRepository;
+import com.hotel.booking.repository.RoomRepository;
+import com.hotel.booking.repository.WaitlistEntryRepository;
+import com.hotel.booking.service.interfac.IBookingService;
+import com.hotel.booking.service.interfac.IWaitlistService;
+import com.hotel.booking.sharding.ShardRouter;
+import com.hotel.booking.utils.Utils;
+import com.hotel.booking.waitlist.WaitlistIndex;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+public class WaitlistService implements IWaitlistService {
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @Autowired
+    private WaitlistIndex waitlistIndex;
+
+    @Autowired
+    private OutboxRecorder outbox;
+
+    @Autowired
+    private InvalidationRecorder invalidations;
+
+    @Autowired
+    private RoomOccupancy roomOccupancy;
+
+    @Value("${waitlist.max-entries-per-user:10}")
+    private int maxEntriesPerUser;
+
+    @Override
+    @Transactional
+    public Response join(WaitlistEntryDTO request, Long userId) {
+        Response response = new Response();
+        LocalDate checkIn = request.getCheckInDate();
+        LocalDate checkOut = request.getCheckOutDate();
+        if (request.getHotelId() == null || checkIn == null || checkOut == null) {
+            response.setStatusCode(400);
+            response.setMessage("Hotel, check-in and check-out dates are required.");
+            return response;
+        }
+        if (!checkOut.isAfter(checkIn) || checkIn.isBefore(LocalDate.now())) {
+            response.setStatusCode(400);
+            response.setMessage("Dates must be in the future with check-out after check-in.");
+            return response;
+        }
+        if (!hotelRepository.existsById(request.getHotelId())) {
+            response.setStatusCode(404);
+            response.setMessage("Hotel not found");
+            return response;
+        }
+        String roomType = request.getRoomType() == null || request.getRoomType().isBlank() ? null : request.getRoomType();
+        List<Room> free = roomRepository.findAvailable(request.getHotelId(), checkIn, checkOut);
+        if (free.stream().anyMatch(room -> roomType == null || roomType.equalsIgnoreCase(room.getType()))) {
+            response.setStatusCode(409);
+            response.setMessage("A room is available for these dates; book it directly.");
+            return response;
+        }
+        List<WaitlistEntry> mine = waitlistEntryRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        long open = mine.stream().filter(entry -> WaitlistEntry.WAITING.equals(entry.getStatus())
+                || WaitlistEntry.OFFERED.equals(entry.getStatus())).count();
+        if (open >= maxEntriesPerUser) {
+            response.setStatusCode(429);
+            response.setMessage("You already have " + open + " open waitlist entries.");
+            return response;
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setUserId(userId);
+        entry.setHotelId(request.getHotelId());
+        entry.setRoomType(roomType);
+        entry.setCheckInDate(checkIn);
+        entry.setCheckOutDate(checkOut);
+        entry.setStatus(WaitlistEntry.WAITING);
+        entry.setCreatedAt(LocalDateTime.now());
+        waitlistEntryRepository.save(entry);
+        waitlistIndex.addAfterCommit(entry);
+        invalidations.record(Invalidation.WAITLIST, entry.getHotelId(), entry.getHotelId());
+        response.setStatusCode(200);
+        response.setMessage("You are on the waitlist; a room will be held for you if one frees up.");
+        response.setWaitlistEntry(Utils.mapWaitlistEntryToDTO(entry));
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Response getMyWaitlist(Long userId) {
+        Response response = new Response();
+        response.setStatusCode(200);
+        response.setMessage("successful");
+        response.setWaitlist(shardRouter.gather(() -> waitlistEntryRepository.findByUserIdOrderByCreatedAtDesc(userId)).stream()
+                .sorted(Comparator.comparing(WaitlistEntry::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())))
+                .map(Utils::mapWaitlistEntryToDTO)
+                .toList());
+        return response;
+    }
+
+    // Withdrawing an offered entry releases its hold for the next guest in line
+    @Override
+    @Transactional
+    public Response withdraw(Long entryId, Long userId) {
+        Response response = new Response();
+        WaitlistEntry entry = waitlistEntryRepository.lockById(entryId).orElse(null);
+        if (entry == null || !entry.getUserId().equals(userId)) {
+            response.setStatusCode(404);
+            response.setMessage("Waitlist entry not found");
+            return response;
+        }
+        if (WaitlistEntry.OFFERED.equals(entry.getStatus())) {
+            Booking hold = bookingRepository.lockById(entry.getBookingId()).orElse(null);
+            if (hold != null && hold.getStatus() == BookingStatus.HELD) {
+                hold.setStatus(BookingStatus.CANCELLED);
+                hold.setHoldExpiresAt(null);
+                outbox.record(OutboxMessage.BOOKING, hold.getId(), hold.getRoomId().getId(),
+                        OutboxMessage.BOOKING_HOLD_RELEASED, Utils.mapBookingToDetailedDTO(hold));
+                roomOccupancy.refreshAfterCommit();
+            }
+        } else if (!WaitlistEntry.WAITING.equals(entry.getStatus())) {
+            response.setStatusCode(400);
+            response.setMessage("Only waiting or offered entries can be withdrawn.");
+            return response;
+        }
+        entry.setStatus(WaitlistEntry.WITHDRAWN);
+        waitlistIndex.removeAfterCommit(entry);
+        response.setStatusCode(200);
+        response.setMessage("Waitlist entry withdrawn");
+        response.setWaitlistEntry(Utils.mapWaitlistEntryToDTO(entry));
+        return response;
+    }
+
+    // Not transactional: the held booking is claimed and paid like a normal finalize
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Response accept(Long entryId, Payment paymentDetails, Long userId) {
+        WaitlistEntry entry = waitlistEntryRepository.findById(entryId).orElse(null);
+        if (entry == null || !entry.getUserId().equals(userId)) {
+            Response response = new Response();
+            response.setStatusCode(404);
+            response.setMessage("Waitlist entry not found");
+            return response;
+        }
+        if (!WaitlistEntry.OFFERED.equals(entry.getStatus())) {
+            Response response = new Response();
+            response.setStatusCode(410);
+            response.setMessage("There is no open offer for this waitlist entry.");
+            return response;
+        }
+        return bookingService.finalizeHeldBooking(entry.getBookingId(), paymentDetails, userId);
+    }
+}
@@ -15,6 +15,7 @@ public interface IBookingService {
 
     Response initiateBooking(BookingDTO bookingDetails, Long userId); // <-- NEW: for initial validation, no DB save
     Response finalizeBooking(BookingDTO bookingDetails, Payment paymentDetails, Long userId); // <-- NEW: for saving booking and payment
+    Response finalizeHeldBooking(Long bookingId, Payment paymentDetails, Long userId);
 
     // Response confirmBookingPayment(Long bookingId, Payment paymentDetails); // <-- REMOVE/RENAME THIS
 
@@ -5,8 +5,11 @@ import com.hotel.booking.dto.Response;
 import com.hotel.booking.model.Hotel;
 import com.hotel.booking.dto.HotelDTO; // Import HotelDTO
 
+import java.util.List;
+
 public interface IHotelService {
     Response createHotel(Hotel hotel);
+    Response createHotels(List<HotelDTO> hotelDTOs);
     Response getAllHotels();
     Response getHotelById(String id);
     Response deleteHotel(String id);
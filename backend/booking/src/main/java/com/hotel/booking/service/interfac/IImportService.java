@@ -0,0 +1,11 @@
+package com.hotel.booking.service.interfac;
+
+import com.hotel.booking.dto.ImportEvent;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+public interface IImportService {
+    ImportEvent importInventory(Reader source, String format, Consumer<ImportEvent> listener) throws IOException;
+}
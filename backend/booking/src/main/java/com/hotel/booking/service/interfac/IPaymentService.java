@@ -8,4 +8,5 @@ public interface IPaymentService {
     Response getPaymentById(String id);
     Response getAllPayments();
     Response deletePayment(String id);
+    Response handleWebhook(String payload, String signature);
 }
@@ -5,11 +5,16 @@ import com.hotel.booking.dto.Response;
 import com.hotel.booking.dto.RoomDTO; // Import RoomDTO
 import com.hotel.booking.model.Room; // Keep Room import for other methods that still use it
 
+import java.time.LocalDate;
+import java.util.List;
+
 public interface IRoomService {
     Response addRoom(RoomDTO roomDTO); // Changed from Room to RoomDTO
+    Response addRooms(List<RoomDTO> roomDTOs);
     Response updateRoom(Long id, RoomDTO roomDTO); // Changed from Room to RoomDTO
     Response deleteRoom(Long id);
     Response getRoomById(Long id);
     Response getAllRooms();
     Response getRoomsByHotelId(Long hotelId);
+    Response getAvailableRooms(Long hotelId, LocalDate checkIn, LocalDate checkOut);
 }
\ No newline at end of file
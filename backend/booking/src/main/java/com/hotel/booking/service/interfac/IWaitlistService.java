@@ -0,0 +1,12 @@
+package com.hotel.booking.service.interfac;
+
+import com.hotel.booking.dto.Response;
+import com.hotel.booking.dto.WaitlistEntryDTO;
+import com.hotel.booking.model.Payment;
+
+public interface IWaitlistService {
+    Response join(WaitlistEntryDTO request, Long userId);
+    Response getMyWaitlist(Long userId);
+    Response withdraw(Long entryId, Long userId);
+    Response accept(Long entryId, Payment paymentDetails, Long userId);
+}
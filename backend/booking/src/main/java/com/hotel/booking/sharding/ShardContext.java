@@ -0,0 +1,63 @@
+package com.hotel.booking.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread talks to; read by {@link ShardRoutingDataSource}
+ * when a connection is opened. Null means the default shard.
+ *
+ * Switching only affects connections opened afterwards: a transaction already
+ * running on this thread keeps its connection. Code that may run inside a
+ * transaction or a request should go through {@link ShardRouter#call} instead,
+ * which hops to a fresh thread.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T call(String shard, Supplier<T> task) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return task.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void run(String shard, Runnable task) {
+        call(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    // Carries the caller's shard over to a task submitted to another thread
+    public static Runnable wrap(Runnable task) {
+        String shard = CURRENT.get();
+        return () -> run(shard, task);
+    }
+
+    static void set(String shard) {
+        CURRENT.set(shard);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    private static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.hotel.booking.sharding;
+
+import com.hotel.booking.cluster.Invalidation;
+import com.hotel.booking.cluster.InvalidationListener;
+import com.hotel.booking.cluster.InvalidationRecorder;
+import com.hotel.booking.exception.HotelMovingException;
+import com.hotel.booking.model.HotelShard;
+import com.hotel.booking.repository.HotelShardRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The shard map: which shard holds each hotel, read from hotel_shard on the
+ * default shard and cached here. Hotels without a row live where their id
+ * block points (ShardRouter.shardForId), which covers everything created
+ * before sharding was switched on.
+ *
+ * Users stay on the default shard. A shard that stores a user's booking or
+ * waitlist entry gets a reference copy of the user row (id, name, email,
+ * role; no password) for its foreign keys, made by on() the first time.
+ *
+ * Placement changes reach other instances through the invalidation bus
+ * (within cluster.invalidation.poll-ms), with a full reload every
+ * sharding.directory.reload-ms as a fallback; ShardRebalancer waits
+ * sharding.rebalance.settle-ms after flagging a hotel before it copies.
+ */
+@Component
+public class ShardDirectory implements ApplicationRunner, InvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardDirectory.class);
+
+    // Finds a row and its hotel by id, per table
+    private static final Map<String, String> LOCATE_QUERIES = Map.of(
+            "hotel", "SELECT id FROM hotel WHERE id = ?",
+            "room", "SELECT hotel_id FROM room WHERE id = ?",
+            "booking", "SELECT hotel_id FROM booking WHERE id = ?",
+            "payment", "SELECT b.hotel_id FROM payment p JOIN booking b ON b.id = p.booking_id WHERE p.id = ?",
+            "waitlist_entry", "SELECT hotel_id FROM waitlist_entry WHERE id = ?");
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private HotelShardRepository hotelShardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private InvalidationRecorder invalidations;
+
+    @Value("${sharding.new-hotel-shard:}")
+    private String newHotelShard;
+
+    private volatile Map<Long, HotelShard> placements = Map.of();
+
+    public record Placement(String shard, Long hotelId) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${sharding.directory.reload-ms:30000}",
+            initialDelayString = "${sharding.directory.reload-ms:30000}")
+    public void reload() {
+        if (!shardRouter.isEnabled()) {
+            return;
+        }
+        List<HotelShard> rows = shardRouter.call(shardRouter.getDefaultShard(), hotelShardRepository::findAll);
+        Map<Long, HotelShard> loaded = new HashMap<>();
+        for (HotelShard row : rows) {
+            loaded.put(row.getHotelId(), row);
+        }
+        placements = loaded;
+        log.debug("Shard directory loaded with {} placements", loaded.size());
+    }
+
+    @Override
+    public void onInvalidations(List<Invalidation> changes) {
+        if (changes.stream().anyMatch(change -> Invalidation.HOTEL.equals(change.topic()))) {
+            reload();
+        }
+    }
+
+    public Map<Long, String> getPlacements() {
+        Map<Long, String> shards = new HashMap<>();
+        placements.forEach((hotelId, row) -> shards.put(hotelId, row.getShard()));
+        return shards;
+    }
+
+    public List<Long> getMoving() {
+        return placements.values().stream().filter(HotelShard::isMoving).map(HotelShard::getHotelId).sorted().toList();
+    }
+
+    public String shardForHotel(Long hotelId) {
+        if (!shardRouter.isEnabled() || hotelId == null) {
+            return shardRouter.getDefaultShard();
+        }
+        HotelShard placement = placements.get(hotelId);
+        return placement != null ? placement.getShard() : shardRouter.shardForId(hotelId);
+    }
+
+    public boolean isMoving(Long hotelId) {
+        HotelShard placement = hotelId == null ? null : placements.get(hotelId);
+        return placement != null && placement.isMoving();
+    }
+
+    public String getNewHotelShard() {
+        return shardRouter.isEnabled() && !newHotelShard.isBlank() ? newHotelShard : shardRouter.getDefaultShard();
+    }
+
+    /**
+     * Finds the shard holding a row: the shard its id block points to first,
+     * then the others (the row may have moved with its hotel). Null when no
+     * shard has it.
+     */
+    public Placement locate(String table, Long id) {
+        String sql = LOCATE_QUERIES.get(table);
+        if (sql == null) {
+            throw new IllegalArgumentException("Cannot locate rows of " + table);
+        }
+        String home = shardRouter.shardForId(id);
+        List<String> order = new ArrayList<>(shardRouter.getShards());
+        order.remove(home);
+        order.add(0, home);
+        for (String shard : order) {
+            List<Long> hotelIds = shardRouter.call(shard, () -> jdbcTemplate.queryForList(sql, Long.class, id));
+            if (!hotelIds.isEmpty()) {
+                return new Placement(shard, hotelIds.get(0));
+            }
+        }
+        return null;
+    }
+
+    // Runs a write for the hotel on its shard; refused while the hotel is being moved
+    public <T> T onHotel(Long hotelId, Long userId, Supplier<T> task) {
+        if (isMoving(hotelId)) {
+            throw new HotelMovingException(hotelId);
+        }
+        return on(shardForHotel(hotelId), userId, task);
+    }
+
+    // Runs the task on the shard, first copying the user row there if the task may reference it
+    public <T> T on(String shard, Long userId, Supplier<T> task) {
+        if (!shardRouter.isEnabled()) {
+            return task.get();
+        }
+        return shardRouter.call(shard, () -> {
+            if (userId != null && !shard.equals(shardRouter.getDefaultShard())) {
+                copyUser(userId);
+            }
+            return task.get();
+        });
+    }
+
+    // Records hotels just created on the current shard; called inside the creating transaction
+    public void recordCreated(Collection<Long> hotelIds) {
+        if (!shardRouter.isEnabled() || hotelIds.isEmpty()) {
+            return;
+        }
+        String shard = ShardContext.current() != null ? ShardContext.current() : shardRouter.getDefaultShard();
+        for (Long hotelId : hotelIds) {
+            place(hotelId, shard, false);
+        }
+    }
+
+    // Writes a placement to the directory and applies it on this instance right away
+    public void place(Long hotelId, String shard, boolean moving) {
+        HotelShard row = new HotelShard(hotelId, shard, moving, LocalDateTime.now());
+        shardRouter.call(shardRouter.getDefaultShard(), () -> transactionTemplate.execute(status -> {
+            invalidations.record(Invalidation.HOTEL, hotelId, hotelId);
+            return hotelShardRepository.save(row);
+        }));
+        Map<Long, HotelShard> updated = new HashMap<>(placements);
+        updated.put(hotelId, row);
+        placements = updated;
+    }
+
+    // A deleted user's copies go from the other shards with their bookings, as the cascade does on the default one
+    public void purgeUser(Long userId) {
+        if (!shardRouter.isEnabled()) {
+            return;
+        }
+        for (String shard : shardRouter.getShards()) {
+            if (shard.equals(shardRouter.getDefaultShard())) {
+                continue;
+            }
+            shardRouter.call(shard, () -> transactionTemplate.execute(status -> {
+                jdbcTemplate.update("DELETE FROM booking_archive WHERE user_id = ?", userId);
+                jdbcTemplate.update("DELETE FROM waitlist_entry WHERE user_id = ?", userId);
+                jdbcTemplate.update("DELETE FROM payment WHERE booking_id IN (SELECT id FROM booking WHERE user_id = ?)", userId);
+                jdbcTemplate.update("DELETE FROM booking WHERE user_id = ?", userId);
+                return jdbcTemplate.update("DELETE FROM user WHERE id = ?", userId);
+            }));
+        }
+    }
+
+    // Runs on the target shard's thread; the copy carries no password
+    void copyUser(Long userId) {
+        Integer present = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user WHERE id = ?", Integer.class, userId);
+        if (present != null && present > 0) {
+            return;
+        }
+        String shard = ShardContext.current();
+        List<Map<String, Object>> rows = ShardContext.call(shardRouter.getDefaultShard(), () ->
+                jdbcTemplate.queryForList("SELECT id, name, email, role FROM user WHERE id = ?", userId));
+        if (rows.isEmpty()) {
+            return;
+        }
+        Map<String, Object> user = rows.get(0);
+        try {
+            jdbcTemplate.update("INSERT INTO user (id, name, email, role) VALUES (?, ?, ?, ?)",
+                    user.get("id"), user.get("name"), user.get("email"), user.get("role"));
+            log.debug("Copied user {} to shard {}", userId, shard);
+        } catch (DuplicateKeyException e) {
+            // Copied by a concurrent request
+        }
+    }
+}
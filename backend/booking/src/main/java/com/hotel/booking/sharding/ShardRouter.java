@@ -0,0 +1,185 @@
+package com.hotel.booking.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Knows the shards and runs work on them. With sharding.enabled=false there is
+ * a single shard and every method just runs the task on the calling thread.
+ *
+ * Each shard owns a block of sharding.id-range ids (shard index times the
+ * range, see ShardingConfig), so an id says which shard created the row. That
+ * is only a hint: rows keep their id when a hotel is moved, and ShardDirectory
+ * has the final say on where a hotel lives.
+ *
+ * call() and gather() run on fresh virtual threads so the task opens its own
+ * connection on the right shard, whatever transaction or open-in-view session
+ * the caller holds.
+ */
+@Component
+public class ShardRouter implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRouter.class);
+
+    public static final long DEFAULT_ID_RANGE = 1_000_000_000_000L;
+
+    private final boolean enabled;
+    private final String defaultShard;
+    private final long idRange;
+    private final Map<String, Integer> indexByShard = new LinkedHashMap<>();
+    private final Map<Integer, String> shardByIndex = new HashMap<>();
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ExecutorService hops = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ShardRouter(Environment env, PlatformTransactionManager transactionManager) {
+        this.enabled = env.getProperty("sharding.enabled", Boolean.class, false);
+        this.defaultShard = env.getProperty("sharding.default-shard", "main");
+        this.idRange = env.getProperty("sharding.id-range", Long.class, DEFAULT_ID_RANGE);
+        indexByShard.put(defaultShard, 0);
+        if (enabled) {
+            ShardingConfig.shardSettings(env).forEach((name, settings) -> indexByShard.put(name, settings.index()));
+        }
+        indexByShard.forEach((name, index) -> {
+            if (shardByIndex.putIfAbsent(index, name) != null) {
+                throw new IllegalStateException("Shards " + shardByIndex.get(index) + " and " + name
+                        + " share index " + index);
+            }
+        });
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getDefaultShard() {
+        return defaultShard;
+    }
+
+    public List<String> getShards() {
+        return List.copyOf(indexByShard.keySet());
+    }
+
+    public long getIdRange() {
+        return idRange;
+    }
+
+    public int indexOf(String shard) {
+        Integer index = indexByShard.get(shard);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown shard '" + shard + "'");
+        }
+        return index;
+    }
+
+    // The shard whose id block contains the id; the default shard for ids from before sharding
+    public String shardForId(Long id) {
+        if (!enabled || id == null) {
+            return defaultShard;
+        }
+        return shardByIndex.getOrDefault((int) (id / idRange), defaultShard);
+    }
+
+    // Runs the task against one shard and waits for it
+    public <T> T call(String shard, Supplier<T> task) {
+        if (!enabled) {
+            return task.get();
+        }
+        indexOf(shard);
+        return await(hops.submit(() -> ShardContext.call(shard, task)));
+    }
+
+    /**
+     * Runs the task once per shard, one after the other on this thread; for
+     * background jobs, which hold no transaction between their own units of
+     * work. A failing shard is logged and skipped so the others still run.
+     */
+    public void forEachShard(Runnable task) {
+        if (!enabled) {
+            task.run();
+            return;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("forEachShard cannot switch shards inside a transaction");
+        }
+        for (String shard : indexByShard.keySet()) {
+            try {
+                ShardContext.run(shard, task);
+            } catch (RuntimeException e) {
+                log.error("Shard {}: job failed", shard, e);
+            }
+        }
+    }
+
+    // Scatter-gather: the task runs on every shard in parallel, each in its own read-only transaction
+    public <T> List<T> gather(Supplier<? extends Collection<T>> task) {
+        List<T> merged = new ArrayList<>();
+        for (Collection<T> part : fanOut(task, readOnlyTransaction)) {
+            merged.addAll(part);
+        }
+        return merged;
+    }
+
+    // Runs a write on every shard in parallel, one transaction per shard; returns the results in shard order
+    public <T> List<T> onEachShard(Supplier<T> task) {
+        return fanOut(task, writeTransaction);
+    }
+
+    private <T> List<T> fanOut(Supplier<T> task, TransactionTemplate transaction) {
+        if (!enabled) {
+            return Collections.singletonList(transaction.execute(status -> task.get()));
+        }
+        List<Future<T>> futures = new ArrayList<>();
+        for (String shard : indexByShard.keySet()) {
+            futures.add(hops.submit(() -> ShardContext.call(shard, () -> transaction.execute(status -> task.get()))));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for a shard", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        hops.shutdownNow();
+    }
+}
@@ -0,0 +1,49 @@
+package com.hotel.booking.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+// One pool per shard; the pool is picked from ShardContext each time a connection is opened
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    public DataSource getShard(String name) {
+        DataSource dataSource = getResolvedDataSources().get(name);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard '" + name + "'");
+        }
+        return dataSource;
+    }
+
+    // Wraps every shard's pool, e.g. in a bulkhead sized to that pool; the router itself stays unwrapped
+    public void decorateShards(UnaryOperator<DataSource> decorator) {
+        DataSource defaultShard = getResolvedDefaultDataSource();
+        Map<Object, Object> decorated = new LinkedHashMap<>();
+        getResolvedDataSources().forEach((name, dataSource) -> {
+            DataSource wrapped = decorator.apply(dataSource);
+            decorated.put(name, wrapped);
+            if (dataSource == defaultShard) {
+                setDefaultTargetDataSource(wrapped);
+            }
+        });
+        setTargetDataSources(decorated);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
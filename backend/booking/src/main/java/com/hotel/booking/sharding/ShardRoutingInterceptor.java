@@ -0,0 +1,97 @@
+package com.hotel.booking.sharding;
+
+import com.hotel.booking.exception.HotelMovingException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Points the request at the shard of the hotel it is about, before the
+ * controller opens any connection. The hotel comes from the hotelId path
+ * variable or query parameter, or is looked up from a room, booking, payment
+ * or waitlist entry id in the path. Requests naming none of these stay on the
+ * default shard; listings that span hotels gather from every shard themselves,
+ * and writes keyed by the request body pick their shard in the controller.
+ */
+public class ShardRoutingInterceptor implements AsyncHandlerInterceptor {
+
+    // Table behind the {id} path variable, by path prefix
+    private static final Map<String, String> TABLE_BY_PATH = Map.of(
+            "/api/hotels/", "hotel",
+            "/api/rooms/", "room",
+            "/api/bookings/", "booking",
+            "/api/payments/", "payment");
+
+    private final ShardDirectory shardDirectory;
+
+    public ShardRoutingInterceptor(ShardDirectory shardDirectory) {
+        this.shardDirectory = shardDirectory;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ShardDirectory.Placement placement = resolve(request);
+        if (placement == null) {
+            return true;
+        }
+        if (!"GET".equals(request.getMethod()) && shardDirectory.isMoving(placement.hotelId())) {
+            throw new HotelMovingException(placement.hotelId());
+        }
+        ShardContext.set(placement.shard());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ShardContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ShardContext.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ShardDirectory.Placement resolve(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null) {
+            variables = Map.of();
+        }
+        try {
+            String hotelId = variables.getOrDefault("hotelId", request.getParameter("hotelId"));
+            if (hotelId != null) {
+                Long id = Long.parseLong(hotelId);
+                return new ShardDirectory.Placement(shardDirectory.shardForHotel(id), id);
+            }
+            if (variables.containsKey("roomId")) {
+                return shardDirectory.locate("room", Long.parseLong(variables.get("roomId")));
+            }
+            if (variables.containsKey("bookingId")) {
+                return shardDirectory.locate("booking", Long.parseLong(variables.get("bookingId")));
+            }
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            if (variables.containsKey("entryId") && path.startsWith("/api/waitlist/")) {
+                return shardDirectory.locate("waitlist_entry", Long.parseLong(variables.get("entryId")));
+            }
+            if (variables.containsKey("id")) {
+                for (Map.Entry<String, String> route : TABLE_BY_PATH.entrySet()) {
+                    if (path.startsWith(route.getKey())) {
+                        Long id = Long.parseLong(variables.get("id"));
+                        return "hotel".equals(route.getValue())
+                                ? new ShardDirectory.Placement(shardDirectory.shardForHotel(id), id)
+                                : shardDirectory.locate(route.getValue(), id);
+                    }
+                }
+            }
+        } catch (NumberFormatException e) {
+            // Left to the controller, which answers 400 as before
+        }
+        return null;
+    }
+}
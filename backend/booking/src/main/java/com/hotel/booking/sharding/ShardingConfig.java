@@ -0,0 +1,206 @@
+package com.hotel.booking.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Active with sharding.enabled=true. The default shard is the spring.datasource
+ * database and also holds the directory (users and hotel placements); every
+ * entry under sharding.shards.<name> adds one more database:
+ *
+ *   sharding.shards.eu.url=jdbc:mysql://...
+ *   sharding.shards.eu.username=...      (defaults to spring.datasource's)
+ *   sharding.shards.eu.password=...
+ *   sharding.shards.eu.index=1           (unique, 1 or more; picks the id block)
+ *
+ * Each shard gets its own Hikari pool with the spring.datasource.hikari
+ * settings. Flyway migrates the extra shards at startup like the default one;
+ * with Flyway off (tests) sharding.schema-script is run on them instead.
+ * Their id sequences are then moved up to index * sharding.id-range.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardingConfig.class);
+
+    // user_seq is left alone: users are only created on the default shard
+    private static final List<String> ID_SEQUENCES = List.of("hotel_seq", "room_seq", "booking_seq", "payment_seq",
+            "outbox_event_seq", "notification_seq", "waitlist_entry_seq");
+
+    public record ShardSettings(String url, String username, String password, int index) {
+    }
+
+    static Map<String, ShardSettings> shardSettings(Environment env) {
+        return Binder.get(env)
+                .bind("sharding.shards", Bindable.mapOf(String.class, ShardSettings.class))
+                .orElse(Map.of());
+    }
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(DataSourceProperties properties, Environment env) {
+        String defaultShard = env.getProperty("sharding.default-shard", "main");
+        HikariDataSource main = pool(env, defaultShard, properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword(), properties.determineDriverClassName());
+
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(defaultShard, main);
+        shardSettings(env).forEach((name, settings) -> {
+            if (settings.index() < 1) {
+                throw new IllegalStateException("sharding.shards." + name + ".index must be 1 or more");
+            }
+            targets.put(name, pool(env, name, settings.url(),
+                    settings.username() != null ? settings.username() : properties.determineUsername(),
+                    settings.password() != null ? settings.password() : properties.determinePassword(),
+                    properties.determineDriverClassName()));
+        });
+
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(main);
+        // A typo in a shard name must fail, not quietly land on the default shard
+        routing.setLenientFallback(false);
+        return routing;
+    }
+
+    // Runs once every singleton (Flyway, the EntityManagerFactory) is ready and before the runners
+    @Bean
+    public SmartInitializingSingleton shardSchemaInitializer(DataSource dataSource, ShardRouter shardRouter,
+            Environment env) {
+        return () -> {
+            // The bean may be wrapped by a metrics proxy; the JDBC bulkhead wraps the shard pools, not the router
+            ShardRoutingDataSource routing = unwrap(dataSource);
+            for (String shard : shardRouter.getShards()) {
+                if (shard.equals(shardRouter.getDefaultShard())) {
+                    continue;
+                }
+                DataSource target = routing.getShard(shard);
+                migrate(target, env);
+                moveIdSequences(target, shardRouter.indexOf(shard) * shardRouter.getIdRange());
+                log.info("Shard {} ready", shard);
+            }
+        };
+    }
+
+    @Bean
+    public ShardRoutingInterceptor shardRoutingInterceptor(ShardDirectory shardDirectory) {
+        return new ShardRoutingInterceptor(shardDirectory);
+    }
+
+    @Bean
+    public WebMvcConfigurer shardRoutingConfigurer(ShardRoutingInterceptor interceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor).addPathPatterns("/api/**");
+            }
+        };
+    }
+
+    private static ShardRoutingDataSource unwrap(DataSource dataSource) {
+        try {
+            return dataSource.unwrap(ShardRoutingDataSource.class);
+        } catch (SQLException e) {
+            throw new IllegalStateException("The primary DataSource is not shard-routed", e);
+        }
+    }
+
+    private static HikariDataSource pool(Environment env, String shard, String url, String username, String password,
+            String driverClassName) {
+        HikariDataSource pool = new HikariDataSource();
+        Binder.get(env).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName("shard-" + shard);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setDriverClassName(driverClassName);
+        return pool;
+    }
+
+    private static void migrate(DataSource target, Environment env) {
+        if (env.getProperty("spring.flyway.enabled", Boolean.class, true)) {
+            Flyway.configure()
+                    .dataSource(target)
+                    .locations(env.getProperty("spring.flyway.locations", String[].class,
+                            new String[] { "classpath:db/migration" }))
+                    .baselineOnMigrate(env.getProperty("spring.flyway.baseline-on-migrate", Boolean.class, false))
+                    .baselineVersion(env.getProperty("spring.flyway.baseline-version", "1"))
+                    .load()
+                    .migrate();
+            return;
+        }
+        String script = env.getProperty("sharding.schema-script");
+        if (script != null) {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(
+                    new DefaultResourceLoader().getResource(script));
+            populator.setIgnoreFailedDrops(true);
+            populator.execute(target);
+        }
+    }
+
+    // Pooled id tables (MySQL) are bumped in place; real sequences (H2) are restarted
+    private static void moveIdSequences(DataSource target, long floor) {
+        try (Connection connection = target.getConnection()) {
+            for (String sequence : ID_SEQUENCES) {
+                if (isTable(connection, sequence)) {
+                    try (PreparedStatement update = connection.prepareStatement(
+                            "UPDATE " + sequence + " SET next_val = ? WHERE next_val < ?")) {
+                        update.setLong(1, floor);
+                        update.setLong(2, floor);
+                        update.executeUpdate();
+                    }
+                } else if (sequenceBelow(connection, sequence, floor)) {
+                    try (Statement restart = connection.createStatement()) {
+                        restart.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + floor);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not move id sequences to " + floor, e);
+        }
+    }
+
+    private static boolean isTable(Connection connection, String name) throws SQLException {
+        try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(), null, name,
+                new String[] { "TABLE" })) {
+            return tables.next();
+        }
+    }
+
+    private static boolean sequenceBelow(Connection connection, String name, long floor) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT base_value FROM information_schema.sequences WHERE sequence_name = ?")) {
+            query.setString(1, name);
+            try (ResultSet rows = query.executeQuery()) {
+                return rows.next() && rows.getLong(1) < floor;
+            }
+        }
+    }
+}
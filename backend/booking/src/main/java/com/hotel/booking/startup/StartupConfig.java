@@ -0,0 +1,31 @@
+package com.hotel.booking.startup;
+
+import com.hotel.booking.security.CustomUserDetailsService;
+import com.hotel.booking.security.JWTUtils;
+import com.hotel.booking.service.interfac.IBookingService;
+import com.hotel.booking.service.interfac.IHotelService;
+import com.hotel.booking.service.interfac.IPaymentService;
+import com.hotel.booking.service.interfac.IRoomService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    // With lazy init on, these are still built during startup so the first requests don't pay for them
+    @Bean
+    static LazyInitializationExcludeFilter hotPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                EntityManagerFactory.class,
+                JWTUtils.class,
+                CustomUserDetailsService.class,
+                IBookingService.class,
+                IRoomService.class,
+                IHotelService.class,
+                IPaymentService.class);
+    }
+}
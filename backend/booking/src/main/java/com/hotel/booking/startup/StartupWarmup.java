@@ -0,0 +1,215 @@
+package com.hotel.booking.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.dto.BookingDTO;
+import com.hotel.booking.dto.Response;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.model.User;
+import com.hotel.booking.repository.RoomRepository;
+import com.hotel.booking.repository.UserRepository;
+import com.hotel.booking.security.JWTUtils;
+import com.hotel.booking.service.interfac.IBookingService;
+import com.hotel.booking.service.interfac.IHotelService;
+import com.hotel.booking.service.interfac.IRoomService;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs before the app reports ready: Boot only flips readiness to
+ * ACCEPTING_TRAFFIC after all ApplicationRunners have finished, so anything
+ * done here is paid before the load balancer sends traffic, not by the first
+ * users.
+ *
+ * Builds the lazily initialised controllers (fast profile), fills the Hikari
+ * pool, then replays the read hot path (hotel list, rooms by hotel, booking
+ * initiate, JWT round trip, Jackson both ways) on a few threads until the
+ * iteration count or the time box runs out, whichever comes first. Every
+ * iteration runs in a rolled-back read-only transaction, like a request with
+ * open-in-view, and booking funnel metrics are not counted.
+ */
+@Component
+public class StartupWarmup implements ApplicationRunner, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final ThreadLocal<Boolean> ACTIVE = ThreadLocal.withInitial(() -> false);
+
+    @Autowired private ApplicationContext applicationContext;
+    @Autowired private DataSource dataSource;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private JWTUtils jwtUtils;
+    @Autowired private IHotelService hotelService;
+    @Autowired private IRoomService roomService;
+    @Autowired private IBookingService bookingService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RoomRepository roomRepository;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.max-duration-ms:30000}")
+    private long maxDurationMs;
+
+    @Value("${warmup.iterations:2000}")
+    private int iterations;
+
+    @Value("${warmup.threads:2}")
+    private int threads;
+
+    @Value("${warmup.prefill-pool:true}")
+    private boolean prefillPool;
+
+    // True on threads currently replaying warm-up calls, so business metrics can skip them
+    public static boolean isActive() {
+        return ACTIVE.get();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        long start = System.nanoTime();
+        int controllers = applicationContext.getBeansWithAnnotation(RestController.class).size();
+        if (!enabled) {
+            log.info("Warm-up disabled ({} controllers initialised)", controllers);
+            return;
+        }
+
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        int connections = prefillPool ? prefillPool() : 0;
+        Sample sample = transactionTemplate.execute(status -> loadSample());
+
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                ACTIVE.set(true);
+                try {
+                    for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+                        try {
+                            transactionTemplate.executeWithoutResult(status -> {
+                                status.setRollbackOnly();
+                                replay(sample);
+                            });
+                            completed.incrementAndGet();
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    ACTIVE.remove();
+                }
+            });
+        }
+        pool.shutdown();
+        if (!pool.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            pool.shutdownNow();
+        }
+
+        log.info("Warm-up finished in {} ms: {} controllers, {} pooled connections, {} iterations ({} failed)",
+                (System.nanoTime() - start) / 1_000_000, controllers, connections, completed.get(), failed.get());
+    }
+
+    private void replay(Sample sample) {
+        try {
+            Response hotels = hotelService.getAllHotels();
+            objectMapper.writeValueAsBytes(hotels);
+
+            if (sample.hotelId != null) {
+                objectMapper.writeValueAsBytes(roomService.getRoomsByHotelId(sample.hotelId));
+            }
+
+            if (sample.userId != null && sample.roomId != null) {
+                BookingDTO request = new BookingDTO();
+                request.setRoomId(sample.roomId);
+                request.setHotelId(sample.hotelId);
+                // Far enough ahead to be free in most datasets; a 409 warms the same path
+                request.setCheckInDate(LocalDate.now().plusYears(1));
+                request.setCheckOutDate(LocalDate.now().plusYears(1).plusDays(2));
+                String json = objectMapper.writeValueAsString(request);
+                bookingService.initiateBooking(objectMapper.readValue(json, BookingDTO.class), sample.userId);
+            }
+
+            String token = jwtUtils.generateToken(sample.email, "USER");
+            jwtUtils.validateToken(token);
+            jwtUtils.getUsernameFromToken(token);
+            jwtUtils.getRoleFromToken(token);
+        } catch (Exception e) {
+            throw new IllegalStateException("Warm-up iteration failed", e);
+        }
+    }
+
+    // Opens connections up to the pool size now instead of on the first burst of requests
+    private int prefillPool() {
+        try {
+            int size = dataSource.isWrapperFor(HikariDataSource.class)
+                    ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()
+                    : 1;
+            List<Connection> held = new ArrayList<>(size);
+            try {
+                for (int i = 0; i < size; i++) {
+                    held.add(dataSource.getConnection());
+                }
+            } finally {
+                for (Connection connection : held) {
+                    connection.close();
+                }
+            }
+            return held.size();
+        } catch (Exception e) {
+            log.warn("Could not pre-fill the connection pool", e);
+            return 0;
+        }
+    }
+
+    // Real ids make the replayed calls take the same branches as production traffic
+    private Sample loadSample() {
+        Sample sample = new Sample();
+        List<User> users = userRepository.findAll(PageRequest.of(0, 1)).getContent();
+        if (!users.isEmpty()) {
+            sample.userId = users.get(0).getId();
+            sample.email = users.get(0).getEmail();
+        }
+        List<Room> rooms = roomRepository.findAll(PageRequest.of(0, 1)).getContent();
+        if (!rooms.isEmpty() && rooms.get(0).getHotelId() != null) {
+            sample.roomId = rooms.get(0).getId();
+            sample.hotelId = rooms.get(0).getHotelId().getId();
+        }
+        return sample;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    private static class Sample {
+        private Long userId;
+        private Long roomId;
+        private Long hotelId;
+        private String email = "warmup@localhost";
+    }
+}
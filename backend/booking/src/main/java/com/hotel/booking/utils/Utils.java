@@ -4,16 +4,24 @@ import com.hotel.booking.dto.UserDTO;
 import com.hotel.booking.dto.BookingDTO;
 import com.hotel.booking.dto.HotelDTO;
 import com.hotel.booking.dto.RoomDTO;
+import com.hotel.booking.dto.WaitlistEntryDTO;
 import com.hotel.booking.model.User;
+import com.hotel.booking.model.ArchivedBooking;
 import com.hotel.booking.model.Booking;
 import com.hotel.booking.model.Hotel;
 import com.hotel.booking.model.Room;
+import com.hotel.booking.model.WaitlistEntry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class Utils {
 
+    private static final Logger log = LoggerFactory.getLogger(Utils.class);
+
     public static UserDTO mapUserEntityToUserDTO(User user) {
         UserDTO dto = new UserDTO();
         dto.setId(user.getId());
@@ -46,7 +54,7 @@ public class Utils {
         if (booking.getUserId() != null) {
             dto.setUserId(booking.getUserId().getId());
         } else {
-            System.err.println("Booking " + booking.getId() + " has a null UserId.");
+            log.warn("Booking {} has a null UserId", booking.getId());
         }
         dto.setBookingTime(booking.getBookingTime()); // <-- Add this
         return dto;
@@ -73,11 +81,13 @@ public class Utils {
         }
 
         if (booking.getRoomId() != null) {
+            dto.setRoomId(booking.getRoomId().getId());
             dto.setRoomNumber(booking.getRoomId().getRoomNumber());
             dto.setRoomType(booking.getRoomId().getType());
         }
 
         if (booking.getHotelId() != null) {
+            dto.setHotelId(booking.getHotelId().getId());
             dto.setHotelName(booking.getHotelId().getName());
         }
         // You can also add payment details here if needed,
@@ -91,6 +101,37 @@ public class Utils {
 
         return dto;
     }
+    public static BookingDTO mapArchivedBookingToDTO(ArchivedBooking booking) {
+        BookingDTO dto = new BookingDTO();
+        dto.setId(booking.getId());
+        dto.setUserId(booking.getUserId());
+        dto.setHotelId(booking.getHotelId());
+        dto.setRoomId(booking.getRoomId());
+        dto.setCheckInDate(booking.getCheckInDate());
+        dto.setCheckOutDate(booking.getCheckOutDate());
+        dto.setStatus(booking.getStatus());
+        dto.setTotalAmount(booking.getTotalAmount());
+        dto.setBookingTime(booking.getBookingTime());
+        dto.setRoomNumber(booking.getRoomNumber());
+        dto.setRoomType(booking.getRoomType());
+        dto.setHotelName(booking.getHotelName());
+        return dto;
+    }
+
+    public static WaitlistEntryDTO mapWaitlistEntryToDTO(WaitlistEntry entry) {
+        WaitlistEntryDTO dto = new WaitlistEntryDTO();
+        dto.setId(entry.getId());
+        dto.setHotelId(entry.getHotelId());
+        dto.setRoomType(entry.getRoomType());
+        dto.setCheckInDate(entry.getCheckInDate());
+        dto.setCheckOutDate(entry.getCheckOutDate());
+        dto.setStatus(entry.getStatus());
+        dto.setCreatedAt(entry.getCreatedAt());
+        dto.setBookingId(entry.getBookingId());
+        dto.setOfferExpiresAt(entry.getOfferExpiresAt());
+        return dto;
+    }
+
     public static HotelDTO mapHotelEntityToDTO(Hotel hotel) {
         HotelDTO dto = new HotelDTO();
         dto.setId(hotel.getId());
@@ -108,13 +149,13 @@ public class Utils {
         return dto;
     }
     
+    // "available" is left to RoomOccupancy.withAvailability, which knows today's bookings
     public static RoomDTO mapRoomEntityToDTO(Room room) {
         RoomDTO dto = new RoomDTO();
         dto.setId(room.getId());
         dto.setRoomNumber(room.getRoomNumber());
         dto.setType(room.getType());
         dto.setPrice(room.getPrice());
-        dto.setAvailable(room.isAvailable());
 
         if (room.getHotelId() != null) {
             dto.setHotelId(room.getHotelId().getId());
@@ -0,0 +1,103 @@
+package com.hotel.booking.waitlist;
+
+import com.hotel.booking.availability.RoomOccupancy;
+import com.hotel.booking.model.Booking;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.WaitlistEntry;
+import com.hotel.booking.outbox.OutboxMessage;
+import com.hotel.booking.outbox.OutboxRecorder;
+import com.hotel.booking.repository.BookingRepository;
+import com.hotel.booking.repository.WaitlistEntryRepository;
+import com.hotel.booking.sharding.ShardRouter;
+import com.hotel.booking.utils.Utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Releases waitlist holds nobody accepted in time: the booking becomes
+ * CANCELLED, the entry EXPIRED, and a BOOKING_HOLD_RELEASED event lets the
+ * matcher offer the nights to the next entry. Due holds are claimed with
+ * SKIP LOCKED, so several instances can run this side by side and an accept
+ * in progress (which locks the booking) is never expired under it.
+ */
+@Component
+public class WaitlistHoldExpirer {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistHoldExpirer.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private OutboxRecorder outbox;
+
+    @Autowired
+    private RoomOccupancy roomOccupancy;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${waitlist.expiry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${waitlist.expiry.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${waitlist.expiry.interval-ms:60000}")
+    public void scheduledExpire() {
+        if (enabled) {
+            shardRouter.forEachShard(this::expire);
+        }
+    }
+
+    // Returns the number of holds released
+    public int expire() {
+        int released = 0;
+        while (true) {
+            int count = transactionTemplate.execute(status -> expireBatch(LocalDateTime.now()));
+            released += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        if (released > 0) {
+            log.info("Released {} expired waitlist holds", released);
+        }
+        return released;
+    }
+
+    private int expireBatch(LocalDateTime now) {
+        List<Booking> due = bookingRepository.lockExpiredHolds(BookingStatus.HELD, now, PageRequest.of(0, batchSize));
+        for (Booking booking : due) {
+            booking.setStatus(BookingStatus.CANCELLED);
+            booking.setHoldExpiresAt(null);
+            waitlistEntryRepository.findByBookingId(booking.getId()).ifPresent(entry -> {
+                if (WaitlistEntry.OFFERED.equals(entry.getStatus())) {
+                    entry.setStatus(WaitlistEntry.EXPIRED);
+                }
+            });
+            outbox.record(OutboxMessage.BOOKING, booking.getId(), booking.getRoomId().getId(),
+                    OutboxMessage.BOOKING_HOLD_RELEASED, Utils.mapBookingToDetailedDTO(booking));
+        }
+        if (!due.isEmpty()) {
+            roomOccupancy.refreshAfterCommit();
+        }
+        return due.size();
+    }
+}
@@ -0,0 +1,203 @@
+package com.hotel.booking.waitlist;
+
+import com.hotel.booking.cluster.Invalidation;
+import com.hotel.booking.cluster.InvalidationListener;
+import com.hotel.booking.model.WaitlistEntry;
+import com.hotel.booking.repository.WaitlistEntryRepository;
+import com.hotel.booking.sharding.ShardRouter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory interval index of WAITING waitlist entries: per hotel, a TreeMap
+ * from check-in date to the entries starting that day. Entries that fit into
+ * released nights [from, to) must start in [from, to), so a lookup is one
+ * range view of the tree plus a check-out filter, whatever the size of the
+ * waitlist.
+ *
+ * The table is the source of truth: the matcher re-reads every candidate
+ * under lock, so a stale entry here costs one lookup. Local changes apply
+ * after commit; a hotel that gains an entry on any instance is reloaded
+ * through the invalidation bus, and a periodic full reload
+ * (waitlist.reload-ms) catches anything missed.
+ */
+@Component
+public class WaitlistIndex implements ApplicationRunner, InvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistIndex.class);
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<Long, TreeMap<LocalDate, List<Waiting>>> byHotel = new HashMap<>();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${waitlist.reload-ms:300000}", initialDelayString = "${waitlist.reload-ms:300000}")
+    public void reload() {
+        List<WaitlistEntry> waiting = shardRouter.gather(() -> waitlistEntryRepository.findByStatus(WaitlistEntry.WAITING));
+        Map<Long, TreeMap<LocalDate, List<Waiting>>> rebuilt = new HashMap<>();
+        for (WaitlistEntry entry : waiting) {
+            insert(rebuilt, Waiting.of(entry));
+        }
+        lock.lock();
+        try {
+            byHotel = rebuilt;
+        } finally {
+            lock.unlock();
+        }
+        log.debug("Waitlist index loaded with {} waiting entries", waiting.size());
+    }
+
+    @Override
+    public void onInvalidations(List<Invalidation> changes) {
+        changes.stream()
+                .filter(change -> Invalidation.WAITLIST.equals(change.topic()))
+                .map(Invalidation::entityId)
+                .distinct()
+                .forEach(this::reloadHotel);
+    }
+
+    public void reloadHotel(Long hotelId) {
+        List<WaitlistEntry> waiting = shardRouter.gather(() ->
+                waitlistEntryRepository.findByHotelIdAndStatus(hotelId, WaitlistEntry.WAITING));
+        Map<Long, TreeMap<LocalDate, List<Waiting>>> rebuilt = new HashMap<>();
+        for (WaitlistEntry entry : waiting) {
+            insert(rebuilt, Waiting.of(entry));
+        }
+        lock.lock();
+        try {
+            if (rebuilt.containsKey(hotelId)) {
+                byHotel.put(hotelId, rebuilt.get(hotelId));
+            } else {
+                byHotel.remove(hotelId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // WAITING entries that fit inside [from, to) for the hotel and room type, oldest first
+    public List<Waiting> candidates(Long hotelId, String roomType, LocalDate from, LocalDate to) {
+        List<Waiting> matches = new ArrayList<>();
+        lock.lock();
+        try {
+            TreeMap<LocalDate, List<Waiting>> tree = byHotel.get(hotelId);
+            if (tree == null) {
+                return matches;
+            }
+            for (List<Waiting> starting : tree.subMap(from, true, to, false).values()) {
+                for (Waiting waiting : starting) {
+                    if (!waiting.checkOutDate().isAfter(to) && waiting.accepts(roomType)) {
+                        matches.add(waiting);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        matches.sort(Comparator.comparing(Waiting::id));
+        return matches;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return byHotel.values().stream()
+                    .flatMap(tree -> tree.values().stream())
+                    .mapToInt(List::size)
+                    .sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void addAfterCommit(WaitlistEntry entry) {
+        Waiting waiting = Waiting.of(entry);
+        afterCommit(() -> {
+            lock.lock();
+            try {
+                insert(byHotel, waiting);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    public void removeAfterCommit(WaitlistEntry entry) {
+        Waiting waiting = Waiting.of(entry);
+        afterCommit(() -> {
+            lock.lock();
+            try {
+                TreeMap<LocalDate, List<Waiting>> tree = byHotel.get(waiting.hotelId());
+                if (tree == null) {
+                    return;
+                }
+                List<Waiting> starting = tree.get(waiting.checkInDate());
+                if (starting != null && starting.removeIf(other -> other.id() == waiting.id()) && starting.isEmpty()) {
+                    tree.remove(waiting.checkInDate());
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    private static void insert(Map<Long, TreeMap<LocalDate, List<Waiting>>> index, Waiting waiting) {
+        NavigableMap<LocalDate, List<Waiting>> tree = index.computeIfAbsent(waiting.hotelId(), key -> new TreeMap<>());
+        List<Waiting> starting = tree.computeIfAbsent(waiting.checkInDate(), key -> new ArrayList<>(2));
+        if (starting.stream().noneMatch(other -> other.id() == waiting.id())) {
+            starting.add(waiting);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public record Waiting(long id, long hotelId, String roomType, LocalDate checkInDate, LocalDate checkOutDate) {
+
+        static Waiting of(WaitlistEntry entry) {
+            return new Waiting(entry.getId(), entry.getHotelId(), entry.getRoomType(),
+                    entry.getCheckInDate(), entry.getCheckOutDate());
+        }
+
+        boolean accepts(String offeredType) {
+            return roomType == null || roomType.equalsIgnoreCase(offeredType);
+        }
+    }
+}
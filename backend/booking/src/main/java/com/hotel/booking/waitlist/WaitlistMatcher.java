@@ -0,0 +1,147 @@
+package com.hotel.booking.waitlist;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.availability.RoomOccupancy;
+import com.hotel.booking.dto.BookingDTO;
+import com.hotel.booking.model.Booking;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.model.User;
+import com.hotel.booking.model.WaitlistEntry;
+import com.hotel.booking.outbox.OutboxMessage;
+import com.hotel.booking.outbox.OutboxRecorder;
+import com.hotel.booking.outbox.OutboxSubscriber;
+import com.hotel.booking.repository.BookingRepository;
+import com.hotel.booking.repository.RoomRepository;
+import com.hotel.booking.repository.UserRepository;
+import com.hotel.booking.repository.WaitlistEntryRepository;
+import com.hotel.booking.utils.Utils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Offers released rooms to the waitlist. When a booking cancellation,
+ * deletion, failed payment or expired hold frees a room, the waiting entries whose dates fit
+ * inside the freed nights are taken from WaitlistIndex oldest first, and each
+ * one that still fits gets a HELD booking on that room for
+ * waitlist.hold-minutes. A long release can serve several shorter entries.
+ *
+ * Runs in the relay's transaction, so holds and their BOOKING_HELD events
+ * commit with the release being marked handled.
+ */
+@Component
+public class WaitlistMatcher implements OutboxSubscriber {
+
+    @Autowired
+    private WaitlistIndex waitlistIndex;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxRecorder outbox;
+
+    @Autowired
+    private RoomOccupancy roomOccupancy;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${waitlist.hold-minutes:30}")
+    private long holdMinutes;
+
+    @Override
+    public void onEvent(OutboxMessage message) throws Exception {
+        switch (message.eventType()) {
+            case OutboxMessage.BOOKING_CANCELLED, OutboxMessage.BOOKING_DELETED, OutboxMessage.BOOKING_HOLD_RELEASED,
+                    OutboxMessage.BOOKING_PAYMENT_FAILED -> {
+                BookingDTO released = objectMapper.readValue(message.payload(), BookingDTO.class);
+                if (message.roomId() != null && released.getCheckInDate() != null && released.getCheckOutDate() != null) {
+                    offer(message.roomId(), released.getCheckInDate(), released.getCheckOutDate());
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    // Places holds on the room for waiting entries that fit [from, to); returns the number placed
+    public int offer(Long roomId, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        if (from.isBefore(today)) {
+            from = today;
+        }
+        Room room = roomRepository.lockById(roomId).orElse(null);
+        if (room == null || room.getHotelId() == null || !from.isBefore(to)) {
+            return 0;
+        }
+        int placed = 0;
+        for (WaitlistIndex.Waiting candidate : waitlistIndex.candidates(room.getHotelId().getId(), room.getType(), from, to)) {
+            WaitlistEntry entry = waitlistEntryRepository.lockById(candidate.id()).orElse(null);
+            if (entry == null || !WaitlistEntry.WAITING.equals(entry.getStatus())) {
+                if (entry != null) {
+                    waitlistIndex.removeAfterCommit(entry);
+                }
+                continue;
+            }
+            // The relay's snapshot may predate a booking another instance made under the room lock
+            if (!bookingRepository.lockOverlapping(roomId, entry.getCheckInDate(), entry.getCheckOutDate()).isEmpty()) {
+                continue;
+            }
+            User user = userRepository.findById(entry.getUserId()).orElse(null);
+            if (user == null) {
+                continue;
+            }
+            hold(entry, user, room);
+            placed++;
+        }
+        if (placed > 0) {
+            roomOccupancy.refreshAfterCommit();
+            registry.counter("hotel.waitlist.offers").increment(placed);
+        }
+        return placed;
+    }
+
+    private void hold(WaitlistEntry entry, User user, Room room) {
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = new Booking();
+        booking.setUserId(user);
+        booking.setRoomId(room);
+        booking.setHotelId(room.getHotelId());
+        booking.setCheckInDate(entry.getCheckInDate());
+        booking.setCheckOutDate(entry.getCheckOutDate());
+        booking.setTotalAmount(room.getPrice() == null ? null
+                : room.getPrice() * ChronoUnit.DAYS.between(entry.getCheckInDate(), entry.getCheckOutDate()));
+        booking.setStatus(BookingStatus.HELD);
+        booking.setBookingTime(now);
+        booking.setHoldExpiresAt(now.plusMinutes(holdMinutes));
+        bookingRepository.save(booking);
+
+        entry.setStatus(WaitlistEntry.OFFERED);
+        entry.setBookingId(booking.getId());
+        entry.setOfferExpiresAt(booking.getHoldExpiresAt());
+        waitlistIndex.removeAfterCommit(entry);
+        outbox.record(OutboxMessage.BOOKING, booking.getId(), room.getId(), OutboxMessage.BOOKING_HELD,
+                Utils.mapBookingToDetailedDTO(booking));
+    }
+}
@@ -0,0 +1,29 @@
+-- Finished bookings older than archive.horizon-days, moved here with their payment
+-- by BookingArchiver. No foreign keys: rows outlive their rooms and hotels, and keep
+-- the names they had. Users are removed from here explicitly when deleted.
+
+CREATE TABLE booking_archive (
+    id             BIGINT NOT NULL,
+    user_id        BIGINT,
+    hotel_id       BIGINT,
+    room_id        BIGINT,
+    hotel_name     VARCHAR(255),
+    room_number    VARCHAR(255),
+    room_type      VARCHAR(255),
+    check_in_date  DATE,
+    check_out_date DATE,
+    total_amount   DOUBLE,
+    status         TINYINT,
+    booking_time   DATETIME(6),
+    payment_id     BIGINT,
+    payment_amount DOUBLE,
+    payment_method VARCHAR(255),
+    payment_status VARCHAR(255),
+    refund_amount  DOUBLE,
+    payment_time   DATETIME(6),
+    archived_at    DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- User booking history
+CREATE INDEX idx_booking_archive_user ON booking_archive (user_id, check_in_date);
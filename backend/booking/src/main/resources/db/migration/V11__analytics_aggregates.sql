@@ -0,0 +1,41 @@
+-- Daily revenue/occupancy aggregates maintained from outbox events (AnalyticsAggregator)
+
+CREATE TABLE analytics_daily (
+    stat_date         DATE NOT NULL,
+    hotel_id          BIGINT NOT NULL,
+    room_type         VARCHAR(255) NOT NULL,
+    rooms_sold        INT NOT NULL,
+    room_revenue      DOUBLE NOT NULL,
+    payments_captured DOUBLE NOT NULL,
+    refunds           DOUBLE NOT NULL,
+    guest_sketch      VARBINARY(1024),
+    PRIMARY KEY (stat_date, hotel_id, room_type)
+) ENGINE = InnoDB;
+
+-- Report filtered by hotel; the primary key serves the unfiltered date range
+CREATE INDEX idx_analytics_daily_hotel ON analytics_daily (hotel_id, stat_date);
+
+-- Current contribution of each booking, applied as old-minus-new on change
+CREATE TABLE analytics_booking (
+    booking_id      BIGINT NOT NULL,
+    hotel_id        BIGINT,
+    room_type       VARCHAR(255),
+    user_id         BIGINT,
+    check_in_date   DATE,
+    check_out_date  DATE,
+    nightly_revenue DOUBLE,
+    last_event_id   BIGINT,
+    PRIMARY KEY (booking_id)
+) ENGINE = InnoDB;
+
+-- Captures and refunds already counted
+CREATE TABLE analytics_payment (
+    payment_id      BIGINT NOT NULL,
+    hotel_id        BIGINT,
+    room_type       VARCHAR(255),
+    captured_amount DOUBLE,
+    captured_on     DATE,
+    refunded_amount DOUBLE,
+    refunded_on     DATE,
+    PRIMARY KEY (payment_id)
+) ENGINE = InnoDB;
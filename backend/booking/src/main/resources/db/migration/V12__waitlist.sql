@@ -0,0 +1,41 @@
+-- Waitlist: guests register interest in a hotel (optionally a room type) for a date range.
+-- When a booking releases a room, WaitlistMatcher places a HELD booking (status 7) for the
+-- first entry whose dates fit, which the guest accepts and pays or lets expire.
+
+ALTER TABLE booking ADD COLUMN hold_expires_at DATETIME(6);
+
+-- HELD bookings hold their room like PENDING_PAYMENT, CONFIRMED and CHECKED_IN
+DROP INDEX idx_booking_active_room_dates ON booking;
+ALTER TABLE booking DROP COLUMN active_room_id;
+ALTER TABLE booking
+    ADD COLUMN active_room_id BIGINT AS (CASE WHEN status IN (1, 2, 3, 7) THEN room_id END) VIRTUAL;
+CREATE INDEX idx_booking_active_room_dates ON booking (active_room_id, check_in_date, check_out_date);
+
+-- WaitlistHoldExpirer: due holds
+CREATE INDEX idx_booking_status_hold ON booking (status, hold_expires_at);
+
+CREATE TABLE waitlist_entry (
+    id               BIGINT NOT NULL,
+    user_id          BIGINT NOT NULL,
+    hotel_id         BIGINT NOT NULL,
+    room_type        VARCHAR(255),
+    check_in_date    DATE NOT NULL,
+    check_out_date   DATE NOT NULL,
+    status           VARCHAR(255) NOT NULL,
+    created_at       DATETIME(6),
+    booking_id       BIGINT,
+    offer_expires_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_waitlist_user  FOREIGN KEY (user_id)  REFERENCES user (id),
+    CONSTRAINT fk_waitlist_hotel FOREIGN KEY (hotel_id) REFERENCES hotel (id)
+) ENGINE = InnoDB;
+
+-- Index load on startup and reload (WAITING rows only)
+CREATE INDEX idx_waitlist_status_hotel ON waitlist_entry (status, hotel_id);
+-- "My waitlist" and account deletion
+CREATE INDEX idx_waitlist_user ON waitlist_entry (user_id, created_at);
+-- Accept and expiry look the entry up by its held booking
+CREATE INDEX idx_waitlist_booking ON waitlist_entry (booking_id);
+
+CREATE TABLE waitlist_entry_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO waitlist_entry_seq VALUES (1);
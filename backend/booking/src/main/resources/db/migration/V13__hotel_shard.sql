@@ -0,0 +1,11 @@
+-- Hotel placements for sharded deployments (sharding.enabled): the shard holding each
+-- hotel's rooms, bookings, payments and waitlist. Only the default shard's copy is read
+-- (ShardDirectory); hotels without a row live on the shard their id block points to.
+
+CREATE TABLE hotel_shard (
+    hotel_id   BIGINT NOT NULL,
+    shard      VARCHAR(64) NOT NULL,
+    moving     BIT NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (hotel_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,15 @@
+-- Cluster invalidation bus: the writing transaction bumps the row of the hotel, room or
+-- hotel waitlist it changed; every instance polls rows changed since its last poll
+-- (InvalidationPoller) and drops what it cached about them.
+
+CREATE TABLE invalidation_version (
+    topic      VARCHAR(16) NOT NULL,
+    entity_id  BIGINT NOT NULL,
+    version    BIGINT NOT NULL,
+    hotel_id   BIGINT,
+    changed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (topic, entity_id)
+) ENGINE = InnoDB;
+
+-- InvalidationPoller: rows changed since the last poll
+CREATE INDEX idx_invalidation_changed_at ON invalidation_version (changed_at);
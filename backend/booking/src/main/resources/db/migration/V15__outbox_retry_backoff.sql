@@ -0,0 +1,4 @@
+-- Outbox retries back off instead of being retried on every relay run;
+-- the column also holds the lease of rows a relay is delivering.
+
+ALTER TABLE outbox_event ADD COLUMN next_attempt_at DATETIME(6);
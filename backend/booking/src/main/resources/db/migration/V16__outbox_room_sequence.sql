@@ -0,0 +1,23 @@
+-- Per-room delivery order. Outbox ids come from pooled blocks that each instance takes
+-- for itself, so id order is not commit order; room_seq is taken from outbox_room_seq
+-- under that row's lock in the recording transaction, so it is.
+
+ALTER TABLE outbox_event ADD COLUMN room_seq BIGINT;
+
+CREATE TABLE outbox_room_seq (
+    room_id  BIGINT NOT NULL,
+    last_seq BIGINT NOT NULL,
+    PRIMARY KEY (room_id)
+) ENGINE = InnoDB;
+
+-- Rows recorded before this migration keep their id order and sort ahead of new ones
+UPDATE outbox_event SET room_seq = id WHERE room_id IS NOT NULL;
+INSERT INTO outbox_room_seq (room_id, last_seq)
+SELECT room_id, MAX(id) FROM outbox_event WHERE room_id IS NOT NULL GROUP BY room_id;
+
+-- Relay poll: pending rows in room_seq order
+DROP INDEX idx_outbox_pending ON outbox_event;
+CREATE INDEX idx_outbox_pending ON outbox_event (published_at, room_seq, id);
+-- Per-room ordering check
+DROP INDEX idx_outbox_room_pending ON outbox_event;
+CREATE INDEX idx_outbox_room_pending ON outbox_event (room_id, published_at, room_seq);
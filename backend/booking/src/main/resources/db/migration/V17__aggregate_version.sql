@@ -0,0 +1,16 @@
+-- Per-aggregate event version. Subscribers that keep state per booking compare versions,
+-- not outbox ids: ids come from per-instance blocks, versions are bumped under a row lock
+-- in the recording transaction and so follow commit order.
+
+CREATE TABLE aggregate_version (
+    aggregate_type VARCHAR(16) NOT NULL,
+    aggregate_id   BIGINT NOT NULL,
+    version        BIGINT NOT NULL,
+    PRIMARY KEY (aggregate_type, aggregate_id)
+) ENGINE = InnoDB;
+
+ALTER TABLE outbox_event ADD COLUMN aggregate_version BIGINT;
+
+-- Outbox ids recorded so far are not versions; the next event of each booking applies unconditionally
+ALTER TABLE analytics_booking DROP COLUMN last_event_id;
+ALTER TABLE analytics_booking ADD COLUMN last_version BIGINT;
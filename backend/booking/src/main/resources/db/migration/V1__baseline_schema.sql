@@ -0,0 +1,70 @@
+-- Schema as previously generated by hibernate.ddl-auto=update, plus the pooled id tables.
+
+CREATE TABLE user (
+    id       BIGINT NOT NULL,
+    name     VARCHAR(255),
+    email    VARCHAR(255),
+    password VARCHAR(255),
+    role     VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE hotel (
+    id      BIGINT NOT NULL,
+    name    VARCHAR(255),
+    adress  VARCHAR(255),
+    city    VARCHAR(255),
+    state   VARCHAR(255),
+    zipcode VARCHAR(255),
+    contact VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE room (
+    id          BIGINT NOT NULL,
+    room_number VARCHAR(255),
+    type        VARCHAR(255),
+    price       DOUBLE,
+    available   BIT NOT NULL,
+    hotel_id    BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_room_hotel FOREIGN KEY (hotel_id) REFERENCES hotel (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE booking (
+    id             BIGINT NOT NULL,
+    check_in_date  DATE,
+    check_out_date DATE,
+    total_amount   DOUBLE,
+    status         VARCHAR(255),
+    booking_time   DATETIME(6),
+    user_id        BIGINT,
+    hotel_id       BIGINT,
+    room_id        BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_booking_user  FOREIGN KEY (user_id)  REFERENCES user (id),
+    CONSTRAINT fk_booking_hotel FOREIGN KEY (hotel_id) REFERENCES hotel (id),
+    CONSTRAINT fk_booking_room  FOREIGN KEY (room_id)  REFERENCES room (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE payment (
+    id             BIGINT NOT NULL,
+    amount         DOUBLE,
+    payment_method VARCHAR(255),
+    payment_status VARCHAR(255),
+    payment_time   DATETIME(6),
+    booking_id     BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_payment_booking FOREIGN KEY (booking_id) REFERENCES booking (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE booking_seq (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE hotel_seq   (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE payment_seq (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE room_seq    (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE user_seq    (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO booking_seq VALUES (1);
+INSERT INTO hotel_seq   VALUES (1);
+INSERT INTO payment_seq VALUES (1);
+INSERT INTO room_seq    VALUES (1);
+INSERT INTO user_seq    VALUES (1);
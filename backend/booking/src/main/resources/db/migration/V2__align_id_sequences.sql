@@ -0,0 +1,20 @@
+-- Databases that started out on IDENTITY ids either have no *_seq tables yet or
+-- have ones Hibernate seeded at 1. Move every sequence past the existing ids.
+
+CREATE TABLE IF NOT EXISTS booking_seq (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE IF NOT EXISTS hotel_seq   (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE IF NOT EXISTS payment_seq (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE IF NOT EXISTS room_seq    (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE IF NOT EXISTS user_seq    (next_val BIGINT) ENGINE = InnoDB;
+
+INSERT INTO booking_seq SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM booking_seq);
+INSERT INTO hotel_seq   SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM hotel_seq);
+INSERT INTO payment_seq SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM payment_seq);
+INSERT INTO room_seq    SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM room_seq);
+INSERT INTO user_seq    SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM user_seq);
+
+UPDATE booking_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 1 FROM booking));
+UPDATE hotel_seq   SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 1 FROM hotel));
+UPDATE payment_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 1 FROM payment));
+UPDATE room_seq    SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 1 FROM room));
+UPDATE user_seq    SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 1 FROM user));
@@ -0,0 +1,18 @@
+-- Indexes for the queries on the booking hot paths. InnoDB drops the implicit
+-- single-column FK indexes once these cover the same leading column.
+
+-- existsByRoomAndDateRange: room equality + range on check-in, check-out filtered from the index
+CREATE INDEX idx_booking_room_dates ON booking (room_id, check_in_date, check_out_date);
+
+-- findByUserId_Id (booking history)
+CREATE INDEX idx_booking_user ON booking (user_id);
+
+-- findByEmail on every authenticated request; fails if duplicate emails already exist,
+-- which have to be cleaned up by hand first
+CREATE UNIQUE INDEX uk_user_email ON user (email);
+
+-- findByHotelId_Id
+CREATE INDEX idx_room_hotel ON room (hotel_id);
+
+-- findByBooking_Id and the Booking.payment association
+CREATE INDEX idx_payment_booking ON payment (booking_id);
@@ -0,0 +1,24 @@
+-- Transactional outbox: booking/room changes recorded in the same transaction,
+-- published asynchronously by OutboxRelay.
+
+CREATE TABLE outbox_event (
+    id             BIGINT NOT NULL,
+    aggregate_type VARCHAR(255),
+    aggregate_id   BIGINT,
+    room_id        BIGINT,
+    event_type     VARCHAR(255),
+    payload        VARCHAR(4000),
+    created_at     DATETIME(6),
+    published_at   DATETIME(6),
+    attempts       INT NOT NULL,
+    last_error     VARCHAR(1000),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- Relay poll: pending rows in id order
+CREATE INDEX idx_outbox_pending ON outbox_event (published_at, id);
+-- Per-room ordering check
+CREATE INDEX idx_outbox_room_pending ON outbox_event (room_id, published_at, id);
+
+CREATE TABLE outbox_event_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO outbox_event_seq VALUES (1);
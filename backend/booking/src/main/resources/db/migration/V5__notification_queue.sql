@@ -0,0 +1,24 @@
+-- Guest email queue: filled from the outbox, drained by NotificationWorker.
+
+CREATE TABLE notification (
+    id              BIGINT NOT NULL,
+    source_event_id BIGINT,
+    template        VARCHAR(255),
+    recipient       VARCHAR(255),
+    variables       VARCHAR(4000),
+    status          VARCHAR(255),
+    attempts        INT NOT NULL,
+    next_attempt_at DATETIME(6),
+    created_at      DATETIME(6),
+    sent_at         DATETIME(6),
+    last_error      VARCHAR(1000),
+    PRIMARY KEY (id),
+    -- One notification per outbox event, however often the event is redelivered
+    CONSTRAINT uk_notification_source_event UNIQUE (source_event_id)
+) ENGINE = InnoDB;
+
+-- Worker poll: due pending rows
+CREATE INDEX idx_notification_due ON notification (status, next_attempt_at, id);
+
+CREATE TABLE notification_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO notification_seq VALUES (1);
@@ -0,0 +1,21 @@
+-- Explicit payment states driven by PaymentProcessor (PENDING, AUTHORIZED, CAPTURED, REFUNDED, FAILED).
+
+ALTER TABLE payment
+    ADD COLUMN gateway_reference VARCHAR(255),
+    ADD COLUMN refund_amount     DOUBLE,
+    ADD COLUMN failure_reason    VARCHAR(1000),
+    ADD COLUMN updated_at        DATETIME(6);
+
+-- Refunds used to overwrite amount with the refunded share
+UPDATE payment SET refund_amount = amount WHERE payment_status = 'REFUNDED';
+UPDATE payment SET payment_status = 'CAPTURED' WHERE payment_status = 'COMPLETED';
+-- Anything else was never charged through a gateway; never let the sweeper pick it up
+UPDATE payment
+   SET failure_reason = CONCAT('Unknown legacy status: ', COALESCE(payment_status, 'NULL')),
+       payment_status = 'FAILED'
+ WHERE payment_status IS NULL OR payment_status NOT IN ('CAPTURED', 'REFUNDED');
+UPDATE payment SET updated_at = COALESCE(payment_time, NOW(6));
+
+-- Sweeper: payments stuck in PENDING/AUTHORIZED; webhook lookups by gateway reference
+CREATE INDEX idx_payment_status_updated ON payment (payment_status, updated_at);
+CREATE INDEX idx_payment_gateway_reference ON payment (gateway_reference);
@@ -0,0 +1,6 @@
+-- Refunds are queued as REFUND_PENDING and issued in batches (see PaymentProcessor#refundPending).
+
+ALTER TABLE payment ADD COLUMN next_attempt_at DATETIME(6);
+
+-- Keyset scan over the refund queue
+CREATE INDEX idx_payment_status_id ON payment (payment_status, id);
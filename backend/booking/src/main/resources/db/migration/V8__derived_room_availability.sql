@@ -0,0 +1,6 @@
+-- Room availability is derived from bookings; the stored flag drifted and is gone.
+ALTER TABLE room DROP COLUMN available;
+
+-- Lifecycle sweeper: CONFIRMED -> CHECKED_IN by check-in date, -> CHECKED_OUT by check-out date
+CREATE INDEX idx_booking_status_check_in  ON booking (status, check_in_date);
+CREATE INDEX idx_booking_status_check_out ON booking (status, check_out_date);
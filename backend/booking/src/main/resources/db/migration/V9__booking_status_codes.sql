@@ -0,0 +1,38 @@
+-- booking.status becomes a TINYINT code (see BookingStatus; never renumber):
+--   1 PENDING_PAYMENT, 2 CONFIRMED, 3 CHECKED_IN, 4 CHECKED_OUT, 5 CANCELLED, 6 PAYMENT_FAILED
+-- NULL and unknown legacy values held their room before, so they become CONFIRMED.
+
+ALTER TABLE booking ADD COLUMN status_code TINYINT;
+
+UPDATE booking
+   SET status_code = CASE UPPER(TRIM(status))
+                         WHEN 'PENDING_PAYMENT' THEN 1
+                         WHEN 'CONFIRMED'       THEN 2
+                         WHEN 'CHECKED_IN'      THEN 3
+                         WHEN 'CHECKED_OUT'     THEN 4
+                         WHEN 'CANCELLED'       THEN 5
+                         WHEN 'PAYMENT_FAILED'  THEN 6
+                         ELSE 2
+                     END;
+
+DROP INDEX idx_booking_status_check_in  ON booking;
+DROP INDEX idx_booking_status_check_out ON booking;
+
+ALTER TABLE booking
+    DROP COLUMN status,
+    RENAME COLUMN status_code TO status;
+
+ALTER TABLE booking MODIFY status TINYINT NOT NULL;
+
+-- room_id only while the booking holds the room (PENDING_PAYMENT, CONFIRMED, CHECKED_IN).
+-- MySQL has no partial indexes; overlap lookups on active_room_id = ? only ever touch
+-- active entries, the NULLs of cancelled and past bookings sit apart at the start of the index.
+ALTER TABLE booking
+    ADD COLUMN active_room_id BIGINT AS (CASE WHEN status IN (1, 2, 3) THEN room_id END) VIRTUAL;
+
+-- existsByRoomAndDateRange, findAvailable, findActiveByRoom
+CREATE INDEX idx_booking_active_room_dates ON booking (active_room_id, check_in_date, check_out_date);
+
+-- Lifecycle sweeper, now on one byte of status
+CREATE INDEX idx_booking_status_check_in  ON booking (status, check_in_date);
+CREATE INDEX idx_booking_status_check_out ON booking (status, check_out_date);
@@ -0,0 +1,51 @@
+package com.hotel.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// The H2 tests build the schema from the entities; this one builds it the way production does,
+// Flyway from V1 on a real MySQL, and lets Hibernate validate the entities against the result.
+// Skipped where Docker is unavailable.
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaMigrationTests {
+
+	@Container
+	private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+	@DynamicPropertySource
+	static void mysql(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+		registry.add("spring.datasource.username", MYSQL::getUsername);
+		registry.add("spring.datasource.password", MYSQL::getPassword);
+		registry.add("spring.datasource.driver-class-name", () -> "com.mysql.cj.jdbc.Driver");
+		registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.MySQL8Dialect");
+		registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+		registry.add("spring.flyway.enabled", () -> "true");
+	}
+
+	@Autowired
+	private Flyway flyway;
+
+	@Test
+	void migrationsProduceTheSchemaTheEntitiesExpect() {
+		// Reaching this point means ddl-auto=validate accepted the migrated schema
+		assertEquals(0, flyway.info().pending().length);
+		for (MigrationInfo migration : flyway.info().applied()) {
+			assertFalse(migration.getState().isFailed(), migration.getVersion() + " " + migration.getState());
+		}
+	}
+}
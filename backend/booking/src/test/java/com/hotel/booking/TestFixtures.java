@@ -0,0 +1,100 @@
+package com.hotel.booking;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.hotel.booking.model.Booking;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Payment;
+import com.hotel.booking.model.PaymentStatus;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.model.User;
+import com.hotel.booking.repository.BookingRepository;
+import com.hotel.booking.repository.HotelRepository;
+import com.hotel.booking.repository.PaymentRepository;
+import com.hotel.booking.repository.RoomRepository;
+import com.hotel.booking.repository.UserRepository;
+
+/**
+ * Saved users, hotels, rooms, bookings and payments for the integration
+ * tests. Picked up by component scanning like the application's own beans,
+ * so autowiring it does not change the cached test context. Emails get a
+ * unique suffix because test contexts share one database.
+ */
+@Component
+public class TestFixtures {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	public User user(String name) {
+		User user = new User();
+		user.setName(name);
+		user.setEmail(name.toLowerCase().replace(' ', '-') + "-" + System.nanoTime() + "@example.com");
+		user.setRole("USER");
+		return userRepository.save(user);
+	}
+
+	public Hotel hotel(String name) {
+		Hotel hotel = new Hotel();
+		hotel.setName(name);
+		return hotelRepository.save(hotel);
+	}
+
+	public Room room(Hotel hotel, String number, String type, double price) {
+		Room room = new Room();
+		room.setRoomNumber(number);
+		room.setType(type);
+		room.setPrice(price);
+		room.setHotelId(hotel);
+		return roomRepository.save(room);
+	}
+
+	public Booking booking(User user, Room room, BookingStatus status, LocalDate checkIn, LocalDate checkOut,
+			double total) {
+		return booking(user, room, status, checkIn, checkOut, total, LocalDateTime.now());
+	}
+
+	public Booking booking(User user, Room room, BookingStatus status, LocalDate checkIn, LocalDate checkOut,
+			double total, LocalDateTime bookedAt) {
+		Booking booking = new Booking();
+		booking.setUserId(user);
+		booking.setHotelId(room.getHotelId());
+		booking.setRoomId(room);
+		booking.setCheckInDate(checkIn);
+		booking.setCheckOutDate(checkOut);
+		booking.setTotalAmount(total);
+		booking.setStatus(status);
+		booking.setBookingTime(bookedAt);
+		return bookingRepository.save(booking);
+	}
+
+	// A card payment as the gateway would have left it, with a reference so it can be refunded
+	public Payment payment(Booking booking, PaymentStatus status, double amount, LocalDateTime paidAt) {
+		Payment payment = new Payment();
+		payment.setBooking(booking);
+		payment.setAmount(amount);
+		payment.setPaymentMethod("CARD");
+		payment.setPaymentStatus(status);
+		payment.setGatewayReference("legacy-" + booking.getId());
+		payment.setPaymentTime(paidAt);
+		payment.setUpdatedAt(paidAt);
+		return paymentRepository.save(payment);
+	}
+}
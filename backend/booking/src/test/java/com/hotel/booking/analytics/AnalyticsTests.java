@@ -0,0 +1,194 @@
+package com.hotel.booking.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.dto.AnalyticsReport;
+import com.hotel.booking.model.Booking;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Payment;
+import com.hotel.booking.model.PaymentStatus;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.model.User;
+import com.hotel.booking.outbox.OutboxMessage;
+import com.hotel.booking.repository.BookingRepository;
+import com.hotel.booking.repository.HotelRepository;
+import com.hotel.booking.repository.PaymentRepository;
+import com.hotel.booking.repository.RoomRepository;
+import com.hotel.booking.repository.UserRepository;
+import com.hotel.booking.utils.Utils;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AnalyticsTests {
+
+	@Autowired
+	private AnalyticsAggregator aggregator;
+
+	@Autowired
+	private AnalyticsBackfill backfill;
+
+	@Autowired
+	private AnalyticsReader reader;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final LocalDate checkIn = LocalDate.now().plusDays(20);
+
+	private User user;
+	private Hotel hotel;
+	private Room room;
+
+	@BeforeEach
+	void setUp() {
+		user = new User();
+		user.setName("Guest");
+		user.setEmail("analytics-" + System.nanoTime() + "@example.com");
+		user.setRole("USER");
+		userRepository.save(user);
+		hotel = new Hotel();
+		hotel.setName("Analytics Hotel");
+		hotelRepository.save(hotel);
+		for (String number : new String[] { "A1", "A2" }) {
+			room = new Room();
+			room.setRoomNumber(number);
+			room.setType("DOUBLE");
+			room.setPrice(150.0);
+			room.setHotelId(hotel);
+			roomRepository.save(room);
+		}
+	}
+
+	@Test
+	void hyperLogLogEstimatesDistinctCount() {
+		byte[] sketch = HyperLogLog.empty();
+		for (long i = 0; i < 10_000; i++) {
+			HyperLogLog.add(sketch, i);
+			HyperLogLog.add(sketch, i);
+		}
+		long estimate = HyperLogLog.estimate(sketch);
+		assertTrue(Math.abs(estimate - 10_000) < 500, "estimate " + estimate);
+		assertEquals(0, HyperLogLog.estimate(HyperLogLog.empty()));
+	}
+
+	@Test
+	void backfillAndEventsKeepDailyAggregatesInStep() throws Exception {
+		Booking booking = new Booking();
+		booking.setUserId(user);
+		booking.setHotelId(hotel);
+		booking.setRoomId(room);
+		booking.setCheckInDate(checkIn);
+		booking.setCheckOutDate(checkIn.plusDays(2));
+		booking.setTotalAmount(300.0);
+		booking.setStatus(BookingStatus.CONFIRMED);
+		booking.setBookingTime(LocalDateTime.now());
+		bookingRepository.save(booking);
+		Payment payment = new Payment();
+		payment.setBooking(booking);
+		payment.setAmount(300.0);
+		payment.setPaymentMethod("CARD");
+		payment.setPaymentStatus(PaymentStatus.CAPTURED);
+		payment.setPaymentTime(checkIn.atStartOfDay());
+		paymentRepository.save(payment);
+
+		assertNotNull(backfill.run(false));
+
+		AnalyticsReport report = reader.report(checkIn, checkIn.plusDays(3), hotel.getId());
+		AnalyticsReport.Row totals = report.getTotals();
+		assertEquals(8, totals.getRoomNightsAvailable());
+		assertEquals(2, totals.getRoomNightsSold());
+		assertEquals(0.25, totals.getOccupancyRate());
+		assertEquals(150.0, totals.getAdr());
+		assertEquals(37.5, totals.getRevpar());
+		assertEquals(300.0, totals.getRoomRevenue());
+		assertEquals(300.0, totals.getPaymentsCaptured());
+		assertEquals(1, totals.getDistinctGuests());
+		assertEquals(1, report.getByHotel().size());
+		assertEquals("Analytics Hotel", report.getByHotel().get(0).getHotelName());
+		assertEquals(4, report.getByDay().size());
+
+		booking.setStatus(BookingStatus.CANCELLED);
+		String payload = objectMapper.writeValueAsString(Utils.mapBookingToDetailedDTO(booking));
+		OutboxMessage cancelled = new OutboxMessage(Long.MAX_VALUE - 1, OutboxMessage.BOOKING, booking.getId(), 1L,
+				room.getId(), OutboxMessage.BOOKING_CANCELLED, payload, LocalDateTime.now());
+		deliver(cancelled);
+		deliver(cancelled);
+
+		totals = reader.report(checkIn, checkIn.plusDays(3), hotel.getId()).getTotals();
+		assertEquals(0, totals.getRoomNightsSold());
+		assertEquals(0.0, totals.getRoomRevenue());
+		assertEquals(300.0, totals.getPaymentsCaptured());
+	}
+
+	@Test
+	void eventsApplyInVersionOrderWhateverIdBlockTheyCameFrom() throws Exception {
+		Booking booking = new Booking();
+		booking.setUserId(user);
+		booking.setHotelId(hotel);
+		booking.setRoomId(room);
+		booking.setCheckInDate(checkIn.plusDays(5));
+		booking.setCheckOutDate(checkIn.plusDays(7));
+		booking.setTotalAmount(300.0);
+		booking.setStatus(BookingStatus.CONFIRMED);
+		booking.setBookingTime(LocalDateTime.now());
+		bookingRepository.save(booking);
+		String confirmedPayload = objectMapper.writeValueAsString(Utils.mapBookingToDetailedDTO(booking));
+		booking.setStatus(BookingStatus.CANCELLED);
+		String cancelledPayload = objectMapper.writeValueAsString(Utils.mapBookingToDetailedDTO(booking));
+
+		// Confirmed on an instance holding a later id block, cancelled on one holding an earlier block
+		deliver(new OutboxMessage(900L, OutboxMessage.BOOKING, booking.getId(), 1L, room.getId(),
+				OutboxMessage.BOOKING_CONFIRMED, confirmedPayload, LocalDateTime.now()));
+		assertEquals(2, reader.report(checkIn.plusDays(5), checkIn.plusDays(7), hotel.getId()).getTotals().getRoomNightsSold());
+		deliver(new OutboxMessage(5L, OutboxMessage.BOOKING, booking.getId(), 2L, room.getId(),
+				OutboxMessage.BOOKING_CANCELLED, cancelledPayload, LocalDateTime.now()));
+		assertEquals(0, reader.report(checkIn.plusDays(5), checkIn.plusDays(7), hotel.getId()).getTotals().getRoomNightsSold());
+
+		// A redelivered confirmation is older than what was applied and changes nothing
+		deliver(new OutboxMessage(900L, OutboxMessage.BOOKING, booking.getId(), 1L, room.getId(),
+				OutboxMessage.BOOKING_CONFIRMED, confirmedPayload, LocalDateTime.now()));
+		assertEquals(0, reader.report(checkIn.plusDays(5), checkIn.plusDays(7), hotel.getId()).getTotals().getRoomNightsSold());
+	}
+
+	private void deliver(OutboxMessage message) {
+		transactionTemplate.executeWithoutResult(tx -> {
+			try {
+				aggregator.onEvent(message);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+}
@@ -0,0 +1,109 @@
+package com.hotel.booking.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.hotel.booking.TestFixtures;
+import com.hotel.booking.dto.BookingDTO;
+import com.hotel.booking.dto.Response;
+import com.hotel.booking.model.ArchivedBooking;
+import com.hotel.booking.model.Booking;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Payment;
+import com.hotel.booking.model.PaymentStatus;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.model.User;
+import com.hotel.booking.repository.ArchivedBookingRepository;
+import com.hotel.booking.repository.BookingRepository;
+import com.hotel.booking.repository.PaymentRepository;
+import com.hotel.booking.service.interfac.IBookingService;
+import com.hotel.booking.service.interfac.IUserService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingArchiverTests {
+
+	@Autowired
+	private BookingArchiver archiver;
+
+	@Autowired
+	private IBookingService bookingService;
+
+	@Autowired
+	private IUserService userService;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	@Autowired
+	private ArchivedBookingRepository archivedBookingRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	private User user;
+	private Hotel hotel;
+	private Room room;
+
+	@BeforeEach
+	void setUp() {
+		user = fixtures.user("Regular");
+		hotel = fixtures.hotel("Heritage Hotel");
+		room = fixtures.room(hotel, "H1", "SUITE", 200.0);
+	}
+
+	@Test
+	void movesSettledHistoryAndKeepsItReadable() {
+		Booking stayed = booking(BookingStatus.CHECKED_OUT, 400);
+		Payment paid = payment(stayed, PaymentStatus.CAPTURED);
+		Booking refunding = booking(BookingStatus.CANCELLED, 400);
+		payment(refunding, PaymentStatus.REFUND_PENDING);
+		Booking recent = booking(BookingStatus.CHECKED_OUT, 30);
+
+		assertTrue(archiver.archive() >= 1);
+
+		assertFalse(bookingRepository.existsById(stayed.getId()));
+		assertFalse(paymentRepository.existsById(paid.getId()));
+		assertTrue(bookingRepository.existsById(refunding.getId()));
+		assertTrue(bookingRepository.existsById(recent.getId()));
+
+		ArchivedBooking archived = archivedBookingRepository.findById(stayed.getId()).orElseThrow();
+		assertEquals(BookingStatus.CHECKED_OUT, archived.getStatus());
+		assertEquals(PaymentStatus.CAPTURED, archived.getPaymentStatus());
+		assertEquals(paid.getId(), archived.getPaymentId());
+		assertEquals("H1", archived.getRoomNumber());
+		assertEquals("Heritage Hotel", archived.getHotelName());
+
+		Response byId = bookingService.getBookingById(stayed.getId().toString());
+		assertEquals(200, byId.getStatusCode());
+		assertEquals("H1", byId.getBooking().getRoomNumber());
+
+		List<Long> history = userService.getUserBookingHistory(user.getId().toString())
+				.getUser().getBookings().stream().map(BookingDTO::getId).toList();
+		assertTrue(history.containsAll(List.of(stayed.getId(), refunding.getId(), recent.getId())));
+	}
+
+	private Booking booking(BookingStatus status, int daysAgo) {
+		return fixtures.booking(user, room, status, LocalDate.now().minusDays(daysAgo + 2),
+				LocalDate.now().minusDays(daysAgo), 400.0, LocalDateTime.now().minusDays(daysAgo + 30));
+	}
+
+	private Payment payment(Booking booking, PaymentStatus status) {
+		return fixtures.payment(booking, status, 400.0, LocalDateTime.now().minusDays(60));
+	}
+}
@@ -0,0 +1,77 @@
+package com.hotel.booking.availability;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.dto.BookingDTO;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.outbox.OutboxMessage;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AvailabilityStreamTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private AvailabilityStream availabilityStream;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void pushesBookingChangesToHotelAndRoomSubscribers() throws Exception {
+		int before = availabilityStream.getSubscriberCount();
+		MockHttpServletResponse hotelStream = mockMvc.perform(get("/api/rooms/availability/stream?hotelId=7001"))
+				.andExpect(request().asyncStarted()).andReturn().getResponse();
+		MockHttpServletResponse otherRoom = mockMvc.perform(get("/api/rooms/availability/stream?roomId=9002"))
+				.andExpect(request().asyncStarted()).andReturn().getResponse();
+		assertEquals(before + 2, availabilityStream.getSubscriberCount());
+		mockMvc.perform(get("/api/rooms/availability/stream")).andExpect(status().isBadRequest());
+
+		BookingDTO booking = new BookingDTO();
+		booking.setId(55L);
+		booking.setHotelId(7001L);
+		booking.setRoomId(9001L);
+		booking.setCheckInDate(LocalDate.now().plusDays(3));
+		booking.setCheckOutDate(LocalDate.now().plusDays(5));
+		booking.setStatus(BookingStatus.CONFIRMED);
+		availabilityStream.onEvent(new OutboxMessage(42L, OutboxMessage.BOOKING, 55L, 1L, 9001L,
+				OutboxMessage.BOOKING_CONFIRMED, objectMapper.writeValueAsString(booking), LocalDateTime.now()));
+
+		String body = awaitContent(hotelStream, "\"bookingId\":55");
+		assertTrue(body.contains("event:availability"));
+		assertTrue(body.contains("id:42"));
+		assertTrue(body.contains("\"holdsRoom\":true"));
+		assertFalse(otherRoom.getContentAsString().contains("bookingId"));
+	}
+
+	private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		String body = response.getContentAsString();
+		while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			body = response.getContentAsString();
+		}
+		assertTrue(body.contains(expected), body);
+		return body;
+	}
+}
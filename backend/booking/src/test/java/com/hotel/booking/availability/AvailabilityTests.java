@@ -0,0 +1,118 @@
+package com.hotel.booking.availability;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.hotel.booking.TestFixtures;
+import com.hotel.booking.dto.Response;
+import com.hotel.booking.dto.RoomDTO;
+import com.hotel.booking.model.Booking;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.model.User;
+import com.hotel.booking.repository.BookingRepository;
+import com.hotel.booking.service.interfac.IRoomService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AvailabilityTests {
+
+	@Autowired
+	private RoomOccupancy roomOccupancy;
+
+	@Autowired
+	private BookingLifecycleSweeper sweeper;
+
+	@Autowired
+	private IRoomService roomService;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	private final LocalDate today = LocalDate.now();
+	private User user;
+	private Hotel hotel;
+
+	@BeforeEach
+	void setUp() {
+		user = fixtures.user("Occupant");
+		hotel = fixtures.hotel("Calendar Hotel");
+	}
+
+	@Test
+	void availabilityFollowsBookingsForTheRequestedDates() {
+		Room occupiedNow = room("A1");
+		Room bookedLater = room("A2");
+		Room cancelled = room("A3");
+		booking(occupiedNow, BookingStatus.CONFIRMED, today, today.plusDays(2));
+		booking(bookedLater, BookingStatus.CONFIRMED, today.plusDays(10), today.plusDays(12));
+		booking(cancelled, BookingStatus.CANCELLED, today, today.plusDays(2));
+
+		roomOccupancy.refresh();
+		assertFalse(roomOccupancy.isFreeToday(occupiedNow.getId()));
+		assertTrue(roomOccupancy.isFreeToday(bookedLater.getId()));
+		assertTrue(roomOccupancy.isFreeToday(cancelled.getId()));
+		// Listings take the flag from the occupancy bean
+		assertEquals(List.of(false, true, true), roomService.getRoomsByHotelId(hotel.getId()).getRoomList().stream()
+				.sorted(Comparator.comparing(RoomDTO::getId)).map(RoomDTO::isAvailable).toList());
+
+		Response later = roomService.getAvailableRooms(hotel.getId(), today.plusDays(11), today.plusDays(13));
+		assertEquals(200, later.getStatusCode());
+		assertEquals(List.of(occupiedNow.getId(), cancelled.getId()),
+				later.getRoomList().stream().map(RoomDTO::getId).toList());
+
+		Response now = roomService.getAvailableRooms(hotel.getId(), today, today.plusDays(1));
+		assertEquals(List.of(bookedLater.getId(), cancelled.getId()),
+				now.getRoomList().stream().map(RoomDTO::getId).toList());
+
+		assertEquals(400, roomService.getAvailableRooms(hotel.getId(), today, today).getStatusCode());
+
+		assertTrue(bookingRepository.existsByRoomAndDateRange(occupiedNow, today, today.plusDays(1), null));
+		assertFalse(bookingRepository.existsByRoomAndDateRange(cancelled, today, today.plusDays(1), null));
+	}
+
+	@Test
+	void sweeperChecksGuestsInAndOutByDate() {
+		Room room = room("B1");
+		Booking arriving = booking(room, BookingStatus.CONFIRMED, today, today.plusDays(1));
+		Booking departed = booking(room, BookingStatus.CONFIRMED, today.minusDays(3), today.minusDays(1));
+		Booking staying = booking(room("B2"), BookingStatus.CHECKED_IN, today.minusDays(4), today);
+		Booking cancelled = booking(room("B3"), BookingStatus.CANCELLED, today.minusDays(1), today.plusDays(1));
+		Booking future = booking(room("B4"), BookingStatus.CONFIRMED, today.plusDays(5), today.plusDays(6));
+
+		sweeper.sweep();
+
+		assertEquals(BookingStatus.CHECKED_IN, status(arriving));
+		assertEquals(BookingStatus.CHECKED_OUT, status(departed));
+		assertEquals(BookingStatus.CHECKED_OUT, status(staying));
+		assertEquals(BookingStatus.CANCELLED, status(cancelled));
+		assertEquals(BookingStatus.CONFIRMED, status(future));
+	}
+
+	private BookingStatus status(Booking booking) {
+		return bookingRepository.findById(booking.getId()).orElseThrow().getStatus();
+	}
+
+	private Room room(String number) {
+		return fixtures.room(hotel, number, "DOUBLE", 90.0);
+	}
+
+	private Booking booking(Room room, BookingStatus status, LocalDate checkIn, LocalDate checkOut) {
+		return fixtures.booking(user, room, status, checkIn, checkOut, 90.0);
+	}
+}
@@ -0,0 +1,213 @@
+package com.hotel.booking.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hotel.booking.HotelBookingSystemApplication;
+import com.hotel.booking.TestFixtures;
+import com.hotel.booking.dto.BookingDTO;
+import com.hotel.booking.dto.Response;
+import com.hotel.booking.dto.WaitlistEntryDTO;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Payment;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.model.User;
+import com.hotel.booking.service.interfac.IBookingService;
+import com.hotel.booking.service.interfac.IWaitlistService;
+import com.hotel.booking.waitlist.WaitlistIndex;
+
+// A second application instance on the same in-memory database stands in for another node
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ClusterCoordinationTests {
+
+	private static ConfigurableApplicationContext otherNode;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private IBookingService bookingService;
+
+	@Autowired
+	private InvalidationPoller poller;
+
+	@Autowired
+	private InvalidationRecorder recorder;
+
+	@Autowired
+	private WaitlistIndex waitlistIndex;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	private final LocalDate checkIn = LocalDate.now().plusDays(40);
+
+	private Hotel hotel;
+	private Room room;
+
+	@BeforeEach
+	void setUp() {
+		// Started once this context has created the schema; arguments outrank the test profile, so it leaves the schema alone
+		if (otherNode == null) {
+			otherNode = new SpringApplicationBuilder(HotelBookingSystemApplication.class)
+					.profiles("test")
+					.run("--server.port=0", "--spring.jpa.hibernate.ddl-auto=none");
+		}
+		hotel = fixtures.hotel("Cluster Hotel");
+		room = fixtures.room(hotel, "C1", "DOUBLE", 80.0);
+	}
+
+	@AfterAll
+	static void stopOtherNode() {
+		if (otherNode != null) {
+			otherNode.close();
+			otherNode = null;
+		}
+	}
+
+	@Test
+	void sameRoomFinalizedOnTwoNodesIsBookedOnce() throws Exception {
+		List<IBookingService> nodes = List.of(bookingService, otherNode.getBean(IBookingService.class));
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Response>> results = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				IBookingService node = nodes.get(i % 2);
+				Long userId = user("racer" + i).getId();
+				results.add(pool.submit(() -> {
+					start.await();
+					return node.finalizeBooking(booking(), payment(), userId);
+				}));
+			}
+			start.countDown();
+			List<Integer> statuses = new ArrayList<>();
+			for (Future<Response> result : results) {
+				statuses.add(result.get().getStatusCode());
+			}
+			assertEquals(1, statuses.stream().filter(status -> status == 200).count(), statuses.toString());
+			assertEquals(3, statuses.stream().filter(status -> status == 409).count(), statuses.toString());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void writesOnTheOtherNodeReachThisNodesCachesAndStreams() throws Exception {
+		MockHttpServletResponse stream = mockMvc.perform(get("/api/rooms/availability/stream?hotelId=" + hotel.getId()))
+				.andExpect(request().asyncStarted()).andReturn().getResponse();
+
+		Long guestId = user("guest").getId();
+		Response booked = otherNode.getBean(IBookingService.class).finalizeBooking(booking(), payment(), guestId);
+		assertEquals(200, booked.getStatusCode(), booked.getMessage());
+
+		WaitlistEntryDTO request = new WaitlistEntryDTO();
+		request.setHotelId(hotel.getId());
+		request.setCheckInDate(checkIn);
+		request.setCheckOutDate(checkIn.plusDays(2));
+		Response joined = otherNode.getBean(IWaitlistService.class).join(request, user("waiter").getId());
+		assertEquals(200, joined.getStatusCode(), joined.getMessage());
+		Long entryId = joined.getWaitlistEntry().getId();
+		assertTrue(waitlistIndex.candidates(hotel.getId(), "DOUBLE", checkIn, checkIn.plusDays(2)).stream()
+				.noneMatch(waiting -> waiting.id() == entryId));
+
+		assertTrue(poller.poll() >= 2);
+		assertTrue(waitlistIndex.candidates(hotel.getId(), "DOUBLE", checkIn, checkIn.plusDays(2)).stream()
+				.anyMatch(waiting -> waiting.id() == entryId));
+		String body = awaitContent(stream, "event:invalidate");
+		assertTrue(body.contains("\"roomId\":" + room.getId()), body);
+		assertEquals(0, poller.poll());
+	}
+
+	@Test
+	void pollerStarvedPastTheGraceStillPicksUpWhereItLeftOff() throws Exception {
+		poller.poll();
+		long defaultGraceMs = (long) ReflectionTestUtils.getField(poller, "commitGraceMs");
+		ReflectionTestUtils.setField(poller, "commitGraceMs", 10L);
+		try {
+			transactionTemplate.executeWithoutResult(status -> recorder.record(Invalidation.ROOM, room.getId(), hotel.getId()));
+			// The next poll comes far later than the grace; the watermark, not the clock, says where to read from
+			Thread.sleep(100);
+			assertEquals(1, poller.poll());
+			assertEquals(0, poller.poll());
+		} finally {
+			ReflectionTestUtils.setField(poller, "commitGraceMs", defaultGraceMs);
+		}
+	}
+
+	@Test
+	void recordingBumpsTheVersionInPlace() {
+		Long entityId = room.getId();
+		for (int i = 0; i < 3; i++) {
+			transactionTemplate.executeWithoutResult(status -> recorder.record(Invalidation.ROOM, entityId, hotel.getId()));
+		}
+		assertEquals(3L, jdbcTemplate.queryForObject(
+				"SELECT version FROM invalidation_version WHERE topic = ? AND entity_id = ?", Long.class,
+				Invalidation.ROOM, entityId));
+	}
+
+	private BookingDTO booking() {
+		BookingDTO booking = new BookingDTO();
+		booking.setHotelId(hotel.getId());
+		booking.setRoomId(room.getId());
+		booking.setCheckInDate(checkIn);
+		booking.setCheckOutDate(checkIn.plusDays(2));
+		booking.setTotalAmount(160.0);
+		return booking;
+	}
+
+	private static Payment payment() {
+		Payment payment = new Payment();
+		payment.setAmount(160.0);
+		payment.setPaymentMethod("CARD");
+		return payment;
+	}
+
+	private User user(String name) {
+		return fixtures.user(name);
+	}
+
+	private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		String body = response.getContentAsString();
+		while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			body = response.getContentAsString();
+		}
+		assertTrue(body.contains(expected), body);
+		return body;
+	}
+}
@@ -0,0 +1,110 @@
+package com.hotel.booking.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Drives the limiter against a fake connection pool whose query latency jumps
+ * mid-run, the same shape as a MySQL slowdown behind Hikari.
+ */
+class AdaptiveConcurrencyLimiterTests {
+
+	private static final int POOL_SIZE = 10;
+	private static final int CLIENTS = 200;
+
+	@Test
+	void limitShrinksAndTailLatencyStaysBoundedWhenDatabaseSlowsDown() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 20, 2, 200, 2.0);
+		RunResult unlimited = run(null);
+		RunResult limited = run(limiter);
+
+		long unlimitedP99 = unlimited.percentileMillis(0.99);
+		long limitedP99 = limited.percentileMillis(0.99);
+
+		assertTrue(limited.rejected.get() > 0, "expected load to be shed");
+		assertTrue(limiter.getLimit() < 20, "expected the limit to back off, was " + limiter.getLimit());
+		assertTrue(limitedP99 * 2 < unlimitedP99,
+				"limited p99 " + limitedP99 + "ms should be well under unlimited p99 " + unlimitedP99 + "ms");
+		assertTrue(limitedP99 < 400, "limited p99 was " + limitedP99 + "ms");
+	}
+
+	private RunResult run(AdaptiveConcurrencyLimiter limiter) throws InterruptedException {
+		Semaphore connections = new Semaphore(POOL_SIZE, true);
+		RunResult result = new RunResult();
+		long start = System.nanoTime();
+		long slowFrom = start + TimeUnit.MILLISECONDS.toNanos(300);
+		long end = start + TimeUnit.MILLISECONDS.toNanos(1500);
+
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < CLIENTS; i++) {
+				clients.submit(() -> {
+					while (System.nanoTime() < end) {
+						long begin = System.nanoTime();
+						if (limiter != null && !limiter.tryAcquire()) {
+							result.rejected.incrementAndGet();
+							sleepMillis(5);
+							continue;
+						}
+						try {
+							connections.acquire();
+							try {
+								sleepMillis(begin > slowFrom ? 40 : 2);
+							} finally {
+								connections.release();
+							}
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+							return;
+						} finally {
+							long rtt = System.nanoTime() - begin;
+							if (limiter != null) {
+								limiter.release(rtt, false);
+							}
+							if (begin > slowFrom) {
+								result.record(rtt);
+							}
+						}
+					}
+				});
+			}
+		}
+		return result;
+	}
+
+	private static void sleepMillis(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static class RunResult {
+		private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+		private final AtomicInteger rejected = new AtomicInteger();
+
+		void record(long nanos) {
+			latencies.add(nanos);
+		}
+
+		long percentileMillis(double p) {
+			List<Long> sorted = new ArrayList<>(latencies);
+			Collections.sort(sorted);
+			if (sorted.isEmpty()) {
+				return 0;
+			}
+			int idx = (int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1);
+			return TimeUnit.NANOSECONDS.toMillis(sorted.get(Math.max(0, idx)));
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.hotel.booking.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.hotel.booking.sharding.ShardContext;
+import com.hotel.booking.sharding.ShardRoutingDataSource;
+
+/**
+ * The bulkhead post-processor against a shard router with two in-memory
+ * databases, as ShardingConfig builds it.
+ */
+class JdbcBulkheadTests {
+
+	private static final int PERMITS = 2;
+
+	@Test
+	void eachShardPoolGetsItsOwnBulkhead() throws Exception {
+		ShardRoutingDataSource routing = new ShardRoutingDataSource();
+		Map<Object, Object> targets = new LinkedHashMap<>();
+		targets.put("main", h2("bulkhead_main"));
+		targets.put("b", h2("bulkhead_b"));
+		routing.setTargetDataSources(targets);
+		routing.setDefaultTargetDataSource(targets.get("main"));
+		routing.afterPropertiesSet();
+
+		BeanPostProcessor postProcessor = VirtualThreadConfig.jdbcBulkheadPostProcessor(new MockEnvironment()
+				.withProperty("bulkhead.jdbc.max-concurrent", String.valueOf(PERMITS))
+				.withProperty("bulkhead.jdbc.acquire-timeout-ms", "50"));
+		assertSame(routing, postProcessor.postProcessAfterInitialization(routing, "dataSource"));
+		assertInstanceOf(JdbcBulkheadDataSource.class, routing.getShard("main"));
+		assertInstanceOf(JdbcBulkheadDataSource.class, routing.getShard("b"));
+
+		List<Connection> held = new ArrayList<>();
+		try {
+			for (int i = 0; i < PERMITS; i++) {
+				held.add(ShardContext.call("main", () -> open(routing)));
+			}
+			assertThrows(SQLTransientConnectionException.class, routing::getConnection);
+			// A full main shard leaves shard b's permits alone
+			for (int i = 0; i < PERMITS; i++) {
+				held.add(ShardContext.call("b", () -> open(routing)));
+			}
+			assertEquals(0, ((JdbcBulkheadDataSource) routing.getShard("b")).getAvailablePermits());
+		} finally {
+			for (Connection connection : held) {
+				connection.close();
+			}
+		}
+		assertEquals(PERMITS, ((JdbcBulkheadDataSource) routing.getShard("main")).getAvailablePermits());
+	}
+
+	private static JdbcDataSource h2(String name) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+		return dataSource;
+	}
+
+	private static Connection open(ShardRoutingDataSource routing) {
+		try {
+			return routing.getConnection();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,177 @@
+package com.hotel.booking.controller;
+
+import static com.hotel.booking.monitoring.SqlStatementAssertions.assertStatementsExcludingIdFetches;
+import static com.hotel.booking.monitoring.SqlStatementAssertions.idFetches;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.monitoring.SqlStatementTracker;
+import com.hotel.booking.repository.HotelRepository;
+import com.hotel.booking.repository.RoomRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BatchEndpointTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<Long> hotelIds = new ArrayList<>();
+
+	private Hotel hotel;
+
+	@BeforeEach
+	void setUp() {
+		hotel = new Hotel();
+		hotel.setName("Batch Hotel");
+		hotel.setCity("Nantes");
+		hotelRepository.save(hotel);
+		hotelIds.add(hotel.getId());
+	}
+
+	// Other test contexts share this database and still hold id blocks handed out before this
+	// context recreated the schema; leaving 60 rooms behind would collide with their next inserts
+	@AfterEach
+	void cleanUp() {
+		for (Long hotelId : hotelIds) {
+			jdbcTemplate.update("DELETE FROM outbox_event WHERE aggregate_type = 'ROOM' AND aggregate_id IN "
+					+ "(SELECT id FROM room WHERE hotel_id = ?)", hotelId);
+			jdbcTemplate.update("DELETE FROM room WHERE hotel_id = ?", hotelId);
+			jdbcTemplate.update("DELETE FROM hotel WHERE id = ?", hotelId);
+		}
+	}
+
+	@Test
+	void roomBatchStatementCount() throws Exception {
+		List<Map<String, Object>> rooms = rooms(hotel.getId(), 3);
+
+		// Hotel lookup, one batched room INSERT and one batched outbox INSERT
+		assertStatementsExcludingIdFetches(3, () -> postAsAdmin("/api/rooms/batch", rooms)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.roomList.length()").value(3)));
+		assertEquals(3, roomRepository.findByHotelId_Id(hotel.getId()).size());
+	}
+
+	@Test
+	void roomBatchLargerThanTheAllocationSizeDrawsPooledIds() throws Exception {
+		List<Map<String, Object>> rooms = rooms(hotel.getId(), 60);
+
+		String body;
+		try (SqlStatementTracker.Scope scope = SqlStatementTracker.begin()) {
+			body = postAsAdmin("/api/rooms/batch", rooms).andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			// 60 rows span two blocks of 50 for rooms and for outbox events: a handful of fetches, not one per row
+			assertTrue(idFetches(scope) <= 6, String.join("\n", scope.topFingerprints(10)));
+			// Same three statements as for three rooms: each INSERT is prepared once and executed in batches
+			assertEquals(3, scope.getCount() - idFetches(scope), String.join("\n", scope.topFingerprints(10)));
+		}
+		Set<Long> ids = new HashSet<>();
+		for (JsonNode room : objectMapper.readTree(body).get("roomList")) {
+			ids.add(room.get("id").asLong());
+		}
+		assertEquals(60, ids.size());
+		assertEquals(60, roomRepository.findByHotelId_Id(hotel.getId()).size());
+	}
+
+	@Test
+	void roomBatchWithoutAHotelIdIsRejected() throws Exception {
+		List<Map<String, Object>> rooms = new ArrayList<>(rooms(hotel.getId(), 2));
+		rooms.add(Map.of("roomNumber", "X1", "type", "SINGLE", "price", 50.0));
+
+		postAsAdmin("/api/rooms/batch", rooms).andExpect(status().isBadRequest());
+		postAsAdmin("/api/rooms/batch", List.of()).andExpect(status().isBadRequest());
+		assertEquals(0, roomRepository.findByHotelId_Id(hotel.getId()).size());
+	}
+
+	@Test
+	void roomBatchForAnUnknownHotelIsRejected() throws Exception {
+		List<Map<String, Object>> rooms = new ArrayList<>(rooms(hotel.getId(), 2));
+		rooms.addAll(rooms(-1L, 1));
+
+		postAsAdmin("/api/rooms/batch", rooms).andExpect(status().isNotFound());
+		assertEquals(0, roomRepository.findByHotelId_Id(hotel.getId()).size());
+	}
+
+	@Test
+	void hotelImportStatementCount() throws Exception {
+		List<Map<String, Object>> hotels = List.of(
+				Map.of("name", "Import A", "city", "Lille", "rooms", rooms(null, 3)),
+				Map.of("name", "Import B", "city", "Lille", "rooms", rooms(null, 2)));
+
+		// One batched INSERT for the hotels and one for their rooms
+		String body;
+		try (SqlStatementTracker.Scope scope = SqlStatementTracker.begin()) {
+			body = postAsAdmin("/api/hotels/batch", hotels).andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			assertEquals(2, scope.getCount() - idFetches(scope), String.join("\n", scope.topFingerprints(10)));
+		}
+		JsonNode imported = objectMapper.readTree(body).get("hotelList");
+		imported.forEach(node -> hotelIds.add(node.get("id").asLong()));
+		assertEquals(2, imported.size());
+		assertEquals(3, roomRepository.findByHotelId_Id(imported.get(0).get("id").asLong()).size());
+		assertEquals(2, roomRepository.findByHotelId_Id(imported.get(1).get("id").asLong()).size());
+	}
+
+	@Test
+	void emptyHotelImportIsRejected() throws Exception {
+		postAsAdmin("/api/hotels/batch", List.of()).andExpect(status().isBadRequest());
+	}
+
+	private ResultActions postAsAdmin(String path, Object body) throws Exception {
+		return mockMvc.perform(post(path)
+				.with(user("admin@example.com").roles("ADMIN"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(body)));
+	}
+
+	private static List<Map<String, Object>> rooms(Long hotelId, int count) {
+		List<Map<String, Object>> rooms = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Map<String, Object> room = new HashMap<>(Map.of("roomNumber", "B" + i, "type", "DOUBLE", "price", 95.0));
+			if (hotelId != null) {
+				room.put("hotelId", hotelId);
+			}
+			rooms.add(room);
+		}
+		return rooms;
+	}
+}
@@ -0,0 +1,60 @@
+package com.hotel.booking.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-scale histogram (8 buckets per power of two, about 9% precision)
+ * covering 1 microsecond to a few minutes. Fixed memory however long the run is.
+ */
+class LatencyHistogram {
+
+	private static final int SUB_BUCKETS = 8;
+	private static final int BUCKETS = 38 * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder total = new LongAdder();
+	private final LongAdder sumNanos = new LongAdder();
+	private volatile long maxNanos;
+
+	void record(long nanos) {
+		long micros = Math.max(1, nanos / 1000);
+		int bucket = (int) Math.min(BUCKETS - 1, Math.floor(Math.log(micros) / Math.log(2) * SUB_BUCKETS));
+		counts.incrementAndGet(bucket);
+		total.increment();
+		sumNanos.add(nanos);
+		if (nanos > maxNanos) {
+			maxNanos = nanos;
+		}
+	}
+
+	long count() {
+		return total.sum();
+	}
+
+	double meanMillis() {
+		long n = total.sum();
+		return n == 0 ? 0 : sumNanos.sum() / 1e6 / n;
+	}
+
+	double maxMillis() {
+		return maxNanos / 1e6;
+	}
+
+	// Upper edge of the bucket holding the requested percentile
+	double percentileMillis(double p) {
+		long n = total.sum();
+		if (n == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(p * n);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return Math.min(Math.pow(2, (i + 1) / (double) SUB_BUCKETS) / 1000, maxMillis());
+			}
+		}
+		return maxMillis();
+	}
+}
@@ -0,0 +1,380 @@
+package com.hotel.booking.loadtest;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.HotelBookingSystemApplication;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.model.User;
+import com.hotel.booking.repository.HotelRepository;
+import com.hotel.booking.repository.RoomRepository;
+import com.hotel.booking.repository.UserRepository;
+import com.hotel.booking.security.JWTUtils;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * End-to-end load test. Boots the application in-process (H2 in MySQL mode by
+ * default, or the MySQL from the usual MYSQL* variables with
+ * -Dloadtest.database=mysql), seeds hotels, rooms and users, then drives a
+ * weighted mix of catalog reads and booking calls over real HTTP from
+ * virtual-thread clients. Prints throughput, per-endpoint latency percentiles,
+ * the 409 conflict rate and Hikari connection wait time, and writes the same
+ * numbers to target/loadtest-report.json.
+ *
+ * Options (system properties, defaults in brackets):
+ *   loadtest.hotels [50], loadtest.roomsPerHotel [40], loadtest.users [500],
+ *   loadtest.clients [100], loadtest.seconds [30], loadtest.warmupSeconds [5],
+ *   loadtest.mix [hotels:40,rooms:30,initiate:15,finalize:10,cancel:5],
+ *   loadtest.database [h2]
+ * Application properties can be overridden the same way, e.g. -Dlimiter.enabled=false
+ * or -Dspring.threads.virtual.enabled=true.
+ */
+public class LoadTestHarness {
+
+	private static final String[] ENDPOINTS = { "hotels", "rooms", "initiate", "finalize", "cancel" };
+
+	private final int hotels = Integer.getInteger("loadtest.hotels", 50);
+	private final int roomsPerHotel = Integer.getInteger("loadtest.roomsPerHotel", 40);
+	private final int users = Integer.getInteger("loadtest.users", 500);
+	private final int clients = Integer.getInteger("loadtest.clients", 100);
+	private final int seconds = Integer.getInteger("loadtest.seconds", 30);
+	private final int warmupSeconds = Integer.getInteger("loadtest.warmupSeconds", 5);
+	private final String database = System.getProperty("loadtest.database", "h2");
+	private final Map<String, Integer> mix = parseMix(
+			System.getProperty("loadtest.mix", "hotels:40,rooms:30,initiate:15,finalize:10,cancel:5"));
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final HikariWaitRecorder hikariWait = new HikariWaitRecorder();
+	private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+	private final Map<String, Map<Integer, LongAdder>> statuses = new ConcurrentHashMap<>();
+	private final LongAdder transportErrors = new LongAdder();
+
+	private HttpClient http;
+	private String baseUrl;
+	private List<Long> hotelIds;
+	private List<Room> rooms;
+	private List<String> tokens;
+
+	public static void main(String[] args) throws Exception {
+		new LoadTestHarness().run();
+	}
+
+	void run() throws Exception {
+		SpringApplication app = new SpringApplication(HotelBookingSystemApplication.class);
+		if ("h2".equals(database)) {
+			app.setAdditionalProfiles("test", "loadtest");
+		} else {
+			app.setAdditionalProfiles("loadtest");
+		}
+		app.addInitializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				if (bean instanceof HikariDataSource hikari) {
+					hikari.setMetricsTrackerFactory(hikariWait);
+				}
+				return bean;
+			}
+		}));
+
+		try (ConfigurableApplicationContext context = app.run("--server.port=0")) {
+			baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+			seed(context);
+			http = HttpClient.newBuilder()
+					.connectTimeout(Duration.ofSeconds(5))
+					.executor(Executors.newVirtualThreadPerTaskExecutor())
+					.build();
+
+			log("warming up for %ds", warmupSeconds);
+			drive(warmupSeconds);
+			latencies.clear();
+			statuses.clear();
+			transportErrors.reset();
+			hikariWait.reset();
+
+			log("running %d clients for %ds, mix %s", clients, seconds, mix);
+			long start = System.nanoTime();
+			drive(seconds);
+			double elapsed = (System.nanoTime() - start) / 1e9;
+			report(elapsed);
+		}
+	}
+
+	private void seed(ConfigurableApplicationContext context) {
+		HotelRepository hotelRepository = context.getBean(HotelRepository.class);
+		RoomRepository roomRepository = context.getBean(RoomRepository.class);
+		UserRepository userRepository = context.getBean(UserRepository.class);
+		JWTUtils jwtUtils = context.getBean(JWTUtils.class);
+
+		List<Hotel> hotelEntities = new ArrayList<>();
+		for (int h = 0; h < hotels; h++) {
+			Hotel hotel = new Hotel();
+			hotel.setName("Load Hotel " + h);
+			hotel.setAdress(h + " Test Street");
+			hotel.setCity("City " + (h % 10));
+			hotel.setState("ST");
+			hotel.setZipcode("00000");
+			hotel.setContact("000");
+			hotelEntities.add(hotel);
+		}
+		hotelRepository.saveAll(hotelEntities);
+
+		List<Room> roomEntities = new ArrayList<>();
+		for (Hotel hotel : hotelEntities) {
+			for (int r = 0; r < roomsPerHotel; r++) {
+				Room room = new Room();
+				room.setRoomNumber(String.valueOf(100 + r));
+				room.setType(r % 4 == 0 ? "SUITE" : "DELUXE");
+				room.setPrice(100.0 + r);
+				room.setHotelId(hotel);
+				roomEntities.add(room);
+			}
+		}
+		roomRepository.saveAll(roomEntities);
+
+		List<User> userEntities = new ArrayList<>();
+		for (int u = 0; u < users; u++) {
+			User user = new User();
+			user.setName("Load User " + u);
+			user.setEmail("load-user-" + u + "-" + System.nanoTime() + "@example.com");
+			user.setPassword("password");
+			user.setRole("ROLE_USER");
+			userEntities.add(user);
+		}
+		userRepository.saveAll(userEntities);
+
+		hotelIds = hotelEntities.stream().map(Hotel::getId).toList();
+		rooms = roomEntities;
+		tokens = userEntities.stream().map(u -> jwtUtils.generateToken(u.getEmail(), u.getRole())).toList();
+		log("seeded %d hotels, %d rooms, %d users", hotelIds.size(), rooms.size(), tokens.size());
+	}
+
+	private void drive(int durationSeconds) throws InterruptedException {
+		long end = System.nanoTime() + Duration.ofSeconds(durationSeconds).toNanos();
+		try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int c = 0; c < clients; c++) {
+				String token = tokens.get(c % tokens.size());
+				pool.submit(() -> {
+					Deque<Long> myBookings = new ArrayDeque<>();
+					while (System.nanoTime() < end) {
+						step(pickEndpoint(), token, myBookings);
+					}
+					return null;
+				});
+			}
+		}
+	}
+
+	private void step(String endpoint, String token, Deque<Long> myBookings) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Room room = rooms.get(random.nextInt(rooms.size()));
+		LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(180));
+		LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+		String bookingJson = "{\"hotelId\":" + room.getHotelId().getId() + ",\"roomId\":" + room.getId()
+				+ ",\"checkInDate\":\"" + checkIn + "\",\"checkOutDate\":\"" + checkOut + "\"";
+
+		switch (endpoint) {
+			case "hotels" -> send(endpoint, get("/api/hotels"));
+			case "rooms" -> send(endpoint, get("/api/rooms/hotel/" + hotelIds.get(random.nextInt(hotelIds.size()))));
+			case "initiate" -> send(endpoint, post("/api/bookings/initiate", token, bookingJson + "}"));
+			case "finalize" -> {
+				double total = room.getPrice() * (checkOut.toEpochDay() - checkIn.toEpochDay());
+				String body = "{\"bookingDetails\":" + bookingJson + ",\"totalAmount\":" + total + "},"
+						+ "\"paymentDetails\":{\"amount\":" + total + ",\"paymentMethod\":\"CARD\"}}";
+				HttpResponse<String> response = send(endpoint, post("/api/bookings/finalize", token, body));
+				Long bookingId = bookingId(response);
+				if (bookingId != null) {
+					myBookings.push(bookingId);
+				}
+			}
+			case "cancel" -> {
+				Long bookingId = myBookings.poll();
+				if (bookingId == null) {
+					send("hotels", get("/api/hotels"));
+				} else {
+					send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + "/api/bookings/" + bookingId + "/cancel"))
+							.header("Authorization", "Bearer " + token)
+							.PUT(HttpRequest.BodyPublishers.noBody()));
+				}
+			}
+			default -> throw new IllegalStateException("Unknown endpoint " + endpoint);
+		}
+	}
+
+	private HttpRequest.Builder get(String path) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+	}
+
+	private HttpRequest.Builder post(String path, String token, String json) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.header("Authorization", "Bearer " + token)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json));
+	}
+
+	private HttpResponse<String> send(String endpoint, HttpRequest.Builder request) {
+		long begin = System.nanoTime();
+		try {
+			HttpResponse<String> response = http.send(request.timeout(Duration.ofSeconds(30)).build(),
+					HttpResponse.BodyHandlers.ofString());
+			latencies.computeIfAbsent(endpoint, k -> new LatencyHistogram()).record(System.nanoTime() - begin);
+			statuses.computeIfAbsent(endpoint, k -> new ConcurrentHashMap<>())
+					.computeIfAbsent(response.statusCode(), k -> new LongAdder()).increment();
+			return response;
+		} catch (Exception e) {
+			transportErrors.increment();
+			return null;
+		}
+	}
+
+	private Long bookingId(HttpResponse<String> response) {
+		if (response == null || response.statusCode() != 200) {
+			return null;
+		}
+		try {
+			JsonNode id = objectMapper.readTree(response.body()).get("bookingId");
+			return id == null || id.isNull() ? null : id.asLong();
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	private String pickEndpoint() {
+		int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+		int pick = ThreadLocalRandom.current().nextInt(total);
+		for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+			pick -= entry.getValue();
+			if (pick < 0) {
+				return entry.getKey();
+			}
+		}
+		return ENDPOINTS[0];
+	}
+
+	private void report(double elapsedSeconds) throws Exception {
+		Map<String, Object> report = new LinkedHashMap<>();
+		long totalRequests = latencies.values().stream().mapToLong(LatencyHistogram::count).sum();
+		long totalConflicts = statuses.values().stream()
+				.mapToLong(byStatus -> byStatus.getOrDefault(409, new LongAdder()).sum()).sum();
+		report.put("database", database);
+		report.put("clients", clients);
+		report.put("seconds", elapsedSeconds);
+		report.put("requests", totalRequests);
+		report.put("throughputPerSecond", totalRequests / elapsedSeconds);
+		report.put("conflictRate", totalRequests == 0 ? 0 : (double) totalConflicts / totalRequests);
+		report.put("transportErrors", transportErrors.sum());
+
+		System.out.printf("%n%-10s %9s %10s %9s %9s %9s %9s %8s  %s%n",
+				"endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "409 %", "statuses");
+		Map<String, Object> endpoints = new LinkedHashMap<>();
+		for (String endpoint : ENDPOINTS) {
+			LatencyHistogram histogram = latencies.get(endpoint);
+			if (histogram == null) {
+				continue;
+			}
+			Map<Integer, Long> codes = new LinkedHashMap<>();
+			statuses.getOrDefault(endpoint, Map.of()).forEach((code, count) -> codes.put(code, count.sum()));
+			double conflictRate = (double) codes.getOrDefault(409, 0L) / histogram.count();
+			System.out.printf("%-10s %9d %10.1f %9.2f %9.2f %9.2f %9.2f %8.2f  %s%n", endpoint, histogram.count(),
+					histogram.count() / elapsedSeconds, histogram.percentileMillis(0.50),
+					histogram.percentileMillis(0.99), histogram.percentileMillis(0.999), histogram.maxMillis(),
+					conflictRate * 100, codes);
+
+			Map<String, Object> stats = new LinkedHashMap<>();
+			stats.put("requests", histogram.count());
+			stats.put("p50Ms", histogram.percentileMillis(0.50));
+			stats.put("p99Ms", histogram.percentileMillis(0.99));
+			stats.put("p999Ms", histogram.percentileMillis(0.999));
+			stats.put("maxMs", histogram.maxMillis());
+			stats.put("conflictRate", conflictRate);
+			stats.put("statuses", codes);
+			endpoints.put(endpoint, stats);
+		}
+		report.put("endpoints", endpoints);
+
+		LatencyHistogram wait = hikariWait.acquire;
+		System.out.printf("%nthroughput %.1f req/s, 409 rate %.2f%%, transport errors %d%n",
+				totalRequests / elapsedSeconds, 100.0 * totalConflicts / Math.max(1, totalRequests), transportErrors.sum());
+		System.out.printf("hikari wait: acquisitions %d, mean %.3f ms, p99 %.3f ms, max %.3f ms, timeouts %d%n",
+				wait.count(), wait.meanMillis(), wait.percentileMillis(0.99), wait.maxMillis(), hikariWait.timeouts.sum());
+		Map<String, Object> hikari = new LinkedHashMap<>();
+		hikari.put("acquisitions", wait.count());
+		hikari.put("meanWaitMs", wait.meanMillis());
+		hikari.put("p99WaitMs", wait.percentileMillis(0.99));
+		hikari.put("maxWaitMs", wait.maxMillis());
+		hikari.put("timeouts", hikariWait.timeouts.sum());
+		report.put("hikari", hikari);
+
+		File out = new File("target/loadtest-report.json");
+		out.getParentFile().mkdirs();
+		objectMapper.writerWithDefaultPrettyPrinter().writeValue(out, report);
+		log("report written to %s", out.getPath());
+	}
+
+	private static Map<String, Integer> parseMix(String spec) {
+		Map<String, Integer> weights = new LinkedHashMap<>();
+		for (String part : spec.split(",")) {
+			String[] kv = part.trim().split(":");
+			if (!List.of(ENDPOINTS).contains(kv[0])) {
+				throw new IllegalArgumentException("Unknown endpoint in loadtest.mix: " + kv[0]);
+			}
+			weights.put(kv[0], Integer.parseInt(kv[1]));
+		}
+		return weights;
+	}
+
+	private static void log(String format, Object... args) {
+		System.out.printf("[loadtest] " + format + "%n", args);
+	}
+
+	// Hikari calls this for every getConnection(); acquire time is the pool wait
+	private static class HikariWaitRecorder implements MetricsTrackerFactory {
+		private volatile LatencyHistogram acquire = new LatencyHistogram();
+		private final LongAdder timeouts = new LongAdder();
+
+		void reset() {
+			acquire = new LatencyHistogram();
+			timeouts.reset();
+		}
+
+		@Override
+		public IMetricsTracker create(String poolName, PoolStats poolStats) {
+			return new IMetricsTracker() {
+				@Override
+				public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+					acquire.record(elapsedAcquiredNanos);
+				}
+
+				@Override
+				public void recordConnectionTimeout() {
+					timeouts.increment();
+				}
+			};
+		}
+	}
+}
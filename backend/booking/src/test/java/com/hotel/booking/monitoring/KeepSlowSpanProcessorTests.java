@@ -0,0 +1,67 @@
+package com.hotel.booking.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+
+class KeepSlowSpanProcessorTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void unsampledTracesAreExportedOnlyWhenSlow() throws Exception {
+		Path file = dir.resolve("traces.jsonl");
+		SdkTracerProvider provider = SdkTracerProvider.builder()
+				.setSampler(new HeadSampler(0.0))
+				.addSpanProcessor(new KeepSlowSpanProcessor(
+						new OtlpJsonFileSpanExporter(objectMapper, file, 1 << 20), 100, 100, 100, 1000))
+				.build();
+		Tracer tracer = provider.get("test");
+
+		trace(tracer, "fast-request", Instant.now());
+		trace(tracer, "slow-request", Instant.now().minusMillis(500));
+		provider.forceFlush().join(10, TimeUnit.SECONDS);
+		provider.shutdown().join(10, TimeUnit.SECONDS);
+
+		List<String> names = new ArrayList<>();
+		String traceId = null;
+		for (String line : Files.readAllLines(file)) {
+			for (JsonNode span : objectMapper.readTree(line).at("/resourceSpans/0/scopeSpans/0/spans")) {
+				names.add(span.get("name").asText());
+				assertTrue(traceId == null || traceId.equals(span.get("traceId").asText()));
+				traceId = span.get("traceId").asText();
+			}
+		}
+		names.sort(null);
+		assertEquals(List.of("slow-request", "slow-request.query"), names);
+	}
+
+	private static void trace(Tracer tracer, String name, Instant start) {
+		Span root = tracer.spanBuilder(name).setStartTimestamp(start).startSpan();
+		try (Scope scope = root.makeCurrent()) {
+			tracer.spanBuilder(name + ".query").setAttribute("db.rows", 3L).startSpan().end();
+		} finally {
+			root.end();
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package com.hotel.booking.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.hotel.booking.service.interfac.IHotelService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class ServiceMetricsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private IHotelService hotelService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void serviceCallsAreTaggedWithResponseStatus() throws Exception {
+		hotelService.getHotelById("999999");
+		hotelService.getHotelById("not-a-number");
+
+		assertEquals(1, meterRegistry.get(ServiceObservationAspect.SERVICE_METRIC)
+				.tags("service", "HotelService", "method", "getHotelById", "outcome", "404").timer().count());
+		assertEquals(1, meterRegistry.get(ServiceObservationAspect.SERVICE_METRIC)
+				.tags("service", "HotelService", "method", "getHotelById", "outcome", "500").timer().count());
+
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(Matchers.containsString("hotel_service_calls_seconds_count")))
+				.andExpect(content().string(Matchers.containsString("hikaricp_connections_active")));
+	}
+}
@@ -0,0 +1,63 @@
+package com.hotel.booking.monitoring;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Map;
+
+/**
+ * Pins the number of SQL statements a block of code runs, so an N+1 creeping
+ * back in fails the build instead of showing up in production latency:
+ *
+ *   SqlStatementAssertions.assertStatements(2, () -> mockMvc.perform(get("/api/hotels")));
+ */
+public final class SqlStatementAssertions {
+
+	@FunctionalInterface
+	public interface SqlWork {
+		void run() throws Exception;
+	}
+
+	private SqlStatementAssertions() {
+	}
+
+	public static void assertStatements(int expected, SqlWork work) throws Exception {
+		SqlStatementTracker.Scope scope = run(work);
+		if (scope.getCount() != expected) {
+			fail(report("Expected " + expected + " SQL statements", scope));
+		}
+	}
+
+	// Pooled generators fetch a new id block only when the current one runs out, so how many
+	// fetches a test sees depends on what ran before it; everything else is pinned exactly
+	public static void assertStatementsExcludingIdFetches(int expected, SqlWork work) throws Exception {
+		SqlStatementTracker.Scope scope = run(work);
+		if (scope.getCount() - idFetches(scope) != expected) {
+			fail(report("Expected " + expected + " SQL statements besides id fetches", scope));
+		}
+	}
+
+	public static int idFetches(SqlStatementTracker.Scope scope) {
+		return scope.getFingerprints().entrySet().stream()
+				.filter(e -> e.getKey().startsWith("select next value for "))
+				.mapToInt(Map.Entry::getValue)
+				.sum();
+	}
+
+	public static void assertAtMostStatements(int max, SqlWork work) throws Exception {
+		SqlStatementTracker.Scope scope = run(work);
+		if (scope.getCount() > max) {
+			fail(report("Expected at most " + max + " SQL statements", scope));
+		}
+	}
+
+	private static SqlStatementTracker.Scope run(SqlWork work) throws Exception {
+		try (SqlStatementTracker.Scope scope = SqlStatementTracker.begin()) {
+			work.run();
+			return scope;
+		}
+	}
+
+	private static String report(String expectation, SqlStatementTracker.Scope scope) {
+		return expectation + " but ran " + scope.getCount() + ":\n" + String.join("\n", scope.topFingerprints(10));
+	}
+}
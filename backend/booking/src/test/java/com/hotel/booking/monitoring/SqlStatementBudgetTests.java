@@ -0,0 +1,75 @@
+package com.hotel.booking.monitoring;
+
+import static com.hotel.booking.monitoring.SqlStatementAssertions.assertStatements;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.repository.HotelRepository;
+import com.hotel.booking.repository.RoomRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlStatementBudgetTests {
+
+	private static final int HOTELS = 3;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	private Long hotelId;
+
+	@BeforeEach
+	void seed() {
+		roomRepository.deleteAll();
+		hotelRepository.deleteAll();
+		for (int h = 0; h < HOTELS; h++) {
+			Hotel hotel = new Hotel();
+			hotel.setName("Budget Hotel " + h);
+			hotel.setCity("Lyon");
+			hotelRepository.save(hotel);
+			hotelId = hotel.getId();
+
+			List<Room> rooms = new ArrayList<>();
+			for (int r = 0; r < 4; r++) {
+				Room room = new Room();
+				room.setRoomNumber(h + "0" + r);
+				room.setType("DOUBLE");
+				room.setPrice(90.0);
+				room.setHotelId(hotel);
+				rooms.add(room);
+			}
+			roomRepository.saveAll(rooms);
+		}
+	}
+
+	@Test
+	void hotelByIdStatementCount() throws Exception {
+		assertStatements(2, () -> mockMvc.perform(get("/api/hotels/" + hotelId)).andExpect(status().isOk()));
+	}
+
+	@Test
+	void hotelListStatementCount() throws Exception {
+		// Rooms are loaded lazily per hotel: one query for the list plus one per hotel
+		assertStatements(1 + HOTELS, () -> mockMvc.perform(get("/api/hotels")).andExpect(status().isOk()));
+	}
+}
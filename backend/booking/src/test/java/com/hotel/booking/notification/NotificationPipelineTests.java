@@ -0,0 +1,188 @@
+package com.hotel.booking.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.hotel.booking.dto.BookingDTO;
+import com.hotel.booking.dto.Response;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Notification;
+import com.hotel.booking.model.Payment;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.model.User;
+import com.hotel.booking.outbox.OutboxRelay;
+import com.hotel.booking.repository.HotelRepository;
+import com.hotel.booking.repository.NotificationRepository;
+import com.hotel.booking.repository.OutboxEventRepository;
+import com.hotel.booking.repository.RoomRepository;
+import com.hotel.booking.repository.UserRepository;
+import com.hotel.booking.service.interfac.IBookingService;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import jakarta.mail.internet.MimeMessage;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class NotificationPipelineTests {
+
+	@RegisterExtension
+	static final GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort())
+			.withPerMethodLifecycle(false);
+
+	static final AtomicBoolean senderCrashes = new AtomicBoolean();
+
+	// Fails a whole slice with an unexpected exception, as a bug in the sender would
+	@TestConfiguration
+	static class CrashingSender {
+		@Bean
+		@Primary
+		MailNotificationSender crashingSender() {
+			return new MailNotificationSender() {
+				@Override
+				public Map<Long, Exception> send(List<Outgoing> batch) {
+					if (senderCrashes.get()) {
+						throw new IllegalStateException("sender crashed");
+					}
+					return super.send(batch);
+				}
+			};
+		}
+	}
+
+	@DynamicPropertySource
+	static void mailServer(DynamicPropertyRegistry registry) {
+		registry.add("spring.mail.host", () -> "localhost");
+		registry.add("spring.mail.port", () -> smtp.getSmtp().getPort());
+	}
+
+	@Autowired
+	private IBookingService bookingService;
+
+	@Autowired
+	private OutboxRelay relay;
+
+	@Autowired
+	private NotificationWorker worker;
+
+	@Autowired
+	private NotificationRepository notificationRepository;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		smtp.purgeEmailFromAllMailboxes();
+		senderCrashes.set(false);
+		outboxEventRepository.deleteAll();
+		notificationRepository.deleteAll();
+	}
+
+	@Test
+	void confirmedBookingIsEmailedOnceWithoutTheRequestWaitingOnMail() throws Exception {
+		Response response = book("guest@example.com");
+		assertEquals(200, response.getStatusCode());
+		assertEquals(0, smtp.getReceivedMessages().length);
+
+		relay.relayPending();
+		// A redelivered event must not queue a second email
+		relay.relayPending();
+		assertEquals(1, notificationRepository.count());
+
+		assertEquals(1, worker.deliverDue());
+		MimeMessage[] received = smtp.getReceivedMessages();
+		assertEquals(1, received.length);
+		assertEquals("guest@example.com", received[0].getAllRecipients()[0].toString());
+		assertEquals("Your booking #" + response.getBookingId() + " at Mail Hotel is confirmed", received[0].getSubject());
+
+		Notification notification = notificationRepository.findAll().get(0);
+		assertEquals(Notification.SENT, notification.getStatus());
+		assertEquals(0, worker.deliverDue());
+	}
+
+	@Test
+	void failedDeliveryIsRetriedLaterWithBackoff() {
+		book("not a valid address@@example");
+		relay.relayPending();
+
+		assertEquals(0, worker.deliverDue());
+		Notification notification = notificationRepository.findAll().get(0);
+		assertEquals(Notification.PENDING, notification.getStatus());
+		assertEquals(1, notification.getAttempts());
+		assertTrue(notification.getNextAttemptAt().isAfter(LocalDateTime.now()));
+		assertTrue(notification.getLastError() != null);
+	}
+
+	@Test
+	void slicesThatCrashAreRetriedNotMarkedSent() {
+		book("crash@example.com");
+		relay.relayPending();
+
+		senderCrashes.set(true);
+		assertEquals(0, worker.deliverDue());
+		assertEquals(0, smtp.getReceivedMessages().length);
+		Notification notification = notificationRepository.findAll().get(0);
+		assertEquals(Notification.PENDING, notification.getStatus());
+		assertNull(notification.getSentAt());
+		assertEquals(1, notification.getAttempts());
+		assertTrue(notification.getNextAttemptAt().isAfter(LocalDateTime.now()));
+		assertTrue(notification.getLastError().contains("sender crashed"), notification.getLastError());
+	}
+
+	private Response book(String email) {
+		User user = new User();
+		user.setName("Mail Guest");
+		user.setEmail(email);
+		user.setRole("USER");
+		userRepository.save(user);
+		Hotel hotel = new Hotel();
+		hotel.setName("Mail Hotel");
+		hotelRepository.save(hotel);
+		Room room = new Room();
+		room.setRoomNumber("M1");
+		room.setType("SINGLE");
+		room.setPrice(100.0);
+		room.setHotelId(hotel);
+		roomRepository.save(room);
+
+		BookingDTO booking = new BookingDTO();
+		booking.setRoomId(room.getId());
+		booking.setHotelId(hotel.getId());
+		booking.setCheckInDate(LocalDate.now().plusDays(10));
+		booking.setCheckOutDate(LocalDate.now().plusDays(12));
+		booking.setTotalAmount(200.0);
+		Payment payment = new Payment();
+		payment.setAmount(200.0);
+		payment.setPaymentMethod("CARD");
+		return bookingService.finalizeBooking(booking, payment, user.getId());
+	}
+}
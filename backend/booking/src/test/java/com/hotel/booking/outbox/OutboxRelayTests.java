@@ -0,0 +1,210 @@
+package com.hotel.booking.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.hotel.booking.dto.Response;
+import com.hotel.booking.dto.RoomDTO;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Notification;
+import com.hotel.booking.model.OutboxEvent;
+import com.hotel.booking.repository.HotelRepository;
+import com.hotel.booking.repository.NotificationRepository;
+import com.hotel.booking.repository.OutboxEventRepository;
+import com.hotel.booking.service.interfac.IRoomService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxRelayTests {
+
+	static final List<OutboxMessage> received = new CopyOnWriteArrayList<>();
+	static final AtomicBoolean failNext = new AtomicBoolean();
+	static final AtomicReference<Long> failRoomOnFlush = new AtomicReference<>();
+
+	@TestConfiguration
+	static class Subscriber {
+		@Bean
+		OutboxSubscriber recordingSubscriber(NotificationRepository notificationRepository) {
+			return message -> {
+				if (failNext.getAndSet(false)) {
+					throw new IllegalStateException("subscriber down");
+				}
+				if (message.roomId() != null && message.roomId().equals(failRoomOnFlush.get())) {
+					// Accepted by save(); the unique key only fails when the insert is flushed
+					notificationRepository.save(notification(DUPLICATE_SOURCE));
+					return;
+				}
+				received.add(message);
+			};
+		}
+	}
+
+	private static final long DUPLICATE_SOURCE = -39L;
+
+	@Autowired
+	private IRoomService roomService;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private NotificationRepository notificationRepository;
+
+	@Autowired
+	private OutboxRelay relay;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Long hotelId;
+
+	@BeforeEach
+	void setUp() {
+		outboxEventRepository.deleteAll();
+		received.clear();
+		failRoomOnFlush.set(null);
+		Hotel hotel = new Hotel();
+		hotel.setName("Outbox Hotel");
+		hotelId = hotelRepository.save(hotel).getId();
+	}
+
+	@Test
+	void roomChangesArePublishedInOrderAndRetriedAfterAFailure() {
+		Long roomId = roomService.addRoom(room("101", 80.0)).getRoom().getId();
+		roomService.updateRoom(roomId, room("101", 95.0));
+		roomService.updateRoom(roomId, room("101", 110.0));
+
+		// First delivery fails: nothing for this room may overtake it, and it backs off rather than retrying at once
+		failNext.set(true);
+		assertEquals(0, relay.relayPending());
+		assertEquals(List.of(), received);
+		assertEquals(0, relay.relayPending());
+		OutboxEvent failed = outboxEventRepository.findAll().stream().filter(event -> event.getAttempts() == 1)
+				.findFirst().orElseThrow();
+		assertTrue(failed.getNextAttemptAt().isAfter(LocalDateTime.now()));
+
+		makeDue(failed.getId());
+		assertEquals(3, relay.relayPending());
+		assertEquals(List.of(OutboxMessage.ROOM_CREATED, OutboxMessage.ROOM_UPDATED, OutboxMessage.ROOM_UPDATED),
+				received.stream().map(OutboxMessage::eventType).toList());
+		assertEquals(0, relay.relayPending());
+	}
+
+	@Test
+	void subscriberFailingOnFlushRollsBackOnlyItsOwnEvent() {
+		if (!notificationRepository.existsBySourceEventId(DUPLICATE_SOURCE)) {
+			notificationRepository.save(notification(DUPLICATE_SOURCE));
+		}
+		Long failing = roomService.addRoom(room("201", 80.0)).getRoom().getId();
+		roomService.updateRoom(failing, room("201", 85.0));
+		Long healthy = roomService.addRoom(room("202", 80.0)).getRoom().getId();
+
+		failRoomOnFlush.set(failing);
+		assertEquals(1, relay.relayPending());
+		assertEquals(List.of(healthy), received.stream().map(OutboxMessage::roomId).toList());
+		List<OutboxEvent> events = outboxEventRepository.findAll().stream()
+				.filter(event -> failing.equals(event.getRoomId()))
+				.sorted(Comparator.comparing(OutboxEvent::getId)).toList();
+		assertEquals(1, events.get(0).getAttempts());
+		assertTrue(events.get(0).getLastError().contains("DataIntegrityViolation"), events.get(0).getLastError());
+		assertNull(events.get(0).getPublishedAt());
+		// Its successor was leased but not attempted: handed back, still waiting behind it
+		assertEquals(0, events.get(1).getAttempts());
+		assertNull(events.get(1).getNextAttemptAt());
+		assertNull(events.get(1).getPublishedAt());
+		assertEquals(1, notificationRepository.findAll().stream()
+				.filter(notification -> notification.getSourceEventId() == DUPLICATE_SOURCE).count());
+		assertEquals(0, relay.relayPending());
+
+		failRoomOnFlush.set(null);
+		makeDue(events.get(0).getId());
+		assertEquals(2, relay.relayPending());
+		assertEquals(List.of(OutboxMessage.ROOM_CREATED, OutboxMessage.ROOM_CREATED, OutboxMessage.ROOM_UPDATED),
+				received.stream().map(OutboxMessage::eventType).toList());
+	}
+
+	@Test
+	void roomEventsFollowCommitOrderWhateverIdBlockTheyCameFrom() {
+		Long roomId = roomService.addRoom(room("301", 80.0)).getRoom().getId();
+		roomService.updateRoom(roomId, room("301", 95.0));
+		roomService.updateRoom(roomId, room("301", 110.0));
+		// The first change was recorded by an instance holding a later id block than the one recording the rest
+		Long highest = outboxEventRepository.findAll().stream().map(OutboxEvent::getId).max(Long::compare).orElseThrow();
+		jdbcTemplate.update("UPDATE outbox_event SET id = ? WHERE room_id = ? AND room_seq = 1", highest + 100, roomId);
+
+		// One event per claim, so a page cut between the room's events cannot reorder them either
+		Object target = AopTestUtils.getTargetObject(relay);
+		int batchSize = (int) ReflectionTestUtils.getField(target, "batchSize");
+		ReflectionTestUtils.setField(target, "batchSize", 1);
+		try {
+			assertEquals(3, relay.relayPending());
+		} finally {
+			ReflectionTestUtils.setField(target, "batchSize", batchSize);
+		}
+		assertEquals(List.of(OutboxMessage.ROOM_CREATED, OutboxMessage.ROOM_UPDATED, OutboxMessage.ROOM_UPDATED),
+				received.stream().map(OutboxMessage::eventType).toList());
+		assertTrue(received.get(1).payload().contains("95.0"), received.get(1).payload());
+		assertTrue(received.get(2).payload().contains("110.0"), received.get(2).payload());
+	}
+
+	@Test
+	void failedChangeRecordsNoEvent() {
+		Response response = roomService.updateRoom(roomService.addRoom(room("102", 80.0)).getRoom().getId(),
+				badHotel(room("102", 90.0)));
+
+		// Rejected before anything is written: rooms do not change hotel
+		assertEquals(400, response.getStatusCode());
+		assertEquals(1, outboxEventRepository.count());
+	}
+
+	private void makeDue(Long eventId) {
+		OutboxEvent event = outboxEventRepository.findById(eventId).orElseThrow();
+		event.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+		outboxEventRepository.save(event);
+	}
+
+	private static Notification notification(long sourceEventId) {
+		Notification notification = new Notification();
+		notification.setSourceEventId(sourceEventId);
+		notification.setStatus(Notification.SENT);
+		notification.setCreatedAt(LocalDateTime.now());
+		return notification;
+	}
+
+	private RoomDTO room(String number, double price) {
+		RoomDTO dto = new RoomDTO();
+		dto.setRoomNumber(number);
+		dto.setType("DOUBLE");
+		dto.setPrice(price);
+		dto.setAvailable(true);
+		dto.setHotelId(hotelId);
+		return dto;
+	}
+
+	private static RoomDTO badHotel(RoomDTO dto) {
+		dto.setHotelId(-1L);
+		return dto;
+	}
+}
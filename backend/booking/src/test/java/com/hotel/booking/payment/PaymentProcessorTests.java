@@ -0,0 +1,243 @@
+package com.hotel.booking.payment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.hotel.booking.dto.BookingDTO;
+import com.hotel.booking.dto.Response;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Payment;
+import com.hotel.booking.model.PaymentStatus;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.model.User;
+import com.hotel.booking.outbox.OutboxMessage;
+import com.hotel.booking.repository.BookingRepository;
+import com.hotel.booking.repository.HotelRepository;
+import com.hotel.booking.repository.PaymentRepository;
+import com.hotel.booking.repository.RoomRepository;
+import com.hotel.booking.repository.UserRepository;
+import com.hotel.booking.service.interfac.IBookingService;
+import com.hotel.booking.service.interfac.IPaymentService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PaymentProcessorTests {
+
+	// RACE: the provider's payment.failed webhook lands while the request thread waits on authorize, which approves
+	@TestConfiguration
+	static class RacingGateway {
+		@Bean
+		@Primary
+		PaymentGateway racingGateway(StubPaymentGateway stub, ObjectProvider<PaymentProcessor> processor) {
+			return new PaymentGateway() {
+				@Override
+				public GatewayResponse authorize(String idempotencyKey, double amount, String paymentMethod) throws Exception {
+					if (!"RACE".equalsIgnoreCase(paymentMethod)) {
+						return stub.authorize(idempotencyKey, amount, paymentMethod);
+					}
+					String body = "{\"type\":\"payment.failed\",\"idempotencyKey\":\"" + idempotencyKey
+							+ "\",\"message\":\"Card reported stolen\"}";
+					assertEquals(200, processor.getObject().handleWebhook(body, sign(body)).getStatusCode());
+					return GatewayResponse.approved("race-" + idempotencyKey);
+				}
+
+				@Override
+				public GatewayResponse capture(String reference, double amount) throws Exception {
+					return stub.capture(reference, amount);
+				}
+
+				@Override
+				public GatewayResponse refund(String idempotencyKey, String reference, double amount) throws Exception {
+					return stub.refund(idempotencyKey, reference, amount);
+				}
+			};
+		}
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private IBookingService bookingService;
+
+	@Autowired
+	private IPaymentService paymentService;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Long userId;
+	private Room room;
+
+	@BeforeEach
+	void setUp() {
+		User user = new User();
+		user.setName("Payer");
+		user.setEmail("payer@example.com");
+		user.setRole("USER");
+		userId = userRepository.save(user).getId();
+		Hotel hotel = new Hotel();
+		hotel.setName("Payment Hotel");
+		hotelRepository.save(hotel);
+		room = new Room();
+		room.setRoomNumber("P1");
+		room.setType("DOUBLE");
+		room.setPrice(120.0);
+		room.setHotelId(hotel);
+		roomRepository.save(room);
+	}
+
+	@Test
+	void approvedPaymentIsCapturedAndConfirmsTheBooking() {
+		Response response = finalize("CARD");
+
+		assertEquals(200, response.getStatusCode());
+		assertEquals(BookingStatus.CONFIRMED, bookingRepository.findById(response.getBookingId()).orElseThrow().getStatus());
+		assertEquals(PaymentStatus.CAPTURED, paymentOf(response).getPaymentStatus());
+	}
+
+	@Test
+	void clientSentAmountsAreReplacedByTheRoomPrice() {
+		Response response = finalize("CARD", 0.01);
+
+		assertEquals(200, response.getStatusCode());
+		assertEquals(120.0, bookingRepository.findById(response.getBookingId()).orElseThrow().getTotalAmount());
+		assertEquals(120.0, paymentOf(response).getAmount());
+	}
+
+	@Test
+	void declinedPaymentReleasesTheRoom() {
+		Response declined = finalize("DECLINE");
+
+		assertEquals(402, declined.getStatusCode());
+		assertEquals(BookingStatus.PAYMENT_FAILED,
+				bookingRepository.findById(declined.getBookingId()).orElseThrow().getStatus());
+		assertEquals(PaymentStatus.FAILED, paymentOf(declined).getPaymentStatus());
+		// Subscribers see the room taken when it is reserved and freed when the payment fails
+		assertEquals(List.of(OutboxMessage.BOOKING_RESERVED, OutboxMessage.BOOKING_PAYMENT_FAILED), jdbcTemplate.queryForList(
+				"SELECT event_type FROM outbox_event WHERE aggregate_type = 'BOOKING' AND aggregate_id = ? ORDER BY aggregate_version",
+				String.class, declined.getBookingId()));
+		assertEquals(200, finalize("CARD").getStatusCode());
+	}
+
+	@Test
+	void timedOutPaymentIsCompletedBySignedWebhook() throws Exception {
+		Response pending = finalize("TIMEOUT");
+		assertEquals(202, pending.getStatusCode());
+		Payment payment = paymentOf(pending);
+		assertEquals(PaymentStatus.PENDING, payment.getPaymentStatus());
+
+		String body = "{\"type\":\"payment.captured\",\"idempotencyKey\":\""
+				+ PaymentProcessor.idempotencyKey(payment.getId()) + "\",\"reference\":\"gw-42\"}";
+		assertEquals(401, paymentService.handleWebhook(body, sign(body.replace("gw-42", "gw-43"))).getStatusCode());
+		assertEquals(200, paymentService.handleWebhook(body, sign(body)).getStatusCode());
+		// Gateways redeliver; the second copy must change nothing
+		assertEquals(200, paymentService.handleWebhook(body, sign(body)).getStatusCode());
+
+		assertEquals(PaymentStatus.CAPTURED, paymentOf(pending).getPaymentStatus());
+		assertEquals("gw-42", paymentOf(pending).getGatewayReference());
+		assertEquals(BookingStatus.CONFIRMED, bookingRepository.findById(pending.getBookingId()).orElseThrow().getStatus());
+	}
+
+	@Test
+	void webhookFailureDuringTheRequestIsNotOverwrittenByTheLateApproval() throws Exception {
+		User guest = new User();
+		guest.setName("Racer");
+		guest.setEmail("racer-" + System.nanoTime() + "@example.com");
+		guest.setRole("USER");
+		userRepository.save(guest);
+		Map<String, Object> request = Map.of(
+				"bookingDetails", Map.of("roomId", room.getId(), "hotelId", room.getHotelId().getId(),
+						"checkInDate", LocalDate.now().plusDays(25).toString(),
+						"checkOutDate", LocalDate.now().plusDays(26).toString(), "totalAmount", 120.0),
+				"paymentDetails", Map.of("amount", 120.0, "paymentMethod", "RACE"));
+
+		// The request's open-in-view context read the payment as PENDING before the webhook committed FAILED
+		String body = mockMvc.perform(post("/api/bookings/finalize")
+						.with(user(guest.getEmail()).roles("USER"))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(request)))
+				.andExpect(status().isPaymentRequired())
+				.andReturn().getResponse().getContentAsString();
+
+		Long bookingId = objectMapper.readTree(body).get("bookingId").asLong();
+		Payment payment = paymentRepository.findByBooking_Id(bookingId).orElseThrow();
+		assertEquals(PaymentStatus.FAILED, payment.getPaymentStatus());
+		assertEquals("Card reported stolen", payment.getFailureReason());
+		assertEquals(BookingStatus.PAYMENT_FAILED, bookingRepository.findById(bookingId).orElseThrow().getStatus());
+	}
+
+	private Response finalize(String paymentMethod) {
+		return finalize(paymentMethod, 120.0);
+	}
+
+	private Response finalize(String paymentMethod, double amount) {
+		BookingDTO booking = new BookingDTO();
+		booking.setRoomId(room.getId());
+		booking.setHotelId(room.getHotelId().getId());
+		booking.setCheckInDate(LocalDate.now().plusDays(20));
+		booking.setCheckOutDate(LocalDate.now().plusDays(21));
+		booking.setTotalAmount(amount);
+		Payment payment = new Payment();
+		payment.setAmount(amount);
+		payment.setPaymentMethod(paymentMethod);
+		return bookingService.finalizeBooking(booking, payment, userId);
+	}
+
+	private Payment paymentOf(Response response) {
+		return paymentRepository.findByBooking_Id(response.getBookingId()).orElseThrow();
+	}
+
+	private static String sign(String body) throws Exception {
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec("test-webhook-secret".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+		return HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+	}
+}
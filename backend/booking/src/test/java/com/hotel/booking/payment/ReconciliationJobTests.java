@@ -0,0 +1,115 @@
+package com.hotel.booking.payment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.hotel.booking.TestFixtures;
+import com.hotel.booking.dto.BookingDTO;
+import com.hotel.booking.dto.ReconciliationReport;
+import com.hotel.booking.dto.Response;
+import com.hotel.booking.model.Booking;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Payment;
+import com.hotel.booking.model.PaymentStatus;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.model.User;
+import com.hotel.booking.repository.PaymentRepository;
+import com.hotel.booking.service.interfac.IBookingService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReconciliationJobTests {
+
+	@Autowired
+	private ReconciliationJob reconciliationJob;
+
+	@Autowired
+	private PaymentProcessor paymentProcessor;
+
+	@Autowired
+	private IBookingService bookingService;
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	private User user;
+	private Hotel hotel;
+	private Room room;
+
+	@BeforeEach
+	void setUp() {
+		user = fixtures.user("Reconciled");
+		hotel = fixtures.hotel("Ledger Hotel");
+		room = fixtures.room(hotel, "R1", "SINGLE", 100.0);
+	}
+
+	@Test
+	void cancellationQueuesARefundThatIsIssuedInTheNextBatch() {
+		BookingDTO details = new BookingDTO();
+		details.setRoomId(room.getId());
+		details.setHotelId(hotel.getId());
+		details.setCheckInDate(LocalDate.now().plusDays(30));
+		details.setCheckOutDate(LocalDate.now().plusDays(31));
+		details.setTotalAmount(100.0);
+		Payment paymentDetails = new Payment();
+		paymentDetails.setAmount(100.0);
+		paymentDetails.setPaymentMethod("CARD");
+		Response booked = bookingService.finalizeBooking(details, paymentDetails, user.getId());
+
+		assertEquals(200, bookingService.cancelBooking(booked.getBookingId(), user.getId()).getStatusCode());
+		Payment queued = paymentRepository.findByBooking_Id(booked.getBookingId()).orElseThrow();
+		assertEquals(PaymentStatus.REFUND_PENDING, queued.getPaymentStatus());
+		assertEquals(90.0, queued.getRefundAmount(), 0.001);
+
+		paymentProcessor.refundPending();
+		assertEquals(PaymentStatus.REFUNDED,
+				paymentRepository.findById(queued.getId()).orElseThrow().getPaymentStatus());
+	}
+
+	@Test
+	void reportsMismatchesAndRefundsCapturedPaymentsOfCancelledBookings() {
+		Booking unpaid = booking(BookingStatus.CONFIRMED, 100.0);
+		Booking cancelled = booking(BookingStatus.CANCELLED, 100.0);
+		Payment stuck = payment(cancelled, 100.0);
+		Booking drifted = booking(BookingStatus.CONFIRMED, 100.0);
+		payment(drifted, 80.0);
+
+		ReconciliationReport report = reconciliationJob.run();
+
+		assertTrue(hasSample(report, ReconciliationJob.MISSING_PAYMENT, unpaid.getId()));
+		assertTrue(hasSample(report, ReconciliationJob.CAPTURED_ON_CANCELLED, cancelled.getId()));
+		assertTrue(hasSample(report, ReconciliationJob.AMOUNT_DRIFT, drifted.getId()));
+		assertTrue(report.getRefundsIssued() >= 1);
+		Payment refunded = paymentRepository.findById(stuck.getId()).orElseThrow();
+		assertEquals(PaymentStatus.REFUNDED, refunded.getPaymentStatus());
+		assertEquals(90.0, refunded.getRefundAmount(), 0.001);
+		assertTrue(report.getReportFile() != null);
+	}
+
+	private Booking booking(BookingStatus status, double total) {
+		return fixtures.booking(user, room, status, LocalDate.now().minusDays(10), LocalDate.now().minusDays(9), total,
+				LocalDateTime.now().minusDays(20));
+	}
+
+	private Payment payment(Booking booking, double amount) {
+		return fixtures.payment(booking, PaymentStatus.CAPTURED, amount, LocalDateTime.now().minusDays(20));
+	}
+
+	private static boolean hasSample(ReconciliationReport report, String type, Long bookingId) {
+		return report.getSamples().stream()
+				.anyMatch(sample -> sample.getType().equals(type) && sample.getBookingId().equals(bookingId));
+	}
+}
@@ -0,0 +1,174 @@
+package com.hotel.booking.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.hotel.booking.dto.ImportEvent;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.repository.HotelRepository;
+import com.hotel.booking.service.interfac.IImportService;
+
+// Chunk size is lowered on the bean rather than through properties so the shared context (and schema) is reused
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportServiceTests {
+
+	private static final int CHUNK_SIZE = 3;
+
+	@Autowired
+	private IImportService importService;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<ImportEvent> events = new ArrayList<>();
+
+	private Object target;
+
+	private int defaultChunkSize;
+
+	@BeforeEach
+	void setUp() {
+		target = AopTestUtils.getTargetObject(importService);
+		defaultChunkSize = (int) ReflectionTestUtils.getField(target, "chunkSize");
+		ReflectionTestUtils.setField(target, "chunkSize", CHUNK_SIZE);
+	}
+
+	@AfterEach
+	void restoreChunkSize() {
+		ReflectionTestUtils.setField(target, "chunkSize", defaultChunkSize);
+	}
+
+	@Test
+	void quotedFieldsForwardRefsAndExistingHotelIds() throws Exception {
+		Hotel existing = new Hotel();
+		existing.setName("Existing Import Hotel");
+		hotelRepository.save(existing);
+
+		ImportEvent summary = importCsv(
+				"# comment lines and blank lines are skipped",
+				"",
+				"ROOM,fwd,201,\"Suite, sea view\",150",
+				"HOTEL,fwd,\"The \"\"Quoted\"\", Inn\",\"1 Rue, Bis\",Lyon",
+				"ROOM,#" + existing.getId() + ",301,SINGLE,60,true",
+				"ROOM,#999999999,302,SINGLE,60");
+
+		assertEquals(List.of("Unknown hotel ref '#999999999'"), errorMessages());
+		assertEquals(1, summary.getHotelsImported());
+		assertEquals(2, summary.getRoomsImported());
+		assertEquals(4, summary.getRowsRead());
+
+		Long importedId = jdbcTemplate.queryForObject("SELECT id FROM hotel WHERE name = ?", Long.class, "The \"Quoted\", Inn");
+		assertEquals("1 Rue, Bis", jdbcTemplate.queryForObject("SELECT adress FROM hotel WHERE id = ?", String.class, importedId));
+		assertEquals("Suite, sea view", jdbcTemplate.queryForObject(
+				"SELECT type FROM room WHERE hotel_id = ? AND room_number = '201'", String.class, importedId));
+		assertEquals(1, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM room WHERE hotel_id = ? AND room_number = '301'", Integer.class, existing.getId()));
+	}
+
+	@Test
+	void rolledBackChunkDropsItsRefs() throws Exception {
+		String tooLong = "x".repeat(300);
+
+		ImportEvent summary = importCsv(
+				"HOTEL,doomed," + tooLong,
+				"HOTEL,sibling,Rolled Back Sibling",
+				"ROOM,doomed,1,DOUBLE,90",
+				"ROOM,doomed,2,DOUBLE,90",
+				"ROOM,sibling,3,DOUBLE,90",
+				"HOTEL,survivor,Import Survivor");
+
+		List<String> errors = errorMessages();
+		assertEquals(3, errors.size(), errors.toString());
+		assertTrue(errors.get(0).startsWith("Chunk ending at line 3 was rolled back"), errors.get(0));
+		assertTrue(errors.get(1).startsWith("Unknown hotel ref 'doomed'"), errors.get(1));
+		assertTrue(errors.get(2).startsWith("Unknown hotel ref 'sibling'"), errors.get(2));
+		assertEquals(1, summary.getHotelsImported());
+		assertEquals(0, summary.getRoomsImported());
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM hotel WHERE name = 'Rolled Back Sibling'", Integer.class));
+		assertEquals(1, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM hotel WHERE name = 'Import Survivor'", Integer.class));
+	}
+
+	@Test
+	void roomsWhoseHotelArrivesInALaterChunkAreRejected() throws Exception {
+		ImportEvent summary = importCsv(
+				"ROOM,late,1,DOUBLE,90",
+				"ROOM,late,2,DOUBLE,90",
+				"ROOM,late,3,DOUBLE,90",
+				"HOTEL,late,Late Import Hotel");
+
+		List<String> errors = errorMessages();
+		assertEquals(3, errors.size(), errors.toString());
+		assertTrue(errors.get(0).contains("must come before this chunk or in it"), errors.get(0));
+		assertEquals(1, summary.getHotelsImported());
+		assertEquals(0, summary.getRoomsImported());
+	}
+
+	@Test
+	void errorEventsAreCappedAndProgressFollowsEachChunk() throws Exception {
+		StringBuilder csv = new StringBuilder();
+		for (int i = 0; i < 1005; i++) {
+			csv.append("ROOM,,").append(i).append(",DOUBLE,90\n");
+		}
+		csv.append("HOTEL,capped,Capped Import Hotel\n");
+		for (int i = 0; i < 6; i++) {
+			csv.append("ROOM,capped,").append(i).append(",DOUBLE,90\n");
+		}
+
+		ImportEvent summary = importService.importInventory(new StringReader(csv.toString()), "csv", events::add);
+
+		assertEquals(1000, events.stream().filter(event -> "error".equals(event.getType())).count());
+		assertEquals("Room hotelRef is required", errorMessages().get(0));
+		assertEquals(1L, events.get(0).getLine());
+		List<ImportEvent> progress = events.stream().filter(event -> "progress".equals(event.getType())).toList();
+		// 7 valid rows in chunks of 3: 3, 3, 1
+		assertEquals(3, progress.size());
+		assertEquals(List.of(1L, 1L, 1L), progress.stream().map(ImportEvent::getHotelsImported).toList());
+		assertEquals(List.of(2L, 5L, 6L), progress.stream().map(ImportEvent::getRoomsImported).toList());
+		assertEquals("summary", summary.getType());
+		assertEquals("Import finished", summary.getMessage());
+		assertEquals(1012, summary.getRowsRead());
+		assertEquals(1005, summary.getErrorCount());
+		assertEquals(6, summary.getRoomsImported());
+	}
+
+	@Test
+	void ndjsonRowsUseTheSameRefs() throws Exception {
+		ImportEvent summary = importService.importInventory(new StringReader(String.join("\n",
+				"{\"record\":\"HOTEL\",\"ref\":\"nd\",\"name\":\"Ndjson Import Hotel\"}",
+				"{\"record\":\"ROOM\",\"hotelRef\":\"nd\",\"roomNumber\":\"7\",\"type\":\"DOUBLE\",\"price\":70}",
+				"{\"record\":\"ROOM\",\"hotelRef\":\"nd\"")), "ndjson", events::add);
+
+		assertEquals(1, summary.getHotelsImported());
+		assertEquals(1, summary.getRoomsImported());
+		assertEquals(1, summary.getErrorCount());
+		assertTrue(errorMessages().get(0).startsWith("Unreadable row"), errorMessages().get(0));
+	}
+
+	private ImportEvent importCsv(String... lines) throws Exception {
+		return importService.importInventory(new StringReader(String.join("\n", lines)), "csv", events::add);
+	}
+
+	private List<String> errorMessages() {
+		return events.stream().filter(event -> "error".equals(event.getType())).map(ImportEvent::getMessage).toList();
+	}
+}
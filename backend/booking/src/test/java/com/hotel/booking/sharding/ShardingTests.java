@@ -0,0 +1,196 @@
+package com.hotel.booking.sharding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking.dto.BookingDTO;
+import com.hotel.booking.dto.Response;
+import com.hotel.booking.dto.RoomDTO;
+import com.hotel.booking.dto.ShardMoveReport;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Payment;
+import com.hotel.booking.model.User;
+import com.hotel.booking.outbox.OutboxRelay;
+import com.hotel.booking.repository.UserRepository;
+import com.hotel.booking.service.interfac.IBookingService;
+import com.hotel.booking.service.interfac.IHotelService;
+import com.hotel.booking.service.interfac.IRoomService;
+
+// Two in-memory databases: "main" (the default shard) and "b", where new hotels are created
+@SpringBootTest(properties = {
+		"sharding.enabled=true",
+		"spring.datasource.url=jdbc:h2:mem:shard_main;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"sharding.shards.b.url=jdbc:h2:mem:shard_b;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"sharding.shards.b.index=1",
+		"sharding.new-hotel-shard=b",
+		"sharding.rebalance.settle-ms=0",
+		// Hibernate writes the schema it creates on the default shard; it is replayed on shard b
+		"sharding.schema-script=file:target/shard-schema.sql",
+		"spring.jpa.properties.jakarta.persistence.schema-generation.database.action=drop-and-create",
+		"spring.jpa.properties.jakarta.persistence.schema-generation.scripts.action=drop-and-create",
+		"spring.jpa.properties.jakarta.persistence.schema-generation.scripts.create-target=target/shard-schema.sql",
+		"spring.jpa.properties.jakarta.persistence.schema-generation.scripts.drop-target=target/shard-drop.sql",
+		"spring.jpa.properties.hibernate.hbm2ddl.schema-generation.script.append=false",
+		"spring.jpa.properties.hibernate.hbm2ddl.delimiter=;" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ShardingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ShardRouter shardRouter;
+
+	@Autowired
+	private ShardDirectory shardDirectory;
+
+	@Autowired
+	private ShardRebalancer rebalancer;
+
+	@Autowired
+	private OutboxRelay outboxRelay;
+
+	@Autowired
+	private IHotelService hotelService;
+
+	@Autowired
+	private IRoomService roomService;
+
+	@Autowired
+	private IBookingService bookingService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void hotelDataLivesOnItsShardAndMovesWithTheHotel() throws Exception {
+		User user = new User();
+		user.setName("Sharded Guest");
+		user.setEmail("sharded@example.com");
+		user.setPassword("secret");
+		user.setRole("USER");
+		Long userId = userRepository.save(user).getId();
+
+		Hotel hotel = new Hotel();
+		hotel.setName("Shard Hotel");
+		Response created = shardDirectory.on(shardDirectory.getNewHotelShard(), null, () -> hotelService.createHotel(hotel));
+		assertEquals(200, created.getStatusCode(), created.getMessage());
+		Long hotelId = created.getHotel().getId();
+		assertEquals("b", shardDirectory.shardForHotel(hotelId));
+
+		RoomDTO roomDTO = new RoomDTO();
+		roomDTO.setRoomNumber("S1");
+		roomDTO.setType("DOUBLE");
+		roomDTO.setPrice(90.0);
+		roomDTO.setHotelId(hotelId);
+		Long roomId = shardDirectory.onHotel(hotelId, null, () -> roomService.addRoom(roomDTO)).getRoom().getId();
+
+		BookingDTO booking = new BookingDTO();
+		booking.setHotelId(hotelId);
+		booking.setRoomId(roomId);
+		booking.setCheckInDate(LocalDate.now().plusDays(10));
+		booking.setCheckOutDate(LocalDate.now().plusDays(12));
+		booking.setTotalAmount(180.0);
+		Payment payment = new Payment();
+		payment.setAmount(180.0);
+		payment.setPaymentMethod("CARD");
+		Response booked = shardDirectory.onHotel(hotelId, userId,
+				() -> bookingService.finalizeBooking(booking, payment, userId));
+		assertEquals(200, booked.getStatusCode(), booked.getMessage());
+
+		assertEquals(1, count("b", "SELECT COUNT(*) FROM booking WHERE hotel_id = ?", hotelId));
+		assertEquals(0, count("main", "SELECT COUNT(*) FROM booking WHERE hotel_id = ?", hotelId));
+		assertEquals(1, count("b", "SELECT COUNT(*) FROM user WHERE id = ? AND password IS NULL", userId));
+		assertTrue(bookingService.getAllBookings().getBookingList().stream()
+				.anyMatch(dto -> booked.getBookingId().equals(dto.getId())));
+
+		mockMvc.perform(get("/api/rooms/hotel/" + hotelId)).andExpect(status().isOk());
+
+		shardDirectory.place(hotelId, "b", true);
+		mockMvc.perform(delete("/api/rooms/" + roomId))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string("Retry-After", "5"));
+		shardDirectory.place(hotelId, "b", false);
+
+		shardRouter.forEachShard(outboxRelay::relayPending);
+		ShardMoveReport report = rebalancer.move(hotelId, "main");
+		assertEquals(1, report.getRowsCopied().get("hotel"));
+		assertEquals(1, report.getRowsCopied().get("room"));
+		assertEquals(1, report.getRowsCopied().get("booking"));
+		assertEquals(1, report.getRowsCopied().get("payment"));
+		assertEquals("main", shardDirectory.shardForHotel(hotelId));
+		assertEquals(1, count("main", "SELECT COUNT(*) FROM booking WHERE hotel_id = ?", hotelId));
+		assertEquals(0, count("b", "SELECT COUNT(*) FROM booking WHERE hotel_id = ?", hotelId));
+		assertEquals(0, count("b", "SELECT COUNT(*) FROM room WHERE hotel_id = ?", hotelId));
+
+		mockMvc.perform(get("/api/rooms/hotel/" + hotelId)).andExpect(status().isOk());
+		assertEquals(200, bookingService.getBookingById(String.valueOf(booked.getBookingId())).getStatusCode());
+	}
+
+	@Test
+	void roomsDoNotCrossShardsOutsideTheRebalancer() throws Exception {
+		Long onMain = createHotel("main", "Main Shard Hotel");
+		Long onB = createHotel("b", "Shard B Hotel");
+
+		mockMvc.perform(post("/api/rooms/batch")
+						.with(user("admin@example.com").roles("ADMIN"))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(List.of(room("M1", onMain), room("B1", onB)))))
+				.andExpect(status().isBadRequest());
+		assertEquals(0, count("main", "SELECT COUNT(*) FROM room WHERE hotel_id = ?", onMain));
+		assertEquals(0, count("b", "SELECT COUNT(*) FROM room WHERE hotel_id = ?", onB));
+
+		Long roomId = shardDirectory.onHotel(onB, null, () -> roomService.addRoom(room("B2", onB))).getRoom().getId();
+		Response moved = shardDirectory.onHotel(onB, null, () -> roomService.updateRoom(roomId, room("B2", onMain)));
+		assertEquals(400, moved.getStatusCode(), moved.getMessage());
+		assertEquals(1, count("b", "SELECT COUNT(*) FROM room WHERE hotel_id = ?", onB));
+	}
+
+	private Long createHotel(String shard, String name) {
+		Hotel hotel = new Hotel();
+		hotel.setName(name);
+		Response created = shardDirectory.on(shard, null, () -> hotelService.createHotel(hotel));
+		assertEquals(200, created.getStatusCode(), created.getMessage());
+		assertEquals(shard, shardDirectory.shardForHotel(created.getHotel().getId()));
+		return created.getHotel().getId();
+	}
+
+	private static RoomDTO room(String number, Long hotelId) {
+		RoomDTO dto = new RoomDTO();
+		dto.setRoomNumber(number);
+		dto.setType("DOUBLE");
+		dto.setPrice(90.0);
+		dto.setHotelId(hotelId);
+		return dto;
+	}
+
+	private int count(String shard, String sql, Long id) {
+		return shardRouter.call(shard, () -> jdbcTemplate.queryForObject(sql, Integer.class, id));
+	}
+}
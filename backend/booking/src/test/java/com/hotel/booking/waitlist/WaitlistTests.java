@@ -0,0 +1,183 @@
+package com.hotel.booking.waitlist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hotel.booking.TestFixtures;
+import com.hotel.booking.dto.Response;
+import com.hotel.booking.dto.WaitlistEntryDTO;
+import com.hotel.booking.model.Booking;
+import com.hotel.booking.model.BookingStatus;
+import com.hotel.booking.model.Hotel;
+import com.hotel.booking.model.Payment;
+import com.hotel.booking.model.Room;
+import com.hotel.booking.model.User;
+import com.hotel.booking.model.WaitlistEntry;
+import com.hotel.booking.outbox.OutboxMessage;
+import com.hotel.booking.repository.BookingRepository;
+import com.hotel.booking.repository.WaitlistEntryRepository;
+import com.hotel.booking.service.interfac.IWaitlistService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WaitlistTests {
+
+	@Autowired
+	private IWaitlistService waitlistService;
+
+	@Autowired
+	private WaitlistMatcher matcher;
+
+	@Autowired
+	private WaitlistHoldExpirer expirer;
+
+	@Autowired
+	private WaitlistIndex index;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private WaitlistEntryRepository waitlistEntryRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final LocalDate checkIn = LocalDate.now().plusDays(30);
+
+	private Hotel hotel;
+	private Room room;
+	private Booking taken;
+
+	@BeforeEach
+	void setUp() {
+		hotel = fixtures.hotel("Waitlist Hotel");
+		room = fixtures.room(hotel, "W1", "SUITE", 100.0);
+		taken = fixtures.booking(user("holder"), room, BookingStatus.CONFIRMED, checkIn, checkIn.plusDays(4), 400.0);
+	}
+
+	@Test
+	void releasedNightsAreHeldForTheFirstFittingEntryAndCanBeAccepted() {
+		User early = user("early");
+		User late = user("late");
+		User tooLong = user("long");
+		Long tooLongEntry = join(tooLong, null, checkIn, checkIn.plusDays(6)).getWaitlistEntry().getId();
+		Long earlyEntry = join(early, "suite", checkIn.plusDays(1), checkIn.plusDays(3)).getWaitlistEntry().getId();
+		Long lateEntry = join(late, null, checkIn.plusDays(1), checkIn.plusDays(2)).getWaitlistEntry().getId();
+		assertEquals(2, index.candidates(hotel.getId(), "SUITE", checkIn, checkIn.plusDays(4)).size());
+
+		assertEquals(1, release());
+
+		WaitlistEntry offered = waitlistEntryRepository.findById(earlyEntry).orElseThrow();
+		assertEquals(WaitlistEntry.OFFERED, offered.getStatus());
+		Booking hold = bookingRepository.findById(offered.getBookingId()).orElseThrow();
+		assertEquals(BookingStatus.HELD, hold.getStatus());
+		assertEquals(200.0, hold.getTotalAmount());
+		assertTrue(bookingRepository.existsByRoomAndDateRange(room, checkIn.plusDays(1), checkIn.plusDays(2), null));
+		assertEquals(WaitlistEntry.WAITING, waitlistEntryRepository.findById(lateEntry).orElseThrow().getStatus());
+		assertEquals(WaitlistEntry.WAITING, waitlistEntryRepository.findById(tooLongEntry).orElseThrow().getStatus());
+
+		Payment payment = new Payment();
+		payment.setPaymentMethod("CARD");
+		Response accepted = waitlistService.accept(earlyEntry, payment, early.getId());
+		assertEquals(200, accepted.getStatusCode(), accepted.getMessage());
+		assertEquals(BookingStatus.CONFIRMED, bookingRepository.findById(hold.getId()).orElseThrow().getStatus());
+		assertEquals(WaitlistEntry.BOOKED, waitlistEntryRepository.findById(earlyEntry).orElseThrow().getStatus());
+	}
+
+	@Test
+	void expiredHoldIsReleasedAndOfferedToTheNextEntry() {
+		User first = user("first");
+		User second = user("second");
+		Long firstEntry = join(first, null, checkIn, checkIn.plusDays(2)).getWaitlistEntry().getId();
+		Long secondEntry = join(second, null, checkIn, checkIn.plusDays(2)).getWaitlistEntry().getId();
+		assertEquals(1, release());
+
+		Long firstHold = waitlistEntryRepository.findById(firstEntry).orElseThrow().getBookingId();
+		transactionTemplate.executeWithoutResult(tx -> bookingRepository.findById(firstHold).orElseThrow()
+				.setHoldExpiresAt(LocalDateTime.now().minusMinutes(1)));
+		assertTrue(expirer.expire() >= 1);
+
+		Booking expired = bookingRepository.findById(firstHold).orElseThrow();
+		assertEquals(BookingStatus.CANCELLED, expired.getStatus());
+		assertNull(expired.getHoldExpiresAt());
+		assertEquals(WaitlistEntry.EXPIRED, waitlistEntryRepository.findById(firstEntry).orElseThrow().getStatus());
+		assertEquals(410, waitlistService.accept(firstEntry, new Payment(), first.getId()).getStatusCode());
+
+		int placed = transactionTemplate.execute(tx -> matcher.offer(room.getId(), checkIn, checkIn.plusDays(2)));
+		assertEquals(1, placed);
+		assertEquals(WaitlistEntry.OFFERED, waitlistEntryRepository.findById(secondEntry).orElseThrow().getStatus());
+	}
+
+	@Test
+	void declinedPaymentOnAnOfferReleasesTheNightsToTheNextEntry() throws Exception {
+		User first = user("declined");
+		User second = user("patient");
+		Long firstEntry = join(first, null, checkIn, checkIn.plusDays(2)).getWaitlistEntry().getId();
+		Long secondEntry = join(second, null, checkIn, checkIn.plusDays(2)).getWaitlistEntry().getId();
+		assertEquals(1, release());
+		Long firstHold = waitlistEntryRepository.findById(firstEntry).orElseThrow().getBookingId();
+
+		Payment payment = new Payment();
+		payment.setPaymentMethod("DECLINE");
+		assertEquals(402, waitlistService.accept(firstEntry, payment, first.getId()).getStatusCode());
+		assertEquals(BookingStatus.PAYMENT_FAILED, bookingRepository.findById(firstHold).orElseThrow().getStatus());
+		assertEquals(WaitlistEntry.EXPIRED, waitlistEntryRepository.findById(firstEntry).orElseThrow().getStatus());
+
+		// Deliver the failure as the relay would
+		String payload = jdbcTemplate.queryForObject("SELECT payload FROM outbox_event WHERE aggregate_type = 'BOOKING'"
+				+ " AND aggregate_id = ? AND event_type = ?", String.class, firstHold, OutboxMessage.BOOKING_PAYMENT_FAILED);
+		OutboxMessage failed = new OutboxMessage(null, OutboxMessage.BOOKING, firstHold, null, room.getId(),
+				OutboxMessage.BOOKING_PAYMENT_FAILED, payload, LocalDateTime.now());
+		transactionTemplate.executeWithoutResult(tx -> {
+			try {
+				matcher.onEvent(failed);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		assertEquals(WaitlistEntry.OFFERED, waitlistEntryRepository.findById(secondEntry).orElseThrow().getStatus());
+	}
+
+	// The confirmed booking is cancelled and its nights go to the matcher, as the relay would do
+	private int release() {
+		return transactionTemplate.execute(tx -> {
+			bookingRepository.findById(taken.getId()).orElseThrow().setStatus(BookingStatus.CANCELLED);
+			bookingRepository.flush();
+			return matcher.offer(room.getId(), taken.getCheckInDate(), taken.getCheckOutDate());
+		});
+	}
+
+	private Response join(User user, String roomType, LocalDate from, LocalDate to) {
+		WaitlistEntryDTO request = new WaitlistEntryDTO();
+		request.setHotelId(hotel.getId());
+		request.setRoomType(roomType);
+		request.setCheckInDate(from);
+		request.setCheckOutDate(to);
+		Response response = waitlistService.join(request, user.getId());
+		assertEquals(200, response.getStatusCode(), response.getMessage());
+		return response;
+	}
+
+	private User user(String name) {
+		return fixtures.user(name);
+	}
+}
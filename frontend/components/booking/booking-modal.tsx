@@ -1,7 +1,7 @@
 // components/booking/booking-modal.tsx
 "use client"
 import API_URL from "@/components/config";
-import { useState, useEffect } from "react"
+import { useState, useEffect, useRef } from "react"
 import { useAuth } from "@/hooks/use-auth"
 import { Button } from "@/components/ui/button"
 import { Card, CardContent, CardHeader, CardTitle, CardDescription } from "@/components/ui/card"
@@ -37,6 +37,7 @@ export function BookingModal({ hotel, isOpen, onClose, onBookingSuccess }: Booki
   const [initiatedBookingDetails, setInitiatedBookingDetails] = useState<Booking | null>(null); // Store BookingDTO from initiate call
   const [paymentMethod, setPaymentMethod] = useState("Credit Card");
   const [roomBookings, setRoomBookings] = useState<Record<string, Booking[]>>({});
+  const roomsRef = useRef<Room[]>([]);
 
 
   useEffect(() => {
@@ -47,6 +48,31 @@ export function BookingModal({ hotel, isOpen, onClose, onBookingSuccess }: Booki
     }
   }, [isOpen, hotel.id]);
 
+  // Server pushes booking changes for this hotel; reconnects reload the bookings to cover missed events
+  useEffect(() => {
+    if (!isOpen) return;
+    const source = new EventSource(`${API_URL}/rooms/availability/stream?hotelId=${hotel.id}`);
+    let connectedBefore = false;
+    source.onopen = () => {
+      if (connectedBefore) {
+        fetchBookingsForAllRooms(roomsRef.current);
+      }
+      connectedBefore = true;
+    };
+    source.addEventListener("availability", (event) => {
+      const change = JSON.parse((event as MessageEvent).data);
+      const key = String(change.roomId);
+      setRoomBookings((current) => {
+        const others = (current[key] || []).filter((booking) => booking.id !== change.bookingId);
+        const next = change.holdsRoom
+          ? [...others, { id: change.bookingId, checkInDate: change.checkInDate, checkOutDate: change.checkOutDate, status: change.status }]
+          : others;
+        return { ...current, [key]: next };
+      });
+    });
+    return () => source.close();
+  }, [isOpen, hotel.id]);
+
   const resetForm = () => {
     setSelectedRoom(null);
     setCheckInDate("");
@@ -65,6 +91,7 @@ export function BookingModal({ hotel, isOpen, onClose, onBookingSuccess }: Booki
         const data = await response.json();
         const fetchedRooms: Room[] = data.roomList || [];
         setRooms(fetchedRooms);
+        roomsRef.current = fetchedRooms;
         await fetchBookingsForAllRooms(fetchedRooms);
       } else {
         setError("Failed to fetch rooms for this hotel.");
@@ -111,8 +138,8 @@ export function BookingModal({ hotel, isOpen, onClose, onBookingSuccess }: Booki
     if (!checkInDate || !checkOutDate) return true;
 
     return !bookings.some((booking) => {
-      // Only consider CONFIRMED bookings as making the room unavailable
-      if (booking.status !== 'CONFIRMED') return false; 
+      // The API only returns bookings that hold the room; skip anything released anyway
+      if (booking.status === 'CANCELLED' || booking.status === 'PAYMENT_FAILED') return false; 
 
       const existingIn = new Date(booking.checkInDate);
       const existingOut = new Date(booking.checkOutDate);